@@ -0,0 +1,52 @@
+#!/usr/bin/env bash
+# JVMの起動から最初のリクエストが成功するまでの時間（time-to-first-request）を計測する
+#   ./scripts/faststart/measure-startup.sh default    通常のwarで起動
+#   ./scripts/faststart/measure-startup.sh faststart  build-cds-archive.sh で作成した環境で起動
+# 計測するURLは URL で、計測回数は RUNS で変更できる（DBに接続できる状態で実行すること）
+set -euo pipefail
+
+cd "$(dirname "$0")/../.."
+MODE=${1:-default}
+URL=${URL:-http://localhost:8080/students}
+RUNS=${RUNS:-5}
+OUT=build/faststart
+
+start_app() {
+  case "$MODE" in
+    default)
+      WAR=$(ls build/libs/*.war | grep -v -- '-plain' | head -n 1)
+      java -jar "$WAR" > /dev/null 2>&1 &
+      ;;
+    faststart)
+      AOT_OPTS=()
+      if [[ "${AOT:-}" == "1" ]]; then
+        AOT_OPTS=(-Dspring.aot.enabled=true)
+      fi
+      (cd "$OUT" && exec java -XX:SharedArchiveFile=application.jsa \
+        -Dspring.profiles.active=faststart \
+        "${AOT_OPTS[@]}" \
+        -cp "$(cat classpath)" "$(cat main-class)") > /dev/null 2>&1 &
+      ;;
+    *)
+      echo "unknown mode: $MODE" >&2
+      exit 1
+      ;;
+  esac
+  APP_PID=$!
+}
+
+for run in $(seq 1 "$RUNS"); do
+  started=$(date +%s%N)
+  start_app
+  until [[ "$(curl -s -o /dev/null -w '%{http_code}' "$URL" || true)" == "200" ]]; do
+    if ! kill -0 "$APP_PID" 2> /dev/null; then
+      echo "application exited before the first request succeeded" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  finished=$(date +%s%N)
+  echo "mode=$MODE run=$run time-to-first-request=$(( (finished - started) / 1000000 ))ms"
+  kill "$APP_PID"
+  wait "$APP_PID" 2> /dev/null || true
+done
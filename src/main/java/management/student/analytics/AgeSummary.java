@@ -0,0 +1,17 @@
+package management.student.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "受講生の人数と年齢の集計")
+@Getter
+@AllArgsConstructor
+public class AgeSummary {
+
+  private int count; //人数
+  private Integer minAge; //最小の年齢（対象がいない場合はnull）
+  private Integer maxAge; //最大の年齢（対象がいない場合はnull）
+  private Double averageAge; //平均の年齢（対象がいない場合はnull）
+
+}
@@ -0,0 +1,69 @@
+package management.student.analytics;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文字列の列を整数のコードに置き換えるための辞書
+ * コードは登録順に0から振り、値がnullの場合は-1とする
+ */
+class ColumnDictionary {
+
+  //値がnullの場合のコード
+  static final int NULL_CODE = -1;
+  //辞書にない値で絞り込む場合のコード（どの行とも一致しない）
+  static final int NO_MATCH = -2;
+
+  private final Map<String, Integer> codes = new HashMap<>();
+  private final List<String> values = new ArrayList<>();
+
+  /**
+   * 値をコードに変換する（未登録の場合は登録する）
+   *
+   * @param value 　値
+   * @return コード
+   */
+  int encode(String value) {
+    if (value == null) {
+      return NULL_CODE;
+    }
+    return codes.computeIfAbsent(value, key -> {
+      values.add(key);
+      return values.size() - 1;
+    });
+  }
+
+  /**
+   * 絞り込み条件の値をコードに変換する
+   *
+   * @param value 　値（nullの場合は絞り込まない）
+   * @return コード（絞り込まない場合はNULL_CODE、辞書にない値の場合はNO_MATCH）
+   */
+  int find(String value) {
+    if (value == null) {
+      return NULL_CODE;
+    }
+    return codes.getOrDefault(value, NO_MATCH);
+  }
+
+  /**
+   * コードを値に変換する
+   *
+   * @param code 　コード
+   * @return 値
+   */
+  String decode(int code) {
+    return values.get(code);
+  }
+
+  /**
+   * 登録されている値の件数
+   *
+   * @return 件数
+   */
+  int size() {
+    return values.size();
+  }
+}
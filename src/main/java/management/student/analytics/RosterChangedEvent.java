@@ -0,0 +1,39 @@
+package management.student.analytics;
+
+import java.util.List;
+import java.util.Map;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentPatch;
+
+/**
+ * 受講生、受講生コース、申込状況の変更を名簿のスナップショットやキャッシュに伝えるイベント
+ * 更新処理のトランザクションがコミットされた後に反映される
+ */
+@Getter
+@Builder
+public class RosterChangedEvent {
+
+  @Singular
+  private List<Student> students; //登録・更新された受講生
+  @Singular
+  private Map<Integer, StudentPatch> studentPatches; //部分更新された受講生IDと更新内容
+  @Singular
+  private List<StudentCourse> createdCourses; //登録された受講生コース
+  @Singular
+  private List<StudentCourse> renamedCourses; //コース名が更新された受講生コース
+  @Singular
+  private List<ApplicationStatus> statuses; //登録・更新された申込状況
+  @Singular
+  private List<Integer> deletedStatusIds; //削除された申込状況ID
+  private ApplicationStatusTransition transition; //申込状況の一括更新の条件
+  //申込状況が一括で変更された受講生コースID（スナップショットには次回の全件読み込みで反映する）
+  @Singular
+  private List<Integer> statusChangedCourseIds;
+
+}
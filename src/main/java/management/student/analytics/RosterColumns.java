@@ -0,0 +1,376 @@
+package management.student.analytics;
+
+import static management.student.analytics.ColumnDictionary.NO_MATCH;
+import static management.student.analytics.ColumnDictionary.NULL_CODE;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentPatch;
+
+/**
+ * 受講生、受講生コース、申込状況を列ごとの配列で保持するクラス
+ * 文字列の列は辞書でコードに置き換え、集計は配列を先頭から走査して行う
+ * 行は削除せずに無効にするだけなので、行番号は変わらない
+ * スレッドセーフではないため、呼び出し側で排他制御すること
+ */
+class RosterColumns {
+
+  private static final int INITIAL_CAPACITY = 1024;
+
+  private final ColumnDictionary genderDictionary = new ColumnDictionary();
+  private final ColumnDictionary regionDictionary = new ColumnDictionary();
+  private final ColumnDictionary courseNameDictionary = new ColumnDictionary();
+  private final ColumnDictionary statusDictionary = new ColumnDictionary();
+
+  //受講生の列
+  private int studentCount;
+  private int[] ages = new int[INITIAL_CAPACITY];
+  private int[] genders = new int[INITIAL_CAPACITY];
+  private int[] regions = new int[INITIAL_CAPACITY];
+  private boolean[] studentLive = new boolean[INITIAL_CAPACITY];
+  private final Map<Integer, Integer> studentRows = new HashMap<>();
+
+  //受講生コースの列
+  private int courseCount;
+  private int[] courseStudentRows = new int[INITIAL_CAPACITY];
+  private int[] courseNames = new int[INITIAL_CAPACITY];
+  private final Map<Integer, Integer> courseRows = new HashMap<>();
+
+  //申込状況の列
+  private int statusCount;
+  private int[] statusCourseRows = new int[INITIAL_CAPACITY];
+  private int[] statuses = new int[INITIAL_CAPACITY];
+  private boolean[] statusLive = new boolean[INITIAL_CAPACITY];
+  private final Map<Integer, Integer> statusRows = new HashMap<>();
+
+  /**
+   * DBから取得した全件から列を作成する
+   *
+   * @param studentList 　論理削除されていない受講生
+   * @param courseList  　受講生コース
+   * @param statusList  　申込状況
+   * @return 列
+   */
+  static RosterColumns load(List<Student> studentList, List<StudentCourse> courseList,
+      List<ApplicationStatus> statusList) {
+    RosterColumns columns = new RosterColumns();
+    studentList.forEach(columns::putStudent);
+    courseList.forEach(columns::addCourse);
+    statusList.forEach(columns::putStatus);
+    return columns;
+  }
+
+  /**
+   * 変更を反映する
+   *
+   * @param event 　変更のイベント
+   */
+  void apply(RosterChangedEvent event) {
+    event.getStudents().forEach(this::putStudent);
+    event.getStudentPatches().forEach(this::patchStudent);
+    event.getCreatedCourses().forEach(this::addCourse);
+    event.getRenamedCourses().forEach(this::renameCourse);
+    event.getStatuses().forEach(this::putStatus);
+    event.getDeletedStatusIds().forEach(this::removeStatus);
+    if (event.getTransition() != null) {
+      transition(event.getTransition());
+    }
+  }
+
+  int studentCount() {
+    return studentCount;
+  }
+
+  int courseCount() {
+    return courseCount;
+  }
+
+  int statusCount() {
+    return statusCount;
+  }
+
+  /**
+   * 絞り込み条件に一致する受講生の人数と年齢を集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 集計結果
+   */
+  AgeSummary summarizeAges(RosterFilter filter) {
+    boolean[] mask = matchStudents(filter);
+    int count = 0;
+    int min = Integer.MAX_VALUE;
+    int max = Integer.MIN_VALUE;
+    long sum = 0;
+    for (int row = 0; row < studentCount; row++) {
+      if (mask[row]) {
+        count++;
+        min = Math.min(min, ages[row]);
+        max = Math.max(max, ages[row]);
+        sum += ages[row];
+      }
+    }
+    if (count == 0) {
+      return new AgeSummary(0, null, null, null);
+    }
+    return new AgeSummary(count, min, max, (double) sum / count);
+  }
+
+  /**
+   * 絞り込み条件に一致する受講生の人数を性別ごとに集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 性別と人数
+   */
+  Map<String, Integer> countByGender(RosterFilter filter) {
+    return countStudents(filter, genders, genderDictionary);
+  }
+
+  /**
+   * 絞り込み条件に一致する受講生の人数を地域ごとに集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 地域と人数
+   */
+  Map<String, Integer> countByRegion(RosterFilter filter) {
+    return countStudents(filter, regions, regionDictionary);
+  }
+
+  /**
+   * 絞り込み条件に一致する受講生の申込状況をステータスごとに集計する
+   *
+   * @param courseName 　コース名（nullの場合は絞り込まない）
+   * @param filter     　受講生の絞り込み条件
+   * @return ステータスと件数
+   */
+  Map<String, Integer> countByStatus(String courseName, RosterFilter filter) {
+    boolean[] mask = matchStudents(filter);
+    int courseNameCode = courseNameDictionary.find(courseName);
+    int[] counts = new int[statusDictionary.size()];
+    for (int row = 0; row < statusCount; row++) {
+      int courseRow = statusCourseRows[row];
+      int studentRow = courseRow < 0 ? -1 : courseStudentRows[courseRow];
+      if (statusLive[row] && studentRow >= 0 && mask[studentRow]
+          && (courseNameCode == NULL_CODE || courseNames[courseRow] == courseNameCode)
+          && statuses[row] >= 0) {
+        counts[statuses[row]]++;
+      }
+    }
+    return toMap(counts, statusDictionary);
+  }
+
+  /**
+   * 絞り込み条件に一致する受講生の行を判定する
+   * 分岐を減らすために条件を論理積（&）でまとめて評価する
+   *
+   * @param filter 　絞り込み条件
+   * @return 行ごとの判定結果
+   */
+  private boolean[] matchStudents(RosterFilter filter) {
+    int minAge = filter.getMinAge() == null ? Integer.MIN_VALUE : filter.getMinAge();
+    int maxAge = filter.getMaxAge() == null ? Integer.MAX_VALUE : filter.getMaxAge();
+    int gender = genderDictionary.find(filter.getGender());
+    int region = regionDictionary.find(filter.getRegion());
+    boolean anyGender = gender == NULL_CODE;
+    boolean anyRegion = region == NULL_CODE;
+    boolean[] mask = new boolean[studentCount];
+    if (gender == NO_MATCH || region == NO_MATCH) {
+      return mask;
+    }
+    for (int row = 0; row < studentCount; row++) {
+      mask[row] = studentLive[row] & ages[row] >= minAge & ages[row] <= maxAge
+          & (anyGender | genders[row] == gender) & (anyRegion | regions[row] == region);
+    }
+    return mask;
+  }
+
+  private Map<String, Integer> countStudents(RosterFilter filter, int[] column,
+      ColumnDictionary dictionary) {
+    boolean[] mask = matchStudents(filter);
+    int[] counts = new int[dictionary.size()];
+    for (int row = 0; row < studentCount; row++) {
+      if (mask[row] && column[row] >= 0) {
+        counts[column[row]]++;
+      }
+    }
+    return toMap(counts, dictionary);
+  }
+
+  private static Map<String, Integer> toMap(int[] counts, ColumnDictionary dictionary) {
+    Map<String, Integer> result = new TreeMap<>();
+    for (int code = 0; code < counts.length; code++) {
+      if (counts[code] > 0) {
+        result.put(dictionary.decode(code), counts[code]);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * 受講生を登録・更新する
+   * 論理削除された受講生は無効にする
+   *
+   * @param student 　受講生
+   */
+  private void putStudent(Student student) {
+    Integer row = studentRows.get(student.getId());
+    if (row == null) {
+      if (student.isDeleteFlag()) {
+        return;
+      }
+      row = studentCount++;
+      ensureStudentCapacity();
+      studentRows.put(student.getId(), row);
+    }
+    ages[row] = student.getAge();
+    genders[row] = genderDictionary.encode(student.getGender());
+    regions[row] = regionDictionary.encode(student.getRegion());
+    studentLive[row] = !student.isDeleteFlag();
+  }
+
+  /**
+   * 受講生の指定された項目だけを更新する
+   * 論理削除を取り消された受講生など、列にない受講生は次回の全件読み込みで反映する
+   *
+   * @param id    　受講生ID
+   * @param patch 　受講生の部分更新
+   */
+  private void patchStudent(int id, StudentPatch patch) {
+    Integer row = studentRows.get(id);
+    if (row == null) {
+      return;
+    }
+    if (patch.isSpecified("age")) {
+      ages[row] = patch.getAge();
+    }
+    if (patch.isSpecified("gender")) {
+      genders[row] = genderDictionary.encode(patch.getGender());
+    }
+    if (patch.isSpecified("region")) {
+      regions[row] = regionDictionary.encode(patch.getRegion());
+    }
+    if (patch.isSpecified("deleteFlag")) {
+      studentLive[row] = !patch.getDeleteFlag();
+    }
+  }
+
+  /**
+   * 受講生コースを登録する
+   * 登録済みの場合はコース名だけを更新する
+   *
+   * @param course 　受講生コース
+   */
+  private void addCourse(StudentCourse course) {
+    if (courseRows.containsKey(course.getId())) {
+      renameCourse(course);
+      return;
+    }
+    int row = courseCount++;
+    ensureCourseCapacity();
+    courseRows.put(course.getId(), row);
+    courseStudentRows[row] = studentRows.getOrDefault(course.getStudentId(), -1);
+    courseNames[row] = courseNameDictionary.encode(course.getCourseName());
+  }
+
+  private void renameCourse(StudentCourse course) {
+    Integer row = courseRows.get(course.getId());
+    if (row != null) {
+      courseNames[row] = courseNameDictionary.encode(course.getCourseName());
+    }
+  }
+
+  /**
+   * 申込状況を登録・更新する
+   * 登録済みの場合はステータスだけを更新する
+   *
+   * @param status 　申込状況
+   */
+  private void putStatus(ApplicationStatus status) {
+    Integer row = statusRows.get(status.getId());
+    if (row == null) {
+      Integer courseRow = courseRows.get(status.getStudentCourseId());
+      if (courseRow == null) {
+        return;
+      }
+      row = statusCount++;
+      ensureStatusCapacity();
+      statusRows.put(status.getId(), row);
+      statusCourseRows[row] = courseRow;
+    }
+    statuses[row] = statusDictionary.encode(status.getStatus());
+    statusLive[row] = true;
+  }
+
+  private void removeStatus(int id) {
+    Integer row = statusRows.get(id);
+    if (row != null) {
+      statusLive[row] = false;
+    }
+  }
+
+  /**
+   * 申込状況の一括更新をDBと同じ条件で反映する
+   *
+   * @param transition 　一括更新の条件
+   */
+  private void transition(ApplicationStatusTransition transition) {
+    int current = statusDictionary.find(transition.getCurrentStatus());
+    int target = statusDictionary.encode(transition.getTargetStatus());
+    if (current == NO_MATCH) {
+      return;
+    }
+    List<Integer> ids = transition.getIds();
+    if (ids != null && !ids.isEmpty()) {
+      for (Integer id : ids) {
+        Integer row = statusRows.get(id);
+        if (row != null && (current == NULL_CODE || statuses[row] == current)) {
+          statuses[row] = target;
+        }
+      }
+      return;
+    }
+    int courseName = courseNameDictionary.find(transition.getCourseName());
+    if (courseName == NO_MATCH) {
+      return;
+    }
+    for (int row = 0; row < statusCount; row++) {
+      if ((current == NULL_CODE || statuses[row] == current)
+          && (courseName == NULL_CODE || courseNames[statusCourseRows[row]] == courseName)) {
+        statuses[row] = target;
+      }
+    }
+  }
+
+  private void ensureStudentCapacity() {
+    if (studentCount > ages.length) {
+      int capacity = ages.length * 2;
+      ages = Arrays.copyOf(ages, capacity);
+      genders = Arrays.copyOf(genders, capacity);
+      regions = Arrays.copyOf(regions, capacity);
+      studentLive = Arrays.copyOf(studentLive, capacity);
+    }
+  }
+
+  private void ensureCourseCapacity() {
+    if (courseCount > courseNames.length) {
+      int capacity = courseNames.length * 2;
+      courseStudentRows = Arrays.copyOf(courseStudentRows, capacity);
+      courseNames = Arrays.copyOf(courseNames, capacity);
+    }
+  }
+
+  private void ensureStatusCapacity() {
+    if (statusCount > statuses.length) {
+      int capacity = statuses.length * 2;
+      statusCourseRows = Arrays.copyOf(statusCourseRows, capacity);
+      statuses = Arrays.copyOf(statuses, capacity);
+      statusLive = Arrays.copyOf(statusLive, capacity);
+    }
+  }
+}
@@ -0,0 +1,17 @@
+package management.student.analytics;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "集計対象の受講生の絞り込み条件")
+@Getter
+@Setter
+public class RosterFilter {
+
+  private Integer minAge; //年齢の下限（指定しない場合は絞り込まない）
+  private Integer maxAge; //年齢の上限（指定しない場合は絞り込まない）
+  private String gender; //性別
+  private String region; //地域
+
+}
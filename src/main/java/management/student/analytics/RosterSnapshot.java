@@ -0,0 +1,151 @@
+package management.student.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import management.student.exception.StudentBizException;
+import management.student.repository.StudentRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 集計用に受講生、受講生コース、申込状況を列ごとに保持する名簿のスナップショット
+ * 起動時と定期的にDBから全件を読み込み、その間の更新はサービスからのイベントで反映する
+ * 集計はDBにアクセスせず、スナップショットだけで行う
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "student.analytics", name = "enabled", havingValue = "true")
+public class RosterSnapshot {
+
+  private final StudentRepository repository;
+  private final StampedLock lock = new StampedLock();
+  private RosterColumns columns; //読み込み前はnull
+  private List<RosterChangedEvent> pendingEvents; //全件の読み込み中に受け取ったイベント
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository 　受講生のRepository
+   */
+  public RosterSnapshot(StudentRepository repository) {
+    this.repository = repository;
+  }
+
+  /**
+   * DBから全件を読み込み直す
+   * 読み込み中に受け取ったイベントは、読み込んだ列に反映してから置き換える
+   * イベントの反映順がコミット順と前後した場合のずれも、ここで解消される
+   */
+  @Scheduled(fixedDelayString = "${student.analytics.refresh-interval:PT10M}")
+  public void refresh() {
+    long stamp = lock.writeLock();
+    try {
+      pendingEvents = new ArrayList<>();
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    RosterColumns loaded = null;
+    try {
+      loaded = RosterColumns.load(repository.searchStudentList(),
+          repository.searchStudentCourseList(), repository.searchApplicationStatusList());
+    } finally {
+      stamp = lock.writeLock();
+      try {
+        if (loaded != null) {
+          pendingEvents.forEach(loaded::apply);
+          columns = loaded;
+        }
+        pendingEvents = null;
+      } finally {
+        lock.unlockWrite(stamp);
+      }
+    }
+    log.info("Roster snapshot loaded: students={}, courses={}, statuses={}",
+        loaded.studentCount(), loaded.courseCount(), loaded.statusCount());
+  }
+
+  /**
+   * 更新処理のコミット後に変更を反映する
+   * トランザクション外で更新された場合はすぐに反映する
+   *
+   * @param event 　変更のイベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRosterChanged(RosterChangedEvent event) {
+    long stamp = lock.writeLock();
+    try {
+      if (columns != null) {
+        columns.apply(event);
+      }
+      if (pendingEvents != null) {
+        pendingEvents.add(event);
+      }
+    } catch (RuntimeException e) {
+      //更新処理自体は成功しているため、スナップショットのずれは次回の読み込みで解消する
+      log.warn("Failed to apply roster change to snapshot", e);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  /**
+   * 受講生の人数と年齢を集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 集計結果
+   */
+  public AgeSummary summarizeAges(RosterFilter filter) {
+    return read(columns -> columns.summarizeAges(filter));
+  }
+
+  /**
+   * 受講生の人数を性別ごとに集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 性別と人数
+   */
+  public Map<String, Integer> countByGender(RosterFilter filter) {
+    return read(columns -> columns.countByGender(filter));
+  }
+
+  /**
+   * 受講生の人数を地域ごとに集計する
+   *
+   * @param filter 　絞り込み条件
+   * @return 地域と人数
+   */
+  public Map<String, Integer> countByRegion(RosterFilter filter) {
+    return read(columns -> columns.countByRegion(filter));
+  }
+
+  /**
+   * 申込状況をステータスごとに集計する
+   *
+   * @param courseName 　コース名（nullの場合は絞り込まない）
+   * @param filter     　受講生の絞り込み条件
+   * @return ステータスと件数
+   */
+  public Map<String, Integer> countByStatus(String courseName, RosterFilter filter) {
+    return read(columns -> columns.countByStatus(courseName, filter));
+  }
+
+  private <T> T read(Function<RosterColumns, T> query) {
+    long stamp = lock.readLock();
+    try {
+      if (columns == null) {
+        throw new StudentBizException("Roster snapshot is not loaded yet",
+            HttpStatus.SERVICE_UNAVAILABLE);
+      }
+      return query.apply(columns);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+}
@@ -0,0 +1,32 @@
+package management.student.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import management.student.repository.CacheInvalidationRepository;
+import management.student.repository.StudentBatchSession;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 受講生詳細のキャッシュと、ノード間で削除対象を伝える記録を登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(CacheProperties.class)
+@ConditionalOnProperty(prefix = "student.cache", name = "enabled", havingValue = "true")
+public class CacheConfig {
+
+  @Bean
+  public StudentDetailCache studentDetailCache(CacheProperties properties,
+      MeterRegistry registry) {
+    return new StudentDetailCache(properties, registry);
+  }
+
+  @Bean
+  public CacheInvalidationLog cacheInvalidationLog(CacheInvalidationRepository repository,
+      StudentBatchSession batchSession, StudentDetailCache cache, CacheProperties properties) {
+    return new CacheInvalidationLog(repository, batchSession, cache, properties,
+        Clock.systemDefaultZone());
+  }
+}
@@ -0,0 +1,201 @@
+package management.student.cache;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.ApplicationStatus;
+import management.student.data.CacheInvalidation;
+import management.student.data.CacheInvalidation.Target;
+import management.student.data.StudentCourse;
+import management.student.repository.CacheInvalidationRepository;
+import management.student.repository.StudentBatchSession;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 更新内容をDBの削除対象の記録に追加し、各ノードが記録を読んでキャッシュから削除するクラス
+ * 記録は更新と同じトランザクションで追加するため、更新がコミットされれば記録も必ず残る
+ * JDBCバッチで更新しているトランザクションでは、MyBatisのセッションを混在させられないため同じバッチのセッションで追加する
+ * 各ノードは前回読んだIDより後の記録を主キーの範囲検索で読む
+ * IDの採番順とコミット順は前後することがあるため、IDが抜けている場合は一定時間そこから読み直す
+ */
+@Slf4j
+public class CacheInvalidationLog {
+
+  private final CacheInvalidationRepository repository;
+  private final StudentBatchSession batchSession;
+  private final StudentDetailCache cache;
+  private final CacheProperties properties;
+  private final Clock clock;
+  private long lastReadId = -1; //最後まで読んだID（起動直後は未取得）
+  private LocalDateTime gapDetectedAt; //IDの抜けを見つけた日時
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository   　削除対象の記録のRepository
+   * @param batchSession 　JDBCバッチで更新するトランザクションで使うセッション
+   * @param cache        　受講生詳細のキャッシュ
+   * @param properties   　キャッシュの設定
+   * @param clock        　現在日時の取得元
+   */
+  public CacheInvalidationLog(CacheInvalidationRepository repository,
+      StudentBatchSession batchSession, StudentDetailCache cache, CacheProperties properties,
+      Clock clock) {
+    this.repository = repository;
+    this.batchSession = batchSession;
+    this.cache = cache;
+    this.properties = properties;
+    this.clock = clock;
+  }
+
+  /**
+   * 更新処理のコミット前に削除対象の記録を追加する
+   * 追加に失敗した場合は更新も取り消される
+   *
+   * @param event 　変更のイベント
+   */
+  @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT, fallbackExecution = true)
+  public void append(RosterChangedEvent event) {
+    List<CacheInvalidation> invalidations = toInvalidations(event);
+    if (invalidations.isEmpty()) {
+      return;
+    }
+    if (batchSession.isBoundToTransaction()) {
+      //MyBatisのコミット前の送信はこの処理より先に終わっているため、追加した記録はここで送信する
+      batchSession.getMapper(CacheInvalidationRepository.class)
+          .createCacheInvalidations(invalidations);
+      batchSession.flush();
+    } else {
+      repository.createCacheInvalidations(invalidations);
+    }
+  }
+
+  /**
+   * 更新処理のコミット後に、このノードのキャッシュからすぐに削除する
+   *
+   * @param event 　変更のイベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void evictLocally(RosterChangedEvent event) {
+    toInvalidations(event).forEach(cache::evict);
+  }
+
+  /**
+   * 他のノードが追加した削除対象の記録を読み、キャッシュから削除する
+   */
+  @Scheduled(fixedDelayString = "${student.cache.poll-interval:PT1S}")
+  public synchronized void poll() {
+    if (lastReadId < 0) {
+      lastReadId = repository.searchLatestCacheInvalidationId();
+      cache.confirmFresh(properties.getStaleTolerance());
+      return;
+    }
+    int batchSize = properties.getPollBatchSize();
+    List<CacheInvalidation> invalidations;
+    do {
+      invalidations = repository.searchCacheInvalidationsAfter(lastReadId, batchSize);
+      if (!readContiguous(invalidations)) {
+        break;
+      }
+    } while (invalidations.size() == batchSize);
+    cache.confirmFresh(properties.getStaleTolerance());
+  }
+
+  /**
+   * 読んだ記録をキャッシュから削除し、IDが連続している所まで読み終わったことにする
+   *
+   * @param invalidations 　ID順の削除対象の記録
+   * @return IDの抜けがなかった場合true
+   */
+  private boolean readContiguous(List<CacheInvalidation> invalidations) {
+    long contiguousId = lastReadId;
+    boolean gap = false;
+    for (CacheInvalidation invalidation : invalidations) {
+      cache.evict(invalidation);
+      if (!gap && invalidation.getId() == contiguousId + 1) {
+        contiguousId = invalidation.getId();
+      } else {
+        gap = true;
+      }
+    }
+    if (!gap) {
+      gapDetectedAt = null;
+      lastReadId = contiguousId;
+      return true;
+    }
+    LocalDateTime now = LocalDateTime.now(clock);
+    if (gapDetectedAt == null) {
+      gapDetectedAt = now;
+      lastReadId = contiguousId;
+    } else if (!now.isBefore(gapDetectedAt.plus(properties.getCommitLag()))) {
+      //待っても埋まらない抜けはロールバックなどで使われなかったIDとみなす
+      log.debug("Skipping cache invalidation ids after {}", contiguousId);
+      gapDetectedAt = null;
+      lastReadId = invalidations.getLast().getId();
+    } else {
+      lastReadId = contiguousId;
+    }
+    return false;
+  }
+
+  /**
+   * 保持期間を過ぎた削除対象の記録を少しずつ削除する
+   */
+  @Scheduled(fixedDelayString = "${student.cache.purge-interval:PT10M}",
+      initialDelayString = "${student.cache.purge-initial-delay:PT1M}")
+  public void purge() {
+    LocalDateTime createdBefore = LocalDateTime.now(clock).minus(properties.getRetention());
+    int chunkSize = properties.getPurgeChunkSize();
+    while (repository.deleteCacheInvalidations(createdBefore, chunkSize) == chunkSize) {
+      //削除件数が上限に達した場合はまだ残っているため続けて削除する
+    }
+  }
+
+  /**
+   * 変更のイベントから削除対象を作成する
+   * 受講生コースや申込状況の変更は、それを含む受講生詳細が削除されるように記録する
+   *
+   * @param event 　変更のイベント
+   * @return 重複を除いた削除対象
+   */
+  static List<CacheInvalidation> toInvalidations(RosterChangedEvent event) {
+    if (event.getTransition() != null) {
+      return List.of(new CacheInvalidation(Target.ALL, null));
+    }
+    Map<Target, Set<Integer>> targets = new EnumMap<>(Target.class);
+    event.getStudents().forEach(student -> add(targets, Target.STUDENT, student.getId()));
+    event.getStudentPatches().keySet().forEach(id -> add(targets, Target.STUDENT, id));
+    for (StudentCourse course : event.getCreatedCourses()) {
+      add(targets, Target.STUDENT, course.getStudentId());
+    }
+    for (StudentCourse course : event.getRenamedCourses()) {
+      add(targets, Target.COURSE, course.getId());
+    }
+    for (ApplicationStatus status : event.getStatuses()) {
+      add(targets, Target.COURSE, status.getStudentCourseId());
+      add(targets, Target.APPLICATION_STATUS, status.getId());
+    }
+    event.getDeletedStatusIds().forEach(id -> add(targets, Target.APPLICATION_STATUS, id));
+    event.getStatusChangedCourseIds().forEach(id -> add(targets, Target.COURSE, id));
+
+    List<CacheInvalidation> invalidations = new ArrayList<>();
+    targets.forEach((target, ids) -> ids.forEach(
+        id -> invalidations.add(new CacheInvalidation(target, id))));
+    return invalidations;
+  }
+
+  private static void add(Map<Target, Set<Integer>> targets, Target target, int id) {
+    if (id > 0) {
+      targets.computeIfAbsent(target, key -> new LinkedHashSet<>()).add(id);
+    }
+  }
+}
@@ -0,0 +1,27 @@
+package management.student.cache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 受講生詳細のキャッシュと、ノード間で削除対象を伝える記録の設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.cache")
+public class CacheProperties {
+
+  private boolean enabled = false; //キャッシュを使うかどうか
+  private int maxEntries = 10_000; //保持する受講生詳細の最大件数
+  private Duration pollInterval = Duration.ofSeconds(1); //削除対象の記録を読みに行く間隔
+  private int pollBatchSize = 1000; //1回の検索で読む削除対象の記録の件数
+  //IDが抜けている場合に、先に採番された更新のコミットを待つ時間
+  private Duration commitLag = Duration.ofSeconds(5);
+  //削除対象の記録を読めない状態がこれより続いた場合はキャッシュを使わない
+  private Duration staleTolerance = Duration.ofSeconds(30);
+  private Duration retention = Duration.ofHours(1); //削除対象の記録を残す期間
+  private Duration purgeInterval = Duration.ofMinutes(10); //古い削除対象の記録を削除する間隔
+  private int purgeChunkSize = 1000; //1回のDELETEで削除する件数
+}
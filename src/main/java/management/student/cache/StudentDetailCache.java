@@ -0,0 +1,188 @@
+package management.student.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import management.student.data.CacheInvalidation;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+
+/**
+ * 受講生詳細（受講生コースと申込状況を含む）をノード内に保持するキャッシュ
+ * 受講生コースIDと申込状況IDから受講生IDを引けるようにして、どの単位で更新されても削除できるようにする
+ * 削除対象の記録を最後に読めてから一定時間が過ぎた場合は、他のノードの更新を見逃している可能性があるため使わない
+ * 保持している受講生詳細は呼び出し側で共有されるため、戻り値を変更しないこと
+ */
+public class StudentDetailCache {
+
+  private final int maxEntries;
+  private final Map<Integer, StudentDetail> entries = new ConcurrentHashMap<>();
+  private final Map<Integer, Integer> courseOwners = new ConcurrentHashMap<>();
+  private final Map<Integer, Integer> statusOwners = new ConcurrentHashMap<>();
+  //削除のたびに増やし、削除と並行して検索した結果を保持しないようにする
+  private volatile long generation;
+  //この時刻（System.nanoTime）まではキャッシュを使える。起動直後は削除対象の記録を読むまで使わない
+  private volatile long freshUntil = System.nanoTime();
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+  private final Counter evictionCounter;
+
+  /**
+   * コンストラクタ
+   *
+   * @param properties 　キャッシュの設定
+   * @param registry   　ヒット率のメトリクスの登録先
+   */
+  public StudentDetailCache(CacheProperties properties, MeterRegistry registry) {
+    this.maxEntries = properties.getMaxEntries();
+    this.hitCounter = Counter.builder("student.cache.requests").tag("result", "hit")
+        .register(registry);
+    this.missCounter = Counter.builder("student.cache.requests").tag("result", "miss")
+        .register(registry);
+    this.evictionCounter = Counter.builder("student.cache.evictions").register(registry);
+    Gauge.builder("student.cache.size", entries, Map::size).register(registry);
+  }
+
+  /**
+   * キャッシュから受講生詳細を取得し、ない場合は検索して保持する
+   * 検索結果は、検索を始める前の世代から削除されていない場合だけ保持する
+   * 同時に実行された検索の結果を共有する場合も、世代は共有する検索の中でloadを使って記録すること
+   * （呼び出し側で記録すると、削除より前に始まった検索の結果を削除より後の世代として保持してしまう）
+   *
+   * @param id     　受講生ID
+   * @param loader 　受講生詳細の検索処理（loadで検索前の世代を記録したもの）
+   * @return 受講生詳細
+   */
+  public StudentDetail get(int id, Supplier<Loaded> loader) {
+    if (System.nanoTime() - freshUntil > 0) {
+      missCounter.increment();
+      return loader.get().studentDetail();
+    }
+    StudentDetail cached = entries.get(id);
+    if (cached != null) {
+      hitCounter.increment();
+      return cached;
+    }
+    missCounter.increment();
+    Loaded loaded = loader.get();
+    synchronized (this) {
+      if (generation == loaded.generation() && entries.size() < maxEntries) {
+        put(id, loaded.studentDetail());
+      }
+    }
+    return loaded.studentDetail();
+  }
+
+  /**
+   * 検索前の世代を記録してから受講生詳細を検索する
+   *
+   * @param loader 　受講生詳細の検索処理
+   * @return 検索結果と検索前の世代
+   */
+  public Loaded load(Supplier<StudentDetail> loader) {
+    long loadedGeneration = generation;
+    return new Loaded(loader.get(), loadedGeneration);
+  }
+
+  /**
+   * 削除対象の記録に該当する受講生詳細を削除する
+   *
+   * @param invalidation 　削除対象の記録
+   */
+  public synchronized void evict(CacheInvalidation invalidation) {
+    generation++;
+    Integer targetId = invalidation.getTargetId();
+    switch (invalidation.getTarget()) {
+      case STUDENT -> remove(targetId);
+      case COURSE -> remove(courseOwners.get(targetId));
+      case APPLICATION_STATUS -> remove(statusOwners.get(targetId));
+      case ALL -> clear();
+    }
+  }
+
+  /**
+   * 全件を削除する
+   */
+  public synchronized void clear() {
+    generation++;
+    evictionCounter.increment(entries.size());
+    entries.clear();
+    courseOwners.clear();
+    statusOwners.clear();
+  }
+
+  /**
+   * 削除対象の記録を最後まで読めたことを記録し、しばらくの間キャッシュを使えるようにする
+   * 使えない期間があった場合は、その間の更新を見逃している可能性があるため全件を削除する
+   *
+   * @param tolerance 　次に読めるまでキャッシュを使ってよい時間
+   */
+  public void confirmFresh(Duration tolerance) {
+    long now = System.nanoTime();
+    if (now - freshUntil > 0) {
+      clear();
+    }
+    freshUntil = now + tolerance.toNanos();
+  }
+
+  /**
+   * 保持している件数
+   *
+   * @return 件数
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  private void put(int id, StudentDetail studentDetail) {
+    entries.put(id, studentDetail);
+    forEachCourse(studentDetail, course -> {
+      courseOwners.put(course.getId(), id);
+      if (course.getApplicationStatus() != null) {
+        statusOwners.put(course.getApplicationStatus().getId(), id);
+      }
+    });
+  }
+
+  private void remove(Integer id) {
+    if (id == null) {
+      return;
+    }
+    StudentDetail removed = entries.remove(id);
+    if (removed == null) {
+      return;
+    }
+    evictionCounter.increment();
+    forEachCourse(removed, course -> {
+      courseOwners.remove(course.getId());
+      if (course.getApplicationStatus() != null) {
+        statusOwners.remove(course.getApplicationStatus().getId());
+      }
+    });
+  }
+
+  private static void forEachCourse(StudentDetail studentDetail,
+      Consumer<StudentCourse> action) {
+    List<StudentCourse> courses = studentDetail.getStudentCourseList();
+    if (courses != null) {
+      courses.forEach(action);
+    }
+  }
+
+  /**
+   * 受講生詳細の検索結果と、検索を始める前の世代
+   *
+   * @param studentDetail 　受講生詳細
+   * @param generation    　検索を始める前の世代
+   */
+  public record Loaded(StudentDetail studentDetail, long generation) {
+
+  }
+}
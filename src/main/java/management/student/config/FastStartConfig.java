@@ -0,0 +1,37 @@
+package management.student.config;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+/**
+ * 起動時間を短くするfaststartプロファイルの設定クラス
+ * Beanの作成を最初に使われるまで遅らせるが、定期実行するジョブは作成されないと実行されないため起動時に作成する
+ */
+@Configuration
+@Profile("faststart")
+public class FastStartConfig {
+
+  /**
+   * 定期実行のメソッドを持つBeanを遅延初期化の対象から外す
+   *
+   * @return 遅延初期化の除外条件
+   */
+  @Bean
+  static LazyInitializationExcludeFilter scheduledBeanExcludeFilter() {
+    return (beanName, beanDefinition, beanType) -> {
+      if (beanType == null) {
+        return false;
+      }
+      AtomicBoolean scheduled = new AtomicBoolean();
+      ReflectionUtils.doWithMethods(beanType, method -> scheduled.set(true),
+          method -> AnnotatedElementUtils.hasAnnotation(method, Scheduled.class));
+      return scheduled.get();
+    };
+  }
+}
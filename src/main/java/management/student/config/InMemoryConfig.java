@@ -0,0 +1,42 @@
+package management.student.config;
+
+import management.student.repository.InMemoryStudentRepository;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * 受講生をメモリ上に保持するinmemoryプロファイルの設定クラス
+ * DBなしでサービスの処理時間を計測したり、ローカルで動作を確認したりするために使う
+ * 一括更新（StudentBatchService）や冪等性の記録など、StudentRepository以外のMapperを使う処理はDBが必要
+ */
+@Configuration
+@Profile("inmemory")
+public class InMemoryConfig {
+
+  /**
+   * MyBatisのMapperの代わりに使う受講生のRepository
+   *
+   * @return メモリ上の受講生のRepository
+   */
+  @Bean
+  @Primary
+  public InMemoryStudentRepository inMemoryStudentRepository() {
+    return new InMemoryStudentRepository();
+  }
+
+  /**
+   * DBに接続しないトランザクションマネージャー
+   * トランザクションの開始時にコネクションを取得しないようにする。コミット後のイベントは通常どおり実行される
+   * ロールバックではメモリ上のRepositoryへの変更を戻す（NESTEDのセーブポイントとREQUIRES_NEWも扱う）
+   *
+   * @param repository 　メモリ上の受講生のRepository
+   * @return トランザクションマネージャー
+   */
+  @Bean
+  public PlatformTransactionManager transactionManager(InMemoryStudentRepository repository) {
+    return new InMemoryTransactionManager(repository);
+  }
+}
@@ -0,0 +1,115 @@
+package management.student.config;
+
+import management.student.repository.InMemoryStudentRepository;
+import management.student.repository.InMemoryStudentRepository.UndoLog;
+import org.springframework.transaction.SavepointManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.SmartTransactionObject;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * メモリ上の受講生のRepositoryに対するトランザクションマネージャー（inmemoryプロファイル）
+ * トランザクションの開始時にUndoLogをリソースとしてバインドし、ロールバックでは記録した変更を戻す
+ * NESTEDはUndoLogの位置をセーブポイントとして扱い、REQUIRES_NEWは外側のUndoLogを保留して別に記録する
+ * DBに接続しないため、DataSourceTransactionManagerと違ってコネクションは取得しない
+ */
+class InMemoryTransactionManager extends AbstractPlatformTransactionManager {
+
+  private final InMemoryStudentRepository repository;
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository 　変更を戻す対象のRepository
+   */
+  InMemoryTransactionManager(InMemoryStudentRepository repository) {
+    this.repository = repository;
+    setNestedTransactionAllowed(true);
+  }
+
+  @Override
+  protected Object doGetTransaction() {
+    return new InMemoryTransaction((UndoLog) TransactionSynchronizationManager.getResource(
+        repository));
+  }
+
+  @Override
+  protected boolean isExistingTransaction(Object transaction) {
+    return ((InMemoryTransaction) transaction).undoLog != null;
+  }
+
+  @Override
+  protected void doBegin(Object transaction, TransactionDefinition definition) {
+    InMemoryTransaction inMemoryTransaction = (InMemoryTransaction) transaction;
+    inMemoryTransaction.undoLog = new UndoLog();
+    TransactionSynchronizationManager.bindResource(repository, inMemoryTransaction.undoLog);
+  }
+
+  @Override
+  protected Object doSuspend(Object transaction) {
+    ((InMemoryTransaction) transaction).undoLog = null;
+    return TransactionSynchronizationManager.unbindResource(repository);
+  }
+
+  @Override
+  protected void doResume(Object transaction, Object suspendedResources) {
+    TransactionSynchronizationManager.bindResource(repository, suspendedResources);
+  }
+
+  @Override
+  protected void doCommit(DefaultTransactionStatus status) {
+  }
+
+  @Override
+  protected void doRollback(DefaultTransactionStatus status) {
+    repository.rollback(((InMemoryTransaction) status.getTransaction()).undoLog, 0);
+  }
+
+  @Override
+  protected void doSetRollbackOnly(DefaultTransactionStatus status) {
+    ((InMemoryTransaction) status.getTransaction()).undoLog.setRollbackOnly();
+  }
+
+  @Override
+  protected void doCleanupAfterCompletion(Object transaction) {
+    TransactionSynchronizationManager.unbindResource(repository);
+  }
+
+  /**
+   * トランザクションの状態
+   * 参加したトランザクションと同じUndoLogを参照するため、ロールバックのみになったかどうかはUndoLogに持たせる
+   */
+  private class InMemoryTransaction implements SmartTransactionObject, SavepointManager {
+
+    private UndoLog undoLog;
+
+    InMemoryTransaction(UndoLog undoLog) {
+      this.undoLog = undoLog;
+    }
+
+    @Override
+    public boolean isRollbackOnly() {
+      return undoLog.isRollbackOnly();
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public Object createSavepoint() {
+      return undoLog.size();
+    }
+
+    @Override
+    public void rollbackToSavepoint(Object savepoint) {
+      repository.rollback(undoLog, (Integer) savepoint);
+    }
+
+    @Override
+    public void releaseSavepoint(Object savepoint) {
+    }
+  }
+}
@@ -0,0 +1,31 @@
+package management.student.config;
+
+import java.util.Properties;
+import org.apache.ibatis.mapping.DatabaseIdProvider;
+import org.apache.ibatis.mapping.VendorDatabaseIdProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MyBatisの設定クラス
+ * 接続先のDBに応じてdatabaseIdを設定し、DBごとに異なる文（databaseId付きのselectなど）を使い分ける
+ * databaseIdを付けていない文はどのDBでも使われる
+ */
+@Configuration
+public class MyBatisConfig {
+
+  /**
+   * 接続先のDB製品名からdatabaseIdを決める
+   *
+   * @return databaseIdの決め方（MySQLはmysql、H2はh2）
+   */
+  @Bean
+  public DatabaseIdProvider databaseIdProvider() {
+    Properties properties = new Properties();
+    properties.setProperty("MySQL", "mysql");
+    properties.setProperty("H2", "h2");
+    VendorDatabaseIdProvider provider = new VendorDatabaseIdProvider();
+    provider.setProperties(properties);
+    return provider;
+  }
+}
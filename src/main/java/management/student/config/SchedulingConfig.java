@@ -0,0 +1,14 @@
+package management.student.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * 定期実行するジョブを有効にする設定クラス
+ * 各ジョブの実行有無はそれぞれの設定値で切り替える
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+}
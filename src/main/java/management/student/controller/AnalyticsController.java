@@ -0,0 +1,111 @@
+package management.student.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import java.util.Map;
+import management.student.analytics.AgeSummary;
+import management.student.analytics.RosterFilter;
+import management.student.analytics.RosterSnapshot;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 受講生の名簿を集計するREST APIが実行されるControllerクラス
+ * 集計は名簿のスナップショットから行い、DBにはアクセスしない
+ */
+@RestController
+@ConditionalOnProperty(prefix = "student.analytics", name = "enabled", havingValue = "true")
+public class AnalyticsController {
+
+  private RosterSnapshot snapshot;
+
+  /**
+   * コンストラクタ
+   *
+   * @param snapshot 　名簿のスナップショット
+   */
+  @Autowired
+  public AnalyticsController(RosterSnapshot snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  /**
+   * 受講生の人数と年齢を集計
+   *
+   * @param filter 絞り込み条件
+   * @return 人数と年齢の集計
+   */
+  @Operation(
+      summary = "受講生の年齢の集計",
+      description = "条件に一致する受講生の人数と年齢（最小・最大・平均）を集計します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "成功 - 集計結果を返します",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = AgeSummary.class))
+          ),
+          @ApiResponse(
+              responseCode = "503",
+              description = "名簿の読み込みが完了していません"
+          )
+      }
+  )
+  @GetMapping("/analytics/students/summary")
+  public AgeSummary summarizeStudents(RosterFilter filter) {
+    return snapshot.summarizeAges(filter);
+  }
+
+  /**
+   * 受講生の人数を性別ごとに集計
+   *
+   * @param filter 絞り込み条件
+   * @return 性別と人数
+   */
+  @Operation(
+      summary = "性別ごとの受講生数の集計",
+      description = "条件に一致する受講生の人数を性別ごとに集計します。"
+  )
+  @GetMapping("/analytics/students/by-gender")
+  public Map<String, Integer> countStudentsByGender(RosterFilter filter) {
+    return snapshot.countByGender(filter);
+  }
+
+  /**
+   * 受講生の人数を地域ごとに集計
+   *
+   * @param filter 絞り込み条件
+   * @return 地域と人数
+   */
+  @Operation(
+      summary = "地域ごとの受講生数の集計",
+      description = "条件に一致する受講生の人数を地域ごとに集計します。"
+  )
+  @GetMapping("/analytics/students/by-region")
+  public Map<String, Integer> countStudentsByRegion(RosterFilter filter) {
+    return snapshot.countByRegion(filter);
+  }
+
+  /**
+   * 申込状況をステータスごとに集計
+   *
+   * @param courseName コース名
+   * @param filter     受講生の絞り込み条件
+   * @return ステータスと件数
+   */
+  @Operation(
+      summary = "ステータスごとの申込状況の集計",
+      description = "条件に一致する受講生の申込状況をステータスごとに集計します。"
+          + "コース名を指定した場合はそのコースだけを集計します。"
+  )
+  @GetMapping("/analytics/applicationStatuses/by-status")
+  public Map<String, Integer> countApplicationStatuses(
+      @RequestParam(required = false) String courseName, RosterFilter filter) {
+    return snapshot.countByStatus(courseName, filter);
+  }
+}
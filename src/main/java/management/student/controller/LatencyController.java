@@ -0,0 +1,63 @@
+package management.student.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import management.student.latency.LatencyRecorder;
+import management.student.latency.LatencySummary;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * APIとサービスの処理時間の分布を返す運用向けのControllerクラス
+ */
+@RestController
+@Validated
+@ConditionalOnProperty(prefix = "student.latency", name = "enabled", matchIfMissing = true)
+public class LatencyController {
+
+  private LatencyRecorder recorder;
+
+  /**
+   * コンストラクタ
+   *
+   * @param recorder 　処理時間の記録先
+   */
+  @Autowired
+  public LatencyController(LatencyRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  /**
+   * 直近の区間の処理時間の分布を取得
+   *
+   * @param intervals 集計する区間の数（1区間の長さは student.latency.interval）
+   * @return 計測対象ごとの処理時間の分布
+   */
+  @Operation(
+      summary = "処理時間の分布の取得",
+      description = "受講生のAPIとサービスの処理時間の50/90/99/99.9パーセンタイルと最大値を、"
+          + "直近の区間について計測対象ごとに返します。記録中の区間は含みません。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "成功 - 処理時間の分布を返します",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = LatencySummary.class))
+          )
+      }
+  )
+  @GetMapping("/internal/latency")
+  public List<LatencySummary> getLatency(
+      @RequestParam(defaultValue = "6") @Min(1) @Max(1000) int intervals) {
+    return recorder.summarize(intervals);
+  }
+}
@@ -7,24 +7,37 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import management.student.converter.StudentConverter;
 import management.student.data.ApplicationStatus;
+import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.StudentCoursePage;
 import management.student.domain.StudentDetail;
+import management.student.domain.StudentPatch;
+import management.student.service.StudentBatchService;
 import management.student.service.StudentService;
 import management.student.validation.OnCreate;
 import management.student.validation.OnUpdate;
+import management.student.writebehind.ApplicationStatusWriteBuffer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
@@ -34,30 +47,47 @@ import org.springframework.web.bind.annotation.RestController;
 @Validated
 public class StudentController {
 
+  //受講生コースを含める場合の include の値
+  private static final String INCLUDE_COURSES = "courses";
+  //部分更新のContent-Type（RFC 7396）
+  private static final String MERGE_PATCH_JSON = "application/merge-patch+json";
+
   private StudentService service;
   private StudentConverter converter;
+  private StudentBatchService batchService;
+  //申込状況の更新を溜めてまとめて書き込むバッファー（使わない場合はnull）
+  private ApplicationStatusWriteBuffer statusWriteBuffer;
 
   /**
-   * 引数２つコンストラクタ
+   * コンストラクタ
    *
-   * @param service   受講生の操作に関わるサービス
-   * @param converter 　受講生コースと受講生を受講生詳細にコンバートするためのクラス
+   * @param service           受講生の操作に関わるサービス
+   * @param converter         　受講生コースと受講生を受講生詳細にコンバートするためのクラス
+   * @param batchService      　受講生をまとめて更新するサービス
+   * @param statusWriteBuffer 　申込状況の更新を溜めてまとめて書き込むバッファー
    */
   @Autowired
-  public StudentController(StudentService service, StudentConverter converter) {
+  public StudentController(StudentService service, StudentConverter converter,
+      StudentBatchService batchService,
+      ObjectProvider<ApplicationStatusWriteBuffer> statusWriteBuffer) {
     this.service = service;
     this.converter = converter;
+    this.batchService = batchService;
+    this.statusWriteBuffer = statusWriteBuffer.getIfAvailable();
   }
 
   /**
    * 受講生詳細の情報を取得
    * 全件検索のため条件の指定はなし
+   * 受講生コースは include=courses を指定した場合のみ含めます
    *
+   * @param include 含める関連情報
    * @return String 受講生一覧（全件）
    */
   @Operation(
       summary = "全受講生情報の取得",
-      description = "データベースに登録されている全受講生の詳細情報を取得します。",
+      description = "データベースに登録されている全受講生の情報を取得します。"
+          + "include=courses を指定した場合は受講生コースも含めます。",
       responses = {
           @ApiResponse(
               responseCode = "200",
@@ -68,20 +98,24 @@ public class StudentController {
       }
   )
   @GetMapping("/students")
-  public List<StudentDetail> getStudentList() {
-    return this.service.getStudentList();
+  public List<StudentDetail> getStudentList(
+      @RequestParam(defaultValue = "") List<String> include) {
+    return this.service.getStudentList(include.contains(INCLUDE_COURSES));
   }
 
 
   /**
    * 受講生詳細の情報（1件）を取得
    * 　IDに基づく任意の受講生情報を返します。
+   * 　受講生コースは include=courses を指定した場合のみ含めます
    *
+   * @param include 含める関連情報
    * @return String 受講生情報（１件）
    */
   @Operation(
       summary = "IDに基づく受講生情報の取得",
-      description = "指定されたIDに基づいて受講生の詳細情報を取得します。",
+      description = "指定されたIDに基づいて受講生の情報を取得します。"
+          + "include=courses を指定した場合は受講生コースも含めます。",
       responses = {
           @ApiResponse(
               responseCode = "200",
@@ -96,9 +130,69 @@ public class StudentController {
       }
   )
   @GetMapping("/students/{id}")
-  public StudentDetail getStudent(@PathVariable @Valid @Min(1) @Max(999) String id) {
-    //受講生と受講生コース情報取得
-    return service.getStudent(Integer.parseInt(id));
+  public StudentDetail getStudent(@PathVariable @Valid @Min(1) @Max(999) String id,
+      @RequestParam(defaultValue = "") List<String> include) {
+    //受講生情報取得（受講生コースは指定された場合のみ）
+    return service.getStudent(Integer.parseInt(id), include.contains(INCLUDE_COURSES));
+  }
+
+  /**
+   * 受講生コースの情報をページ単位で取得
+   * 　受講生コースIDの順に、申込状況を含めて返します。
+   *
+   * @param id   受講生ID
+   * @param page ページ番号（0から）
+   * @param size 1ページの件数
+   * @return 受講生コースのページ
+   */
+  @Operation(
+      summary = "受講生コース情報の取得",
+      description = "指定された受講生の受講生コースと申込状況をページ単位で取得します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "成功 - 指定されたページの受講生コースを返します",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = StudentCoursePage.class))
+          ),
+          @ApiResponse(
+              responseCode = "404",
+              description = "受講生が見つかりません"
+          )
+      }
+  )
+  @GetMapping("/students/{id}/courses")
+  public StudentCoursePage getStudentCourses(@PathVariable @Valid @Min(1) @Max(999) String id,
+      @RequestParam(defaultValue = "0") @Min(0) @Max(100000) int page,
+      @RequestParam(defaultValue = "20") @Min(1) @Max(100) int size) {
+    return service.getStudentCourses(Integer.parseInt(id), page, size);
+  }
+
+  /**
+   * 受講完了日が近い受講生コースの情報を取得
+   * 受講完了日の近い順に、申込状況を含めて返します
+   *
+   * @param within 現在から何日以内を対象にするか
+   * @param limit  取得する最大件数
+   * @return 受講生コース
+   */
+  @Operation(
+      summary = "受講完了日が近い受講生コースの取得",
+      description = "指定した日数以内に受講完了日を迎える受講生コースを、受講完了日の近い順に取得します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "成功 - 受講完了日が近い受講生コースを返します",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = StudentCourse.class))
+          )
+      }
+  )
+  @GetMapping("/courses/expiring")
+  public List<StudentCourse> getExpiringCourses(
+      @RequestParam(defaultValue = "7") @Min(0) @Max(365) int within,
+      @RequestParam(defaultValue = "100") @Min(1) @Max(1000) int limit) {
+    return service.getExpiringCourses(within, limit);
   }
 
   /**
@@ -243,20 +337,98 @@ public class StudentController {
 
   }
 
+  /**
+   * 受講生の情報（1件）を部分更新
+   * JSON Merge Patch の形式で、指定された項目だけを更新します
+   *
+   * @param id    受講生ID
+   * @param patch 受講生の部分更新
+   * @return 処理結果
+   */
+  @Operation(
+      summary = "受講生情報の部分更新",
+      description = "指定された項目だけを更新します。nullを指定した項目は値を削除し、"
+          + "指定しなかった項目は変更しません。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "受講生情報が正常に更新されました。",
+              content = @Content(mediaType = "application/json")
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "リクエストデータが不正です。"
+          ),
+          @ApiResponse(
+              responseCode = "404",
+              description = "受講生が見つかりません"
+          )
+      }
+  )
+  @PatchMapping(path = "/students/{id}", consumes = MERGE_PATCH_JSON)
+  public ResponseEntity<Map<String, String>> patchStudent(
+      @PathVariable @Valid @Min(1) @Max(999) String id,
+      @Valid @RequestBody StudentPatch patch) {
+    this.service.patch(Integer.parseInt(id), patch);
+    Map<String, String> response = new HashMap<>();
+    response.put("message", "更新処理が成功しました");
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 受講生詳細の情報をまとめて更新
+   * 入力エラーや存在しない受講生は要素ごとのエラーとして返し、それ以外の受講生は更新します
+   *
+   * @param studentDetails 受講生詳細
+   * @return 一括更新の結果
+   */
+  @Operation(
+      summary = "受講生情報の一括更新",
+      description = "指定された受講生情報をまとめて更新します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "更新件数と更新できなかった受講生のエラーを返します。",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = BatchUpdateResult.class))
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "リクエストデータが不正です。"
+          )
+      }
+  )
+  @PutMapping("/students/batch")
+  public ResponseEntity<BatchUpdateResult> updateStudents(
+      @RequestBody @NotEmpty @Size(max = 10000) List<StudentDetail> studentDetails) {
+    return ResponseEntity.ok(this.batchService.update(studentDetails));
+  }
+
   /**
    * 申込状況の情報（1件）を更新
+   * 更新を溜めてまとめて書き込む設定の場合は、受け付けた時点で202を返します
+   * sync=true を指定した場合は、設定にかかわらず書き込みが完了してから200を返します
    *
+   * @param sync 書き込みの完了を待つかどうか
    * @return String 申込状況
    */
   @Operation(
       summary = "申込状況情報の更新",
-      description = "指定された申込状況情報を更新します。",
+      description = "指定された申込状況情報を更新します。"
+          + "student.write-behind.enabled=true の場合は更新を受け付けて202を返し、"
+          + "同じ申込状況への更新をまとめて後から書き込みます。"
+          + "sync=true を指定した場合は書き込みの完了を待って200を返します。",
       responses = {
           @ApiResponse(
               responseCode = "200",
               description = "申込状況情報が正常に更新されました。",
               content = @Content(mediaType = "application/json")
           ),
+          @ApiResponse(
+              responseCode = "202",
+              description = "申込状況情報の更新を受け付けました。",
+              content = @Content(mediaType = "application/json")
+          ),
           @ApiResponse(
               responseCode = "400",
               description = "リクエストデータが不正です。"
@@ -269,9 +441,22 @@ public class StudentController {
   )
   @PutMapping("/applicationStatuses/update")
   public ResponseEntity<Map<String, String>> updateApplicationStatus(
-      @Validated @RequestBody ApplicationStatus status) {
-    //申込状況更新のサービスのメソッド呼びだし
-    this.service.update(status);
+      @Validated @RequestBody ApplicationStatus status,
+      @RequestParam(defaultValue = "false") boolean sync) {
+    if (this.statusWriteBuffer != null) {
+      if (!sync) {
+        //更新を溜めておき、後からまとめて書き込む
+        this.statusWriteBuffer.offer(status);
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "更新を受け付けました");
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+      }
+      //溜まっている同じ申込状況の更新を破棄してから書き込む
+      this.statusWriteBuffer.writeThrough(status);
+    } else {
+      //申込状況更新のサービスのメソッド呼びだし
+      this.service.update(status);
+    }
     // ResponseEntityで何を返すか設定する
     // レスポンス用のメッセージをMapに格納する
     Map<String, String> response = new HashMap<>();
@@ -280,6 +465,42 @@ public class StudentController {
 
   }
 
+  /**
+   * 申込状況の情報を一括更新
+   * ID、またはコース名と現在のステータスで対象を指定して、まとめて変更後のステータスに更新します
+   *
+   * @param transition 申込状況の一括更新条件
+   * @return 更新件数
+   */
+  @Operation(
+      summary = "申込状況情報の一括更新",
+      description = "指定された条件に一致する申込状況をまとめて更新します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "申込状況情報が正常に更新されました。",
+              content = @Content(mediaType = "application/json")
+          ),
+          @ApiResponse(
+              responseCode = "400",
+              description = "リクエストデータが不正です。"
+          ),
+          @ApiResponse(
+              responseCode = "500",
+              description = "サーバーエラーです。"
+          )
+      }
+  )
+  @PutMapping("/applicationStatuses/bulk")
+  public ResponseEntity<Map<String, Object>> updateApplicationStatuses(
+      @Validated @RequestBody ApplicationStatusTransition transition) {
+    int updatedCount = this.service.updateApplicationStatuses(transition);
+    Map<String, Object> response = new HashMap<>();
+    response.put("message", "更新処理が成功しました");
+    response.put("updatedCount", updatedCount);
+    return ResponseEntity.ok(response);
+  }
+
   /**
    * 申込状況の情報（1件）を削除
    *
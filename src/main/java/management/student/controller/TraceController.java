@@ -0,0 +1,63 @@
+package management.student.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.List;
+import management.student.tracing.SlowTraceStore;
+import management.student.tracing.TraceRecord;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 遅かったリクエストのトレースを返す運用向けのControllerクラス
+ */
+@RestController
+@Validated
+@ConditionalOnProperty(prefix = "student.tracing", name = "enabled", matchIfMissing = true)
+public class TraceController {
+
+  private SlowTraceStore store;
+
+  /**
+   * コンストラクタ
+   *
+   * @param store 　遅いリクエストのトレースの保持先
+   */
+  @Autowired
+  public TraceController(SlowTraceStore store) {
+    this.store = store;
+  }
+
+  /**
+   * 遅かったリクエストのトレースを新しい順に取得
+   *
+   * @param limit 取得する最大件数
+   * @return トレース
+   */
+  @Operation(
+      summary = "遅いリクエストのトレースの取得",
+      description = "処理時間が student.tracing.slow-threshold 以上だったリクエストについて、"
+          + "Controller、Service、SQLの区間ごとの処理時間を新しい順に返します。",
+      responses = {
+          @ApiResponse(
+              responseCode = "200",
+              description = "成功 - トレースを返します",
+              content = @Content(mediaType = "application/json",
+                  schema = @Schema(implementation = TraceRecord.class))
+          )
+      }
+  )
+  @GetMapping("/internal/traces")
+  public List<TraceRecord> getTraces(
+      @RequestParam(defaultValue = "20") @Min(1) @Max(1000) int limit) {
+    return store.recent(limit);
+  }
+}
@@ -1,11 +1,17 @@
 package management.student.converter;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
 import management.student.domain.StudentDetail;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 /**
@@ -15,28 +21,100 @@ import org.springframework.stereotype.Component;
 @Component
 public class StudentConverter {
 
+  //これより少ない件数ではタスクの分割のほうが高くつくため1つのスレッドで変換する
+  static final int DEFAULT_PARALLEL_THRESHOLD = 20_000;
+  //並列に変換する場合に、1つのタスクで変換する最大件数
+  private static final int LEAF_SIZE = 2_048;
+
+  private final int parallelThreshold;
+
+  /**
+   * 並列に変換する件数の閾値を既定値とするコンストラクタ
+   */
+  public StudentConverter() {
+    this(DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * 並列に変換する件数の閾値を指定するコンストラクタ
+   *
+   * @param parallelThreshold 　並列に変換する最小の受講生数
+   */
+  @Autowired
+  public StudentConverter(
+      @Value("${student.converter.parallel-threshold:" + DEFAULT_PARALLEL_THRESHOLD + "}")
+      int parallelThreshold) {
+    this.parallelThreshold = parallelThreshold;
+  }
+
   /**
    * 受講生テーブルと受講生コーステーブルを使用して、受講生詳細を作成する
-   * 受講生コースは受講生に対して複数存在するのでループを回して受講生IDで紐づく受講生コースとコースの申込状況を設定する
+   * 受講生コースを受講生IDごとにまとめてから、受講生の順番どおりに受講生詳細を作成する
+   * 受講生が閾値以上の場合は、受講生を分割してfork/joinプールで並列に作成する
+   * 戻り値のリストと各受講生詳細の受講生コースのリストは、それぞれ変更できる別のリストとする
    *
    * @param studentList 　受講生
    * @param courseList  　受講生コース
    * @return 受講生詳細情報
-   * @Param applicationStatusList 申込状況リスト
    */
   public List<StudentDetail> convertStudentDetails(List<Student> studentList,
       List<StudentCourse> courseList) {
+    Map<Integer, List<StudentCourse>> coursesByStudent = new HashMap<>();
+    courseList.forEach(course -> coursesByStudent
+        .computeIfAbsent(course.getStudentId(), key -> new ArrayList<>())
+        .add(course));
+
+    StudentDetail[] studentDetails = new StudentDetail[studentList.size()];
+    ConvertTask task = new ConvertTask(studentList, coursesByStudent, studentDetails, 0,
+        studentList.size());
+    if (studentList.size() >= parallelThreshold) {
+      ForkJoinPool.commonPool().invoke(task);
+    } else {
+      task.convert();
+    }
+    return new ArrayList<>(Arrays.asList(studentDetails));
+  }
+
+  /**
+   * 受講生の範囲を分割しながら受講生詳細を作成するタスク
+   * 結果は受講生と同じ位置に格納するため、順番は変わらない
+   */
+  private static class ConvertTask extends RecursiveAction {
+
+    private final List<Student> studentList;
+    private final Map<Integer, List<StudentCourse>> coursesByStudent;
+    private final StudentDetail[] studentDetails;
+    private final int from;
+    private final int to;
+
+    ConvertTask(List<Student> studentList, Map<Integer, List<StudentCourse>> coursesByStudent,
+        StudentDetail[] studentDetails, int from, int to) {
+      this.studentList = studentList;
+      this.coursesByStudent = coursesByStudent;
+      this.studentDetails = studentDetails;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from <= LEAF_SIZE) {
+        convert();
+        return;
+      }
+      int middle = (from + to) >>> 1;
+      invokeAll(new ConvertTask(studentList, coursesByStudent, studentDetails, from, middle),
+          new ConvertTask(studentList, coursesByStudent, studentDetails, middle, to));
+    }
 
-    List<StudentDetail> studentDetailList = new ArrayList<>();
-    //受講生と受講生テーブルで紐づくものを受講生詳細に変換
-    studentList.forEach(student -> {
-      StudentDetail studentDetail = new StudentDetail();
-      studentDetail.setStudent(student);
-      List<StudentCourse> convertCourseList = courseList.stream()
-          .filter(course -> student.getId() == course.getStudentId()).collect(Collectors.toList());
-      studentDetail.setStudentCourseList(convertCourseList);
-      studentDetailList.add(studentDetail);
-    });
-    return studentDetailList;
+    void convert() {
+      for (int index = from; index < to; index++) {
+        Student student = studentList.get(index);
+        List<StudentCourse> courses = coursesByStudent.get(student.getId());
+        //同じIDの受講生が複数ある場合にリストを共有しないよう、受講生ごとにコピーする
+        studentDetails[index] = new StudentDetail(student,
+            courses == null ? new ArrayList<>() : new ArrayList<>(courses));
+      }
+    }
   }
 }
@@ -0,0 +1,35 @@
+package management.student.data;
+
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 他のノードのキャッシュから削除する対象の記録
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class CacheInvalidation {
+
+  private long id; //ID（登録順）
+  private Target target; //削除対象の種類
+  private Integer targetId; //削除対象のID（全件の場合はnull）
+  private LocalDateTime createdAt; //登録日時
+
+  public CacheInvalidation(Target target, Integer targetId) {
+    this.target = target;
+    this.targetId = targetId;
+  }
+
+  /**
+   * 削除対象の種類
+   */
+  public enum Target {
+    STUDENT, //受講生ID
+    COURSE, //受講生コースID（その受講生コースを含む受講生詳細が対象）
+    APPLICATION_STATUS, //申込状況ID（その申込状況を含む受講生詳細が対象）
+    ALL //全件
+  }
+}
@@ -0,0 +1,23 @@
+package management.student.data;
+
+import java.time.LocalDateTime;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 冪等キーごとのリクエストとレスポンスの記録
+ */
+@Getter
+@Setter
+public class IdempotencyRecord {
+
+  private String idempotencyKey; //冪等キー
+  private String requestHash; //リクエストのハッシュ値（メソッド、パス、ボディ）
+  private Integer statusCode; //レスポンスのステータス（処理中の場合はnull）
+  private String responseBody; //レスポンスのボディ
+  private LocalDateTime createdAt; //登録日時
+  private LocalDateTime expiresAt; //有効期限
+  private LocalDateTime pendingUntil; //処理中の予約の期限（これを過ぎても処理中の場合は、他のリクエストが引き継げる）
+  private String owner; //予約したリクエストの識別子（予約を引き継いだリクエストだけが完了・取り消しできる）
+
+}
@@ -0,0 +1,34 @@
+package management.student.domain;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+
+@Schema(description = "申込状況の一括更新")
+@Getter
+@Setter
+public class ApplicationStatusTransition {
+
+  private List<Integer> ids; //申込状況ID（指定した場合はIDで対象を絞り込む）
+  private String courseName; //コース名
+  private String currentStatus; //現在のステータス
+  @NotEmpty(message = "変更後のステータスは必須です")
+  private String targetStatus; //変更後のステータス
+
+  /**
+   * 更新対象の条件が指定されているか判定する
+   * 条件なしで全件が更新されることを防ぐ
+   *
+   * @return ID、コース名、現在のステータスのいずれかが指定されている場合true
+   */
+  @JsonIgnore
+  @Schema(hidden = true)
+  @AssertTrue(message = "申込状況ID、コース名、現在のステータスのいずれかを指定してください")
+  public boolean isConditionSpecified() {
+    return (ids != null && !ids.isEmpty()) || courseName != null || currentStatus != null;
+  }
+}
@@ -0,0 +1,28 @@
+package management.student.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "一括更新の結果")
+@Getter
+@AllArgsConstructor
+public class BatchUpdateResult {
+
+  private int updatedCount; //更新件数
+  private List<ItemError> errors; //更新できなかった要素
+
+  /**
+   * 更新できなかった要素のエラー
+   */
+  @Schema(description = "一括更新のエラー")
+  @Getter
+  @AllArgsConstructor
+  public static class ItemError {
+
+    private int index; //リクエスト内の番号
+    private Integer studentId; //受講生ID
+    private List<String> messages; //エラーメッセージ
+  }
+}
@@ -0,0 +1,18 @@
+package management.student.domain;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import management.student.data.StudentCourse;
+
+@Schema(description = "受講生コースのページ")
+@Getter
+@AllArgsConstructor
+public class StudentCoursePage {
+
+  private List<StudentCourse> content; //受講生コース
+  private int page; //ページ番号（0から）
+  private int size; //1ページの件数
+  private boolean hasNext; //次のページがあるか
+}
@@ -1,5 +1,6 @@
 package management.student.domain;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -21,6 +22,7 @@ public class StudentDetail {
 
   @Valid
   private Student student; //受講生
-  private List<StudentCourse> studentCourseList;  //受講生コース
+  @JsonInclude(JsonInclude.Include.NON_NULL)
+  private List<StudentCourse> studentCourseList;  //受講生コース（受講生のみ取得した場合はnull）
 
 }
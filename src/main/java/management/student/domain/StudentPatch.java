@@ -0,0 +1,155 @@
+package management.student.domain;
+
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import lombok.Getter;
+
+/**
+ * 受講生の部分更新（JSON Merge Patch）
+ * 指定された項目だけを更新し、nullが指定された項目はNULLにする。指定されなかった項目は変更しない
+ */
+@Schema(description = "受講生の部分更新（JSON Merge Patch）")
+@Getter
+public class StudentPatch {
+
+  //NULLにできない項目（DBのNOT NULL列と、受講生でプリミティブ型の項目）
+  private static final List<String> NOT_NULL_PROPERTIES = List.of("name", "furigana", "age",
+      "gender", "email", "deleteFlag");
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  private final Set<String> specifiedProperties = new LinkedHashSet<>(); //指定された項目
+  @JsonIgnore
+  @Schema(hidden = true)
+  private final Set<String> nullProperties = new LinkedHashSet<>(); //nullが指定された項目
+  @JsonIgnore
+  @Schema(hidden = true)
+  private final Set<String> unknownProperties = new TreeSet<>(); //更新できない項目
+
+  private String name; //名前
+  private Integer age; //年齢
+  private String furigana;  //かな
+  private String gender;  //性別
+  private String nickname;  //ニックネーム
+  @Email(message = "メールアドレスが有効ではありません。")
+  private String email;   //e-mail
+  private String region;    //地域
+  @Pattern(regexp = "^\\d{11}$|^\\d{3}-\\d{4}-\\d{4}$",
+      message = "電話番号は数字11桁またはハイフン含む13桁で入力してください")
+  private String phoneNumber;  //電話番号
+  private String remarks; //備考
+  private Boolean deleteFlag; //削除フラグ
+
+  public void setName(String name) {
+    this.name = name;
+    specify("name", name);
+  }
+
+  public void setAge(Integer age) {
+    this.age = age;
+    specify("age", age);
+  }
+
+  public void setFurigana(String furigana) {
+    this.furigana = furigana;
+    specify("furigana", furigana);
+  }
+
+  public void setGender(String gender) {
+    this.gender = gender;
+    specify("gender", gender);
+  }
+
+  public void setNickname(String nickname) {
+    this.nickname = nickname;
+    specify("nickname", nickname);
+  }
+
+  public void setEmail(String email) {
+    this.email = email;
+    specify("email", email);
+  }
+
+  public void setRegion(String region) {
+    this.region = region;
+    specify("region", region);
+  }
+
+  public void setPhoneNumber(String phoneNumber) {
+    this.phoneNumber = phoneNumber;
+    specify("phoneNumber", phoneNumber);
+  }
+
+  public void setRemarks(String remarks) {
+    this.remarks = remarks;
+    specify("remarks", remarks);
+  }
+
+  public void setDeleteFlag(Boolean deleteFlag) {
+    this.deleteFlag = deleteFlag;
+    specify("deleteFlag", deleteFlag);
+  }
+
+  /**
+   * 更新できない項目（IDなど）を記録する
+   *
+   * @param property 　項目名
+   * @param value    　値
+   */
+  @JsonAnySetter
+  public void setUnknownProperty(String property, Object value) {
+    unknownProperties.add(property);
+  }
+
+  /**
+   * 項目が指定されているか判定する
+   *
+   * @param property 　項目名
+   * @return 指定されている場合true（nullが指定された場合を含む）
+   */
+  public boolean isSpecified(String property) {
+    return specifiedProperties.contains(property);
+  }
+
+  /**
+   * 更新する項目がないか判定する
+   *
+   * @return 指定された項目がない場合true
+   */
+  @JsonIgnore
+  @Schema(hidden = true)
+  public boolean isEmpty() {
+    return specifiedProperties.isEmpty();
+  }
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  @AssertTrue(message = "更新できない項目が含まれています")
+  public boolean isKnownPropertiesOnly() {
+    return unknownProperties.isEmpty();
+  }
+
+  @JsonIgnore
+  @Schema(hidden = true)
+  @AssertTrue(message = "名前、かな、年齢、性別、メールアドレス、削除フラグはnullにできません")
+  public boolean isNotNullPropertiesSpecified() {
+    return NOT_NULL_PROPERTIES.stream().noneMatch(nullProperties::contains);
+  }
+
+  private void specify(String property, Object value) {
+    specifiedProperties.add(property);
+    if (value == null) {
+      nullProperties.add(property);
+    } else {
+      nullProperties.remove(property);
+    }
+  }
+}
@@ -0,0 +1,25 @@
+package management.student.export;
+
+/**
+ * 列ファイルの列の型
+ * ファイルには序数を1バイトで書き込むため、既存の値の順番は変えずに末尾に追加すること
+ */
+public enum ColumnType {
+  /**
+   * 整数（前の行との差をジグザグ符号化した可変長整数。NULLは不可）
+   */
+  INT,
+  /**
+   * 真偽値（1バイト。NULLは不可）
+   */
+  BOOLEAN,
+  /**
+   * 文字列（長さ+1の可変長整数とUTF-8。長さ0はNULL）
+   */
+  STRING,
+  /**
+   * 日時（NULLかどうかの1バイトと、前の値とのミリ秒の差をジグザグ符号化した可変長整数）
+   * LocalDateTimeをUTCとみなしたエポックミリ秒で記録する
+   */
+  TIMESTAMP
+}
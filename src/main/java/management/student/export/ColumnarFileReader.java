@@ -0,0 +1,195 @@
+package management.student.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * ColumnarFileWriterで書き込んだ列ファイルを読み込むクラス
+ * 書き出したファイルの確認や、取り込み側の実装の参考に使う
+ */
+public class ColumnarFileReader implements AutoCloseable {
+
+  private final FileChannel channel;
+  private final List<String> names = new ArrayList<>();
+  private final List<ColumnType> types = new ArrayList<>();
+  private final List<long[]> rowGroups = new ArrayList<>(); //開始位置と行数
+  private final long rowCount;
+
+  /**
+   * ファイルを開いてフッターを読み込む
+   *
+   * @param path 　列ファイル
+   * @throws IOException 読み込めない場合や列ファイルではない場合
+   */
+  public ColumnarFileReader(Path path) throws IOException {
+    this.channel = FileChannel.open(path, StandardOpenOption.READ);
+    try {
+      int magicLength = ColumnarFileWriter.MAGIC.length;
+      ByteBuffer tail = read(channel.size() - Integer.BYTES - magicLength,
+          Integer.BYTES + magicLength);
+      int footerLength = tail.getInt();
+      byte[] magic = new byte[magicLength];
+      tail.get(magic);
+      if (!Arrays.equals(magic, ColumnarFileWriter.MAGIC)) {
+        throw new IOException("Not a columnar export file: " + path);
+      }
+      ByteBuffer footer = read(channel.size() - Integer.BYTES - magicLength - footerLength,
+          footerLength);
+      int columnCount = footer.getInt();
+      for (int i = 0; i < columnCount; i++) {
+        byte[] name = new byte[footer.getShort()];
+        footer.get(name);
+        names.add(new String(name, StandardCharsets.UTF_8));
+        types.add(ColumnType.values()[footer.get()]);
+      }
+      int rowGroupCount = footer.getInt();
+      for (int i = 0; i < rowGroupCount; i++) {
+        rowGroups.add(new long[] {footer.getLong(), footer.getInt()});
+      }
+      this.rowCount = footer.getLong();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  public List<String> getNames() {
+    return names;
+  }
+
+  public List<ColumnType> getTypes() {
+    return types;
+  }
+
+  public long getRowCount() {
+    return rowCount;
+  }
+
+  public int getRowGroupCount() {
+    return rowGroups.size();
+  }
+
+  /**
+   * 1つの行グループを行の形で読み込む
+   *
+   * @param index 　行グループの番号
+   * @return 行（列の値の配列）
+   * @throws IOException 読み込めない場合
+   */
+  public List<Object[]> readRowGroup(int index) throws IOException {
+    long position = rowGroups.get(index)[0];
+    int rows = (int) rowGroups.get(index)[1];
+    List<Object[]> result = new ArrayList<>(rows);
+    for (int row = 0; row < rows; row++) {
+      result.add(new Object[names.size()]);
+    }
+    for (int column = 0; column < names.size(); column++) {
+      ByteBuffer header = read(position, Integer.BYTES * 2);
+      int compressedLength = header.getInt();
+      int rawLength = header.getInt();
+      ByteBuffer values = inflate(read(position + Integer.BYTES * 2, compressedLength),
+          rawLength);
+      position += Integer.BYTES * 2 + compressedLength;
+      long previous = 0;
+      for (Object[] row : result) {
+        switch (types.get(column)) {
+          case INT -> {
+            previous += unZigZag(readVarLong(values));
+            row[column] = (int) previous;
+          }
+          case BOOLEAN -> row[column] = values.get() != 0;
+          case STRING -> {
+            int length = (int) readVarLong(values) - 1;
+            if (length >= 0) {
+              byte[] utf8 = new byte[length];
+              values.get(utf8);
+              row[column] = new String(utf8, StandardCharsets.UTF_8);
+            }
+          }
+          case TIMESTAMP -> {
+            if (values.get() != 0) {
+              previous += unZigZag(readVarLong(values));
+              row[column] = LocalDateTime.ofInstant(Instant.ofEpochMilli(previous),
+                  ZoneOffset.UTC);
+            }
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * すべての行を読み込む
+   *
+   * @return 行（列の値の配列）
+   * @throws IOException 読み込めない場合
+   */
+  public List<Object[]> readAll() throws IOException {
+    List<Object[]> rows = new ArrayList<>((int) rowCount);
+    for (int i = 0; i < rowGroups.size(); i++) {
+      rows.addAll(readRowGroup(i));
+    }
+    return rows;
+  }
+
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  private ByteBuffer read(long position, int length) throws IOException {
+    ByteBuffer buffer = ByteBuffer.allocate(length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position()) < 0) {
+        throw new IOException("Unexpected end of columnar export file");
+      }
+    }
+    return buffer.flip();
+  }
+
+  private static ByteBuffer inflate(ByteBuffer compressed, int rawLength) throws IOException {
+    Inflater inflater = new Inflater();
+    try {
+      inflater.setInput(compressed);
+      ByteBuffer raw = ByteBuffer.allocate(rawLength);
+      while (raw.hasRemaining() && !inflater.finished()) {
+        if (inflater.inflate(raw) == 0 && inflater.needsInput()) {
+          throw new IOException("Truncated column data");
+        }
+      }
+      return raw.flip();
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted column data", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  private static long readVarLong(ByteBuffer buffer) {
+    long value = 0;
+    for (int shift = 0; ; shift += 7) {
+      byte b = buffer.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+  }
+
+  private static long unZigZag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
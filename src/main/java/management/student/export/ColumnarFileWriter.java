@@ -0,0 +1,281 @@
+package management.student.export;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+/**
+ * 行を受け取り、列ごとにまとめて圧縮したファイル（列ファイル）に書き込むクラス
+ * 行グループの行数ごとに、列ごとの値を符号化してDeflateで圧縮し、バッファーを通してFileChannelに書き込む
+ *
+ * <pre>
+ * ファイルの構成（数値はビッグエンディアン）
+ *   行グループ*    : 列ごとに [圧縮後の長さ int][圧縮前の長さ int][圧縮したデータ]
+ *   フッター       : [列数 int] 列ごとに [名前の長さ short][名前 UTF-8][型 byte]
+ *                    [行グループ数 int] 行グループごとに [開始位置 long][行数 int]
+ *                    [総行数 long]
+ *   末尾           : [フッターの長さ int][MAGIC]
+ * </pre>
+ */
+public class ColumnarFileWriter implements AutoCloseable {
+
+  static final byte[] MAGIC = "SMC1".getBytes(StandardCharsets.US_ASCII);
+  private static final int BUFFER_SIZE = 1 << 20;
+
+  private final FileChannel channel;
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+  private final List<String> names;
+  private final List<ColumnType> types;
+  private final int rowGroupSize;
+  private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+  private final ColumnBuffer[] columns;
+  private final List<long[]> rowGroups = new ArrayList<>(); //開始位置と行数
+  private long position;
+  private int rowsInGroup;
+  private long totalRows;
+  private byte[] compressed = new byte[BUFFER_SIZE];
+
+  /**
+   * ファイルを作成して書き込みを開始する
+   *
+   * @param path         　書き込むファイル（既に存在する場合は上書きする）
+   * @param names        　列名
+   * @param types        　列の型
+   * @param rowGroupSize 　1つの行グループの行数
+   * @throws IOException ファイルを作成できない場合
+   */
+  public ColumnarFileWriter(Path path, List<String> names, List<ColumnType> types,
+      int rowGroupSize) throws IOException {
+    if (names.size() != types.size()) {
+      throw new IllegalArgumentException("names and types must have the same size");
+    }
+    this.names = List.copyOf(names);
+    this.types = List.copyOf(types);
+    this.rowGroupSize = rowGroupSize;
+    this.columns = new ColumnBuffer[types.size()];
+    for (int i = 0; i < columns.length; i++) {
+      columns[i] = new ColumnBuffer();
+    }
+    this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+        StandardOpenOption.TRUNCATE_EXISTING);
+  }
+
+  /**
+   * 1行を書き込む
+   * 値は列と同じ順番で、型に合わせてInteger、Boolean、String、LocalDateTimeで渡す
+   *
+   * @param values 　列の値
+   * @throws IOException 書き込みに失敗した場合
+   */
+  public void write(Object... values) throws IOException {
+    if (values.length != columns.length) {
+      throw new IllegalArgumentException(
+          "expected " + columns.length + " values but got " + values.length);
+    }
+    for (int i = 0; i < columns.length; i++) {
+      ColumnBuffer column = columns[i];
+      switch (types.get(i)) {
+        case INT -> column.writeDelta((Integer) values[i]);
+        case BOOLEAN -> column.writeByte((Boolean) values[i] ? 1 : 0);
+        case STRING -> column.writeString((String) values[i]);
+        case TIMESTAMP -> column.writeTimestamp((LocalDateTime) values[i]);
+      }
+    }
+    rowsInGroup++;
+    totalRows++;
+    if (rowsInGroup >= rowGroupSize) {
+      flushRowGroup();
+    }
+  }
+
+  /**
+   * 書き込んだ行数を取得する
+   *
+   * @return 行数
+   */
+  public long getRowCount() {
+    return totalRows;
+  }
+
+  /**
+   * 残りの行グループとフッターを書き込み、ディスクに反映してファイルを閉じる
+   *
+   * @throws IOException 書き込みに失敗した場合
+   */
+  @Override
+  public void close() throws IOException {
+    try {
+      flushRowGroup();
+      ColumnBuffer footer = new ColumnBuffer();
+      footer.writeInt(names.size());
+      for (int i = 0; i < names.size(); i++) {
+        byte[] name = names.get(i).getBytes(StandardCharsets.UTF_8);
+        footer.writeShort(name.length);
+        footer.writeBytes(name, 0, name.length);
+        footer.writeByte(types.get(i).ordinal());
+      }
+      footer.writeInt(rowGroups.size());
+      for (long[] rowGroup : rowGroups) {
+        footer.writeLong(rowGroup[0]);
+        footer.writeInt((int) rowGroup[1]);
+      }
+      footer.writeLong(totalRows);
+      put(footer.bytes, 0, footer.length);
+      ColumnBuffer tail = new ColumnBuffer();
+      tail.writeInt(footer.length);
+      tail.writeBytes(MAGIC, 0, MAGIC.length);
+      put(tail.bytes, 0, tail.length);
+      drain();
+      channel.force(true);
+    } finally {
+      deflater.end();
+      channel.close();
+    }
+  }
+
+  private void flushRowGroup() throws IOException {
+    if (rowsInGroup == 0) {
+      return;
+    }
+    rowGroups.add(new long[] {position, rowsInGroup});
+    ColumnBuffer header = new ColumnBuffer();
+    for (ColumnBuffer column : columns) {
+      int compressedLength = compress(column);
+      header.length = 0;
+      header.writeInt(compressedLength);
+      header.writeInt(column.length);
+      put(header.bytes, 0, header.length);
+      put(compressed, 0, compressedLength);
+      column.reset();
+    }
+    rowsInGroup = 0;
+  }
+
+  private int compress(ColumnBuffer column) {
+    deflater.reset();
+    deflater.setInput(column.bytes, 0, column.length);
+    deflater.finish();
+    int length = 0;
+    while (!deflater.finished()) {
+      if (length == compressed.length) {
+        compressed = Arrays.copyOf(compressed, compressed.length * 2);
+      }
+      length += deflater.deflate(compressed, length, compressed.length - length);
+    }
+    return length;
+  }
+
+  private void put(byte[] bytes, int offset, int length) throws IOException {
+    while (length > 0) {
+      if (!buffer.hasRemaining()) {
+        drain();
+      }
+      int chunk = Math.min(length, buffer.remaining());
+      buffer.put(bytes, offset, chunk);
+      offset += chunk;
+      length -= chunk;
+      position += chunk;
+    }
+  }
+
+  private void drain() throws IOException {
+    buffer.flip();
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+    buffer.clear();
+  }
+
+  /**
+   * 1つの列の符号化した値を溜めるバッファー
+   */
+  private static class ColumnBuffer {
+
+    private byte[] bytes = new byte[4096];
+    private int length;
+    private long previous; //差分を取る前の値（行グループごとに0から）
+
+    void reset() {
+      length = 0;
+      previous = 0;
+    }
+
+    void writeDelta(long value) {
+      writeVarLong(zigZag(value - previous));
+      previous = value;
+    }
+
+    void writeString(String value) {
+      if (value == null) {
+        writeVarLong(0);
+        return;
+      }
+      byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+      writeVarLong(utf8.length + 1L);
+      writeBytes(utf8, 0, utf8.length);
+    }
+
+    void writeTimestamp(LocalDateTime value) {
+      if (value == null) {
+        writeByte(0);
+        return;
+      }
+      writeByte(1);
+      writeDelta(value.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    void writeVarLong(long value) {
+      ensure(10);
+      while ((value & ~0x7FL) != 0) {
+        bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      bytes[length++] = (byte) value;
+    }
+
+    void writeByte(int value) {
+      ensure(1);
+      bytes[length++] = (byte) value;
+    }
+
+    void writeShort(int value) {
+      writeByte(value >>> 8);
+      writeByte(value);
+    }
+
+    void writeInt(int value) {
+      writeShort(value >>> 16);
+      writeShort(value);
+    }
+
+    void writeLong(long value) {
+      writeInt((int) (value >>> 32));
+      writeInt((int) value);
+    }
+
+    void writeBytes(byte[] source, int offset, int count) {
+      ensure(count);
+      System.arraycopy(source, offset, bytes, length, count);
+      length += count;
+    }
+
+    private void ensure(int count) {
+      if (length + count > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + count));
+      }
+    }
+
+    private static long zigZag(long value) {
+      return (value << 1) ^ (value >> 63);
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package management.student.export;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 受講生、受講生コース、申込状況を列ファイルに書き出すジョブの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.export")
+public class ExportProperties {
+
+  private boolean enabled = false; //ジョブを実行するかどうか
+  private String directory = "export"; //書き出し先のディレクトリ（前回書き出した最大IDもここに記録する）
+  private int rowGroupSize = 65_536; //1つの行グループの行数（列ごとに圧縮する単位）
+  private Duration commitLag = Duration.ofMinutes(10); //抜けていたIDをコミット待ちとみなして読み直す時間
+}
@@ -0,0 +1,20 @@
+package management.student.export;
+
+import java.nio.file.Path;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 書き出した列ファイル
+ */
+@Getter
+@AllArgsConstructor
+public class ExportedFile {
+
+  private String table; //テーブル名
+  private Path path; //ファイル
+  private int afterId; //このIDより大きいものを対象とした（以前に抜けていたIDの行はこれ以下でも含む）
+  private int toId; //このID以下のものを対象とした
+  private long rowCount; //行数
+
+}
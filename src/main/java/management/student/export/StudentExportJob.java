@@ -0,0 +1,331 @@
+package management.student.export;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+import lombok.extern.slf4j.Slf4j;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.exception.StudentBizException;
+import management.student.repository.ExportRepository;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 受講生、受講生コース、申込状況を集計用の列ファイルに書き出すジョブ
+ * テーブルごとに前回書き出した最大IDを記録しておき、それより大きいIDの行だけを書き出す（差分の書き出し）
+ * 行はMyBatisのCursorで1行ずつ読み込み、ColumnarFileWriterで書き込むため、件数が多くてもメモリに載せない
+ * 書き出し中のファイルは一時ファイルに書き込み、完了してから名前を変更する
+ * 書き出した後に更新された行は差分に含まれないため、全件を書き出し直す場合は記録を削除する
+ * IDの採番順とコミット順は前後することがあるため、書き出した範囲で抜けていたIDもcommit-lagの間は記録しておき、
+ * 次に新しい行を書き出すときに読み直して、見つかった行を同じファイルに含める
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ExportProperties.class)
+@ConditionalOnProperty(prefix = "student.export", name = "enabled", havingValue = "true")
+public class StudentExportJob {
+
+  static final String STATE_FILE = "export-state.properties";
+  static final String EXTENSION = ".smc";
+  static final String GAPS_SUFFIX = ".gaps";
+  static final int MAX_TRACKED_GAPS = 10_000;
+
+  private final ExportProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final MeterRegistry registry;
+  private final Clock clock;
+  private final List<Table<?>> tables;
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository         　書き出し用のRepository
+   * @param properties         　ジョブの設定
+   * @param transactionManager 　Cursorで読み込む間のトランザクション
+   * @param registry           　書き出した行数のメトリクスの登録先
+   */
+  @Autowired
+  public StudentExportJob(ExportRepository repository, ExportProperties properties,
+      PlatformTransactionManager transactionManager, MeterRegistry registry) {
+    this(repository, properties, transactionManager, registry, Clock.systemDefaultZone());
+  }
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository         　書き出し用のRepository
+   * @param properties         　ジョブの設定
+   * @param transactionManager 　Cursorで読み込む間のトランザクション
+   * @param registry           　書き出した行数のメトリクスの登録先
+   * @param clock              　抜けていたIDを記録した時刻の取得元
+   */
+  public StudentExportJob(ExportRepository repository, ExportProperties properties,
+      PlatformTransactionManager transactionManager, MeterRegistry registry, Clock clock) {
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.registry = registry;
+    this.clock = clock;
+    this.tables = List.of(
+        new Table<Student>("student",
+            List.of("id", "name", "furigana", "nickname", "age", "phone_number", "gender",
+                "remarks", "email", "region", "delete_flag"),
+            List.of(ColumnType.INT, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING,
+                ColumnType.INT, ColumnType.STRING, ColumnType.STRING, ColumnType.STRING,
+                ColumnType.STRING, ColumnType.STRING, ColumnType.BOOLEAN),
+            repository::searchMaxStudentId, repository::cursorStudents,
+            student -> new Object[] {student.getId(), student.getName(),
+                student.getFurigana(), student.getNickname(), student.getAge(),
+                student.getPhoneNumber(), student.getGender(), student.getRemarks(),
+                student.getEmail(), student.getRegion(), student.isDeleteFlag()}),
+        new Table<StudentCourse>("student_courses",
+            List.of("id", "student_id", "course_name", "start_date", "end_date"),
+            List.of(ColumnType.INT, ColumnType.INT, ColumnType.STRING, ColumnType.TIMESTAMP,
+                ColumnType.TIMESTAMP),
+            repository::searchMaxStudentCourseId, repository::cursorStudentCourses,
+            course -> new Object[] {course.getId(), course.getStudentId(),
+                course.getCourseName(), course.getStartDate(), course.getEndDate()}),
+        new Table<ApplicationStatus>("application_status",
+            List.of("id", "student_course_id", "status"),
+            List.of(ColumnType.INT, ColumnType.INT, ColumnType.STRING),
+            repository::searchMaxApplicationStatusId, repository::cursorApplicationStatuses,
+            status -> new Object[] {status.getId(), status.getStudentCourseId(),
+                status.getStatus()}));
+  }
+
+  /**
+   * 定期実行の入り口（既定では毎日3時）
+   */
+  @Scheduled(cron = "${student.export.cron:0 0 3 * * *}")
+  public void run() {
+    for (ExportedFile file : export()) {
+      log.info("Exported {} rows of {} (id {}..{}) to {}", file.getRowCount(),
+          file.getTable(), file.getAfterId() + 1, file.getToId(), file.getPath());
+    }
+  }
+
+  /**
+   * 前回書き出した最大IDより大きいIDの行を、テーブルごとに1つのファイルに書き出す
+   * 以前に抜けていたIDの行が見つかった場合は、それも同じファイルに含める
+   * テーブルごとに書き出しが完了した時点で最大IDと抜けているIDを記録する
+   *
+   * @return 書き出したファイル（新しい行がないテーブルは含まない）
+   */
+  public List<ExportedFile> export() {
+    Path directory = Path.of(properties.getDirectory());
+    Properties state = loadState(directory);
+    List<ExportedFile> files = new ArrayList<>();
+    for (Table<?> table : tables) {
+      int afterId = Integer.parseInt(state.getProperty(table.name(), "0"));
+      int toId = table.maxId().getAsInt();
+      if (toId <= afterId) {
+        continue;
+      }
+      Map<Integer, Long> gaps = parseGaps(state.getProperty(table.name() + GAPS_SUFFIX));
+      files.add(exportRange(directory, table, afterId, toId, gaps));
+      state.setProperty(table.name(), Integer.toString(toId));
+      if (gaps.isEmpty()) {
+        state.remove(table.name() + GAPS_SUFFIX);
+      } else {
+        state.setProperty(table.name() + GAPS_SUFFIX, formatGaps(gaps));
+      }
+      saveState(directory, state);
+    }
+    return files;
+  }
+
+  /**
+   * IDの範囲を指定して書き出す
+   * 前回書き出した最大IDの記録は変更しないため、書き出し直しに使う
+   *
+   * @param tableName 　テーブル名（student、student_courses、application_status）
+   * @param afterId   　このIDより大きいものを対象とする
+   * @param toId      　このID以下のものを対象とする
+   * @return 書き出したファイル
+   */
+  public ExportedFile exportRange(String tableName, int afterId, int toId) {
+    Table<?> table = tables.stream()
+        .filter(candidate -> candidate.name().equals(tableName))
+        .findFirst()
+        .orElseThrow(() -> new StudentBizException("Unknown export table: " + tableName,
+            HttpStatus.BAD_REQUEST));
+    return exportRange(Path.of(properties.getDirectory()), table, afterId, toId, null);
+  }
+
+  /**
+   * IDの範囲の行を書き出す
+   * 抜けているIDの記録を渡した場合は、記録されたIDから読み直して見つかった行も含め、
+   * 範囲内で抜けていたIDを記録に加え、commit-lagを過ぎても見つからないIDを記録から除く
+   */
+  private <T> ExportedFile exportRange(Path directory, Table<T> table, int afterId, int toId,
+      Map<Integer, Long> gaps) {
+    long now = clock.millis();
+    int readAfterId = gaps == null || gaps.isEmpty()
+        ? afterId : Math.min(afterId, Collections.min(gaps.keySet()) - 1);
+    Path path = directory.resolve(
+        table.name() + "-" + (afterId + 1) + "-" + toId + EXTENSION);
+    Path temporary = directory.resolve(path.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(directory);
+      long rows = transactionTemplate.execute(transaction -> {
+        try (Cursor<T> cursor = table.cursor().apply(readAfterId, toId);
+            ColumnarFileWriter writer = new ColumnarFileWriter(temporary, table.columns(),
+                table.types(), properties.getRowGroupSize())) {
+          int expectedId = afterId + 1;
+          for (T row : cursor) {
+            Object[] values = table.row().apply(row);
+            int id = (Integer) values[0];
+            if (id <= afterId) {
+              //書き出し済みの行は読み飛ばし、抜けていたIDの行だけを書き出す
+              if (gaps.remove(id) == null) {
+                continue;
+              }
+            } else if (gaps != null) {
+              trackGaps(table, gaps, expectedId, id, now);
+              expectedId = id + 1;
+            }
+            writer.write(values);
+          }
+          if (gaps != null) {
+            trackGaps(table, gaps, expectedId, toId + 1, now);
+          }
+          return writer.getRowCount();
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+      Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+      registry.counter("student.export.rows", "table", table.name()).increment(rows);
+      if (gaps != null) {
+        gaps.values().removeIf(
+            detectedAt -> now - detectedAt >= properties.getCommitLag().toMillis());
+      }
+      return new ExportedFile(table.name(), path, afterId, toId, rows);
+    } catch (IOException | UncheckedIOException e) {
+      deleteQuietly(temporary);
+      throw new StudentBizException("Failed to export " + table.name() + ": " + e.getMessage(),
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+  }
+
+  /**
+   * fromIdからtoIdの手前までのIDを、抜けているIDとして記録する
+   * 記録する件数には上限を設け、IDが大きく飛んだ場合に記録が膨らまないようにする
+   */
+  private static void trackGaps(Table<?> table, Map<Integer, Long> gaps, int fromId,
+      int toIdExclusive, long now) {
+    long limit = Math.min(toIdExclusive, (long) fromId + MAX_TRACKED_GAPS - gaps.size());
+    for (int id = fromId; id < limit; id++) {
+      gaps.put(id, now);
+    }
+    if (limit < toIdExclusive) {
+      log.warn("Too many missing ids in {}; ids {}..{} will not be re-read", table.name(),
+          Math.max(limit, fromId), toIdExclusive - 1);
+    }
+  }
+
+  /**
+   * 抜けているIDの記録（ID:記録した時刻のエポックミリ秒 をカンマ区切りで並べたもの）を読み込む
+   */
+  private static Map<Integer, Long> parseGaps(String value) {
+    Map<Integer, Long> gaps = new TreeMap<>();
+    if (value == null || value.isBlank()) {
+      return gaps;
+    }
+    for (String gap : value.split(",")) {
+      String[] parts = gap.split(":");
+      gaps.put(Integer.parseInt(parts[0]), Long.parseLong(parts[1]));
+    }
+    return gaps;
+  }
+
+  private static String formatGaps(Map<Integer, Long> gaps) {
+    StringBuilder builder = new StringBuilder();
+    gaps.forEach((id, detectedAt) -> {
+      if (!builder.isEmpty()) {
+        builder.append(',');
+      }
+      builder.append(id).append(':').append(detectedAt);
+    });
+    return builder.toString();
+  }
+
+  private static Properties loadState(Path directory) {
+    Properties state = new Properties();
+    Path file = directory.resolve(STATE_FILE);
+    if (Files.exists(file)) {
+      try (InputStream in = Files.newInputStream(file)) {
+        state.load(in);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+    return state;
+  }
+
+  /**
+   * 記録を一時ファイルに書き込んでから置き換え、途中で止まっても壊れた記録が残らないようにする
+   */
+  private static void saveState(Path directory, Properties state) {
+    Path file = directory.resolve(STATE_FILE);
+    Path temporary = directory.resolve(STATE_FILE + ".tmp");
+    try {
+      try (OutputStream out = Files.newOutputStream(temporary)) {
+        state.store(out, "last exported id and missing ids of each table");
+      }
+      Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static void deleteQuietly(Path path) {
+    try {
+      Files.deleteIfExists(path);
+    } catch (IOException e) {
+      log.warn("Failed to delete {}", path, e);
+    }
+  }
+
+  /**
+   * 書き出すテーブルの定義
+   *
+   * @param name    　テーブル名（ファイル名と記録のキーに使う）
+   * @param columns 　列名
+   * @param types   　列の型
+   * @param maxId   　最大IDの検索
+   * @param cursor  　IDの範囲の読み込み
+   * @param row     　1行を列の値の配列に変換する
+   */
+  private record Table<T>(String name, List<String> columns, List<ColumnType> types,
+                          IntSupplier maxId, BiFunction<Integer, Integer, Cursor<T>> cursor,
+                          Function<T, Object[]> row) {
+
+  }
+}
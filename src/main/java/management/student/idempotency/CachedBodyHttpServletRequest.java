@@ -0,0 +1,79 @@
+package management.student.idempotency;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 読み込み済みのリクエストボディを、後続の処理で再度読み込めるようにするラッパー
+ */
+public class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+  private final byte[] body;
+
+  /**
+   * 引数２つコンストラクタ
+   *
+   * @param request 　元のリクエスト
+   * @param body    　読み込み済みのリクエストボディ
+   */
+  public CachedBodyHttpServletRequest(HttpServletRequest request, byte[] body) {
+    super(request);
+    this.body = body;
+  }
+
+  @Override
+  public ServletInputStream getInputStream() {
+    ByteArrayInputStream input = new ByteArrayInputStream(body);
+    return new ServletInputStream() {
+      @Override
+      public boolean isFinished() {
+        return input.available() == 0;
+      }
+
+      @Override
+      public boolean isReady() {
+        return true;
+      }
+
+      /**
+       * ボディはすべてメモリ上にあり待たずに読めるため、読み込みを通知してすぐに完了を通知する
+       */
+      @Override
+      public void setReadListener(ReadListener readListener) {
+        try {
+          if (!isFinished()) {
+            readListener.onDataAvailable();
+          }
+          readListener.onAllDataRead();
+        } catch (IOException e) {
+          readListener.onError(e);
+        }
+      }
+
+      @Override
+      public int read() {
+        return input.read();
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) {
+        return input.read(b, off, len);
+      }
+    };
+  }
+
+  @Override
+  public BufferedReader getReader() {
+    Charset charset = getCharacterEncoding() != null
+        ? Charset.forName(getCharacterEncoding()) : StandardCharsets.UTF_8;
+    return new BufferedReader(new InputStreamReader(getInputStream(), charset));
+  }
+}
@@ -0,0 +1,36 @@
+package management.student.idempotency;
+
+import management.student.repository.IdempotencyRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 冪等キーのフィルターを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(IdempotencyProperties.class)
+@ConditionalOnProperty(prefix = "student.idempotency", name = "enabled", matchIfMissing = true)
+public class IdempotencyConfig {
+
+  @Bean
+  public IdempotencyStore idempotencyStore(IdempotencyRepository repository,
+      IdempotencyProperties properties) {
+    return new IdempotencyStore(repository, properties);
+  }
+
+  @Bean
+  public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore store,
+      IdempotencyProperties properties) {
+    FilterRegistrationBean<IdempotencyFilter> registration = new FilterRegistrationBean<>(
+        new IdempotencyFilter(store, properties));
+    //登録APIのみを対象とする
+    registration.addUrlPatterns("/students", "/applicationStatuses");
+    //レート制限の後に実行する
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+    return registration;
+  }
+}
@@ -0,0 +1,154 @@
+package management.student.idempotency;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Objects;
+import java.util.Optional;
+import management.student.data.IdempotencyRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * 登録APIの再送を冪等に扱うフィルター
+ * Idempotency-Keyヘッダーが指定された場合、同じキーの再送には登録処理を実行せずに記録済みのレスポンスを返す
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+  static final String REPLAYED_HEADER = "Idempotency-Replayed";
+
+  private final IdempotencyStore store;
+  private final IdempotencyProperties properties;
+
+  /**
+   * 引数２つコンストラクタ
+   *
+   * @param store      　冪等キーの記録
+   * @param properties 　冪等キーの設定
+   */
+  public IdempotencyFilter(IdempotencyStore store, IdempotencyProperties properties) {
+    this.store = store;
+    this.properties = properties;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"POST".equals(request.getMethod())
+        || StringUtils.isBlank(request.getHeader(properties.getHeaderName()));
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String key = request.getHeader(properties.getHeaderName());
+    if (key.length() > properties.getMaxKeyLength()) {
+      writeError(response, HttpStatus.BAD_REQUEST,
+          properties.getHeaderName() + " must be at most " + properties.getMaxKeyLength()
+              + " characters");
+      return;
+    }
+    byte[] body = StreamUtils.copyToByteArray(request.getInputStream());
+    String requestHash = hash(request, body);
+
+    Optional<IdempotencyRecord> existing = store.find(key);
+    Optional<String> owner = Optional.empty();
+    if (existing.isEmpty()) {
+      owner = store.reserve(key, requestHash);
+      if (owner.isEmpty()) {
+        //他のリクエストが同時に予約した場合
+        existing = store.find(key);
+      }
+    }
+    if (existing.isPresent()) {
+      replay(existing.get(), requestHash, response);
+      return;
+    }
+    if (owner.isEmpty()) {
+      //予約した他のリクエストの記録がすでに取り消された場合は、予約なしで実行せずに再送してもらう
+      writeError(response, HttpStatus.CONFLICT,
+          "A request with the same " + properties.getHeaderName() + " is in progress");
+      return;
+    }
+
+    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    boolean completed = false;
+    try {
+      filterChain.doFilter(new CachedBodyHttpServletRequest(request, body), responseWrapper);
+      //成功したレスポンスのみ記録し、エラーの場合は同じキーで再実行できるようにする
+      if (HttpStatusCode.valueOf(responseWrapper.getStatus()).is2xxSuccessful()) {
+        store.complete(key, owner.get(), responseWrapper.getStatus(),
+            new String(responseWrapper.getContentAsByteArray(), StandardCharsets.UTF_8));
+        completed = true;
+      }
+    } finally {
+      if (!completed) {
+        store.release(key, owner.get());
+      }
+      responseWrapper.copyBodyToResponse();
+    }
+  }
+
+  /**
+   * 記録済みのレスポンスを返す
+   *
+   * @param record      　冪等キーの記録
+   * @param requestHash 　今回のリクエストのハッシュ値
+   * @param response    　レスポンス
+   */
+  private void replay(IdempotencyRecord record, String requestHash, HttpServletResponse response)
+      throws IOException {
+    if (!record.getRequestHash().equals(requestHash)) {
+      writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+          properties.getHeaderName() + " is already used for a different request");
+      return;
+    }
+    if (record.getStatusCode() == null) {
+      writeError(response, HttpStatus.CONFLICT,
+          "A request with the same " + properties.getHeaderName() + " is in progress");
+      return;
+    }
+    response.setStatus(record.getStatusCode());
+    response.setHeader(REPLAYED_HEADER, "true");
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    response.getWriter().write(Objects.toString(record.getResponseBody(), ""));
+  }
+
+  private void writeError(HttpServletResponse response, HttpStatus status, String message)
+      throws IOException {
+    response.setStatus(status.value());
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    response.getWriter().write("{\"message\":\"" + message + "\"}");
+  }
+
+  /**
+   * メソッド、パス、ボディからリクエストのハッシュ値（SHA-256）を求める
+   *
+   * @param request 　リクエスト
+   * @param body    　リクエストボディ
+   * @return ハッシュ値（16進数）
+   */
+  static String hash(HttpServletRequest request, byte[] body) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update((request.getMethod() + " " + request.getRequestURI() + "\n")
+          .getBytes(StandardCharsets.UTF_8));
+      digest.update(body);
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
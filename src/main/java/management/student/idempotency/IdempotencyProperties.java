@@ -0,0 +1,23 @@
+package management.student.idempotency;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 冪等キーの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.idempotency")
+public class IdempotencyProperties {
+
+  private boolean enabled = true; //冪等キーを扱うかどうか
+  private String headerName = "Idempotency-Key"; //冪等キーを指定するヘッダー
+  private int maxKeyLength = 64; //冪等キーの最大長
+  private Duration ttl = Duration.ofHours(24); //記録を保持する期間
+  //処理中の予約を保持する期間（処理が異常終了して完了しなかった予約は、この期間を過ぎると同じキーで再実行できる）
+  private Duration pendingLease = Duration.ofSeconds(30);
+  private int purgeChunkSize = 1000; //有効期限切れの記録を1回で削除する件数
+}
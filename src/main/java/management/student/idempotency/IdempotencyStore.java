@@ -0,0 +1,127 @@
+package management.student.idempotency;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.UUID;
+import management.student.data.IdempotencyRecord;
+import management.student.repository.IdempotencyRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 冪等キーの記録を保持するクラス
+ * 再起動後も再送を判定できるようにDBに保持し、有効期限を過ぎた記録は定期的に削除する
+ */
+public class IdempotencyStore {
+
+  private final IdempotencyRepository repository;
+  private final IdempotencyProperties properties;
+
+  /**
+   * 引数２つコンストラクタ
+   *
+   * @param repository 　冪等キーの記録のRepository
+   * @param properties 　冪等キーの設定
+   */
+  public IdempotencyStore(IdempotencyRepository repository, IdempotencyProperties properties) {
+    this.repository = repository;
+    this.properties = properties;
+  }
+
+  /**
+   * 有効期限内の記録を取得する
+   * 有効期限切れの記録は削除し、記録がないものとして扱う
+   * 処理中の予約の期限が切れた記録は、処理が異常終了したものとして記録がないものとして扱う（reserveで引き継ぐ）
+   *
+   * @param key 　冪等キー
+   * @return 冪等キーの記録
+   */
+  public Optional<IdempotencyRecord> find(String key) {
+    Optional<IdempotencyRecord> record = repository.searchIdempotencyRecord(key);
+    LocalDateTime now = LocalDateTime.now();
+    if (record.isPresent() && record.get().getExpiresAt().isBefore(now)) {
+      repository.deleteIdempotencyRecord(key, record.get().getOwner());
+      return Optional.empty();
+    }
+    if (record.isPresent() && isAbandoned(record.get(), now)) {
+      return Optional.empty();
+    }
+    return record;
+  }
+
+  /**
+   * 処理中の記録を登録して冪等キーを予約する
+   * すでに記録がある場合でも、処理中の予約の期限が切れていれば引き継いで予約する
+   * 予約ごとに識別子を発行し、完了・取り消しは識別子が一致する予約に対してのみ行う
+   *
+   * @param key         　冪等キー
+   * @param requestHash 　リクエストのハッシュ値
+   * @return 予約したリクエストの識別子（他のリクエストがすでに予約していた場合は空）
+   */
+  public Optional<String> reserve(String key, String requestHash) {
+    LocalDateTime now = LocalDateTime.now();
+    IdempotencyRecord record = new IdempotencyRecord();
+    record.setIdempotencyKey(key);
+    record.setRequestHash(requestHash);
+    record.setCreatedAt(now);
+    record.setExpiresAt(now.plus(properties.getTtl()));
+    record.setPendingUntil(now.plus(properties.getPendingLease()));
+    record.setOwner(UUID.randomUUID().toString());
+    try {
+      repository.createIdempotencyRecord(record);
+      return Optional.of(record.getOwner());
+    } catch (DuplicateKeyException e) {
+      //複数のリクエストが同時に引き継ごうとした場合は、条件付きの更新で1つだけが引き継ぐ
+      return repository.reclaimIdempotencyRecord(record, now) == 1
+          ? Optional.of(record.getOwner()) : Optional.empty();
+    }
+  }
+
+  /**
+   * 記録にレスポンスを設定して処理済みにする
+   * 処理中に予約の期限が切れて他のリクエストに引き継がれていた場合は、引き継いだリクエストの記録を上書きしない
+   *
+   * @param key          　冪等キー
+   * @param owner        　予約したリクエストの識別子
+   * @param statusCode   　レスポンスのステータス
+   * @param responseBody 　レスポンスのボディ
+   * @return 記録できた場合true
+   */
+  public boolean complete(String key, String owner, int statusCode, String responseBody) {
+    IdempotencyRecord record = new IdempotencyRecord();
+    record.setIdempotencyKey(key);
+    record.setOwner(owner);
+    record.setStatusCode(statusCode);
+    record.setResponseBody(responseBody);
+    return repository.completeIdempotencyRecord(record) == 1;
+  }
+
+  /**
+   * 予約を取り消して、同じ冪等キーで再実行できるようにする
+   * 処理中に予約の期限が切れて他のリクエストに引き継がれていた場合は、引き継いだリクエストの記録を削除しない
+   *
+   * @param key   　冪等キー
+   * @param owner 　予約したリクエストの識別子
+   */
+  public void release(String key, String owner) {
+    repository.deleteIdempotencyRecord(key, owner);
+  }
+
+  private static boolean isAbandoned(IdempotencyRecord record, LocalDateTime now) {
+    return record.getStatusCode() == null
+        && (record.getPendingUntil() == null || record.getPendingUntil().isBefore(now));
+  }
+
+  /**
+   * 有効期限切れの記録を少しずつ削除する
+   */
+  @Scheduled(fixedDelayString = "${student.idempotency.purge-interval:PT10M}",
+      initialDelayString = "${student.idempotency.purge-initial-delay:PT1M}")
+  public void purgeExpired() {
+    LocalDateTime now = LocalDateTime.now();
+    int chunkSize = properties.getPurgeChunkSize();
+    while (repository.deleteExpiredIdempotencyRecords(now, chunkSize) == chunkSize) {
+      //削除件数が上限に達した場合はまだ残っているため続けて削除する
+    }
+  }
+}
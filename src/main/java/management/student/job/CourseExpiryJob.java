@@ -0,0 +1,133 @@
+package management.student.job;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.StudentCourse;
+import management.student.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 受講完了日を過ぎた受講生コースの申込状況を、受講終了や期限切れに更新するジョブ
+ * 受講完了日のインデックスを範囲検索して対象の受講生コースをチャンク単位で取得し、
+ * チャンクごとに現在のステータス別の1回のUPDATEで更新する
+ * 更新した受講生コースはイベントで伝え、キャッシュから削除されるようにする
+ * 集計用の名簿のスナップショットには、次回の全件読み込みで反映される
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(CourseExpiryProperties.class)
+@ConditionalOnProperty(prefix = "student.course-expiry", name = "enabled", havingValue = "true")
+public class CourseExpiryJob {
+
+  private final StudentRepository repository;
+  private final CourseExpiryProperties properties;
+  private final MeterRegistry registry;
+  private final ApplicationEventPublisher eventPublisher;
+  private final Clock clock;
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository     　受講生のRepository
+   * @param properties     　ジョブの設定
+   * @param registry       　更新件数のメトリクスの登録先
+   * @param eventPublisher 　更新した受講生コースを伝える
+   */
+  @Autowired
+  public CourseExpiryJob(StudentRepository repository, CourseExpiryProperties properties,
+      MeterRegistry registry, ApplicationEventPublisher eventPublisher) {
+    this(repository, properties, registry, eventPublisher, Clock.systemDefaultZone());
+  }
+
+  /**
+   * 現在日時の取得元を指定するコンストラクタ
+   *
+   * @param repository     　受講生のRepository
+   * @param properties     　ジョブの設定
+   * @param registry       　更新件数のメトリクスの登録先
+   * @param eventPublisher 　更新した受講生コースを伝える
+   * @param clock          　現在日時の取得元
+   */
+  CourseExpiryJob(StudentRepository repository, CourseExpiryProperties properties,
+      MeterRegistry registry, ApplicationEventPublisher eventPublisher, Clock clock) {
+    this.repository = repository;
+    this.properties = properties;
+    this.registry = registry;
+    this.eventPublisher = eventPublisher;
+    this.clock = clock;
+  }
+
+  /**
+   * 定期実行の入り口（既定では毎日2時30分）
+   */
+  @Scheduled(cron = "${student.course-expiry.cron:0 30 2 * * *}")
+  public void run() {
+    int updated = expire();
+    if (updated > 0) {
+      log.info("Updated {} application statuses of expired courses", updated);
+    }
+  }
+
+  /**
+   * 受講完了日を過ぎた受講生コースの申込状況を更新する
+   *
+   * @return 更新した申込状況の件数
+   */
+  public int expire() {
+    LocalDateTime now = LocalDateTime.now(clock);
+    LocalDateTime endFrom = now.minus(properties.getLookback());
+    LocalDateTime afterEndDate = null;
+    int afterId = 0;
+    int updated = 0;
+    while (!Thread.currentThread().isInterrupted()) {
+      List<StudentCourse> courses = repository.searchStudentCoursesByEndDate(endFrom, now,
+          afterEndDate, afterId, properties.getChunkSize());
+      if (courses.isEmpty()) {
+        break;
+      }
+      List<Integer> courseIds = courses.stream().map(StudentCourse::getId).toList();
+      int chunkUpdated = 0;
+      for (Map.Entry<String, String> transition : properties.getTransitions().entrySet()) {
+        int count = repository.updateApplicationStatusByCourseIds(courseIds,
+            transition.getKey(), transition.getValue());
+        registry.counter("student.course.expiry.updated", "status", transition.getValue())
+            .increment(count);
+        chunkUpdated += count;
+      }
+      if (chunkUpdated > 0) {
+        eventPublisher.publishEvent(
+            RosterChangedEvent.builder().statusChangedCourseIds(courseIds).build());
+      }
+      updated += chunkUpdated;
+      StudentCourse last = courses.getLast();
+      afterEndDate = last.getEndDate();
+      afterId = last.getId();
+      if (courses.size() < properties.getChunkSize()) {
+        break;
+      }
+      pause();
+    }
+    return updated;
+  }
+
+  /**
+   * チャンク間で待機してDBへの負荷を抑える
+   */
+  private void pause() {
+    try {
+      Thread.sleep(properties.getPause().toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
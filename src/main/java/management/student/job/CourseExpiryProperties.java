@@ -0,0 +1,27 @@
+package management.student.job;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 受講完了日を過ぎた受講生コースの申込状況を更新するジョブの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.course-expiry")
+public class CourseExpiryProperties {
+
+  private boolean enabled = false; //ジョブを実行するかどうか
+  private Duration lookback = Duration.ofDays(7); //さかのぼって対象にする期間（実行されなかった日の分を含める）
+  private int chunkSize = 500; //1回のUPDATEで対象にする受講生コース数
+  private Duration pause = Duration.ofMillis(100); //チャンク間の待ち時間（DB負荷の抑制）
+  //現在のステータスと、受講完了日を過ぎた後のステータス
+  private Map<String, String> transitions = new LinkedHashMap<>(Map.of(
+      "受講中", "受講終了",
+      "仮申し込み", "期限切れ",
+      "本申込", "期限切れ"));
+}
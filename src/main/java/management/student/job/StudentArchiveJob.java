@@ -0,0 +1,138 @@
+package management.student.job;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import management.student.repository.StudentArchiveRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 論理削除された受講生を、受講生コース・申込状況とあわせてアーカイブテーブルに移動するジョブ
+ * 受講生ID順に少しずつ（チャンク単位で）移動し、チャンクごとに短いトランザクションでコミットする
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(StudentArchiveProperties.class)
+@ConditionalOnProperty(prefix = "student.archive", name = "enabled", havingValue = "true")
+public class StudentArchiveJob {
+
+  private final StudentArchiveRepository repository;
+  private final TransactionTemplate transactionTemplate;
+  private final StudentArchiveProperties properties;
+
+  private final Counter studentCounter;
+  private final Counter courseCounter;
+  private final Counter statusCounter;
+  private final Counter chunkCounter;
+  private final AtomicLong lastArchivedId = new AtomicLong(); //直近の実行で最後に移動した受講生ID
+
+  /**
+   * コンストラクタ
+   *
+   * @param repository         　アーカイブ用のRepository
+   * @param transactionManager 　チャンクごとのトランザクションに使うトランザクションマネージャー
+   * @param properties         　アーカイブジョブの設定
+   * @param registry           　進捗のメトリクスの登録先
+   */
+  public StudentArchiveJob(StudentArchiveRepository repository,
+      PlatformTransactionManager transactionManager, StudentArchiveProperties properties,
+      MeterRegistry registry) {
+    this.repository = repository;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.properties = properties;
+    this.studentCounter = Counter.builder("student.archive.rows").tag("table", "student")
+        .register(registry);
+    this.courseCounter = Counter.builder("student.archive.rows").tag("table", "student_courses")
+        .register(registry);
+    this.statusCounter = Counter.builder("student.archive.rows")
+        .tag("table", "application_status").register(registry);
+    this.chunkCounter = Counter.builder("student.archive.chunks").register(registry);
+    Gauge.builder("student.archive.last.id", lastArchivedId, AtomicLong::get).register(registry);
+  }
+
+  /**
+   * 定期実行の入り口
+   */
+  @Scheduled(fixedDelayString = "${student.archive.interval:PT1H}",
+      initialDelayString = "${student.archive.initial-delay:PT5M}")
+  public void run() {
+    int archived = archive();
+    if (archived > 0) {
+      log.info("Archived {} soft-deleted students", archived);
+    }
+  }
+
+  /**
+   * アーカイブ対象がなくなるまでチャンク単位で移動する
+   *
+   * @return 移動した受講生数
+   */
+  public int archive() {
+    LocalDateTime deletedBefore = LocalDateTime.now().minus(properties.getMinAge());
+    int afterId = 0;
+    int archived = 0;
+    lastArchivedId.set(0);
+    while (!Thread.currentThread().isInterrupted()) {
+      List<Integer> ids = repository.searchArchivableStudentIds(afterId, deletedBefore,
+          properties.getChunkSize());
+      if (ids.isEmpty()) {
+        break;
+      }
+      archived += archiveChunk(ids);
+      afterId = ids.getLast();
+      lastArchivedId.set(afterId);
+      if (ids.size() < properties.getChunkSize()) {
+        break;
+      }
+      pause();
+    }
+    return archived;
+  }
+
+  /**
+   * 1チャンク分の受講生を1トランザクションで移動する
+   * 検索後に削除が取り消された受講生は移動しない
+   *
+   * @param ids 　受講生ID
+   * @return 移動した受講生数
+   */
+  int archiveChunk(List<Integer> ids) {
+    Integer archived = transactionTemplate.execute(status -> {
+      List<Integer> lockedIds = repository.lockArchivableStudents(ids);
+      if (lockedIds.isEmpty()) {
+        return 0;
+      }
+      //外部キーの参照元（申込状況）から順に移動する
+      statusCounter.increment(repository.archiveApplicationStatuses(lockedIds));
+      courseCounter.increment(repository.archiveStudentCourses(lockedIds));
+      int students = repository.archiveStudents(lockedIds);
+      repository.deleteApplicationStatuses(lockedIds);
+      repository.deleteStudentCourses(lockedIds);
+      repository.deleteStudents(lockedIds);
+      studentCounter.increment(students);
+      return students;
+    });
+    chunkCounter.increment();
+    return archived == null ? 0 : archived;
+  }
+
+  /**
+   * チャンク間で待機してDBへの負荷を抑える
+   */
+  private void pause() {
+    try {
+      Thread.sleep(properties.getPause().toMillis());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package management.student.job;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 論理削除された受講生のアーカイブジョブの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.archive")
+public class StudentArchiveProperties {
+
+  private boolean enabled = false; //ジョブを実行するかどうか
+  private Duration minAge = Duration.ofDays(30); //論理削除されてからアーカイブするまでの期間
+  private int chunkSize = 100; //1トランザクションで移動する受講生数
+  private Duration pause = Duration.ofMillis(200); //チャンク間の待ち時間（DB負荷の抑制）
+}
@@ -0,0 +1,64 @@
+package management.student.latency;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * 受講生のControllerの各APIとServiceの各メソッドの処理時間を記録するアスペクト
+ * 例外が発生した場合の処理時間も記録する
+ */
+@Aspect
+public class LatencyAspect {
+
+  private final LatencyRecorder recorder;
+  //メソッドごとの記録先（名前の組み立ては最初の1回だけ行う）
+  private final Map<Method, LatencyRecorder.Series> seriesByMethod = new ConcurrentHashMap<>();
+
+  /**
+   * コンストラクタ
+   *
+   * @param recorder 　処理時間の記録先
+   */
+  public LatencyAspect(LatencyRecorder recorder) {
+    this.recorder = recorder;
+  }
+
+  @Around("execution(public * management.student.controller.StudentController.*(..))"
+      + " || execution(public * management.student.service.StudentService.*(..))")
+  public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+    long start = System.nanoTime();
+    try {
+      return joinPoint.proceed();
+    } finally {
+      long elapsed = System.nanoTime() - start;
+      Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+      seriesByMethod.computeIfAbsent(method, this::series).record(elapsed);
+    }
+  }
+
+  private LatencyRecorder.Series series(Method method) {
+    return recorder.series(nameOf(method));
+  }
+
+  /**
+   * 計測対象の名前を作成する
+   * オーバーロードを区別するため引数の型を含める
+   *
+   * @param method 　メソッド
+   * @return クラス名.メソッド名(引数の型)
+   */
+  public static String nameOf(Method method) {
+    String parameters = Arrays.stream(method.getParameterTypes())
+        .map(Class::getSimpleName)
+        .collect(Collectors.joining(","));
+    return method.getDeclaringClass().getSimpleName() + "." + method.getName()
+        + "(" + parameters + ")";
+  }
+}
@@ -0,0 +1,25 @@
+package management.student.latency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 処理時間の記録先とアスペクトを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(LatencyProperties.class)
+@ConditionalOnProperty(prefix = "student.latency", name = "enabled", matchIfMissing = true)
+public class LatencyConfig {
+
+  @Bean
+  public LatencyRecorder latencyRecorder(LatencyProperties properties) {
+    return new LatencyRecorder(properties);
+  }
+
+  @Bean
+  public LatencyAspect latencyAspect(LatencyRecorder recorder) {
+    return new LatencyAspect(recorder);
+  }
+}
@@ -0,0 +1,22 @@
+package management.student.latency;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 処理時間の分布の記録の設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.latency")
+public class LatencyProperties {
+
+  private boolean enabled = true; //処理時間を記録するかどうか
+  private Duration interval = Duration.ofSeconds(10); //1区間の長さ
+  private int retainedIntervals = 60; //保持する区間の数
+  //記録できる最大の処理時間（超えた場合はこの値として記録する）
+  private Duration highestTrackable = Duration.ofMinutes(1);
+  private int significantDigits = 2; //処理時間の有効桁数
+}
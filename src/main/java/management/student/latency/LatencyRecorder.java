@@ -0,0 +1,120 @@
+package management.student.latency;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.scheduling.annotation.Scheduled;
+
+/**
+ * 計測対象ごとの処理時間の分布を記録するクラス
+ * 記録はHdrHistogramのRecorderに書き込むだけで、ロックもメモリの確保も行わない
+ * 一定間隔で区間を区切ってヒストグラムを取り出し、直近の区間を保持する
+ */
+public class LatencyRecorder {
+
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final long highestTrackableNanos;
+  private final int significantDigits;
+  private final int retainedIntervals;
+  private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+  /**
+   * コンストラクタ
+   *
+   * @param properties 　処理時間の記録の設定
+   */
+  public LatencyRecorder(LatencyProperties properties) {
+    this.highestTrackableNanos = properties.getHighestTrackable().toNanos();
+    this.significantDigits = properties.getSignificantDigits();
+    this.retainedIntervals = properties.getRetainedIntervals();
+  }
+
+  /**
+   * 計測対象の記録先を取得する
+   * 記録のたびに呼ばずに、取得した記録先を保持して使うこと
+   *
+   * @param name 　計測対象の名前
+   * @return 記録先
+   */
+  public Series series(String name) {
+    return series.computeIfAbsent(name, Series::new);
+  }
+
+  /**
+   * 記録中の区間を区切り、保持する区間に加える
+   */
+  @Scheduled(fixedRateString = "${student.latency.interval:PT10S}")
+  public void rotate() {
+    series.values().forEach(Series::rotate);
+  }
+
+  /**
+   * 直近の区間の処理時間の分布を計測対象ごとに集計する
+   * 記録中の区間は含まない
+   *
+   * @param intervals 　集計する区間の数
+   * @return 計測対象の名前順の集計結果
+   */
+  public List<LatencySummary> summarize(int intervals) {
+    return series.values().stream()
+        .map(entry -> entry.summarize(intervals))
+        .sorted(Comparator.comparing(LatencySummary::getName))
+        .toList();
+  }
+
+  /**
+   * 1つの計測対象の記録先
+   */
+  public final class Series {
+
+    private final String name;
+    private final Recorder recorder;
+    private final Deque<Histogram> intervals = new ArrayDeque<>(); //古い順
+
+    private Series(String name) {
+      this.name = name;
+      this.recorder = new Recorder(highestTrackableNanos, significantDigits);
+    }
+
+    /**
+     * 処理時間を記録する
+     * 記録できる最大値を超えた場合は最大値として記録する
+     *
+     * @param nanos 　処理時間（ナノ秒）
+     */
+    public void record(long nanos) {
+      recorder.recordValue(Math.min(Math.max(nanos, 0), highestTrackableNanos));
+    }
+
+    private synchronized void rotate() {
+      //保持数を超えた古い区間のヒストグラムは次の区間に使い回す
+      Histogram recycled = intervals.size() >= retainedIntervals ? intervals.pollFirst() : null;
+      intervals.addLast(recorder.getIntervalHistogram(recycled));
+    }
+
+    private synchronized LatencySummary summarize(int count) {
+      Histogram merged = new Histogram(highestTrackableNanos, significantDigits);
+      Iterator<Histogram> newest = intervals.descendingIterator();
+      for (int index = 0; index < count && newest.hasNext(); index++) {
+        merged.add(newest.next());
+      }
+      return new LatencySummary(name, merged.getTotalCount(),
+          toMillis(merged.getValueAtPercentile(50.0)),
+          toMillis(merged.getValueAtPercentile(90.0)),
+          toMillis(merged.getValueAtPercentile(99.0)),
+          toMillis(merged.getValueAtPercentile(99.9)),
+          toMillis(merged.getMaxValue()));
+    }
+
+    private static double toMillis(long nanos) {
+      return nanos / NANOS_PER_MILLI;
+    }
+  }
+}
@@ -0,0 +1,20 @@
+package management.student.latency;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "処理時間の分布（ミリ秒）")
+@Getter
+@AllArgsConstructor
+public class LatencySummary {
+
+  private String name; //計測対象（クラス名.メソッド名(引数の型)）
+  private long count; //件数
+  private double p50; //50パーセンタイル
+  private double p90; //90パーセンタイル
+  private double p99; //99パーセンタイル
+  private double p999; //99.9パーセンタイル
+  private double max; //最大
+
+}
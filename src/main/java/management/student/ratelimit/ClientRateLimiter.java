@@ -0,0 +1,127 @@
+package management.student.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * クライアントごとのトークンバケットを管理するクラス
+ * 保持するバケット数には上限があり、上限に達した場合は満杯（アイドル）のバケットから破棄する
+ */
+public class ClientRateLimiter {
+
+  private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+  private final long capacity;
+  private final double refillPerSecond;
+  private final int maxClients;
+  private final LongSupplier clock;
+  private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+  //上限を超えたクライアントが共有するバケット
+  private final TokenBucket overflowBucket;
+  private final AtomicLong lastSweep;
+
+  private final Counter allowedCounter;
+  private final Counter rejectedCounter;
+  private final Counter evictedCounter;
+  private final Counter overflowCounter;
+
+  /**
+   * 設定値とメトリクスの登録先を引数にとるコンストラクタ
+   *
+   * @param properties 　レート制限の設定
+   * @param registry   　メトリクスの登録先
+   * @param clock      　現在時刻（ナノ秒）を返す関数
+   */
+  public ClientRateLimiter(RateLimitProperties properties, MeterRegistry registry,
+      LongSupplier clock) {
+    this.capacity = properties.getCapacity();
+    this.refillPerSecond = properties.getRefillPerSecond();
+    this.maxClients = properties.getMaxClients();
+    this.clock = clock;
+    long now = clock.getAsLong();
+    this.overflowBucket = new TokenBucket(capacity, refillPerSecond, now);
+    this.lastSweep = new AtomicLong(now);
+
+    this.allowedCounter = Counter.builder("student.ratelimit.requests")
+        .tag("outcome", "allowed").register(registry);
+    this.rejectedCounter = Counter.builder("student.ratelimit.requests")
+        .tag("outcome", "rejected").register(registry);
+    this.evictedCounter = Counter.builder("student.ratelimit.evicted").register(registry);
+    this.overflowCounter = Counter.builder("student.ratelimit.overflow").register(registry);
+    Gauge.builder("student.ratelimit.clients", buckets, Map::size).register(registry);
+  }
+
+  /**
+   * クライアントのバケットからトークンを消費する
+   *
+   * @param clientId 　クライアントID
+   * @param cost     　消費するトークン数
+   * @return 消費できた場合は0、できなかった場合は再試行までの待ち時間（ナノ秒）
+   */
+  public long tryAcquire(String clientId, int cost) {
+    long now = clock.getAsLong();
+    TokenBucket bucket = buckets.get(clientId);
+    if (bucket == null) {
+      bucket = register(clientId, now);
+    }
+    //容量を超えるコストは永久に通らないため容量で切り詰める
+    long waitNanos = bucket.tryAcquire((int) Math.min(cost, capacity), now);
+    if (waitNanos == 0) {
+      allowedCounter.increment();
+    } else {
+      rejectedCounter.increment();
+    }
+    return waitNanos;
+  }
+
+  /**
+   * 保持しているクライアント数
+   *
+   * @return クライアント数
+   */
+  public int size() {
+    return buckets.size();
+  }
+
+  /**
+   * 新しいクライアントのバケットを登録する
+   * 上限に達している場合はアイドルなバケットを破棄し、それでも空きがなければ共有バケットを使う
+   *
+   * @param clientId 　クライアントID
+   * @param now      　現在時刻（ナノ秒）
+   * @return バケット
+   */
+  private TokenBucket register(String clientId, long now) {
+    if (buckets.size() >= maxClients) {
+      sweep(now);
+      if (buckets.size() >= maxClients) {
+        overflowCounter.increment();
+        return overflowBucket;
+      }
+    }
+    return buckets.computeIfAbsent(clientId,
+        key -> new TokenBucket(capacity, refillPerSecond, now));
+  }
+
+  /**
+   * アイドルなバケットを破棄する
+   * 全件走査になるため、1秒に1回までしか行わない
+   *
+   * @param now 　現在時刻（ナノ秒）
+   */
+  private void sweep(long now) {
+    long last = lastSweep.get();
+    if (now - last < SWEEP_INTERVAL_NANOS || !lastSweep.compareAndSet(last, now)) {
+      return;
+    }
+    int before = buckets.size();
+    buckets.values().removeIf(bucket -> bucket.isIdle(now));
+    evictedCounter.increment(Math.max(0, before - buckets.size()));
+  }
+}
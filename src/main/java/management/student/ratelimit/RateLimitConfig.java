@@ -0,0 +1,37 @@
+package management.student.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * レート制限のフィルターを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(RateLimitProperties.class)
+@ConditionalOnProperty(prefix = "student.rate-limit", name = "enabled", matchIfMissing = true)
+public class RateLimitConfig {
+
+  @Bean
+  public ClientRateLimiter clientRateLimiter(RateLimitProperties properties,
+      MeterRegistry registry) {
+    return new ClientRateLimiter(properties, registry, System::nanoTime);
+  }
+
+  @Bean
+  public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(ClientRateLimiter limiter,
+      RateLimitProperties properties) {
+    FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+        new RateLimitFilter(limiter, properties));
+    //StudentControllerとAnalyticsControllerのエンドポイントを対象とする
+    registration.addUrlPatterns("/students/*", "/applicationStatuses/*", "/courses/*",
+        "/analytics/*");
+    //DBアクセスの前に弾きたいため、他のフィルターより先に実行する
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+    return registration;
+  }
+}
@@ -0,0 +1,91 @@
+package management.student.ratelimit;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import management.student.ratelimit.RateLimitProperties.EndpointCost;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * StudentControllerの前段でクライアントごとのレート制限を行うフィルター
+ * 制限を超えたリクエストには429とRetry-Afterヘッダーを返す
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+  private final ClientRateLimiter limiter;
+  private final RateLimitProperties properties;
+  private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+  /**
+   * 引数２つコンストラクタ
+   *
+   * @param limiter    　クライアントごとのレート制限
+   * @param properties 　レート制限の設定
+   */
+  public RateLimitFilter(ClientRateLimiter limiter, RateLimitProperties properties) {
+    this.limiter = limiter;
+    this.properties = properties;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    long waitNanos = limiter.tryAcquire(resolveClientId(request), resolveCost(request));
+    if (waitNanos == 0) {
+      filterChain.doFilter(request, response);
+      return;
+    }
+    //待ち時間は秒単位に切り上げる
+    long retryAfterSeconds = Math.max(1,
+        TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+    response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    response.setCharacterEncoding("UTF-8");
+    response.getWriter().write("{\"message\":\"Too Many Requests\"}");
+  }
+
+  /**
+   * クライアントIDを取得する
+   * ヘッダーはクライアントが自由に変えられるため、信頼するプロキシからの接続の場合だけ使う
+   * それ以外の場合や、ヘッダーが指定されていない場合は接続元のアドレスを使う
+   *
+   * @param request 　リクエスト
+   * @return クライアントID
+   */
+  String resolveClientId(HttpServletRequest request) {
+    String remoteAddr = request.getRemoteAddr();
+    if (!properties.getTrustedProxies().contains(remoteAddr)) {
+      return remoteAddr;
+    }
+    String clientId = request.getHeader(properties.getClientIdHeader());
+    return StringUtils.isNotBlank(clientId) ? clientId : remoteAddr;
+  }
+
+  /**
+   * リクエストのコストを取得する
+   * 最初に一致したエンドポイントの設定を使い、一致しなければデフォルトのコストとする
+   *
+   * @param request 　リクエスト
+   * @return コスト
+   */
+  int resolveCost(HttpServletRequest request) {
+    String path = request.getRequestURI().substring(request.getContextPath().length());
+    for (EndpointCost endpoint : properties.getEndpoints()) {
+      boolean methodMatches = endpoint.getMethod() == null
+          || endpoint.getMethod().equalsIgnoreCase(request.getMethod());
+      if (methodMatches && pathMatcher.match(endpoint.getPattern(), path)) {
+        return endpoint.getCost();
+      }
+    }
+    return properties.getDefaultCost();
+  }
+}
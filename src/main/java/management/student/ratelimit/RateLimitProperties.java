@@ -0,0 +1,44 @@
+package management.student.ratelimit;
+
+import jakarta.validation.constraints.Positive;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * クライアントごとのレート制限の設定値
+ * 容量や補充数が0以下ではトークンバケットの時間の計算があふれるため、起動時に設定の誤りとして検出する
+ */
+@Getter
+@Setter
+@Validated
+@ConfigurationProperties(prefix = "student.rate-limit")
+public class RateLimitProperties {
+
+  private boolean enabled = true; //レート制限を行うかどうか
+  @Positive
+  private long capacity = 100; //バケットの容量（トークン数）
+  @Positive
+  private double refillPerSecond = 50; //1秒あたりに補充されるトークン数
+  private int maxClients = 10_000; //保持するクライアント数の上限
+  private String clientIdHeader = "X-Client-Id"; //クライアントを識別するヘッダー
+  //クライアントを識別するヘッダーを信頼する接続元のアドレス（前段のプロキシ）。それ以外からの接続はヘッダーを無視する
+  private List<String> trustedProxies = new ArrayList<>();
+  private int defaultCost = 1; //エンドポイント毎の設定がない場合のコスト
+  private List<EndpointCost> endpoints = new ArrayList<>(); //エンドポイント毎のコスト
+
+  /**
+   * エンドポイント毎のコスト設定
+   */
+  @Getter
+  @Setter
+  public static class EndpointCost {
+
+    private String method; //HTTPメソッド（未指定の場合は全メソッド）
+    private String pattern; //パスのパターン（Ant形式）
+    private int cost = 1; //1リクエストあたりに消費するトークン数
+  }
+}
@@ -0,0 +1,60 @@
+package management.student.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ロックを使わないトークンバケット
+ * 残りトークン数の代わりに「バケットが満杯に戻る時刻」を1つのAtomicLongで保持し、CASで更新する（GCRA）
+ */
+public class TokenBucket {
+
+  private final long nanosPerToken; //トークン1つが補充されるまでの時間
+  private final long burstNanos; //バケットが空から満杯になるまでの時間
+  private final AtomicLong fullAt; //バケットが満杯に戻る時刻
+
+  /**
+   * 満杯の状態でバケットを作成する
+   *
+   * @param capacity        バケットの容量
+   * @param refillPerSecond 1秒あたりの補充トークン数
+   * @param now             現在時刻（ナノ秒）
+   */
+  public TokenBucket(long capacity, double refillPerSecond, long now) {
+    this.nanosPerToken = Math.max(1L, (long) (1_000_000_000L / refillPerSecond));
+    this.burstNanos = capacity * nanosPerToken;
+    this.fullAt = new AtomicLong(now);
+  }
+
+  /**
+   * トークンを消費する
+   *
+   * @param cost 消費するトークン数
+   * @param now  現在時刻（ナノ秒）
+   * @return 消費できた場合は0、できなかった場合は再試行までの待ち時間（ナノ秒）
+   */
+  public long tryAcquire(int cost, long now) {
+    long increment = cost * nanosPerToken;
+    while (true) {
+      long current = fullAt.get();
+      long next = Math.max(current, now) + increment;
+      long waitNanos = next - now - burstNanos;
+      if (waitNanos > 0) {
+        return waitNanos;
+      }
+      if (fullAt.compareAndSet(current, next)) {
+        return 0;
+      }
+    }
+  }
+
+  /**
+   * バケットが満杯かどうか判定する
+   * 満杯のバケットは新規に作成したものと区別がつかないため、破棄しても制限の結果は変わらない
+   *
+   * @param now 現在時刻（ナノ秒）
+   * @return 満杯の場合true
+   */
+  public boolean isIdle(long now) {
+    return fullAt.get() <= now;
+  }
+}
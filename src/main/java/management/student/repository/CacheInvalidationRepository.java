@@ -0,0 +1,48 @@
+package management.student.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import management.student.data.CacheInvalidation;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * キャッシュの削除対象の記録テーブルを操作するRepositoryです。
+ */
+@Mapper
+public interface CacheInvalidationRepository {
+
+  /**
+   * 削除対象の記録をまとめて登録
+   *
+   * @param invalidations 　削除対象の記録
+   */
+  void createCacheInvalidations(@Param("invalidations") List<CacheInvalidation> invalidations);
+
+  /**
+   * 指定したIDより後の削除対象の記録をID順に検索
+   *
+   * @param afterId 　前回までに読んだ最後のID
+   * @param limit   　取得する最大件数
+   * @return 削除対象の記録
+   */
+  List<CacheInvalidation> searchCacheInvalidationsAfter(@Param("afterId") long afterId,
+      @Param("limit") int limit);
+
+  /**
+   * 最新の削除対象の記録のID検索
+   *
+   * @return 最新のID（記録がない場合は0）
+   */
+  long searchLatestCacheInvalidationId();
+
+  /**
+   * 古い削除対象の記録削除
+   *
+   * @param createdBefore 　この日時より前に登録された記録を削除する
+   * @param limit         　削除する最大件数
+   * @return 削除件数
+   */
+  int deleteCacheInvalidations(@Param("createdBefore") LocalDateTime createdBefore,
+      @Param("limit") int limit);
+}
@@ -0,0 +1,66 @@
+package management.student.repository;
+
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+
+/**
+ * 受講生、受講生コース、申込状況をIDの範囲で書き出すためのRepositoryです。
+ * 件数が多いため、検索結果はCursorで1行ずつ読み込む（トランザクション内で読み切ること）
+ */
+@Mapper
+public interface ExportRepository {
+
+  /**
+   * 受講生の最大IDを検索（論理削除された受講生を含む）
+   *
+   * @return 最大ID（受講生がいない場合は0）
+   */
+  int searchMaxStudentId();
+
+  /**
+   * 受講生コースの最大IDを検索
+   *
+   * @return 最大ID（受講生コースがない場合は0）
+   */
+  int searchMaxStudentCourseId();
+
+  /**
+   * 申込状況の最大IDを検索
+   *
+   * @return 最大ID（申込状況がない場合は0）
+   */
+  int searchMaxApplicationStatusId();
+
+  /**
+   * IDの範囲の受講生をID順に読み込む（論理削除された受講生を含む）
+   *
+   * @param afterId 　このIDより大きいものを対象とする
+   * @param toId    　このID以下のものを対象とする
+   * @return 受講生
+   */
+  Cursor<Student> cursorStudents(@Param("afterId") int afterId, @Param("toId") int toId);
+
+  /**
+   * IDの範囲の受講生コースをID順に読み込む
+   *
+   * @param afterId 　このIDより大きいものを対象とする
+   * @param toId    　このID以下のものを対象とする
+   * @return 受講生コース
+   */
+  Cursor<StudentCourse> cursorStudentCourses(@Param("afterId") int afterId,
+      @Param("toId") int toId);
+
+  /**
+   * IDの範囲の申込状況をID順に読み込む
+   *
+   * @param afterId 　このIDより大きいものを対象とする
+   * @param toId    　このID以下のものを対象とする
+   * @return 申込状況
+   */
+  Cursor<ApplicationStatus> cursorApplicationStatuses(@Param("afterId") int afterId,
+      @Param("toId") int toId);
+}
@@ -0,0 +1,69 @@
+package management.student.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import management.student.data.IdempotencyRecord;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 冪等キーの記録テーブルを操作するRepositoryです。
+ */
+@Mapper
+public interface IdempotencyRepository {
+
+  /**
+   * 冪等キーの記録1件検索
+   *
+   * @param idempotencyKey 　冪等キー
+   * @return 冪等キーの記録
+   */
+  Optional<IdempotencyRecord> searchIdempotencyRecord(String idempotencyKey);
+
+  /**
+   * 冪等キーの記録登録（処理中の状態で登録する）
+   *
+   * @param record 　冪等キーの記録
+   */
+  void createIdempotencyRecord(IdempotencyRecord record);
+
+  /**
+   * 処理中の予約の期限が切れた冪等キーの記録を、新しいリクエストの予約として引き継ぐ
+   * 処理中ではない記録や、予約の期限内の記録は更新しない
+   *
+   * @param record 　新しいリクエストの冪等キーの記録
+   * @param now    　現在日時
+   * @return 更新件数（引き継げた場合は1）
+   */
+  int reclaimIdempotencyRecord(@Param("record") IdempotencyRecord record,
+      @Param("now") LocalDateTime now);
+
+  /**
+   * 冪等キーの記録にレスポンスを設定
+   * 予約したリクエストの識別子が一致しない記録（他のリクエストが引き継いだ記録）は更新しない
+   *
+   * @param record 　冪等キーの記録（予約したリクエストの識別子を含む）
+   * @return 更新件数
+   */
+  int completeIdempotencyRecord(IdempotencyRecord record);
+
+  /**
+   * 冪等キーの記録削除
+   * 予約したリクエストの識別子が一致しない記録（他のリクエストが引き継いだ記録）は削除しない
+   *
+   * @param idempotencyKey 　冪等キー
+   * @param owner          　予約したリクエストの識別子
+   * @return 削除件数
+   */
+  int deleteIdempotencyRecord(@Param("idempotencyKey") String idempotencyKey,
+      @Param("owner") String owner);
+
+  /**
+   * 有効期限切れの冪等キーの記録削除
+   *
+   * @param now   　現在日時
+   * @param limit 　削除する最大件数
+   * @return 削除件数
+   */
+  int deleteExpiredIdempotencyRecords(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
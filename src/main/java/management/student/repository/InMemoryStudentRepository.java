@@ -0,0 +1,588 @@
+package management.student.repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentPatch;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 受講生、受講生コース、申込状況をメモリ上に保持するStudentRepositoryの実装
+ * DBなしでサービスの処理時間を計測する場合や、ローカルでの動作確認に使う（inmemoryプロファイル）
+ * StudentRepository.xmlのSQLと同じ結果を返すように、次の点を合わせている
+ * <ul>
+ *   <li>IDは1から順に採番し、主キーの順に返す</li>
+ *   <li>受講生の検索は論理削除された受講生を含めない（ID指定の更新は論理削除に関係なく行う）</li>
+ *   <li>受講生コースと申込状況の検索は外部結合で、申込状況がない場合はnull、複数ある場合はIDの小さいもの</li>
+ *   <li>NOT NULLの列、メールアドレスの重複、存在しない親への登録はDBと同じ例外にする</li>
+ * </ul>
+ * 検索結果と登録・更新に渡されたオブジェクトはコピーして保持するため、呼び出し側で変更しても影響しない
+ * UndoLogがリソースとしてバインドされている間（InMemoryConfigのトランザクションの間）は変更前の行を記録し、
+ * rollbackで戻せるようにする。IDの採番はDBのAUTO_INCREMENTと同じく戻さない
+ * 行のロックはないため、コミット前の変更は他のトランザクションからも見え、
+ * 同じ行を別のトランザクションが変更した後にロールバックすると、その変更も変更前の値に戻る
+ */
+public class InMemoryStudentRepository implements StudentRepository {
+
+  private final ReadWriteLock lock = new ReentrantReadWriteLock();
+  private final NavigableMap<Integer, Student> students = new TreeMap<>();
+  private final NavigableMap<Integer, StudentCourse> courses = new TreeMap<>();
+  private final NavigableMap<Integer, ApplicationStatus> statuses = new TreeMap<>();
+  //外部キーの索引（受講生ID→受講生コースID、受講生コースID→申込状況ID）
+  private final Map<Integer, NavigableSet<Integer>> courseIdsByStudent = new HashMap<>();
+  private final Map<Integer, NavigableSet<Integer>> statusIdsByCourse = new HashMap<>();
+  private final Map<String, Integer> studentIdsByEmail = new HashMap<>();
+  private int lastStudentId;
+  private int lastCourseId;
+  private int lastStatusId;
+
+  @Override
+  public List<Student> searchStudentList() {
+    return read(() -> students.values().stream()
+        .filter(student -> !student.isDeleteFlag())
+        .map(InMemoryStudentRepository::copy)
+        .toList());
+  }
+
+  @Override
+  public Optional<Student> searchStudentByID(int id) {
+    return read(() -> Optional.ofNullable(students.get(id))
+        .filter(student -> !student.isDeleteFlag())
+        .map(InMemoryStudentRepository::copy));
+  }
+
+  @Override
+  public List<Student> searchStudentsByIds(List<Integer> ids) {
+    return read(() -> new TreeSet<>(ids).stream()
+        .map(students::get)
+        .filter(student -> student != null && !student.isDeleteFlag())
+        .map(InMemoryStudentRepository::copy)
+        .toList());
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCourseList() {
+    return read(() -> courses.values().stream().map(InMemoryStudentRepository::copy).toList());
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCourseByID(int studentId) {
+    return read(() -> coursesOf(studentId).stream()
+        .map(InMemoryStudentRepository::copy)
+        .toList());
+  }
+
+  @Override
+  public List<ApplicationStatus> searchApplicationStatusList() {
+    return read(() -> statuses.values().stream().map(InMemoryStudentRepository::copy).toList());
+  }
+
+  @Override
+  public Optional<ApplicationStatus> searchApplicationStatusByID(int id) {
+    return read(() -> Optional.ofNullable(statuses.get(id)).map(InMemoryStudentRepository::copy));
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCourseWithStatus(Integer studentId) {
+    return read(() -> (studentId == null ? courses.values() : coursesOf(studentId)).stream()
+        .map(this::withStatus)
+        .toList());
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCourseWithStatusPage(int studentId, int limit,
+      int offset) {
+    return read(() -> coursesOf(studentId).stream()
+        .skip(offset)
+        .limit(limit)
+        .map(this::withStatus)
+        .toList());
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCoursesByEndDate(LocalDateTime endFrom,
+      LocalDateTime endTo, LocalDateTime afterEndDate, int afterId, int limit) {
+    return read(() -> coursesByEndDate(endFrom, endTo)
+        .filter(course -> afterEndDate == null
+            || course.getEndDate().isAfter(afterEndDate)
+            || course.getEndDate().isEqual(afterEndDate) && course.getId() > afterId)
+        .limit(limit)
+        .map(InMemoryStudentRepository::copy)
+        .toList());
+  }
+
+  @Override
+  public List<StudentCourse> searchStudentCourseWithStatusByEndDate(LocalDateTime endFrom,
+      LocalDateTime endTo, int limit) {
+    return read(() -> coursesByEndDate(endFrom, endTo)
+        .limit(limit)
+        .map(this::withStatus)
+        .toList());
+  }
+
+  @Override
+  public void createStudent(Student student) {
+    write(() -> {
+      requireNotNull(student.getName(), student.getFurigana(), student.getGender(),
+          student.getEmail());
+      requireUniqueEmail(student.getEmail(), 0);
+      Student stored = copy(student);
+      //登録時は論理削除の列を指定しないため、既定値の0になる
+      stored.setDeleteFlag(false);
+      stored.setId(++lastStudentId);
+      rememberStudent(stored.getId());
+      students.put(stored.getId(), stored);
+      studentIdsByEmail.put(stored.getEmail(), stored.getId());
+      student.setId(stored.getId());
+      return null;
+    });
+  }
+
+  @Override
+  public void createStudentCourse(StudentCourse studentCourse) {
+    write(() -> {
+      requireNotNull(studentCourse.getCourseName(), studentCourse.getStartDate());
+      requireParent(students, studentCourse.getStudentId(), "student");
+      StudentCourse stored = copy(studentCourse);
+      stored.setId(++lastCourseId);
+      rememberCourse(stored.getId());
+      courses.put(stored.getId(), stored);
+      courseIdsByStudent.computeIfAbsent(stored.getStudentId(), key -> new TreeSet<>())
+          .add(stored.getId());
+      studentCourse.setId(stored.getId());
+      return null;
+    });
+  }
+
+  @Override
+  public void createApplicationStatus(ApplicationStatus applicationStatus) {
+    write(() -> {
+      requireNotNull(applicationStatus.getStatus());
+      requireParent(courses, applicationStatus.getStudentCourseId(), "student_courses");
+      ApplicationStatus stored = copy(applicationStatus);
+      stored.setId(++lastStatusId);
+      rememberStatus(stored.getId());
+      statuses.put(stored.getId(), stored);
+      statusIdsByCourse.computeIfAbsent(stored.getStudentCourseId(), key -> new TreeSet<>())
+          .add(stored.getId());
+      applicationStatus.setId(stored.getId());
+      return null;
+    });
+  }
+
+  @Override
+  public void updateStudent(Student student) {
+    write(() -> {
+      Student stored = students.get(student.getId());
+      if (stored == null) {
+        return null;
+      }
+      requireNotNull(student.getName(), student.getFurigana(), student.getGender(),
+          student.getEmail());
+      requireUniqueEmail(student.getEmail(), student.getId());
+      rememberStudent(stored.getId());
+      studentIdsByEmail.remove(stored.getEmail());
+      Student updated = copy(student);
+      students.put(updated.getId(), updated);
+      studentIdsByEmail.put(updated.getEmail(), updated.getId());
+      return null;
+    });
+  }
+
+  @Override
+  public int patchStudent(int id, StudentPatch patch) {
+    return write(() -> {
+      Student stored = students.get(id);
+      if (stored == null) {
+        return 0;
+      }
+      Student patched = copy(stored);
+      if (patch.isSpecified("name")) {
+        patched.setName(patch.getName());
+      }
+      if (patch.isSpecified("furigana")) {
+        patched.setFurigana(patch.getFurigana());
+      }
+      if (patch.isSpecified("nickname")) {
+        patched.setNickname(patch.getNickname());
+      }
+      if (patch.isSpecified("age")) {
+        requireNotNull(patch.getAge());
+        patched.setAge(patch.getAge());
+      }
+      if (patch.isSpecified("phoneNumber")) {
+        patched.setPhoneNumber(patch.getPhoneNumber());
+      }
+      if (patch.isSpecified("gender")) {
+        patched.setGender(patch.getGender());
+      }
+      if (patch.isSpecified("remarks")) {
+        patched.setRemarks(patch.getRemarks());
+      }
+      if (patch.isSpecified("email")) {
+        patched.setEmail(patch.getEmail());
+      }
+      if (patch.isSpecified("region")) {
+        patched.setRegion(patch.getRegion());
+      }
+      if (patch.isSpecified("deleteFlag")) {
+        requireNotNull(patch.getDeleteFlag());
+        patched.setDeleteFlag(patch.getDeleteFlag());
+      }
+      requireNotNull(patched.getName(), patched.getFurigana(), patched.getGender(),
+          patched.getEmail());
+      requireUniqueEmail(patched.getEmail(), id);
+      rememberStudent(id);
+      studentIdsByEmail.remove(stored.getEmail());
+      students.put(id, patched);
+      studentIdsByEmail.put(patched.getEmail(), id);
+      return 1;
+    });
+  }
+
+  @Override
+  public void updateStudentCourse(StudentCourse course) {
+    write(() -> {
+      StudentCourse stored = courses.get(course.getId());
+      if (stored != null) {
+        requireNotNull(course.getCourseName());
+        rememberCourse(stored.getId());
+        stored.setCourseName(course.getCourseName());
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void updateApplicationStatus(ApplicationStatus applicationStatus) {
+    write(() -> {
+      ApplicationStatus stored = statuses.get(applicationStatus.getId());
+      if (stored != null) {
+        requireNotNull(applicationStatus.getStatus());
+        rememberStatus(stored.getId());
+        stored.setStatus(applicationStatus.getStatus());
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void updateStudentCourseOfStudent(StudentCourse course, int studentId) {
+    write(() -> {
+      StudentCourse stored = courses.get(course.getId());
+      if (stored != null && stored.getStudentId() == studentId) {
+        requireNotNull(course.getCourseName());
+        rememberCourse(stored.getId());
+        stored.setCourseName(course.getCourseName());
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public void updateApplicationStatusOfCourse(ApplicationStatus applicationStatus,
+      int studentCourseId) {
+    write(() -> {
+      ApplicationStatus stored = statuses.get(applicationStatus.getId());
+      if (stored != null && stored.getStudentCourseId() == studentCourseId) {
+        requireNotNull(applicationStatus.getStatus());
+        rememberStatus(stored.getId());
+        stored.setStatus(applicationStatus.getStatus());
+      }
+      return null;
+    });
+  }
+
+  @Override
+  public int updateApplicationStatusByIds(List<Integer> ids, String currentStatus,
+      String targetStatus) {
+    return write(() -> updateStatuses(new TreeSet<>(ids).stream()
+        .map(statuses::get)
+        .filter(Objects::nonNull)
+        .toList(), currentStatus, targetStatus, Integer.MAX_VALUE));
+  }
+
+  @Override
+  public int updateApplicationStatusByFilter(String courseName, String currentStatus,
+      String targetStatus, Integer limit) {
+    Predicate<ApplicationStatus> courseFilter = status -> courseName == null
+        || courseName.equals(courses.get(status.getStudentCourseId()).getCourseName());
+    return write(() -> updateStatuses(statuses.values().stream()
+            .filter(courseFilter)
+            .toList(), currentStatus, targetStatus,
+        limit == null ? Integer.MAX_VALUE : limit));
+  }
+
+  @Override
+  public int updateApplicationStatusByCourseIds(List<Integer> courseIds, String currentStatus,
+      String targetStatus) {
+    return write(() -> {
+      Set<Integer> statusIds = new TreeSet<>();
+      new HashSet<>(courseIds).forEach(courseId -> statusIds.addAll(
+          statusIdsByCourse.getOrDefault(courseId, new TreeSet<>())));
+      return updateStatuses(statusIds.stream().map(statuses::get).toList(), currentStatus,
+          targetStatus, Integer.MAX_VALUE);
+    });
+  }
+
+  @Override
+  public void deleteApplicationStatus(int applicationStatusId) {
+    write(() -> {
+      rememberStatus(applicationStatusId);
+      ApplicationStatus removed = statuses.remove(applicationStatusId);
+      if (removed != null) {
+        statusIdsByCourse.get(removed.getStudentCourseId()).remove(applicationStatusId);
+      }
+      return null;
+    });
+  }
+
+  /**
+   * 変更後のステータスではなく、現在のステータスが一致する申込状況を、最大件数まで更新する
+   */
+  private int updateStatuses(List<ApplicationStatus> candidates, String currentStatus,
+      String targetStatus, int limit) {
+    requireNotNull(targetStatus);
+    int updatedCount = 0;
+    for (ApplicationStatus status : candidates) {
+      if (updatedCount >= limit) {
+        break;
+      }
+      if (!status.getStatus().equals(targetStatus)
+          && (currentStatus == null || status.getStatus().equals(currentStatus))) {
+        rememberStatus(status.getId());
+        status.setStatus(targetStatus);
+        updatedCount++;
+      }
+    }
+    return updatedCount;
+  }
+
+  /**
+   * UndoLogに記録された変更を、新しいものから順にsavepointの位置まで戻す
+   *
+   * @param undoLog   　トランザクションの間の変更の記録
+   * @param savepoint 　戻す位置（0ならトランザクションの開始時点、途中の位置はUndoLog#sizeで取得する）
+   */
+  public void rollback(UndoLog undoLog, int savepoint) {
+    write(() -> {
+      List<Runnable> entries = undoLog.entries;
+      for (int index = entries.size() - 1; index >= savepoint; index--) {
+        entries.remove(index).run();
+      }
+      return null;
+    });
+  }
+
+  /**
+   * 変更前の行をUndoLogに記録する（トランザクションの外では何もしない）
+   * 登録の場合は変更前の行がないため、戻すときは行を削除する
+   */
+  private void rememberStudent(int id) {
+    UndoLog undoLog = currentUndoLog();
+    if (undoLog != null) {
+      Student previous = students.containsKey(id) ? copy(students.get(id)) : null;
+      undoLog.entries.add(() -> {
+        Student current = students.remove(id);
+        if (current != null) {
+          studentIdsByEmail.remove(current.getEmail());
+        }
+        if (previous != null) {
+          students.put(id, previous);
+          studentIdsByEmail.put(previous.getEmail(), id);
+        }
+      });
+    }
+  }
+
+  private void rememberCourse(int id) {
+    UndoLog undoLog = currentUndoLog();
+    if (undoLog != null) {
+      StudentCourse previous = courses.containsKey(id) ? copy(courses.get(id)) : null;
+      undoLog.entries.add(() -> {
+        StudentCourse current = courses.remove(id);
+        if (current != null) {
+          courseIdsByStudent.get(current.getStudentId()).remove(id);
+        }
+        if (previous != null) {
+          courses.put(id, previous);
+          courseIdsByStudent.computeIfAbsent(previous.getStudentId(), key -> new TreeSet<>())
+              .add(id);
+        }
+      });
+    }
+  }
+
+  private void rememberStatus(int id) {
+    UndoLog undoLog = currentUndoLog();
+    if (undoLog != null) {
+      ApplicationStatus previous = statuses.containsKey(id) ? copy(statuses.get(id)) : null;
+      undoLog.entries.add(() -> {
+        ApplicationStatus current = statuses.remove(id);
+        if (current != null) {
+          statusIdsByCourse.get(current.getStudentCourseId()).remove(id);
+        }
+        if (previous != null) {
+          statuses.put(id, previous);
+          statusIdsByCourse.computeIfAbsent(previous.getStudentCourseId(),
+              key -> new TreeSet<>()).add(id);
+        }
+      });
+    }
+  }
+
+  private UndoLog currentUndoLog() {
+    return (UndoLog) TransactionSynchronizationManager.getResource(this);
+  }
+
+  private List<StudentCourse> coursesOf(int studentId) {
+    return courseIdsByStudent.getOrDefault(studentId, new TreeSet<>()).stream()
+        .map(courses::get)
+        .toList();
+  }
+
+  private Stream<StudentCourse> coursesByEndDate(LocalDateTime endFrom,
+      LocalDateTime endTo) {
+    return courses.values().stream()
+        .filter(course -> course.getEndDate() != null
+            && !course.getEndDate().isBefore(endFrom)
+            && course.getEndDate().isBefore(endTo))
+        .sorted(Comparator.comparing(StudentCourse::getEndDate)
+            .thenComparingInt(StudentCourse::getId));
+  }
+
+  /**
+   * 受講生コースに申込状況を外部結合する
+   */
+  private StudentCourse withStatus(StudentCourse course) {
+    StudentCourse joined = copy(course);
+    NavigableSet<Integer> statusIds = statusIdsByCourse.get(course.getId());
+    if (statusIds != null && !statusIds.isEmpty()) {
+      joined.setApplicationStatus(copy(statuses.get(statusIds.first())));
+    }
+    return joined;
+  }
+
+  private void requireUniqueEmail(String email, int id) {
+    Integer owner = studentIdsByEmail.get(email);
+    if (owner != null && owner != id) {
+      throw new DuplicateKeyException("Duplicate entry '" + email + "' for key 'student.email'");
+    }
+  }
+
+  private static void requireParent(Map<Integer, ?> parents, int id, String table) {
+    if (!parents.containsKey(id)) {
+      throw new DataIntegrityViolationException(
+          "Cannot add a child row: " + table + " " + id + " does not exist");
+    }
+  }
+
+  private static void requireNotNull(Object... values) {
+    for (Object value : values) {
+      if (value == null) {
+        throw new DataIntegrityViolationException("Column cannot be null");
+      }
+    }
+  }
+
+  private <T> T read(Supplier<T> query) {
+    lock.readLock().lock();
+    try {
+      return query.get();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private <T> T write(Supplier<T> update) {
+    lock.writeLock().lock();
+    try {
+      return update.get();
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  private static Student copy(Student student) {
+    Student copy = new Student();
+    copy.setId(student.getId());
+    copy.setName(student.getName());
+    copy.setAge(student.getAge());
+    copy.setFurigana(student.getFurigana());
+    copy.setGender(student.getGender());
+    copy.setNickname(student.getNickname());
+    copy.setEmail(student.getEmail());
+    copy.setRegion(student.getRegion());
+    copy.setPhoneNumber(student.getPhoneNumber());
+    copy.setRemarks(student.getRemarks());
+    copy.setDeleteFlag(student.isDeleteFlag());
+    return copy;
+  }
+
+  //保持する受講生コースには申込状況を持たせない（申込状況は検索時に結合する）
+  private static StudentCourse copy(StudentCourse course) {
+    StudentCourse copy = new StudentCourse();
+    copy.setId(course.getId());
+    copy.setStudentId(course.getStudentId());
+    copy.setCourseName(course.getCourseName());
+    copy.setStartDate(course.getStartDate());
+    copy.setEndDate(course.getEndDate());
+    return copy;
+  }
+
+  private static ApplicationStatus copy(ApplicationStatus status) {
+    ApplicationStatus copy = new ApplicationStatus();
+    copy.setId(status.getId());
+    copy.setStudentCourseId(status.getStudentCourseId());
+    copy.setStatus(status.getStatus());
+    return copy;
+  }
+
+  /**
+   * トランザクションの間に変更した行の変更前の値
+   * トランザクションマネージャーがこのRepositoryをキーとしてリソースにバインドしている間、変更が記録される
+   */
+  public static class UndoLog {
+
+    private final List<Runnable> entries = new ArrayList<>();
+    private boolean rollbackOnly; //参加したトランザクションでロールバックが必要になったかどうか
+
+    /**
+     * 記録した変更の件数（rollbackでこの位置まで戻すことでセーブポイントとして使う）
+     *
+     * @return 記録した変更の件数
+     */
+    public int size() {
+      return entries.size();
+    }
+
+    public boolean isRollbackOnly() {
+      return rollbackOnly;
+    }
+
+    public void setRollbackOnly() {
+      rollbackOnly = true;
+    }
+  }
+}
@@ -0,0 +1,82 @@
+package management.student.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+/**
+ * 論理削除された受講生をアーカイブテーブルに移動するRepositoryです。
+ */
+@Mapper
+public interface StudentArchiveRepository {
+
+  /**
+   * アーカイブ対象の受講生IDをID順に検索
+   * 前回の最後のIDより後ろから検索する（キーセットページング）
+   *
+   * @param afterId       　前回検索した最後の受講生ID
+   * @param deletedBefore 　この日時より前に論理削除された受講生を対象とする（論理削除された日時がない受講生は対象にしない）
+   * @param limit         　最大件数
+   * @return 受講生ID
+   */
+  List<Integer> searchArchivableStudentIds(@Param("afterId") int afterId,
+      @Param("deletedBefore") LocalDateTime deletedBefore, @Param("limit") int limit);
+
+  /**
+   * 論理削除されたままの受講生をロックして検索
+   * 検索後に削除が取り消された受講生を対象から外す
+   *
+   * @param ids 　受講生ID
+   * @return ロックした受講生ID
+   */
+  List<Integer> lockArchivableStudents(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生をアーカイブテーブルに登録
+   *
+   * @param ids 　受講生ID
+   * @return 登録件数
+   */
+  int archiveStudents(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生に紐づく受講生コースをアーカイブテーブルに登録
+   *
+   * @param ids 　受講生ID
+   * @return 登録件数
+   */
+  int archiveStudentCourses(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生に紐づく申込状況をアーカイブテーブルに登録
+   *
+   * @param ids 　受講生ID
+   * @return 登録件数
+   */
+  int archiveApplicationStatuses(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生に紐づく申込状況を削除
+   *
+   * @param ids 　受講生ID
+   * @return 削除件数
+   */
+  int deleteApplicationStatuses(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生に紐づく受講生コースを削除
+   *
+   * @param ids 　受講生ID
+   * @return 削除件数
+   */
+  int deleteStudentCourses(@Param("ids") List<Integer> ids);
+
+  /**
+   * 受講生を削除
+   *
+   * @param ids 　受講生ID
+   * @return 削除件数
+   */
+  int deleteStudents(@Param("ids") List<Integer> ids);
+}
@@ -0,0 +1,116 @@
+package management.student.repository;
+
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.apache.ibatis.executor.BatchExecutorException;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionHolder;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JDBCバッチで受講生テーブルを更新するためのセッション
+ * 更新系のSQLはflush()を呼び出すか検索を実行するまで送信されず、まとめて実行される
+ * 同じトランザクション内で通常のMapperと混在させることはできないため、
+ * このセッションを使っているトランザクションでは、他のMapperもgetMapperで取得したものを使う
+ */
+@Component
+public class StudentBatchSession {
+
+  private final SqlSessionFactory sqlSessionFactory;
+  private final SqlSessionTemplate sqlSession;
+
+  /**
+   * バッチ実行用のセッションを作成するコンストラクタ
+   *
+   * @param sqlSessionFactory 　MyBatisのセッションファクトリー
+   */
+  public StudentBatchSession(SqlSessionFactory sqlSessionFactory) {
+    this.sqlSessionFactory = sqlSessionFactory;
+    this.sqlSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+  }
+
+  /**
+   * 現在のトランザクションがバッチ実行用のセッションを使っているかどうか
+   *
+   * @return 使っている場合true
+   */
+  public boolean isBoundToTransaction() {
+    return TransactionSynchronizationManager.getResource(sqlSessionFactory)
+        instanceof SqlSessionHolder holder && holder.getExecutorType() == ExecutorType.BATCH;
+  }
+
+  /**
+   * バッチ実行用の任意のMapperを取得する
+   *
+   * @param type 　Mapperのインターフェース
+   * @return Mapper
+   */
+  public <T> T getMapper(Class<T> type) {
+    return sqlSession.getMapper(type);
+  }
+
+  /**
+   * バッチ実行用のRepositoryを取得する
+   * Mapperの登録はStudentRepositoryのBean生成時に行われるため、呼び出しのたびに取得する
+   *
+   * @return 受講生のRepository
+   */
+  public StudentRepository getRepository() {
+    return sqlSession.getMapper(StudentRepository.class);
+  }
+
+  /**
+   * 溜まっている更新系のSQLをまとめて実行する
+   */
+  public void flush() {
+    sqlSession.flushStatements();
+  }
+
+  /**
+   * 溜まっている更新系のSQLをまとめて実行し、SQLごとの更新件数を返す
+   * いずれかのSQLが失敗した場合も例外にはせず、失敗したSQLの更新件数をStatement.EXECUTE_FAILEDとする
+   * 失敗したSQLより後のSQLは実行されないため、返す件数は失敗したSQLまでの分だけになる
+   * 失敗した場合は、それまでに実行したSQLの更新が残るため、呼び出し元でセーブポイントまで戻す必要がある
+   *
+   * @return 溜めた順の各SQLの更新件数
+   */
+  public int[] flushAndGetUpdateCounts() {
+    try {
+      return updateCounts(sqlSession.flushStatements());
+    } catch (RuntimeException e) {
+      BatchExecutorException failure = findBatchFailure(e);
+      if (failure == null) {
+        throw e;
+      }
+      int[] failing = failure.getBatchUpdateException().getUpdateCounts();
+      if (Arrays.stream(failing).noneMatch(count -> count == Statement.EXECUTE_FAILED)) {
+        //ドライバーが失敗したSQLで止めた場合は、実行できた件数の次のSQLが失敗している
+        failing = IntStream.concat(Arrays.stream(failing), IntStream.of(Statement.EXECUTE_FAILED))
+            .toArray();
+      }
+      return IntStream.concat(Arrays.stream(updateCounts(failure.getSuccessfulBatchResults())),
+          Arrays.stream(failing)).toArray();
+    }
+  }
+
+  private static int[] updateCounts(List<BatchResult> results) {
+    return results.stream()
+        .flatMapToInt(result -> Arrays.stream(result.getUpdateCounts()))
+        .toArray();
+  }
+
+  private static BatchExecutorException findBatchFailure(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof BatchExecutorException batchFailure) {
+        return batchFailure;
+      }
+    }
+    return null;
+  }
+}
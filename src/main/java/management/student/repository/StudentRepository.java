@@ -1,10 +1,12 @@
 package management.student.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import management.student.data.ApplicationStatus;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
+import management.student.domain.StudentPatch;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
 
@@ -28,6 +30,14 @@ public interface StudentRepository {
    */
   Optional<Student> searchStudentByID(int id);
 
+  /**
+   * 受講生のID指定検索
+   *
+   * @param ids 受講生ID
+   * @return 受講生一覧
+   */
+  List<Student> searchStudentsByIds(@Param("ids") List<Integer> ids);
+
 
   /**
    * 受講生コース全件検索
@@ -68,6 +78,48 @@ public interface StudentRepository {
       @Param("studentId") Integer studentId
   );
 
+  /**
+   * 受講生コースと申込状況のページ検索
+   * 受講生コースIDの順に、指定した件数だけ取得する
+   *
+   * @param studentId 受講生ID
+   * @param limit     取得する最大件数
+   * @param offset    読み飛ばす件数
+   * @return List<StudentCourse> 受講生コース
+   */
+  List<StudentCourse> searchStudentCourseWithStatusPage(@Param("studentId") int studentId,
+      @Param("limit") int limit, @Param("offset") int offset);
+
+  /**
+   * 受講完了日が期間内の受講生コースを、受講完了日とIDの順に検索する
+   * 前回の検索の最後の受講生コースを指定した場合は、その続きから検索する
+   *
+   * @param endFrom      受講完了日の開始（この日時を含む）
+   * @param endTo        受講完了日の終了（この日時を含まない）
+   * @param afterEndDate 前回の最後の受講完了日（nullの場合は最初から）
+   * @param afterId      前回の最後の受講生コースID
+   * @param limit        取得する最大件数
+   * @return List<StudentCourse> 受講生コース（申込状況なし）
+   */
+  List<StudentCourse> searchStudentCoursesByEndDate(@Param("endFrom") LocalDateTime endFrom,
+      @Param("endTo") LocalDateTime endTo,
+      @Param("afterEndDate") LocalDateTime afterEndDate,
+      @Param("afterId") int afterId,
+      @Param("limit") int limit);
+
+  /**
+   * 受講完了日が期間内の受講生コースと申込状況の検索
+   *
+   * @param endFrom 受講完了日の開始（この日時を含む）
+   * @param endTo   受講完了日の終了（この日時を含まない）
+   * @param limit   取得する最大件数
+   * @return List<StudentCourse> 受講生コース（受講完了日の順）
+   */
+  List<StudentCourse> searchStudentCourseWithStatusByEndDate(
+      @Param("endFrom") LocalDateTime endFrom,
+      @Param("endTo") LocalDateTime endTo,
+      @Param("limit") int limit);
+
   /**
    * 受講生登録
    *
@@ -97,6 +149,16 @@ public interface StudentRepository {
    */
   void updateStudent(Student student);
 
+  /**
+   * 受講生の部分更新
+   * 指定された項目の列だけを更新する
+   *
+   * @param id    　受講生ID
+   * @param patch 　受講生の部分更新
+   * @return 更新件数
+   */
+  int patchStudent(@Param("id") int id, @Param("patch") StudentPatch patch);
+
   /**
    * 受講生コース更新
    *
@@ -111,6 +173,67 @@ public interface StudentRepository {
    */
   void updateApplicationStatus(ApplicationStatus applicationStatus);
 
+  /**
+   * 受講生を指定した受講生コース更新
+   * 指定した受講生のものではない受講生コースは更新しない（更新件数が0件になる）
+   *
+   * @param course    　受講生コース
+   * @param studentId 　受講生ID
+   */
+  void updateStudentCourseOfStudent(@Param("course") StudentCourse course,
+      @Param("studentId") int studentId);
+
+  /**
+   * 受講生コースを指定した申込状況更新
+   * 指定した受講生コースのものではない申込状況は更新しない（更新件数が0件になる）
+   *
+   * @param applicationStatus 　申込状況
+   * @param studentCourseId   　受講生コースID
+   */
+  void updateApplicationStatusOfCourse(@Param("status") ApplicationStatus applicationStatus,
+      @Param("studentCourseId") int studentCourseId);
+
+  /**
+   * 申込状況のID指定による一括更新
+   * すでに変更後のステータスになっているものは更新しない
+   *
+   * @param ids           申込状況ID
+   * @param currentStatus 現在のステータス（nullの場合は条件にしない）
+   * @param targetStatus  変更後のステータス
+   * @return 更新件数
+   */
+  int updateApplicationStatusByIds(@Param("ids") List<Integer> ids,
+      @Param("currentStatus") String currentStatus,
+      @Param("targetStatus") String targetStatus);
+
+  /**
+   * 申込状況の条件指定による一括更新
+   * すでに変更後のステータスになっているものは更新しないため、件数を指定して繰り返し実行できる
+   *
+   * @param courseName    コース名（nullの場合は条件にしない）
+   * @param currentStatus 現在のステータス（nullの場合は条件にしない）
+   * @param targetStatus  変更後のステータス
+   * @param limit         更新する最大件数（nullの場合は全件）
+   * @return 更新件数
+   */
+  int updateApplicationStatusByFilter(@Param("courseName") String courseName,
+      @Param("currentStatus") String currentStatus,
+      @Param("targetStatus") String targetStatus,
+      @Param("limit") Integer limit);
+
+  /**
+   * 受講生コースID指定による申込状況の一括更新
+   * すでに変更後のステータスになっているものは更新しない
+   *
+   * @param courseIds     受講生コースID
+   * @param currentStatus 現在のステータス（nullの場合は条件にしない）
+   * @param targetStatus  変更後のステータス
+   * @return 更新件数
+   */
+  int updateApplicationStatusByCourseIds(@Param("courseIds") List<Integer> courseIds,
+      @Param("currentStatus") String currentStatus,
+      @Param("targetStatus") String targetStatus);
+
   /**
    * 申込状況削除
    *
@@ -0,0 +1,55 @@
+package management.student.repository.handler;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+
+/**
+ * 種類の少ない文字列の列を辞書でまとめて取得するTypeHandler
+ * 全ての文字列に適用しないように、Mapper XMLのresultMapで列ごとに指定する
+ */
+public class InternedStringTypeHandler extends BaseTypeHandler<String> {
+
+  private final StringInterner interner;
+
+  /**
+   * MyBatisから生成される場合のコンストラクタ
+   * 共通の辞書を使う
+   */
+  public InternedStringTypeHandler() {
+    this(StringInterner.SHARED);
+  }
+
+  /**
+   * 辞書を指定するコンストラクタ
+   *
+   * @param interner 　文字列の辞書
+   */
+  public InternedStringTypeHandler(StringInterner interner) {
+    this.interner = interner;
+  }
+
+  @Override
+  public void setNonNullParameter(PreparedStatement ps, int i, String parameter,
+      JdbcType jdbcType) throws SQLException {
+    ps.setString(i, parameter);
+  }
+
+  @Override
+  public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    return interner.intern(rs.getString(columnName));
+  }
+
+  @Override
+  public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+    return interner.intern(rs.getString(columnIndex));
+  }
+
+  @Override
+  public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+    return interner.intern(cs.getString(columnIndex));
+  }
+}
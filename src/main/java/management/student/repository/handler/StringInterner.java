@@ -0,0 +1,62 @@
+package management.student.repository.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 同じ値の文字列を1つのインスタンスにまとめる上限付きの辞書
+ * ステータスやコース名のように種類の少ない値を、検索結果の行ごとに別の文字列として保持しないために使う
+ * String.intern()と異なり件数と長さに上限があるため、想定外に種類の多い値が入っても辞書は大きくならない
+ * 上限に達した後の新しい値はまとめずにそのまま返す
+ */
+public class StringInterner {
+
+  //MyBatisのTypeHandlerから共通で使う辞書
+  public static final StringInterner SHARED = new StringInterner(4096, 64);
+
+  private final Map<String, String> table = new ConcurrentHashMap<>();
+  private final int maxEntries;
+  private final int maxLength;
+
+  /**
+   * コンストラクタ
+   *
+   * @param maxEntries 　辞書に登録する最大件数
+   * @param maxLength  　辞書に登録する文字列の最大長
+   */
+  public StringInterner(int maxEntries, int maxLength) {
+    this.maxEntries = maxEntries;
+    this.maxLength = maxLength;
+  }
+
+  /**
+   * 辞書に登録済みの同じ値の文字列を返す
+   * 未登録の場合は上限に達していなければ登録する
+   *
+   * @param value 　文字列
+   * @return 辞書の文字列（まとめられない場合は引数の文字列）
+   */
+  public String intern(String value) {
+    if (value == null || value.length() > maxLength) {
+      return value;
+    }
+    String canonical = table.get(value);
+    if (canonical != null) {
+      return canonical;
+    }
+    if (table.size() >= maxEntries) {
+      return value;
+    }
+    canonical = table.putIfAbsent(value, value);
+    return canonical != null ? canonical : value;
+  }
+
+  /**
+   * 辞書に登録されている件数
+   *
+   * @return 件数
+   */
+  public int size() {
+    return table.size();
+  }
+}
@@ -0,0 +1,233 @@
+package management.student.responsecache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import management.student.service.StudentWriteCounter;
+
+/**
+ * レスポンスのJSONをバイト列のまま保持するキャッシュ
+ * 保持したときの更新カウンターの値と現在の値が異なる場合は、その間に更新されたため使わない
+ * 他のノードの更新はカウンターに反映されないため、保持する最大時間を過ぎたものも使わない
+ * ヒットした場合はオブジェクトに変換せずに、保持しているバイト列をそのままレスポンスに書き込む
+ * ヒープ外に保持する場合はダイレクトバッファに格納し、GCの対象になるヒープを大きくしない
+ */
+public class JsonResponseCache {
+
+  private final StudentWriteCounter writeCounter;
+  private final boolean offHeap;
+  private final int maxEntries;
+  private final long maxBytes;
+  private final long maxAgeNanos;
+  private final LongSupplier nanoTime;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+  private final AtomicLong totalBytes = new AtomicLong();
+
+  private final Counter hitCounter;
+  private final Counter missCounter;
+
+  /**
+   * コンストラクタ
+   *
+   * @param writeCounter 　更新カウンター
+   * @param properties   　キャッシュの設定
+   * @param registry     　ヒット率とサイズのメトリクスの登録先
+   * @param nanoTime     　現在時刻（ナノ秒）
+   */
+  public JsonResponseCache(StudentWriteCounter writeCounter, ResponseCacheProperties properties,
+      MeterRegistry registry, LongSupplier nanoTime) {
+    this.writeCounter = writeCounter;
+    this.offHeap = properties.isOffHeap();
+    this.maxEntries = properties.getMaxEntries();
+    this.maxBytes = properties.getMaxSize().toBytes();
+    if (properties.getMaxAge().isZero() || properties.getMaxAge().isNegative()) {
+      //無期限にすると、複数ノードでは他のノードの更新が反映されない一覧を返し続ける
+      throw new IllegalArgumentException("student.response-cache.max-age must be positive");
+    }
+    this.maxAgeNanos = properties.getMaxAge().toNanos();
+    this.nanoTime = nanoTime;
+    this.hitCounter = Counter.builder("student.response-cache.requests").tag("result", "hit")
+        .register(registry);
+    this.missCounter = Counter.builder("student.response-cache.requests").tag("result", "miss")
+        .register(registry);
+    Gauge.builder("student.response-cache.bytes", totalBytes, AtomicLong::get)
+        .tag("storage", offHeap ? "off-heap" : "heap")
+        .register(registry);
+  }
+
+  /**
+   * 現在の更新カウンターの値を取得する
+   * レスポンスを作成する前に呼び出し、保持するときに渡す
+   *
+   * @return 更新カウンターの値
+   */
+  public long version() {
+    return writeCounter.current();
+  }
+
+  /**
+   * レスポンスを作成する間に使った検索結果の、更新カウンターの値の記録を開始する
+   * 同時に実行された検索の結果を共有した場合、その検索を始めた時点の値で保持するために使う
+   */
+  public void startRead() {
+    writeCounter.startRead();
+  }
+
+  /**
+   * 記録を終了し、保持するときに渡す更新カウンターの値を取得する
+   *
+   * @param version 　レスポンスを作成する前に取得した値
+   * @return 使った検索結果が反映している最も古い値
+   */
+  public long finishRead(long version) {
+    return writeCounter.finishRead(version);
+  }
+
+  /**
+   * 保持しているレスポンスを取得する
+   *
+   * @param key 　キャッシュのキー
+   * @return レスポンス（保持していない場合や、保持した後に更新された場合はnull）
+   */
+  public Entry get(String key) {
+    Entry entry = entries.get(key);
+    if (entry == null || !isFresh(entry)) {
+      if (entry != null) {
+        remove(key, entry);
+      }
+      missCounter.increment();
+      return null;
+    }
+    hitCounter.increment();
+    return entry;
+  }
+
+  /**
+   * レスポンスを保持する
+   * 作成を始めてから更新された場合や、件数・サイズの上限を超える場合は保持しない
+   *
+   * @param key         　キャッシュのキー
+   * @param version     　レスポンスを作成する前に取得した更新カウンターの値
+   * @param contentType 　Content-Type
+   * @param body        　レスポンスボディ
+   */
+  public void put(String key, long version, String contentType, byte[] body) {
+    if (version != writeCounter.current()) {
+      return;
+    }
+    //更新により使えなくなったものを先に削除して、上限に空きを作る
+    entries.forEach((existingKey, existing) -> {
+      if (!isFresh(existing)) {
+        remove(existingKey, existing);
+      }
+    });
+    if (entries.size() >= maxEntries && !entries.containsKey(key)) {
+      return;
+    }
+    if (totalBytes.addAndGet(body.length) > maxBytes) {
+      totalBytes.addAndGet(-body.length);
+      return;
+    }
+    Entry entry = new Entry(version, nanoTime.getAsLong(), contentType, store(body),
+        body.length);
+    Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      totalBytes.addAndGet(-previous.length);
+    }
+  }
+
+  /**
+   * 保持している件数
+   *
+   * @return 件数
+   */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * 保持しているレスポンスの合計サイズ
+   *
+   * @return バイト数
+   */
+  public long totalBytes() {
+    return totalBytes.get();
+  }
+
+  private boolean isFresh(Entry entry) {
+    return entry.version == writeCounter.current()
+        && nanoTime.getAsLong() - entry.storedAt < maxAgeNanos;
+  }
+
+  private void remove(String key, Entry entry) {
+    if (entries.remove(key, entry)) {
+      totalBytes.addAndGet(-entry.length);
+    }
+  }
+
+  private Object store(byte[] body) {
+    if (!offHeap) {
+      return body;
+    }
+    ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+    buffer.put(body).flip();
+    return buffer.asReadOnlyBuffer();
+  }
+
+  /**
+   * 保持しているレスポンス
+   * ボディはヒープ上のbyte[]か、ヒープ外の読み取り専用のByteBufferのどちらか
+   */
+  public static final class Entry {
+
+    private final long version;
+    private final long storedAt;
+    private final String contentType;
+    private final Object body;
+    private final int length;
+
+    private Entry(long version, long storedAt, String contentType, Object body, int length) {
+      this.version = version;
+      this.storedAt = storedAt;
+      this.contentType = contentType;
+      this.body = body;
+      this.length = length;
+    }
+
+    public String getContentType() {
+      return contentType;
+    }
+
+    public int getLength() {
+      return length;
+    }
+
+    /**
+     * ボディをそのまま書き込む
+     * ヒープ外に保持している場合は、バッファを複製して位置を共有せずに書き込む
+     *
+     * @param out 　書き込み先
+     * @throws IOException 書き込めない場合
+     */
+    public void writeTo(OutputStream out) throws IOException {
+      if (body instanceof byte[] bytes) {
+        out.write(bytes);
+        return;
+      }
+      ByteBuffer buffer = ((ByteBuffer) body).duplicate();
+      WritableByteChannel channel = Channels.newChannel(out);
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+    }
+  }
+}
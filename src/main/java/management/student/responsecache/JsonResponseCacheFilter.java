@@ -0,0 +1,94 @@
+package management.student.responsecache;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+/**
+ * 受講生一覧のレスポンスをバイト列のままキャッシュするフィルター
+ * クエリパラメータの組み合わせ（includeなど）ごとに保持し、ヒットした場合はコントローラーを呼び出さずに返す
+ * ヒットしなかった場合は、レスポンスを作成する前の更新カウンターの値とともに、成功したレスポンスを保持する
+ * 他のリクエストの検索結果を共有した場合は、その検索を始めた時点の値とともに保持する
+ */
+public class JsonResponseCacheFilter extends OncePerRequestFilter {
+
+  static final String CACHE_HEADER = "X-Response-Cache";
+
+  private final JsonResponseCache cache;
+
+  /**
+   * コンストラクタ
+   *
+   * @param cache 　レスポンスのキャッシュ
+   */
+  public JsonResponseCacheFilter(JsonResponseCache cache) {
+    this.cache = cache;
+  }
+
+  @Override
+  protected boolean shouldNotFilter(HttpServletRequest request) {
+    return !"GET".equals(request.getMethod());
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String key = key(request);
+    JsonResponseCache.Entry cached = cache.get(key);
+    if (cached != null) {
+      response.setStatus(HttpStatus.OK.value());
+      response.setContentType(cached.getContentType());
+      response.setContentLength(cached.getLength());
+      response.setHeader(CACHE_HEADER, "hit");
+      cached.writeTo(response.getOutputStream());
+      return;
+    }
+
+    long version = cache.version();
+    ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+    responseWrapper.setHeader(CACHE_HEADER, "miss");
+    cache.startRead();
+    try {
+      try {
+        filterChain.doFilter(request, responseWrapper);
+      } finally {
+        version = cache.finishRead(version);
+      }
+      if (responseWrapper.getStatus() == HttpStatus.OK.value()
+          && responseWrapper.getContentType() != null) {
+        cache.put(key, version, responseWrapper.getContentType(),
+            responseWrapper.getContentAsByteArray());
+      }
+    } finally {
+      responseWrapper.copyBodyToResponse();
+    }
+  }
+
+  /**
+   * パスと、名前と値を並べ替えたクエリパラメータからキャッシュのキーを作成する
+   * パラメータの順番が異なるだけのリクエストは同じキーになる
+   *
+   * @param request 　リクエスト
+   * @return キャッシュのキー
+   */
+  static String key(HttpServletRequest request) {
+    Map<String, String> parameters = new TreeMap<>();
+    request.getParameterMap().forEach((name, values) -> parameters.put(name,
+        Arrays.stream(values)
+            .flatMap(value -> Arrays.stream(value.split(",")))
+            .sorted()
+            .collect(Collectors.joining(","))));
+    return request.getRequestURI() + "?" + parameters.entrySet().stream()
+        .map(entry -> entry.getKey() + "=" + entry.getValue())
+        .collect(Collectors.joining("&"));
+  }
+}
@@ -0,0 +1,37 @@
+package management.student.responsecache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import management.student.service.StudentWriteCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * 受講生一覧のレスポンスのキャッシュと、そのフィルターを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(ResponseCacheProperties.class)
+@ConditionalOnProperty(prefix = "student.response-cache", name = "enabled", havingValue = "true")
+public class ResponseCacheConfig {
+
+  @Bean
+  public JsonResponseCache jsonResponseCache(StudentWriteCounter writeCounter,
+      ResponseCacheProperties properties, MeterRegistry registry) {
+    return new JsonResponseCache(writeCounter, properties, registry, System::nanoTime);
+  }
+
+  @Bean
+  public FilterRegistrationBean<JsonResponseCacheFilter> jsonResponseCacheFilter(
+      JsonResponseCache cache) {
+    FilterRegistrationBean<JsonResponseCacheFilter> registration = new FilterRegistrationBean<>(
+        new JsonResponseCacheFilter(cache));
+    //受講生一覧のみを対象とする
+    registration.addUrlPatterns("/students");
+    //レート制限と冪等キーの後に実行する
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+    return registration;
+  }
+}
@@ -0,0 +1,23 @@
+package management.student.responsecache;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * 受講生一覧のレスポンス（JSON）をバイト列のまま保持するキャッシュの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.response-cache")
+public class ResponseCacheProperties {
+
+  private boolean enabled = false; //キャッシュを使うかどうか
+  private boolean offHeap = false; //レスポンスをヒープ外（ダイレクトバッファ）に保持するかどうか
+  private int maxEntries = 16; //保持するレスポンスの最大件数（クエリパラメータの組み合わせごとに1件）
+  private DataSize maxSize = DataSize.ofMegabytes(64); //保持するレスポンスの合計の最大サイズ
+  //保持する最大時間（0より大きいこと）。他のノードの更新はカウンターに反映されないため、複数ノードではこの時間だけ古い一覧を返しうる
+  private Duration maxAge = Duration.ofSeconds(5);
+}
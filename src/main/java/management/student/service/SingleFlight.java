@@ -0,0 +1,76 @@
+package management.student.service;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * 同じキーに対する同時実行中の読み込みを1回にまとめるクラス
+ * 実行中の読み込みがある場合は新たに読み込まず、その結果（例外も含む）を共有する
+ * 結果はキャッシュしないため、読み込みが完了した後の呼び出しでは再度読み込む
+ *
+ * @param <K> キー
+ * @param <V> 読み込み結果
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * 読み込みを実行する
+   * 同じキーで実行中の読み込みがあれば、その完了を待って結果を返す
+   *
+   * @param key    　キー
+   * @param loader 　読み込み処理
+   * @return 読み込み結果
+   */
+  public V execute(K key, Supplier<V> loader) {
+    CompletableFuture<V> call = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+    if (existing != null) {
+      return await(existing);
+    }
+    try {
+      V value = loader.get();
+      call.complete(value);
+      return value;
+    } catch (RuntimeException | Error e) {
+      call.completeExceptionally(e);
+      throw e;
+    } finally {
+      inFlight.remove(key, call);
+    }
+  }
+
+  /**
+   * 実行中の読み込み件数
+   *
+   * @return 件数
+   */
+  public int inFlightCount() {
+    return inFlight.size();
+  }
+
+  /**
+   * 他のスレッドの読み込み完了を待つ
+   * 読み込みで発生した例外はそのままスローする
+   *
+   * @param call 　実行中の読み込み
+   * @return 読み込み結果
+   */
+  private V await(CompletableFuture<V> call) {
+    try {
+      return call.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
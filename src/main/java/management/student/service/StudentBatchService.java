@@ -0,0 +1,274 @@
+package management.student.service;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.BatchUpdateResult.ItemError;
+import management.student.domain.StudentDetail;
+import management.student.repository.StudentBatchSession;
+import management.student.repository.StudentRepository;
+import management.student.validation.BatchValidator;
+import management.student.validation.OnUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 受講生情報をまとめて更新するサービス
+ * 既存の受講生をIN句でまとめて取得し、JDBCバッチで1つのトランザクションとして更新する
+ * 更新に失敗した要素はセーブポイントまで戻して除き、残りの要素を更新しなおす
+ */
+@Service
+public class StudentBatchService {
+
+  private StudentBatchSession batchSession;
+  private BatchValidator validator;
+  private ApplicationEventPublisher eventPublisher;
+  private TransactionTemplate savepointTemplate;
+
+  @Autowired
+  public StudentBatchService(StudentBatchSession batchSession, BatchValidator validator,
+      ApplicationEventPublisher eventPublisher, PlatformTransactionManager transactionManager) {
+    this.batchSession = batchSession;
+    this.validator = validator;
+    this.eventPublisher = eventPublisher;
+    //一括更新のトランザクションの中でセーブポイントを作る
+    this.savepointTemplate = new TransactionTemplate(transactionManager);
+    this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+  }
+
+  /**
+   * 受講生詳細の一括更新
+   * 入力エラーや存在しない受講生は要素ごとのエラーとして返し、それ以外の要素は更新する
+   * 申込状況は単件の更新と異なり、存在確認をせずに更新する
+   * 受講生のものではない受講生コースや、受講生コースのものではない申込状況は更新件数が0件になるため、
+   * SQLの失敗と同じく要素ごとのエラーとし、その要素の更新はすべて取り消す
+   *
+   * @param studentDetails 受講生詳細
+   * @return 一括更新の結果
+   */
+  @Transactional
+  public BatchUpdateResult update(List<StudentDetail> studentDetails) {
+    Map<Integer, List<String>> errors = new HashMap<>(
+        validator.validate(studentDetails, OnUpdate.class));
+    //同じ受講生が複数回指定された場合は最初のもの以外をエラーとする
+    Set<Integer> targetIds = new HashSet<>();
+    for (int index = 0; index < studentDetails.size(); index++) {
+      if (errors.containsKey(index)) {
+        continue;
+      }
+      Student student = studentDetails.get(index).getStudent();
+      int nullCourseIndex = nullCourseIndex(studentDetails.get(index));
+      if (student == null || student.getId() <= 0) {
+        errors.put(index, List.of("student.id: 受講生IDは1以上の値である必要があります"));
+      } else if (nullCourseIndex >= 0) {
+        //受講生コースの要素は検証の対象外のため、nullの要素はここで要素ごとのエラーにする
+        errors.put(index, List.of("studentCourseList[" + nullCourseIndex
+            + "]: 受講生コースを指定してください"));
+      } else if (!targetIds.add(student.getId())) {
+        errors.put(index, List.of("student.id: 同じ受講生が複数指定されています"));
+      }
+    }
+
+    StudentRepository repository = batchSession.getRepository();
+    Map<Integer, Student> existingStudents = searchStudents(repository,
+        new ArrayList<>(targetIds));
+    List<Integer> targets = new ArrayList<>();
+    for (int index = 0; index < studentDetails.size(); index++) {
+      if (errors.containsKey(index)) {
+        continue;
+      }
+      StudentDetail studentDetail = studentDetails.get(index);
+      int id = studentDetail.getStudent().getId();
+      Student existing = existingStudents.get(id);
+      if (existing == null) {
+        errors.put(index, List.of("Student with ID " + id + " not found"));
+        continue;
+      }
+      //更新時に入力が入っている値だけを更新し、他の値は元の受講生の値を利用する。
+      StudentService.mergedStudent(new StudentDetail(existing, null), studentDetail);
+      targets.add(index);
+    }
+
+    //失敗した要素を除いて、すべての要素が更新できるまで繰り返す（1回ごとに1件以上の要素が除かれる）
+    Attempt attempt = applyWithSavepoint(repository, studentDetails, targets);
+    while (!attempt.failures().isEmpty()) {
+      attempt.failures().forEach((index, message) -> errors.put(index, List.of(message)));
+      targets.removeAll(attempt.failures().keySet());
+      attempt = applyWithSavepoint(repository, studentDetails, targets);
+    }
+    eventPublisher.publishEvent(attempt.changes());
+
+    List<ItemError> itemErrors = errors.entrySet().stream()
+        .sorted(Map.Entry.comparingByKey())
+        .map(entry -> new ItemError(entry.getKey(),
+            studentId(studentDetails.get(entry.getKey())), entry.getValue()))
+        .toList();
+    return new BatchUpdateResult(targets.size(), itemErrors);
+  }
+
+  /**
+   * セーブポイントを作ってから要素を更新し、失敗した要素があればセーブポイントまで戻す
+   */
+  private Attempt applyWithSavepoint(StudentRepository repository,
+      List<StudentDetail> studentDetails, List<Integer> targets) {
+    return savepointTemplate.execute(savepoint -> {
+      Attempt attempt = apply(repository, studentDetails, targets);
+      if (!attempt.failures().isEmpty()) {
+        savepoint.setRollbackOnly();
+      }
+      return attempt;
+    });
+  }
+
+  /**
+   * 要素の更新をJDBCバッチに溜めてまとめて実行し、SQLごとの更新件数から失敗した要素を特定する
+   * MyBatisのBatchExecutorは同じSQLが続く間だけ1つの文にまとめるため、
+   * 受講生、受講生コース、申込状況の順にSQLの種類ごとにまとめて溜める
+   * 更新件数はこの順に返るため、溜めた順に要素の位置を記録しておく
+   * 0件の更新は要素ごとのエラーとしてすべて返し、SQLの失敗はそれより後のSQLが実行されないため最初の1件だけを返す
+   *
+   * @param repository     バッチ実行用の受講生のRepository
+   * @param studentDetails 受講生詳細
+   * @param targets        更新する要素の位置
+   * @return 更新内容と失敗した要素
+   */
+  private Attempt apply(StudentRepository repository, List<StudentDetail> studentDetails,
+      List<Integer> targets) {
+    List<IssuedUpdate> issued = new ArrayList<>();
+    RosterChangedEvent.RosterChangedEventBuilder changes = RosterChangedEvent.builder();
+    for (int index : targets) {
+      Student student = studentDetails.get(index).getStudent();
+      repository.updateStudent(student);
+      issued.add(new IssuedUpdate(index, "Student with ID " + student.getId() + " not found"));
+      changes.student(student);
+    }
+    for (int index : targets) {
+      List<StudentCourse> courses = coursesToUpdate(studentDetails.get(index));
+      int id = studentDetails.get(index).getStudent().getId();
+      for (int courseIndex = 0; courseIndex < courses.size(); courseIndex++) {
+        StudentCourse course = courses.get(courseIndex);
+        repository.updateStudentCourseOfStudent(course, id);
+        issued.add(new IssuedUpdate(index, "studentCourseList[" + courseIndex
+            + "].id: 受講生コースID " + course.getId() + " は受講生 " + id + " のものではありません"));
+        changes.renamedCourse(course);
+      }
+    }
+    for (int index : targets) {
+      List<StudentCourse> courses = coursesToUpdate(studentDetails.get(index));
+      for (int courseIndex = 0; courseIndex < courses.size(); courseIndex++) {
+        StudentCourse course = courses.get(courseIndex);
+        ApplicationStatus status = course.getApplicationStatus();
+        if (status != null) {
+          repository.updateApplicationStatusOfCourse(status, course.getId());
+          issued.add(new IssuedUpdate(index, "studentCourseList[" + courseIndex
+              + "].applicationStatus.id: 申込状況ID " + status.getId() + " は受講生コース "
+              + course.getId() + " のものではありません"));
+          changes.status(status);
+        }
+      }
+    }
+
+    int[] updateCounts = batchSession.flushAndGetUpdateCounts();
+    Map<Integer, String> failures = new LinkedHashMap<>();
+    for (int position = 0; position < updateCounts.length; position++) {
+      IssuedUpdate update = issued.get(position);
+      if (updateCounts[position] == Statement.EXECUTE_FAILED) {
+        failures.putIfAbsent(update.index(),
+            "Student with ID " + studentId(studentDetails.get(update.index()))
+                + " could not be updated");
+        break;
+      }
+      if (updateCounts[position] == 0) {
+        failures.putIfAbsent(update.index(), update.notFoundMessage());
+      }
+    }
+    return new Attempt(changes.build(), failures);
+  }
+
+  /**
+   * 更新対象の受講生をIN句でまとめて取得する
+   * IN句が長くなりすぎないように一括更新と同じ件数で区切る
+   *
+   * @param repository 受講生のRepository
+   * @param ids        受講生ID
+   * @return 受講生IDと受講生
+   */
+  private static Map<Integer, Student> searchStudents(StudentRepository repository,
+      List<Integer> ids) {
+    Map<Integer, Student> students = new HashMap<>();
+    for (int from = 0; from < ids.size(); from += StudentService.BULK_CHUNK_SIZE) {
+      List<Integer> chunk = ids.subList(from,
+          Math.min(from + StudentService.BULK_CHUNK_SIZE, ids.size()));
+      students.putAll(repository.searchStudentsByIds(chunk).stream()
+          .collect(Collectors.toMap(Student::getId, Function.identity())));
+    }
+    return students;
+  }
+
+  /**
+   * 更新する受講生コース（論理削除する場合や、受講生コースが指定されていない場合は更新しない）
+   */
+  private static List<StudentCourse> coursesToUpdate(StudentDetail studentDetail) {
+    if (studentDetail.getStudent().isDeleteFlag()
+        || studentDetail.getStudentCourseList() == null) {
+      return List.of();
+    }
+    return studentDetail.getStudentCourseList();
+  }
+
+  private static int nullCourseIndex(StudentDetail studentDetail) {
+    List<StudentCourse> courses = studentDetail.getStudentCourseList();
+    if (courses == null) {
+      return -1;
+    }
+    return IntStream.range(0, courses.size())
+        .filter(courseIndex -> courses.get(courseIndex) == null)
+        .findFirst()
+        .orElse(-1);
+  }
+
+  private static Integer studentId(StudentDetail studentDetail) {
+    if (studentDetail == null || studentDetail.getStudent() == null) {
+      return null;
+    }
+    return studentDetail.getStudent().getId();
+  }
+
+  /**
+   * JDBCバッチに溜めた更新と、0件だった場合のエラーメッセージ
+   *
+   * @param index           要素の位置
+   * @param notFoundMessage 更新件数が0件だった場合のエラーメッセージ
+   */
+  private record IssuedUpdate(int index, String notFoundMessage) {
+
+  }
+
+  /**
+   * 1回の更新の結果
+   *
+   * @param changes  更新内容
+   * @param failures 失敗した要素の位置とエラーメッセージ
+   */
+  private record Attempt(RosterChangedEvent changes, Map<Integer, String> failures) {
+
+  }
+}
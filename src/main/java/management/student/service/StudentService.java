@@ -5,14 +5,24 @@ import static java.util.function.Predicate.not;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import management.student.analytics.RosterChangedEvent;
+import management.student.cache.StudentDetailCache;
 import management.student.converter.StudentConverter;
 import management.student.data.ApplicationStatus;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentCoursePage;
 import management.student.domain.StudentDetail;
+import management.student.domain.StudentPatch;
 import management.student.exception.StudentBizException;
 import management.student.repository.StudentRepository;
+import management.student.tracing.SpanKind;
+import management.student.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -25,23 +35,103 @@ import org.springframework.transaction.annotation.Transactional;
 @Service
 public class StudentService {
 
+  //一括更新で1回のSQLに含める最大件数
+  static final int BULK_CHUNK_SIZE = 1000;
+
   private StudentRepository repository;
   private StudentConverter converter;
+  //更新内容を名簿のスナップショットやキャッシュに伝える
+  private ApplicationEventPublisher eventPublisher;
+  //受講生詳細のキャッシュ（使わない場合はnull）
+  private StudentDetailCache studentDetailCache;
+  //リクエストのトレースの記録（使わない場合はnull）
+  private Tracer tracer;
+  //更新カウンター（共有した一覧の検索結果がどの更新まで反映しているかを伝える。使わない場合はnull）
+  private StudentWriteCounter writeCounter;
+  //同時に実行された同じ検索をまとめるためのもの
+  private final SingleFlight<Integer, StudentDetail> studentFlight = new SingleFlight<>();
+  //キャッシュに保持する検索は、削除と並行していないかを判定できるように世代ごと共有する
+  private final SingleFlight<Integer, StudentDetailCache.Loaded> cachedStudentFlight =
+      new SingleFlight<>();
+  private final SingleFlight<Integer, StudentDetail> studentHeaderFlight = new SingleFlight<>();
+  private final SingleFlight<Integer, ApplicationStatus> applicationStatusFlight =
+      new SingleFlight<>();
+  //一覧の検索は、検索を始める前の更新カウンターの値とともに共有する
+  private final SingleFlight<String, StudentList> studentListFlight = new SingleFlight<>();
 
-  @Autowired
-  //コンストラクタにAutowiredする。フィールドにAutowirdeしない
-  public StudentService(StudentRepository repository, StudentConverter converter) {
+  public StudentService(StudentRepository repository, StudentConverter converter,
+      ApplicationEventPublisher eventPublisher) {
     this.repository = repository;
     this.converter = converter;
+    this.eventPublisher = eventPublisher;
+  }
+
+  @Autowired
+  //コンストラクタにAutowiredする。フィールドにAutowirdeしない
+  public StudentService(StudentRepository repository, StudentConverter converter,
+      ApplicationEventPublisher eventPublisher, ObjectProvider<StudentDetailCache> cache,
+      ObjectProvider<Tracer> tracer, StudentWriteCounter writeCounter) {
+    this(repository, converter, eventPublisher);
+    this.studentDetailCache = cache.getIfAvailable();
+    this.tracer = tracer.getIfAvailable();
+    this.writeCounter = writeCounter;
   }
 
   /**
    * 受講生の情報を取得
    * 全件検索のため条件の指定はなし
+   * 同時に呼び出された場合は1回の検索結果を共有する
    *
    * @return String 受講生情報
    */
   public List<StudentDetail> getStudentList() {
+    return getStudentList(true);
+  }
+
+  /**
+   * 受講生の情報を取得
+   * 受講生コースを含めない場合は受講生テーブルだけを検索する
+   *
+   * @param includeCourses 受講生コースを含めるか
+   * @return 受講生情報
+   */
+  public List<StudentDetail> getStudentList(boolean includeCourses) {
+    if (!includeCourses) {
+      return sharedStudentList("header", () -> this.repository.searchStudentList()
+          .stream()
+          .map(student -> new StudentDetail(student, null))
+          .toList());
+    }
+    return sharedStudentList("all", this::loadStudentList);
+  }
+
+  /**
+   * 同時に呼び出された一覧の検索を1回にまとめる
+   * 検索を始める前の更新カウンターの値を共有する検索の中で取得し、呼び出し元のスレッドに記録する
+   * 後から合流した呼び出しでは現在の値が検索を始めた時点より新しいことがあるため、現在の値は使わない
+   *
+   * @param key    　検索の種類
+   * @param loader 　検索処理
+   * @return 受講生情報
+   */
+  private List<StudentDetail> sharedStudentList(String key,
+      Supplier<List<StudentDetail>> loader) {
+    StudentList studentList = studentListFlight.execute(key, () -> {
+      long version = writeCounter == null ? 0 : writeCounter.current();
+      return new StudentList(loader.get(), version);
+    });
+    if (writeCounter != null) {
+      writeCounter.recordRead(studentList.version());
+    }
+    return studentList.students();
+  }
+
+  /**
+   * 受講生の情報をDBから取得
+   *
+   * @return 受講生情報
+   */
+  private List<StudentDetail> loadStudentList() {
     //受講生全件取得
     List<Student> studentList = this.repository.searchStudentList();
     // 受講生コース全件取得
@@ -54,17 +144,59 @@ public class StudentService {
    * 受講生詳細の情報（1件）を取得
    * 　IDに基づく任意の受講生情報を取得したあと、その受講生に紐づく受講生コースを取得し、
    * 　受講生詳細に設定します。
+   * 　同じIDで同時に呼び出された場合は1回の検索結果を共有するため、戻り値を変更しないこと
    *
    * @param id 受講生ID
    * @return String 受講生情報
    */
   public StudentDetail getStudent(int id) {
+    return getStudent(id, true);
+  }
+
+  /**
+   * 受講生詳細の情報（1件）を取得
+   * 受講生コースを含めない場合は受講生テーブルだけを検索する
+   * 受講生コースを含める場合は、キャッシュを使う設定であればキャッシュから取得する
+   *
+   * @param id             受講生ID
+   * @param includeCourses 受講生コースを含めるか
+   * @return 受講生情報
+   */
+  public StudentDetail getStudent(int id, boolean includeCourses) {
+    if (!includeCourses) {
+      return studentHeaderFlight.execute(id,
+          () -> new StudentDetail(searchStudent(id), null));
+    }
+    if (studentDetailCache != null) {
+      return studentDetailCache.get(id, () -> cachedStudentFlight.execute(id,
+          () -> studentDetailCache.load(() -> loadStudent(id))));
+    }
+    return studentFlight.execute(id, () -> loadStudent(id));
+  }
+
+  /**
+   * 受講生詳細の情報（1件）をDBから取得
+   *
+   * @param id 受講生ID
+   * @return 受講生情報
+   */
+  private StudentDetail loadStudent(int id) {
+    Student student = searchStudent(id);
+    List<StudentCourse> courses = this.repository.searchStudentCourseWithStatus(student.getId());
+    return new StudentDetail(student, courses);
+  }
+
+  /**
+   * 受講生（1件）をDBから取得
+   *
+   * @param id 受講生ID
+   * @return 受講生
+   */
+  private Student searchStudent(int id) {
     //該当の受講生が存在しない場合はエラーとする。
-    Student student = this.repository.searchStudentByID(id)
+    return this.repository.searchStudentByID(id)
         .orElseThrow(() -> new StudentBizException("Student with ID " + id + " not found",
             HttpStatus.NOT_FOUND));
-    List<StudentCourse> courses = this.repository.searchStudentCourseWithStatus(student.getId());
-    return new StudentDetail(student, courses);
   }
 
 
@@ -86,6 +218,38 @@ public class StudentService {
     return this.repository.searchStudentCourseByID(studentId);
   }
 
+  /**
+   * 受講生コースと申込状況をページ単位で取得
+   * 次のページの有無を判定するため、1件多く検索する
+   *
+   * @param studentId 受講生ID
+   * @param page      ページ番号（0から）
+   * @param size      1ページの件数
+   * @return 受講生コースのページ
+   */
+  public StudentCoursePage getStudentCourses(int studentId, int page, int size) {
+    searchStudent(studentId);
+    List<StudentCourse> courses = this.repository.searchStudentCourseWithStatusPage(studentId,
+        size + 1, page * size);
+    boolean hasNext = courses.size() > size;
+    return new StudentCoursePage(hasNext ? courses.subList(0, size) : courses, page, size,
+        hasNext);
+  }
+
+  /**
+   * 指定日数以内に受講完了日を迎える受講生コースと申込状況を取得
+   * 受講完了日のインデックスで範囲検索し、受講完了日の近い順に返す
+   *
+   * @param withinDays 現在から何日以内を対象にするか
+   * @param limit      取得する最大件数
+   * @return 受講生コース
+   */
+  public List<StudentCourse> getExpiringCourses(int withinDays, int limit) {
+    LocalDateTime now = LocalDateTime.now();
+    return this.repository.searchStudentCourseWithStatusByEndDate(now, now.plusDays(withinDays),
+        limit);
+  }
+
   /**
    * 申込状況全件検索
    *
@@ -97,15 +261,16 @@ public class StudentService {
 
   /**
    * 申込状況１件検索
+   * 同じIDで同時に呼び出された場合は1回の検索結果を共有する
    *
    * @return ApplicationStatus 申込状況
    */
   public ApplicationStatus getApplicationStatusById(int id) {
-    ApplicationStatus applicationStatus = this.repository.searchApplicationStatusByID(id)
-        .orElseThrow(() -> new StudentBizException(
-            "ApplicationStatus with Course ID " + id + " not found",
-            HttpStatus.NOT_FOUND));
-    return applicationStatus;
+    return applicationStatusFlight.execute(id,
+        () -> this.repository.searchApplicationStatusByID(id)
+            .orElseThrow(() -> new StudentBizException(
+                "ApplicationStatus with Course ID " + id + " not found",
+                HttpStatus.NOT_FOUND)));
   }
 
   /**
@@ -130,9 +295,14 @@ public class StudentService {
       // 申込状況登録
       ApplicationStatus status = courseWithStatus.getApplicationStatus();
       status.setStudentCourseId(courseWithStatus.getId());
-      register(status);
+      resister(status);
 
     });
+    this.eventPublisher.publishEvent(RosterChangedEvent.builder()
+        .student(student)
+        .createdCourses(courses)
+        .statuses(courses.stream().map(StudentCourse::getApplicationStatus).toList())
+        .build());
     return studentDetail;
   }
 
@@ -145,9 +315,15 @@ public class StudentService {
   @Transactional
   public void update(StudentDetail studentDetail) {
     //受講生を更新
-    StudentDetail beforeStudentDetail = this.getStudent(studentDetail.getStudent().getId());
+    //トランザクション内の値を使うため、他の検索とはまとめずに取得する
+    //自身のメソッドの呼び出しはアスペクトを通らないため、トレースの区間はここで記録する
+    StudentDetail beforeStudentDetail = traced("StudentService.loadStudent(int)",
+        () -> this.loadStudent(studentDetail.getStudent().getId()));
     //更新時に入力が入っている値だけを更新し、他の値は元の受講生の値を利用する。
-    mergedStudent(beforeStudentDetail, studentDetail);
+    traced("StudentService.mergedStudent(StudentDetail,StudentDetail)", () -> {
+      mergedStudent(beforeStudentDetail, studentDetail);
+      return null;
+    });
     update(studentDetail.getStudent());
     //受講生コースを受講生が削除されていないときのみ更新
     if (!studentDetail.getStudent().isDeleteFlag()) {
@@ -159,6 +335,33 @@ public class StudentService {
         update(status);
       });
     }
+    this.eventPublisher.publishEvent(RosterChangedEvent.builder()
+        .student(studentDetail.getStudent())
+        .renamedCourses(studentDetail.getStudent().isDeleteFlag()
+            ? List.of() : studentDetail.getStudentCourseList())
+        .build());
+  }
+
+  /**
+   * 受講生の部分更新
+   * 更新前の受講生を検索せずに、指定された項目の列だけを更新する
+   *
+   * @param id    　受講生ID
+   * @param patch 　受講生の部分更新
+   */
+  @Transactional
+  public void patch(int id, StudentPatch patch) {
+    if (patch.isEmpty()) {
+      //更新する項目がない場合も、存在しない受講生はエラーとする
+      searchStudent(id);
+      return;
+    }
+    if (this.repository.patchStudent(id, patch) == 0) {
+      throw new StudentBizException("Student with ID " + id + " not found",
+          HttpStatus.NOT_FOUND);
+    }
+    this.eventPublisher.publishEvent(
+        RosterChangedEvent.builder().studentPatch(id, patch).build());
   }
 
   /**
@@ -199,14 +402,25 @@ public class StudentService {
    *
    * @param status 申込状況
    */
+  @Transactional
   public ApplicationStatus register(ApplicationStatus status) {
+    resister(status);
+    this.eventPublisher.publishEvent(RosterChangedEvent.builder().status(status).build());
+    return status;
+  }
+
+  /**
+   * 申込状況登録（名簿への反映は呼び出し側で行う）
+   *
+   * @param status 申込状況
+   */
+  private void resister(ApplicationStatus status) {
     try {
       this.repository.createApplicationStatus(status);
     } catch (DataAccessException e) {
       throw new StudentBizException("DataBaseAccess Error",
           HttpStatus.INTERNAL_SERVER_ERROR);
     }
-    return status;
   }
 
   /**
@@ -232,11 +446,13 @@ public class StudentService {
    *
    * @param status 申込状況
    */
+  @Transactional
   public void update(ApplicationStatus status) {
     try {
       // 更新対象が存在する場合に更新を実行
       if (this.repository.searchApplicationStatusByID(status.getId()).isPresent()) {
         this.repository.updateApplicationStatus(status);
+        this.eventPublisher.publishEvent(RosterChangedEvent.builder().status(status).build());
       } else {
         // 更新対象が存在しない場合
         throw new StudentBizException(
@@ -250,16 +466,60 @@ public class StudentService {
     }
   }
 
+  /**
+   * 申込状況の一括更新
+   * ID指定の場合はIDをチャンクに分けて、条件指定の場合は件数を区切って、それぞれ1回のUPDATEで更新する
+   * チャンクごとにコミットしてロックを短く保つ。途中でエラーとなった場合も、
+   * すでに変更後のステータスになっている行は更新対象外となるため再実行できる
+   * 途中でエラーとなった場合も、コミット済みのチャンクがあれば更新内容を伝える
+   *
+   * @param transition 申込状況の一括更新条件
+   * @return 更新件数
+   */
+  public int updateApplicationStatuses(ApplicationStatusTransition transition) {
+    int updatedCount = 0;
+    try {
+      List<Integer> ids = transition.getIds();
+      if (ids != null && !ids.isEmpty()) {
+        for (int from = 0; from < ids.size(); from += BULK_CHUNK_SIZE) {
+          List<Integer> chunk = ids.subList(from, Math.min(from + BULK_CHUNK_SIZE, ids.size()));
+          updatedCount += this.repository.updateApplicationStatusByIds(chunk,
+              transition.getCurrentStatus(), transition.getTargetStatus());
+        }
+      } else {
+        int chunkCount;
+        do {
+          chunkCount = this.repository.updateApplicationStatusByFilter(
+              transition.getCourseName(), transition.getCurrentStatus(),
+              transition.getTargetStatus(), BULK_CHUNK_SIZE);
+          updatedCount += chunkCount;
+        } while (chunkCount == BULK_CHUNK_SIZE);
+      }
+    } catch (DataAccessException e) {
+      throw new StudentBizException("DataBaseAccess Error",
+          HttpStatus.INTERNAL_SERVER_ERROR);
+    } finally {
+      //コミット済みのチャンクをキャッシュやスナップショットに反映させる
+      if (updatedCount > 0) {
+        this.eventPublisher.publishEvent(
+            RosterChangedEvent.builder().transition(transition).build());
+      }
+    }
+    return updatedCount;
+  }
 
   /**
    * 申込状況削除
    *
    * @param id 申込状況ID
    */
+  @Transactional
   public void deleteApplicationStatus(int id) {
     // 削除対象が存在した場合に実行
     if (this.repository.searchApplicationStatusByID(id).isPresent()) {
       this.repository.deleteApplicationStatus(id);
+      this.eventPublisher.publishEvent(
+          RosterChangedEvent.builder().deletedStatusId(id).build());
     } else {
       // 削除対象が存在しなかった場合
       throw new StudentBizException("ApplicationStatus with ID " + id + " Not Found",
@@ -268,13 +528,32 @@ public class StudentService {
 
   }
 
+  /**
+   * 処理をトレースの区間として記録する
+   *
+   * @param name   　区間の名前
+   * @param action 　処理
+   * @return 処理の結果
+   */
+  private <T> T traced(String name, Supplier<T> action) {
+    if (tracer == null) {
+      return action.get();
+    }
+    int span = tracer.open(SpanKind.SERVICE, name);
+    try {
+      return action.get();
+    } finally {
+      tracer.close(span);
+    }
+  }
+
   /**
    * 　更新用の受講生のフィールドに値が入っているかどうか判定し、設定されいなければ、元の受講生の値を設定する
    *
    * @param existingStudentDetail 受講生詳細（更新用）
    * @param updatesStudentDetail  　受講生詳細（更新前）
    */
-  private static void mergedStudent(StudentDetail existingStudentDetail,
+  static void mergedStudent(StudentDetail existingStudentDetail,
       StudentDetail updatesStudentDetail) {
     Student existing = existingStudentDetail.getStudent();
     Student updates = updatesStudentDetail.getStudent();
@@ -298,4 +577,14 @@ public class StudentService {
         Optional.ofNullable(updates.getRemarks()).orElse(existing.getRemarks()));
     updatesStudentDetail.setStudent(mergedStudent);
   }
+
+  /**
+   * 共有する一覧の検索結果
+   *
+   * @param students 　受講生情報
+   * @param version  　検索を始める前の更新カウンターの値
+   */
+  private record StudentList(List<StudentDetail> students, long version) {
+
+  }
 }
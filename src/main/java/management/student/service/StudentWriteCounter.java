@@ -0,0 +1,73 @@
+package management.student.service;
+
+import java.util.concurrent.atomic.AtomicLong;
+import management.student.analytics.RosterChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 受講生情報が更新された回数を数えるカウンター
+ * StudentServiceなどの更新処理が発行するイベントを受け取り、コミット後に1つ増やす
+ * 検索の前に値を読んでおき、検索後に値が変わっていなければ、その間に更新がコミットされていないと判断できる
+ */
+@Component
+public class StudentWriteCounter {
+
+  private final AtomicLong count = new AtomicLong();
+  //このスレッドの検索結果が反映している最も古い値（記録を開始していない場合はnull）
+  private final ThreadLocal<Long> readVersion = new ThreadLocal<>();
+
+  /**
+   * 現在の値を取得する
+   *
+   * @return 更新された回数
+   */
+  public long current() {
+    return count.get();
+  }
+
+  /**
+   * このスレッドで使う検索結果の値の記録を開始する
+   * 他のスレッドが始めた検索の結果を共有する場合、その結果は現在の値より前の状態のことがあるため、
+   * 検索結果を返す側がrecordReadで検索を始めた時点の値を記録する
+   */
+  public void startRead() {
+    readVersion.set(Long.MAX_VALUE);
+  }
+
+  /**
+   * 使った検索結果の、検索を始める前の値を記録する
+   * 記録を開始していない場合は何もしない
+   *
+   * @param version 　検索を始める前に取得した値
+   */
+  public void recordRead(long version) {
+    Long current = readVersion.get();
+    if (current != null && version < current) {
+      readVersion.set(version);
+    }
+  }
+
+  /**
+   * 記録を終了し、記録した値と指定した値のうち最も古いものを返す
+   *
+   * @param version 　記録を開始する前に取得した値
+   * @return 使った検索結果が反映している最も古い値
+   */
+  public long finishRead(long version) {
+    Long recorded = readVersion.get();
+    readVersion.remove();
+    return recorded == null ? version : Math.min(recorded, version);
+  }
+
+  /**
+   * 更新処理のコミット後に値を増やす
+   * トランザクション外で更新された場合はすぐに増やす
+   *
+   * @param event 　変更のイベント
+   */
+  @TransactionalEventListener(fallbackExecution = true)
+  public void onRosterChanged(RosterChangedEvent event) {
+    count.incrementAndGet();
+  }
+}
@@ -0,0 +1,87 @@
+package management.student.snapshot;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * ファイルをメモリマップして先頭から順に読み込むクラス
+ * 大きなファイルでも一定の大きさずつマップし直しながら読み込む
+ */
+class MappedInput {
+
+  static final long WINDOW_SIZE = 256L << 20;
+
+  private final FileChannel channel;
+  private final long size;
+  private final long windowSize;
+  private long windowStart;
+  private MappedByteBuffer buffer;
+
+  /**
+   * コンストラクタ
+   *
+   * @param channel    　読み込むファイル
+   * @param windowSize 　一度にマップする大きさ
+   * @throws IOException マップできない場合
+   */
+  MappedInput(FileChannel channel, long windowSize) throws IOException {
+    this.channel = channel;
+    this.size = channel.size();
+    this.windowSize = windowSize;
+    map(0);
+  }
+
+  byte getByte() throws IOException {
+    ensure(Byte.BYTES);
+    return buffer.get();
+  }
+
+  short getShort() throws IOException {
+    ensure(Short.BYTES);
+    return buffer.getShort();
+  }
+
+  int getInt() throws IOException {
+    ensure(Integer.BYTES);
+    return buffer.getInt();
+  }
+
+  long getLong() throws IOException {
+    ensure(Long.BYTES);
+    return buffer.getLong();
+  }
+
+  /**
+   * 長さ（符号なしshort）とUTF-8の文字列を読み込む
+   *
+   * @return 文字列
+   * @throws IOException ファイルの終わりに達した場合
+   */
+  String getString() throws IOException {
+    int length = Short.toUnsignedInt(getShort());
+    ensure(length);
+    byte[] utf8 = new byte[length];
+    buffer.get(utf8);
+    return new String(utf8, StandardCharsets.UTF_8);
+  }
+
+  private void ensure(int length) throws IOException {
+    if (buffer.remaining() >= length) {
+      return;
+    }
+    long position = windowStart + buffer.position();
+    if (position + length > size) {
+      throw new EOFException("Unexpected end of snapshot file");
+    }
+    map(position);
+  }
+
+  private void map(long position) throws IOException {
+    windowStart = position;
+    buffer = channel.map(FileChannel.MapMode.READ_ONLY, position,
+        Math.min(windowSize, size - position));
+  }
+}
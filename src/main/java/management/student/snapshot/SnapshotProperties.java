@@ -0,0 +1,19 @@
+package management.student.snapshot;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 起動時にスナップショットを復元・書き出す場合の設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.snapshot")
+public class SnapshotProperties {
+
+  private boolean enabled = false; //起動時に復元・書き出しを行うかどうか
+  private String restoreFrom; //復元するスナップショット（未指定の場合は復元しない）
+  private boolean replace = false; //復元前に既存の行を削除するかどうか
+  private String dumpTo; //書き出し先（未指定の場合は書き出さない。復元を指定した場合は復元後に書き出す）
+}
@@ -0,0 +1,53 @@
+package management.student.snapshot;
+
+import java.nio.file.Path;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 起動時にスナップショットを復元・書き出すクラス
+ * テスト環境や検証環境を作り直すときに、student.snapshot.enabled=true と復元元・書き出し先を指定して起動する
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(SnapshotProperties.class)
+@ConditionalOnProperty(prefix = "student.snapshot", name = "enabled", havingValue = "true")
+public class SnapshotRunner implements ApplicationRunner {
+
+  private final StudentSnapshot snapshot;
+  private final SnapshotProperties properties;
+
+  /**
+   * コンストラクタ
+   *
+   * @param dataSource 　復元先・書き出し元のDB
+   * @param properties 　スナップショットの設定
+   */
+  public SnapshotRunner(DataSource dataSource, SnapshotProperties properties) {
+    this.snapshot = new StudentSnapshot(dataSource);
+    this.properties = properties;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) throws Exception {
+    if (properties.getRestoreFrom() != null) {
+      long start = System.nanoTime();
+      Map<String, Long> counts = snapshot.restore(Path.of(properties.getRestoreFrom()),
+          properties.isReplace());
+      log.info("Snapshot restored from {} in {}ms: {}", properties.getRestoreFrom(),
+          (System.nanoTime() - start) / 1_000_000, counts);
+    }
+    if (properties.getDumpTo() != null) {
+      long start = System.nanoTime();
+      Map<String, Long> counts = snapshot.dump(Path.of(properties.getDumpTo()));
+      log.info("Snapshot written to {} in {}ms: {}", properties.getDumpTo(),
+          (System.nanoTime() - start) / 1_000_000, counts);
+    }
+  }
+}
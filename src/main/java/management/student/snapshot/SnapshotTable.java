@@ -0,0 +1,54 @@
+package management.student.snapshot;
+
+import java.util.List;
+
+/**
+ * スナップショットに含めるテーブルと列
+ * 外部キーの参照先から順に並べ、この順番で書き込み・登録する
+ */
+enum SnapshotTable {
+
+  STUDENT("student", List.of(
+      new Column("id", Column.INT), new Column("name", Column.STRING),
+      new Column("furigana", Column.STRING), new Column("age", Column.INT),
+      new Column("gender", Column.STRING), new Column("nickname", Column.STRING),
+      new Column("email", Column.STRING), new Column("region", Column.STRING),
+      new Column("phone_number", Column.STRING), new Column("remarks", Column.STRING),
+      new Column("delete_flag", Column.INT), new Column("deleted_at", Column.TIMESTAMP))),
+  STUDENT_COURSES("student_courses", List.of(
+      new Column("id", Column.INT), new Column("student_id", Column.INT),
+      new Column("course_name", Column.STRING), new Column("start_date", Column.TIMESTAMP),
+      new Column("end_date", Column.TIMESTAMP))),
+  APPLICATION_STATUS("application_status", List.of(
+      new Column("id", Column.INT), new Column("student_course_id", Column.INT),
+      new Column("status", Column.STRING)));
+
+  private final String tableName;
+  private final List<Column> columns;
+
+  SnapshotTable(String tableName, List<Column> columns) {
+    this.tableName = tableName;
+    this.columns = columns;
+  }
+
+  String tableName() {
+    return tableName;
+  }
+
+  List<Column> columns() {
+    return columns;
+  }
+
+  /**
+   * 列の名前と型
+   *
+   * @param name 　列名
+   * @param type 　型（INT、STRING、TIMESTAMP）
+   */
+  record Column(String name, byte type) {
+
+    static final byte INT = 1;
+    static final byte STRING = 2;
+    static final byte TIMESTAMP = 3;
+  }
+}
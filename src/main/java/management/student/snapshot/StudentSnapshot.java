@@ -0,0 +1,281 @@
+package management.student.snapshot;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import management.student.snapshot.SnapshotTable.Column;
+
+/**
+ * 受講生、受講生コース、申込状況の全件をバイナリ形式のスナップショットに書き出し、DBに復元するクラス
+ * テスト環境や検証環境を作り直すときに、SQLのダンプより速く読み込むために使う
+ * 書き出しは1つの読み取りトランザクションで各テーブルをID順に読み、ファイルに先頭から書き込む
+ * 復元はファイルをメモリマップして読み、JDBCバッチで登録する
+ * 復元はイベントを発行しないため、キャッシュや集計用のスナップショットには反映されない（起動前の利用を想定）
+ *
+ * <pre>
+ * ファイルの構成（数値はビッグエンディアン）
+ *   [MAGIC 8バイト]
+ *   テーブルごとに
+ *     [テーブル名][列数 short] 列ごとに [列名][型 byte]
+ *     行ごとに [1 byte][NULLの列のビット int][NULLでない列の値]
+ *     [0 byte]
+ *   文字列は [長さ 符号なしshort][UTF-8]、INTは int、TIMESTAMPはUTCとみなしたエポックミリ秒 long
+ * </pre>
+ */
+@Slf4j
+public class StudentSnapshot {
+
+  static final byte[] MAGIC = "SMSNAP01".getBytes(StandardCharsets.US_ASCII);
+  private static final int FETCH_SIZE = 1000;
+  private static final int BATCH_SIZE = 1000;
+
+  private final DataSource dataSource;
+
+  /**
+   * コンストラクタ
+   *
+   * @param dataSource 　書き出し元・復元先のDB
+   */
+  public StudentSnapshot(DataSource dataSource) {
+    this.dataSource = dataSource;
+  }
+
+  /**
+   * すべてのテーブルをスナップショットに書き出す
+   * 一時ファイルに書き込んでから名前を変更するため、途中で失敗しても既存のファイルは壊れない
+   *
+   * @param path 　書き出すファイル
+   * @return テーブル名と行数
+   * @throws IOException  ファイルに書き込めない場合
+   * @throws SQLException DBから読み込めない場合
+   */
+  public Map<String, Long> dump(Path path) throws IOException, SQLException {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      connection.setReadOnly(true);
+      //3つのテーブルを同じ時点の内容で書き出す
+      connection.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+          Files.newOutputStream(temporary), 1 << 20))) {
+        out.write(MAGIC);
+        for (SnapshotTable table : SnapshotTable.values()) {
+          counts.put(table.tableName(), dumpTable(connection, table, out));
+        }
+      } finally {
+        connection.rollback();
+      }
+      Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE,
+          StandardCopyOption.REPLACE_EXISTING);
+    } finally {
+      Files.deleteIfExists(temporary);
+    }
+    return counts;
+  }
+
+  /**
+   * スナップショットをDBに復元する
+   * 主キーはスナップショットの値のまま登録し、登録後に自動採番の次の値を最大ID+1に合わせる
+   * すべての行を1つのトランザクションで登録するため、途中で失敗した場合は何も登録されない
+   *
+   * @param path    　スナップショット
+   * @param replace 　trueの場合は既存の行を削除してから登録する
+   * @return テーブル名と行数
+   * @throws IOException  ファイルを読み込めない場合や、スナップショットではない場合
+   * @throws SQLException DBに登録できない場合
+   */
+  public Map<String, Long> restore(Path path, boolean replace) throws IOException, SQLException {
+    Map<String, Long> counts = new LinkedHashMap<>();
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        Connection connection = dataSource.getConnection()) {
+      MappedInput in = new MappedInput(channel, MappedInput.WINDOW_SIZE);
+      byte[] magic = new byte[MAGIC.length];
+      for (int i = 0; i < magic.length; i++) {
+        magic[i] = in.getByte();
+      }
+      if (!Arrays.equals(magic, MAGIC)) {
+        throw new IOException("Not a student snapshot: " + path);
+      }
+      connection.setAutoCommit(false);
+      try {
+        if (replace) {
+          deleteAll(connection);
+        }
+        for (SnapshotTable table : SnapshotTable.values()) {
+          counts.put(table.tableName(), restoreTable(connection, table, in));
+        }
+        connection.commit();
+      } catch (IOException | SQLException | RuntimeException e) {
+        connection.rollback();
+        throw e;
+      }
+      //DDLは暗黙にコミットされるため、すべての行をコミットしてから行う
+      for (SnapshotTable table : SnapshotTable.values()) {
+        resetIdentity(connection, table);
+      }
+    }
+    return counts;
+  }
+
+  private static long dumpTable(Connection connection, SnapshotTable table, DataOutputStream out)
+      throws IOException, SQLException {
+    List<Column> columns = table.columns();
+    writeString(out, table.tableName());
+    out.writeShort(columns.size());
+    for (Column column : columns) {
+      writeString(out, column.name());
+      out.writeByte(column.type());
+    }
+    String sql = "SELECT " + columnList(columns) + " FROM " + table.tableName() + " ORDER BY id";
+    long rows = 0;
+    try (PreparedStatement statement = connection.prepareStatement(sql,
+        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+      statement.setFetchSize(FETCH_SIZE);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        Object[] values = new Object[columns.size()];
+        while (resultSet.next()) {
+          int nulls = 0;
+          for (int i = 0; i < columns.size(); i++) {
+            values[i] = switch (columns.get(i).type()) {
+              case Column.INT -> resultSet.getObject(i + 1, Integer.class);
+              case Column.STRING -> resultSet.getString(i + 1);
+              default -> resultSet.getObject(i + 1, LocalDateTime.class);
+            };
+            if (values[i] == null) {
+              nulls |= 1 << i;
+            }
+          }
+          out.writeByte(1);
+          out.writeInt(nulls);
+          for (int i = 0; i < columns.size(); i++) {
+            if (values[i] == null) {
+              continue;
+            }
+            switch (columns.get(i).type()) {
+              case Column.INT -> out.writeInt((Integer) values[i]);
+              case Column.STRING -> writeString(out, (String) values[i]);
+              default -> out.writeLong(
+                  ((LocalDateTime) values[i]).toInstant(ZoneOffset.UTC).toEpochMilli());
+            }
+          }
+          rows++;
+        }
+      }
+    }
+    out.writeByte(0);
+    return rows;
+  }
+
+  private static long restoreTable(Connection connection, SnapshotTable table, MappedInput in)
+      throws IOException, SQLException {
+    //列の構成が異なるスナップショットは復元しない（テーブル名と列名はファイルの値をSQLに使わない）
+    String tableName = in.getString();
+    List<Column> columns = new ArrayList<>();
+    int columnCount = in.getShort();
+    for (int i = 0; i < columnCount; i++) {
+      columns.add(new Column(in.getString(), in.getByte()));
+    }
+    if (!tableName.equals(table.tableName()) || !columns.equals(table.columns())) {
+      throw new IOException("Snapshot section " + tableName + columns
+          + " does not match table " + table.tableName() + table.columns());
+    }
+    String sql = "INSERT INTO " + table.tableName() + " (" + columnList(columns) + ") VALUES ("
+        + columns.stream().map(column -> "?").collect(Collectors.joining(", ")) + ")";
+    long rows = 0;
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      while (in.getByte() != 0) {
+        int nulls = in.getInt();
+        for (int i = 0; i < columns.size(); i++) {
+          byte type = columns.get(i).type();
+          if ((nulls & (1 << i)) != 0) {
+            statement.setNull(i + 1, type == Column.INT ? Types.INTEGER
+                : type == Column.STRING ? Types.VARCHAR : Types.TIMESTAMP);
+            continue;
+          }
+          switch (type) {
+            case Column.INT -> statement.setInt(i + 1, in.getInt());
+            case Column.STRING -> statement.setString(i + 1, in.getString());
+            default -> statement.setObject(i + 1,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(in.getLong()), ZoneOffset.UTC));
+          }
+        }
+        statement.addBatch();
+        rows++;
+        if (rows % BATCH_SIZE == 0) {
+          statement.executeBatch();
+        }
+      }
+      statement.executeBatch();
+    }
+    log.info("Restored {} rows into {}", rows, table.tableName());
+    return rows;
+  }
+
+  private static void deleteAll(Connection connection) throws SQLException {
+    try (Statement statement = connection.createStatement()) {
+      SnapshotTable[] tables = SnapshotTable.values();
+      for (int i = tables.length - 1; i >= 0; i--) {
+        statement.executeUpdate("DELETE FROM " + tables[i].tableName());
+      }
+    }
+  }
+
+  /**
+   * 主キーを指定して登録した後に、自動採番の次の値を最大ID+1にする
+   * MySQLは登録時に自動で調整されるため、H2の場合だけ変更する
+   */
+  private static void resetIdentity(Connection connection, SnapshotTable table)
+      throws SQLException {
+    if (!"H2".equals(connection.getMetaData().getDatabaseProductName())) {
+      return;
+    }
+    try (Statement statement = connection.createStatement()) {
+      long next;
+      try (ResultSet resultSet = statement.executeQuery(
+          "SELECT COALESCE(MAX(id), 0) + 1 FROM " + table.tableName())) {
+        resultSet.next();
+        next = resultSet.getLong(1);
+      }
+      statement.execute("ALTER TABLE " + table.tableName() + " ALTER COLUMN id RESTART WITH "
+          + next);
+    }
+    connection.commit();
+  }
+
+  private static String columnList(List<Column> columns) {
+    return columns.stream().map(Column::name).collect(Collectors.joining(", "));
+  }
+
+  private static void writeString(DataOutputStream out, String value) throws IOException {
+    byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+    if (utf8.length > 0xFFFF) {
+      throw new IOException("String value too long for snapshot: " + utf8.length + " bytes");
+    }
+    out.writeShort(utf8.length);
+    out.write(utf8);
+  }
+}
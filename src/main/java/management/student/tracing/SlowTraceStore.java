@@ -0,0 +1,53 @@
+package management.student.tracing;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * 遅かったリクエストのトレースを新しいものから一定件数だけ保持するクラス
+ */
+public class SlowTraceStore {
+
+  private final int capacity;
+  private final Deque<TraceRecord> traces = new ArrayDeque<>(); //古い順
+
+  /**
+   * コンストラクタ
+   *
+   * @param capacity 　保持する件数
+   */
+  public SlowTraceStore(int capacity) {
+    this.capacity = capacity;
+  }
+
+  /**
+   * トレースを追加する
+   * 保持する件数を超えた場合は最も古いものを削除する
+   *
+   * @param trace 　トレース
+   */
+  public synchronized void add(TraceRecord trace) {
+    if (traces.size() >= capacity) {
+      traces.pollFirst();
+    }
+    traces.addLast(trace);
+  }
+
+  /**
+   * 新しい順にトレースを取得する
+   *
+   * @param limit 　取得する最大件数
+   * @return トレース
+   */
+  public synchronized List<TraceRecord> recent(int limit) {
+    List<TraceRecord> recent = new ArrayList<>(Math.min(limit, traces.size()));
+    Iterator<TraceRecord> newest = traces.descendingIterator();
+    while (recent.size() < limit && newest.hasNext()) {
+      recent.add(newest.next());
+    }
+    return recent;
+  }
+}
@@ -0,0 +1,10 @@
+package management.student.tracing;
+
+/**
+ * 区間の種類（処理の層）
+ */
+public enum SpanKind {
+  CONTROLLER, //Controllerのハンドラー
+  SERVICE, //Serviceのメソッド
+  SQL //MyBatisのSQL（マップドステートメント）
+}
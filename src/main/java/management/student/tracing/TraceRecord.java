@@ -0,0 +1,23 @@
+package management.student.tracing;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import java.time.LocalDateTime;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "1リクエストの処理の記録")
+@Getter
+@AllArgsConstructor
+public class TraceRecord {
+
+  private String traceId; //トレースID（レスポンスヘッダーX-Trace-Idと同じ値）
+  private String method; //HTTPメソッド
+  private String path; //パス
+  private int status; //レスポンスのステータス
+  private LocalDateTime startedAt; //開始日時
+  private double durationMillis; //処理時間（ミリ秒）
+  private List<TraceSpan> spans; //区間（開始順）
+  private int droppedSpans; //上限を超えたため記録しなかった区間の数
+
+}
@@ -0,0 +1,18 @@
+package management.student.tracing;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "リクエスト内の1つの区間")
+@Getter
+@AllArgsConstructor
+public class TraceSpan {
+
+  private SpanKind kind; //種類
+  private String name; //名前（クラス名.メソッド名、SQLの場合はRepository名.ステートメントID）
+  private int depth; //入れ子の深さ（0が最も外側）
+  private double startMillis; //リクエストの開始からの経過時間（ミリ秒）
+  private double durationMillis; //処理時間（ミリ秒、終了していない場合は-1）
+
+}
@@ -0,0 +1,159 @@
+package management.student.tracing;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * リクエストを処理しているスレッドごとに区間を記録するクラス
+ * トレースはリクエストを受け付けたスレッド内だけで行い、他のスレッドで実行された処理は含まない
+ */
+public class Tracer {
+
+  //トレース中でないため記録しなかった区間
+  public static final int NOT_TRACED = -1;
+  //上限を超えたため記録しなかった区間
+  private static final int DROPPED = -2;
+  private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+  private final int maxSpans;
+  private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+
+  /**
+   * コンストラクタ
+   *
+   * @param maxSpans 　1リクエストで記録する区間の上限
+   */
+  public Tracer(int maxSpans) {
+    this.maxSpans = maxSpans;
+  }
+
+  /**
+   * このスレッドでトレースを開始する
+   *
+   * @param method 　HTTPメソッド
+   * @param path   　パス
+   * @return トレースID
+   */
+  public String begin(String method, String path) {
+    ActiveTrace trace = new ActiveTrace(
+        Long.toHexString(ThreadLocalRandom.current().nextLong()), method, path);
+    current.set(trace);
+    return trace.traceId;
+  }
+
+  /**
+   * このスレッドのトレースを終了する
+   *
+   * @param status 　レスポンスのステータス
+   * @return トレースの記録（トレース中でない場合はnull）
+   */
+  public TraceRecord end(int status) {
+    ActiveTrace trace = current.get();
+    if (trace == null) {
+      return null;
+    }
+    current.remove();
+    long endNanos = System.nanoTime();
+    List<TraceSpan> spans = new ArrayList<>(trace.spans.size());
+    for (OpenSpan span : trace.spans) {
+      spans.add(new TraceSpan(span.kind, span.name, span.depth,
+          toMillis(span.startNanos - trace.startNanos),
+          span.endNanos == 0 ? -1 : toMillis(span.endNanos - span.startNanos)));
+    }
+    return new TraceRecord(trace.traceId, trace.method, trace.path, status, trace.startedAt,
+        toMillis(endNanos - trace.startNanos), spans, trace.droppedSpans);
+  }
+
+  /**
+   * このスレッドでトレース中か判定する
+   *
+   * @return トレース中の場合true
+   */
+  public boolean isTracing() {
+    return current.get() != null;
+  }
+
+  /**
+   * 区間を開始する
+   * 戻り値は必ずclose(int)に渡すこと
+   *
+   * @param kind 　区間の種類
+   * @param name 　区間の名前
+   * @return 区間の番号（トレース中でない場合はNOT_TRACED）
+   */
+  public int open(SpanKind kind, String name) {
+    ActiveTrace trace = current.get();
+    if (trace == null) {
+      return NOT_TRACED;
+    }
+    int depth = trace.depth++;
+    if (trace.spans.size() >= maxSpans) {
+      trace.droppedSpans++;
+      return DROPPED;
+    }
+    trace.spans.add(new OpenSpan(kind, name, depth, System.nanoTime()));
+    return trace.spans.size() - 1;
+  }
+
+  /**
+   * 区間を終了する
+   *
+   * @param span 　open(SpanKind, String)の戻り値
+   */
+  public void close(int span) {
+    ActiveTrace trace = current.get();
+    if (span == NOT_TRACED || trace == null) {
+      return;
+    }
+    trace.depth--;
+    if (span >= 0) {
+      trace.spans.get(span).endNanos = System.nanoTime();
+    }
+  }
+
+  private static double toMillis(long nanos) {
+    return nanos / NANOS_PER_MILLI;
+  }
+
+  /**
+   * 記録中のトレース
+   */
+  private static class ActiveTrace {
+
+    private final String traceId;
+    private final String method;
+    private final String path;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+    private final long startNanos = System.nanoTime();
+    private final List<OpenSpan> spans = new ArrayList<>();
+    private int depth;
+    private int droppedSpans;
+
+    ActiveTrace(String traceId, String method, String path) {
+      this.traceId = traceId;
+      this.method = method;
+      this.path = path;
+    }
+  }
+
+  /**
+   * 記録中の区間
+   */
+  private static class OpenSpan {
+
+    private final SpanKind kind;
+    private final String name;
+    private final int depth;
+    private final long startNanos;
+    private long endNanos; //終了していない場合は0
+
+    OpenSpan(SpanKind kind, String name, int depth, long startNanos) {
+      this.kind = kind;
+      this.name = name;
+      this.depth = depth;
+      this.startNanos = startNanos;
+    }
+  }
+}
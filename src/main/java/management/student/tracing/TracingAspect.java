@@ -0,0 +1,53 @@
+package management.student.tracing;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import management.student.latency.LatencyAspect;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+
+/**
+ * 受講生のControllerの各APIとServiceの各メソッドを区間として記録するアスペクト
+ */
+@Aspect
+public class TracingAspect {
+
+  private final Tracer tracer;
+  private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+  /**
+   * コンストラクタ
+   *
+   * @param tracer 　トレースの記録
+   */
+  public TracingAspect(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Around("execution(public * management.student.controller.StudentController.*(..))")
+  public Object traceController(ProceedingJoinPoint joinPoint) throws Throwable {
+    return trace(SpanKind.CONTROLLER, joinPoint);
+  }
+
+  @Around("execution(public * management.student.service.StudentService.*(..))"
+      + " || execution(public * management.student.service.StudentBatchService.*(..))")
+  public Object traceService(ProceedingJoinPoint joinPoint) throws Throwable {
+    return trace(SpanKind.SERVICE, joinPoint);
+  }
+
+  private Object trace(SpanKind kind, ProceedingJoinPoint joinPoint) throws Throwable {
+    if (!tracer.isTracing()) {
+      return joinPoint.proceed();
+    }
+    Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+    int span = tracer.open(kind, names.computeIfAbsent(method, LatencyAspect::nameOf));
+    try {
+      return joinPoint.proceed();
+    } finally {
+      tracer.close(span);
+    }
+  }
+}
@@ -0,0 +1,49 @@
+package management.student.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * リクエストのトレースに使うフィルター、アスペクト、MyBatisのプラグインを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+@ConditionalOnProperty(prefix = "student.tracing", name = "enabled", matchIfMissing = true)
+public class TracingConfig {
+
+  @Bean
+  public Tracer tracer(TracingProperties properties) {
+    return new Tracer(properties.getMaxSpans());
+  }
+
+  @Bean
+  public SlowTraceStore slowTraceStore(TracingProperties properties) {
+    return new SlowTraceStore(properties.getCapacity());
+  }
+
+  @Bean
+  public TracingAspect tracingAspect(Tracer tracer) {
+    return new TracingAspect(tracer);
+  }
+
+  //MyBatisの自動設定がInterceptorのBeanをプラグインとして登録する
+  @Bean
+  public TracingInterceptor tracingInterceptor(Tracer tracer) {
+    return new TracingInterceptor(tracer);
+  }
+
+  @Bean
+  public FilterRegistrationBean<TracingFilter> tracingFilter(Tracer tracer,
+      SlowTraceStore store, ObjectMapper objectMapper, TracingProperties properties) {
+    FilterRegistrationBean<TracingFilter> registration = new FilterRegistrationBean<>(
+        new TracingFilter(tracer, store, objectMapper, properties));
+    //レート制限などの他のフィルターの処理時間も含めるため、最初に実行する
+    registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+    return registration;
+  }
+}
@@ -0,0 +1,74 @@
+package management.student.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * リクエストごとにトレースを開始・終了するフィルター
+ * 閾値以上かかったリクエストは、メモリに保持するとともに1行のJSONとしてログに出力する
+ * ログは management.student.tracing.slow のロガーに出力するため、出力先を分けることができる
+ */
+public class TracingFilter extends OncePerRequestFilter {
+
+  static final String TRACE_ID_HEADER = "X-Trace-Id";
+
+  private static final Logger SLOW_LOG = LoggerFactory.getLogger(
+      "management.student.tracing.slow");
+
+  private final Tracer tracer;
+  private final SlowTraceStore store;
+  private final ObjectMapper objectMapper;
+  private final double slowThresholdMillis;
+
+  /**
+   * コンストラクタ
+   *
+   * @param tracer       　トレースの記録
+   * @param store        　遅いリクエストのトレースの保持先
+   * @param objectMapper 　ログ出力用のObjectMapper
+   * @param properties   　トレースの設定
+   */
+  public TracingFilter(Tracer tracer, SlowTraceStore store, ObjectMapper objectMapper,
+      TracingProperties properties) {
+    this.tracer = tracer;
+    this.store = store;
+    this.objectMapper = objectMapper;
+    this.slowThresholdMillis = properties.getSlowThreshold().toNanos() / 1_000_000.0;
+  }
+
+  @Override
+  protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+      FilterChain filterChain) throws ServletException, IOException {
+    String traceId = tracer.begin(request.getMethod(), request.getRequestURI());
+    response.setHeader(TRACE_ID_HEADER, traceId);
+    try {
+      filterChain.doFilter(request, response);
+    } finally {
+      TraceRecord trace = tracer.end(response.getStatus());
+      if (trace != null && trace.getDurationMillis() >= slowThresholdMillis) {
+        store.add(trace);
+        log(trace);
+      }
+    }
+  }
+
+  private void log(TraceRecord trace) {
+    if (!SLOW_LOG.isWarnEnabled()) {
+      return;
+    }
+    try {
+      SLOW_LOG.warn(objectMapper.writeValueAsString(trace));
+    } catch (JsonProcessingException e) {
+      SLOW_LOG.warn("Slow request {} {} took {}ms (trace {})", trace.getMethod(),
+          trace.getPath(), trace.getDurationMillis(), trace.getTraceId());
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package management.student.tracing;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * MyBatisのSQLの実行を区間として記録するプラグイン
+ * JDBCバッチの場合、更新系のSQLは送信されずに溜められるため、まとめて送信するflushStatementsを記録する
+ */
+@Intercepts({
+    @Signature(type = Executor.class, method = "update",
+        args = {MappedStatement.class, Object.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+    @Signature(type = Executor.class, method = "query",
+        args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class,
+            CacheKey.class, BoundSql.class}),
+    @Signature(type = Executor.class, method = "queryCursor",
+        args = {MappedStatement.class, Object.class, RowBounds.class}),
+    @Signature(type = Executor.class, method = "flushStatements", args = {})
+})
+public class TracingInterceptor implements Interceptor {
+
+  private static final String FLUSH_STATEMENTS = "flushStatements";
+
+  private final Tracer tracer;
+  //ステートメントIDと区間の名前（Repository名.ステートメントID）
+  private final Map<String, String> names = new ConcurrentHashMap<>();
+
+  /**
+   * コンストラクタ
+   *
+   * @param tracer 　トレースの記録
+   */
+  public TracingInterceptor(Tracer tracer) {
+    this.tracer = tracer;
+  }
+
+  @Override
+  public Object intercept(Invocation invocation) throws Throwable {
+    if (!tracer.isTracing()) {
+      return invocation.proceed();
+    }
+    Object[] args = invocation.getArgs();
+    String name = args.length == 0 ? FLUSH_STATEMENTS
+        : names.computeIfAbsent(((MappedStatement) args[0]).getId(), TracingInterceptor::nameOf);
+    int span = tracer.open(SpanKind.SQL, name);
+    try {
+      return invocation.proceed();
+    } finally {
+      tracer.close(span);
+    }
+  }
+
+  /**
+   * ステートメントIDからパッケージ名を除く
+   *
+   * @param statementId 　ステートメントID（パッケージ名.Repository名.ステートメントID）
+   * @return Repository名.ステートメントID
+   */
+  static String nameOf(String statementId) {
+    int statement = statementId.lastIndexOf('.');
+    int repository = statement > 0 ? statementId.lastIndexOf('.', statement - 1) : -1;
+    return statementId.substring(repository + 1);
+  }
+}
@@ -0,0 +1,20 @@
+package management.student.tracing;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * リクエストのトレースの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.tracing")
+public class TracingProperties {
+
+  private boolean enabled = true; //トレースするかどうか
+  private Duration slowThreshold = Duration.ofMillis(500); //これ以上かかったリクエストを記録する
+  private int capacity = 100; //メモリに保持する遅いリクエストの件数
+  private int maxSpans = 1000; //1リクエストで記録する区間の上限
+}
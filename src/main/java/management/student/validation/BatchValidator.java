@@ -0,0 +1,90 @@
+package management.student.validation;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * 一括登録・一括更新の入力をまとめて検証するクラス
+ * 1つのValidatorを使い回し、件数が多い場合は要素ごとの検証を複数のコアで並列に実行する
+ * エラーメッセージは単件のAPIと同じく「項目名: メッセージ」の形式で要素の番号ごとにまとめる
+ */
+@Component
+public class BatchValidator {
+
+  //これより少ない件数ではスレッドの切り替えのほうが高くつくため順番に検証する
+  static final int DEFAULT_PARALLEL_THRESHOLD = 256;
+
+  private final Validator validator;
+  private final int parallelThreshold;
+
+  /**
+   * Springが管理しているValidatorを使うコンストラクタ
+   *
+   * @param validator 　Bean Validationのバリデーター
+   */
+  @Autowired
+  public BatchValidator(Validator validator) {
+    this(validator, DEFAULT_PARALLEL_THRESHOLD);
+  }
+
+  /**
+   * 並列に検証する件数の閾値を指定するコンストラクタ
+   *
+   * @param validator         　Bean Validationのバリデーター
+   * @param parallelThreshold 　並列に検証する最小件数
+   */
+  public BatchValidator(Validator validator, int parallelThreshold) {
+    this.validator = validator;
+    this.parallelThreshold = parallelThreshold;
+  }
+
+  /**
+   * 要素ごとに検証する
+   *
+   * @param items  　検証する要素
+   * @param groups 　バリデーショングループ（OnCreate、OnUpdateなど）
+   * @param <T>    　要素の型
+   * @return エラーのあった要素の番号とエラーメッセージ（番号順）。エラーがなければ空
+   */
+  public <T> Map<Integer, List<String>> validate(List<T> items, Class<?>... groups) {
+    IntStream indexes = IntStream.range(0, items.size());
+    if (items.size() >= parallelThreshold) {
+      indexes = indexes.parallel();
+    }
+    return indexes.boxed()
+        .map(index -> Map.entry(index, validate(items.get(index), groups)))
+        .filter(entry -> !entry.getValue().isEmpty())
+        .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue,
+            (first, second) -> first, TreeMap::new));
+  }
+
+  /**
+   * 1つの要素を検証する
+   *
+   * @param item   　検証する要素
+   * @param groups 　バリデーショングループ
+   * @param <T>    　要素の型
+   * @return エラーメッセージ（項目名順）
+   */
+  private <T> List<String> validate(T item, Class<?>[] groups) {
+    if (item == null) {
+      return List.of("null は許可されていません");
+    }
+    Set<ConstraintViolation<T>> violations = validator.validate(item, groups);
+    if (violations.isEmpty()) {
+      return List.of();
+    }
+    return violations.stream()
+        .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+        .sorted()
+        .toList();
+  }
+}
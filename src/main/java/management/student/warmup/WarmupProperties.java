@@ -0,0 +1,23 @@
+package management.student.warmup;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 起動時のウォームアップの設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.warmup")
+public class WarmupProperties {
+
+  private boolean enabled = false; //ウォームアップを実行するかどうか
+  private Duration budget = Duration.ofSeconds(30); //ウォームアップに使う最大時間
+  private int hotStudentCount = 200; //事前に読み込む受講生数の上限（受講完了日の近い順）
+  private int hotWindowDays = 30; //受講完了日が何日以内の受講生コースから受講生を選ぶか
+  private int parallelism = 4; //並列に実行するスレッド数
+  private int rounds = 20; //一覧取得とJSON変換を繰り返す回数（JITコンパイルを促す）
+  private int pageSize = 20; //繰り返す一覧取得の件数
+}
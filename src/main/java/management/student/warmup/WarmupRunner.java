@@ -0,0 +1,174 @@
+package management.student.warmup;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.extern.slf4j.Slf4j;
+import management.student.converter.StudentConverter;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+import management.student.service.StudentService;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 起動直後のリクエストが遅くならないように、受け付け開始前にウォームアップするクラス
+ * よく参照される受講生を並列に読み込み、件数を絞った一覧取得とJSON変換を繰り返してJITコンパイルを促す
+ * 受講生一覧（/students）の変換とJSON変換は、読み込んだ受講生だけを一覧として変換して繰り返す
+ * 受講生の全件は読み込まず、DBへの負荷と時間は受講生数に関係なく一定にする
+ * ApplicationRunnerの実行が終わるまでReadinessはACCEPTING_TRAFFICにならないため、
+ * ウォームアップが終わるか時間の上限に達するまでReadinessプローブは成功しない
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmupProperties.class)
+@ConditionalOnProperty(prefix = "student.warmup", name = "enabled", havingValue = "true")
+public class WarmupRunner implements ApplicationRunner {
+
+  private final StudentService service;
+  private final StudentConverter converter;
+  private final ObjectMapper objectMapper;
+  private final WarmupProperties properties;
+
+  /**
+   * コンストラクタ
+   *
+   * @param service      　受講生のサービス
+   * @param converter    　受講生一覧の変換に使うConverter
+   * @param objectMapper 　レスポンスのJSON変換に使うObjectMapper
+   * @param properties   　ウォームアップの設定
+   */
+  public WarmupRunner(StudentService service, StudentConverter converter,
+      ObjectMapper objectMapper, WarmupProperties properties) {
+    this.service = service;
+    this.converter = converter;
+    this.objectMapper = objectMapper;
+    this.properties = properties;
+  }
+
+  @Override
+  public void run(ApplicationArguments args) {
+    warmUp();
+  }
+
+  /**
+   * ウォームアップを実行する
+   * 失敗しても起動は止めず、時間の上限に達した場合は実行中の処理を中断する
+   *
+   * @return 時間内に全て完了した場合true
+   */
+  public boolean warmUp() {
+    long started = System.nanoTime();
+    long deadline = started + properties.getBudget().toNanos();
+    ExecutorService executor = Executors.newFixedThreadPool(properties.getParallelism());
+    AtomicInteger students = new AtomicInteger();
+    AtomicInteger rounds = new AtomicInteger();
+    Queue<StudentDetail> loaded = new ConcurrentLinkedQueue<>();
+    boolean completed = false;
+    try {
+      List<Callable<Void>> studentTasks = hotStudentIds().stream()
+          .map(id -> (Callable<Void>) () -> {
+            StudentDetail studentDetail = service.getStudent(id, true);
+            serialize(studentDetail);
+            serialize(service.getStudent(id, false));
+            loaded.add(studentDetail);
+            students.incrementAndGet();
+            return null;
+          })
+          .toList();
+      completed = invokeAll(executor, studentTasks, deadline);
+      List<Student> studentRows = loaded.stream().map(StudentDetail::getStudent).toList();
+      List<StudentCourse> courseRows = loaded.stream()
+          .filter(studentDetail -> studentDetail.getStudentCourseList() != null)
+          .flatMap(studentDetail -> studentDetail.getStudentCourseList().stream())
+          .toList();
+
+      List<Callable<Void>> roundTasks = new ArrayList<>();
+      for (int i = 0; i < properties.getParallelism(); i++) {
+        roundTasks.add(() -> {
+          while (rounds.getAndIncrement() < properties.getRounds()
+              && !Thread.currentThread().isInterrupted()) {
+            serialize(service.getExpiringCourses(properties.getHotWindowDays(),
+                properties.getPageSize()));
+            serialize(converter.convertStudentDetails(studentRows, courseRows));
+          }
+          return null;
+        });
+      }
+      completed &= invokeAll(executor, roundTasks, deadline);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (RuntimeException e) {
+      log.warn("Warm-up failed", e);
+    } finally {
+      executor.shutdownNow();
+    }
+    log.info("Warm-up {} in {} ms: students={}, rounds={}",
+        completed ? "finished" : "stopped", (System.nanoTime() - started) / 1_000_000,
+        students.get(), Math.min(rounds.get(), properties.getRounds()));
+    return completed;
+  }
+
+  /**
+   * 事前に読み込む受講生IDを取得する
+   * 受講完了日が近い受講生コースの受講生ほど参照されやすいため、受講完了日の近い順に選ぶ
+   * 受講完了日のインデックスで件数を指定して検索するため、受講生の全件は読み込まない
+   *
+   * @return 受講生ID
+   */
+  private List<Integer> hotStudentIds() {
+    return service.getExpiringCourses(properties.getHotWindowDays(),
+            properties.getHotStudentCount()).stream()
+        .map(StudentCourse::getStudentId)
+        .distinct()
+        .toList();
+  }
+
+  /**
+   * タスクを期限まで実行する
+   *
+   * @param executor 　実行するスレッドプール
+   * @param tasks    　タスク
+   * @param deadline 　期限（System.nanoTime()の値）
+   * @return 全てのタスクが期限内に正常に完了した場合true
+   */
+  private boolean invokeAll(ExecutorService executor, List<Callable<Void>> tasks, long deadline)
+      throws InterruptedException {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      return false;
+    }
+    boolean completed = true;
+    for (Future<Void> future : executor.invokeAll(tasks, remaining, TimeUnit.NANOSECONDS)) {
+      if (future.isCancelled()) {
+        completed = false;
+        continue;
+      }
+      try {
+        future.get();
+      } catch (ExecutionException e) {
+        log.debug("Warm-up task failed", e);
+        completed = false;
+      }
+    }
+    return completed;
+  }
+
+  private void serialize(Object value) throws JsonProcessingException {
+    objectMapper.writeValueAsBytes(value);
+  }
+}
@@ -0,0 +1,291 @@
+package management.student.writebehind;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.ApplicationStatus;
+import management.student.exception.StudentBizException;
+import management.student.repository.StudentBatchSession;
+import management.student.repository.StudentRepository;
+import management.student.service.StudentService;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 申込状況の更新を溜めておき、まとめて書き込むクラス
+ * 同じ申込状況IDへの更新は最後のものだけを残し、件数が溜まったときと一定間隔ごとに
+ * JDBCバッチで1トランザクションずつ書き込む。終了時には溜まっている更新をすべて書き込む
+ * 溜めている間の更新は失われる可能性があるため、書き込みの完了を待つ必要がある場合はwriteThroughを使う
+ * 一部の行だけが失敗した場合は、その行を除いて書き込みなおし、失敗し続ける行は一定回数で破棄する
+ */
+@Slf4j
+public class ApplicationStatusWriteBuffer {
+
+  private final StudentService service;
+  private final StudentBatchSession batchSession;
+  private final TransactionTemplate transactionTemplate;
+  private final ApplicationEventPublisher eventPublisher;
+  private final int capacity;
+  private final int batchSize;
+  private final int maxAttempts;
+
+  //申込状況IDと最後の更新内容（受け付けた順）
+  private final Map<Integer, ApplicationStatus> pending = new LinkedHashMap<>();
+  //書き込みと同期的な更新を直列にし、古い更新が新しい更新を上書きしないようにする
+  private final ReentrantLock writeLock = new ReentrantLock();
+  private final ExecutorService flusher = Executors.newSingleThreadExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "status-write-behind");
+    thread.setDaemon(true);
+    return thread;
+  });
+  private final AtomicBoolean flushRequested = new AtomicBoolean();
+  //書き込みに失敗した申込状況IDと失敗した回数（writeLockを取得して操作する）
+  private final Map<Integer, Integer> failedAttempts = new HashMap<>();
+
+  private final Counter acceptedCounter;
+  private final Counter collapsedCounter;
+  private final Counter writtenCounter;
+  private final Counter failedCounter;
+  private final Counter droppedCounter;
+
+  /**
+   * コンストラクタ
+   *
+   * @param service             　存在確認と同期的な更新に使う受講生のサービス
+   * @param batchSession        　JDBCバッチで更新するためのセッション
+   * @param transactionTemplate 　書き込みのトランザクション
+   * @param eventPublisher      　更新内容をスナップショットやキャッシュに伝える
+   * @param properties          　ライトビハインドの設定
+   * @param registry            　メトリクスの登録先
+   */
+  public ApplicationStatusWriteBuffer(StudentService service, StudentBatchSession batchSession,
+      TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+      WriteBehindProperties properties, MeterRegistry registry) {
+    this.service = service;
+    this.batchSession = batchSession;
+    this.transactionTemplate = transactionTemplate;
+    this.eventPublisher = eventPublisher;
+    this.capacity = properties.getCapacity();
+    this.batchSize = properties.getBatchSize();
+    this.maxAttempts = properties.getMaxAttempts();
+
+    this.acceptedCounter = Counter.builder("student.write-behind.updates")
+        .tag("outcome", "accepted").register(registry);
+    this.collapsedCounter = Counter.builder("student.write-behind.updates")
+        .tag("outcome", "collapsed").register(registry);
+    this.writtenCounter = Counter.builder("student.write-behind.updates")
+        .tag("outcome", "written").register(registry);
+    this.droppedCounter = Counter.builder("student.write-behind.updates")
+        .tag("outcome", "dropped").register(registry);
+    this.failedCounter = Counter.builder("student.write-behind.flush.failed").register(registry);
+    Gauge.builder("student.write-behind.pending", this,
+        ApplicationStatusWriteBuffer::pendingCount).register(registry);
+  }
+
+  /**
+   * 申込状況の更新を溜める
+   * 存在しない申込状況の場合は受け付けずに例外とする
+   * 上限まで溜まっている場合は、呼び出し元のスレッドで書き込んでから受け付ける
+   * 書き込んでも1件も書き込めなかった場合（DBの障害など）は、書き込みを繰り返さずに503で断る
+   *
+   * @param status 　申込状況
+   */
+  public void offer(ApplicationStatus status) {
+    //存在しない場合はStudentBizException（404）
+    service.getApplicationStatusById(status.getId());
+    ApplicationStatus copy = copyOf(status);
+    int size;
+    while (true) {
+      synchronized (pending) {
+        boolean collapsed = pending.containsKey(copy.getId());
+        if (collapsed || pending.size() < capacity) {
+          pending.put(copy.getId(), copy);
+          size = pending.size();
+          acceptedCounter.increment();
+          if (collapsed) {
+            collapsedCounter.increment();
+          }
+          break;
+        }
+      }
+      if (flush() == 0) {
+        throw new StudentBizException(
+            "Application status updates cannot be accepted now; the write buffer is full",
+            HttpStatus.SERVICE_UNAVAILABLE);
+      }
+    }
+    if (size >= batchSize && flushRequested.compareAndSet(false, true)) {
+      flusher.execute(this::flush);
+    }
+  }
+
+  /**
+   * 申込状況を同期的に更新する
+   * 同じ申込状況IDの溜まっている更新は、この更新で置き換えるため書き込まない
+   *
+   * @param status 　申込状況
+   */
+  public void writeThrough(ApplicationStatus status) {
+    writeLock.lock();
+    try {
+      synchronized (pending) {
+        pending.remove(status.getId());
+      }
+      service.update(status);
+    } finally {
+      writeLock.unlock();
+    }
+  }
+
+  /**
+   * 溜まっている更新をすべて書き込む
+   * 書き込みに失敗した場合は、その後に同じ申込状況IDの更新がなければ溜めなおして次回に書き込む
+   * 一部の行だけが失敗した場合は、失敗した行を除いた残りを続けて書き込み、失敗した行は次回に書き込む
+   * 失敗した行が上限の回数だけ失敗した場合は、他の更新を止めないように破棄する
+   *
+   * @return 書き込んだ件数
+   */
+  @Scheduled(fixedDelayString = "${student.write-behind.flush-interval:PT0.2S}")
+  public int flush() {
+    int written = 0;
+    List<ApplicationStatus> retryLater = new ArrayList<>();
+    writeLock.lock();
+    try {
+      flushRequested.set(false);
+      List<ApplicationStatus> batch;
+      while (!(batch = takeBatch()).isEmpty()) {
+        int failedIndex;
+        try {
+          failedIndex = write(batch);
+        } catch (RuntimeException e) {
+          restore(batch);
+          failedCounter.increment();
+          log.warn("Failed to write {} buffered application statuses; will retry",
+              batch.size(), e);
+          break;
+        }
+        if (failedIndex < 0) {
+          written += batch.size();
+          writtenCounter.increment(batch.size());
+          batch.forEach(status -> failedAttempts.remove(status.getId()));
+          continue;
+        }
+        failedCounter.increment();
+        List<ApplicationStatus> rest = new ArrayList<>(batch);
+        ApplicationStatus failed = rest.remove(failedIndex);
+        restore(rest);
+        if (failedAttempts.merge(failed.getId(), 1, Integer::sum) < maxAttempts) {
+          retryLater.add(failed);
+          continue;
+        }
+        failedAttempts.remove(failed.getId());
+        droppedCounter.increment();
+        log.error("Dropped buffered update of application status {} to '{}' after {} failed"
+            + " writes", failed.getId(), failed.getStatus(), maxAttempts);
+      }
+    } finally {
+      restore(retryLater);
+      writeLock.unlock();
+    }
+    return written;
+  }
+
+  /**
+   * 終了時に溜まっている更新を書き込む
+   * Webサーバーが停止してリクエストを受け付けなくなった後に呼び出される
+   */
+  @PreDestroy
+  public void close() throws InterruptedException {
+    flusher.shutdown();
+    flusher.awaitTermination(10, TimeUnit.SECONDS);
+    flush();
+    int remaining = pendingCount();
+    if (remaining > 0) {
+      log.error("{} buffered application status updates could not be written on shutdown",
+          remaining);
+    }
+  }
+
+  /**
+   * 溜まっている更新の件数を取得する
+   *
+   * @return 件数
+   */
+  public int pendingCount() {
+    synchronized (pending) {
+      return pending.size();
+    }
+  }
+
+  private List<ApplicationStatus> takeBatch() {
+    synchronized (pending) {
+      List<ApplicationStatus> batch = new ArrayList<>(Math.min(batchSize, pending.size()));
+      Iterator<ApplicationStatus> iterator = pending.values().iterator();
+      while (batch.size() < batchSize && iterator.hasNext()) {
+        batch.add(iterator.next());
+        iterator.remove();
+      }
+      return batch;
+    }
+  }
+
+  private void restore(List<ApplicationStatus> batch) {
+    synchronized (pending) {
+      //書き込み中に受け付けた更新のほうが新しいため、上書きしない
+      batch.forEach(status -> pending.putIfAbsent(status.getId(), status));
+    }
+  }
+
+  /**
+   * 1トランザクションで書き込む
+   * いずれかの行が失敗した場合は、それより前の行の更新も取り消す
+   *
+   * @param batch 　書き込む申込状況
+   * @return 失敗した行の位置（すべて書き込めた場合は-1）
+   */
+  private int write(List<ApplicationStatus> batch) {
+    return transactionTemplate.execute(transaction -> {
+      StudentRepository repository = batchSession.getRepository();
+      RosterChangedEvent.RosterChangedEventBuilder changes = RosterChangedEvent.builder();
+      for (ApplicationStatus status : batch) {
+        //受け付けた後に削除された申込状況は0件の更新となり、何もしない
+        repository.updateApplicationStatus(status);
+        changes.status(status);
+      }
+      int[] updateCounts = batchSession.flushAndGetUpdateCounts();
+      for (int index = 0; index < updateCounts.length; index++) {
+        if (updateCounts[index] == Statement.EXECUTE_FAILED) {
+          transaction.setRollbackOnly();
+          return index;
+        }
+      }
+      eventPublisher.publishEvent(changes.build());
+      return -1;
+    });
+  }
+
+  private static ApplicationStatus copyOf(ApplicationStatus status) {
+    ApplicationStatus copy = new ApplicationStatus();
+    copy.setId(status.getId());
+    copy.setStudentCourseId(status.getStudentCourseId());
+    copy.setStatus(status.getStatus());
+    return copy;
+  }
+}
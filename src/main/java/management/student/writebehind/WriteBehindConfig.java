@@ -0,0 +1,30 @@
+package management.student.writebehind;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import management.student.repository.StudentBatchSession;
+import management.student.service.StudentService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 申込状況の更新を溜めてまとめて書き込むバッファーを登録する設定クラス
+ */
+@Configuration
+@EnableConfigurationProperties(WriteBehindProperties.class)
+@ConditionalOnProperty(prefix = "student.write-behind", name = "enabled", havingValue = "true")
+public class WriteBehindConfig {
+
+  @Bean
+  public ApplicationStatusWriteBuffer applicationStatusWriteBuffer(StudentService service,
+      StudentBatchSession batchSession, PlatformTransactionManager transactionManager,
+      ApplicationEventPublisher eventPublisher, WriteBehindProperties properties,
+      MeterRegistry registry) {
+    return new ApplicationStatusWriteBuffer(service, batchSession,
+        new TransactionTemplate(transactionManager), eventPublisher, properties, registry);
+  }
+}
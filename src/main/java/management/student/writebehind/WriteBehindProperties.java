@@ -0,0 +1,21 @@
+package management.student.writebehind;
+
+import java.time.Duration;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * 申込状況の更新を溜めてまとめて書き込む（ライトビハインド）設定値
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "student.write-behind")
+public class WriteBehindProperties {
+
+  private boolean enabled = false; //申込状況の更新を溜めてまとめて書き込むかどうか
+  private int capacity = 10_000; //溜めておく申込状況の上限（超えた場合は呼び出し元で書き込む）
+  private int batchSize = 500; //1トランザクションで書き込む件数（溜まった件数がこれに達したら書き込む）
+  private Duration flushInterval = Duration.ofMillis(200); //溜まった更新を書き込む間隔
+  private int maxAttempts = 3; //書き込みに失敗し続ける申込状況の更新を破棄するまでの回数
+}
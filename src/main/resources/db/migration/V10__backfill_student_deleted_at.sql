@@ -0,0 +1,6 @@
+-- deleted_atの列を追加する前に論理削除された受講生は削除日時が分からないため、マイグレーションの日時を記録する
+-- アーカイブはdeleted_atがない受講生を対象にしないため、記録した日時からstudent.archive.min-ageが過ぎた後にアーカイブされる
+UPDATE student
+SET deleted_at = CURRENT_TIMESTAMP
+WHERE delete_flag = 1
+AND deleted_at IS NULL;
@@ -0,0 +1,5 @@
+-- 処理中の予約の期限（処理が異常終了して完了しなかった予約を、同じキーの再送が引き継げるようにする）
+-- 末尾への列の追加のため、INSTANTでテーブルを再構築せずに実行する
+ALTER TABLE idempotency_record
+    ADD COLUMN pending_until TIMESTAMP NULL DEFAULT NULL,
+    ALGORITHM=INSTANT;
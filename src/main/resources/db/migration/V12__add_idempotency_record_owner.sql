@@ -0,0 +1,5 @@
+-- 予約したリクエストの識別子（予約を引き継がれた後に元のリクエストが完了しても、新しい予約を上書き・削除しないようにする）
+-- 列の追加はINSTANTで行う（READMEのスキーマのマイグレーションを参照）
+ALTER TABLE idempotency_record
+    ADD COLUMN owner CHAR(36) NULL DEFAULT NULL,
+    ALGORITHM=INSTANT;
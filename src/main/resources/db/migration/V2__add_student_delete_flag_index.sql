@@ -0,0 +1,5 @@
+-- 論理削除されていない受講生の全件検索（searchStudentList）と、アーカイブ対象の受講生IDのID順の検索用
+-- 大きなテーブルでも更新を止めないように、オンラインで作成できない場合は実行せずにエラーとする
+ALTER TABLE student
+    ADD INDEX idx_student_delete_flag (delete_flag, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
@@ -0,0 +1,5 @@
+-- コース名を指定した申込状況の一括更新（updateApplicationStatusByFilter）の副問い合わせ用
+-- 大きなテーブルでも更新を止めないように、オンラインで作成できない場合は実行せずにエラーとする
+ALTER TABLE student_courses
+    ADD INDEX idx_student_courses_course_name (course_name, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
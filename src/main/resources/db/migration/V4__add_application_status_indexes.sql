@@ -0,0 +1,9 @@
+-- 受講生コースと申込状況の結合（searchStudentCourseWithStatus）を、申込状況のテーブルを読まずにインデックスだけで行う
+-- 受講生コースID指定の一括更新（updateApplicationStatusByCourseIds）の現在のステータスの絞り込みにも使う
+-- 外部キー用に自動で作成されたstudent_course_idのインデックスは、この複合インデックスで置き換えられる
+-- ステータスのインデックスは条件指定の一括更新（updateApplicationStatusByFilter）用
+-- 大きなテーブルでも更新を止めないように、オンラインで作成できない場合は実行せずにエラーとする
+ALTER TABLE application_status
+    ADD INDEX idx_application_status_course_status (student_course_id, status),
+    ADD INDEX idx_application_status_status (status),
+    ALGORITHM=INPLACE, LOCK=NONE;
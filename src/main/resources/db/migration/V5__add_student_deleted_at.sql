@@ -0,0 +1,5 @@
+-- 論理削除された日時（アーカイブ対象の判定に使う）
+-- INPLACEでは列の追加でもテーブルが再構築されるため、INSTANT（MySQL 8.0.12以降）でメタデータのみを変更して追加する
+ALTER TABLE student
+    ADD COLUMN deleted_at TIMESTAMP NULL DEFAULT NULL,
+    ALGORITHM=INSTANT;
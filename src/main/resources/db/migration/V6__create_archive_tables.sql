@@ -0,0 +1,32 @@
+-- 論理削除された受講生のアーカイブ用テーブル
+CREATE TABLE IF NOT EXISTS student_archive (
+    id INT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    furigana VARCHAR(50) NOT NULL,
+    age INT DEFAULT NULL,
+    gender VARCHAR(20) NOT NULL,
+    nickname VARCHAR(50) DEFAULT NULL,
+    email VARCHAR(100) NOT NULL,
+    region VARCHAR(100) DEFAULT NULL,
+    phone_number VARCHAR(15) DEFAULT NULL,
+    remarks VARCHAR(255) DEFAULT NULL,
+    deleted_at TIMESTAMP NULL DEFAULT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS student_courses_archive (
+    id INT NOT NULL,
+    student_id INT NOT NULL,
+    course_name VARCHAR(50) NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NULL DEFAULT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS application_status_archive (
+    id INT NOT NULL,
+    student_course_id INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id)
+);
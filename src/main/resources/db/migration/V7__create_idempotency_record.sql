@@ -0,0 +1,11 @@
+-- 冪等キーの記録
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status_code INT DEFAULT NULL,
+    response_body TEXT DEFAULT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (idempotency_key),
+    INDEX idx_idempotency_record_expires_at (expires_at)
+);
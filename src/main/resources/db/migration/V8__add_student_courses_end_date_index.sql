@@ -0,0 +1,5 @@
+-- 受講完了日の範囲検索（コースの期限切れ処理と GET /courses/expiring）用
+-- 大きなテーブルでも更新を止めないように、オンラインで作成できない場合は実行せずにエラーとする
+ALTER TABLE student_courses
+    ADD INDEX idx_student_courses_end_date (end_date, id),
+    ALGORITHM=INPLACE, LOCK=NONE;
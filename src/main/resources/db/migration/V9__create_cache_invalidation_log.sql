@@ -0,0 +1,9 @@
+-- ノード間のキャッシュの削除対象の記録
+CREATE TABLE IF NOT EXISTS cache_invalidation_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    target VARCHAR(20) NOT NULL,
+    target_id INT DEFAULT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id),
+    INDEX idx_cache_invalidation_log_created_at (created_at)
+);
@@ -0,0 +1,147 @@
+package management.student.analytics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentPatch;
+import management.student.exception.StudentBizException;
+import management.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RosterSnapshotTest {
+
+  @Mock
+  private StudentRepository repository;
+
+  private RosterSnapshot sut;
+
+  @BeforeEach
+  void before() {
+    sut = new RosterSnapshot(repository);
+  }
+
+  @Test
+  void 読み込み前に集計した場合にStudentBizExceptionが発生すること() {
+    assertThatThrownBy(() -> sut.summarizeAges(new RosterFilter()))
+        .isInstanceOf(StudentBizException.class);
+  }
+
+  @Test
+  void 絞り込み条件に一致する受講生の年齢と人数が集計されること() {
+    load();
+    RosterFilter filter = new RosterFilter();
+    filter.setGender("male");
+    filter.setMinAge(21);
+
+    AgeSummary actual = sut.summarizeAges(filter);
+
+    assertThat(actual.getCount()).isEqualTo(2);
+    assertThat(actual.getMinAge()).isEqualTo(22);
+    assertThat(actual.getMaxAge()).isEqualTo(30);
+    assertThat(actual.getAverageAge()).isEqualTo(26.0);
+    assertThat(sut.countByRegion(new RosterFilter())).isEqualTo(Map.of("東京", 2, "大阪", 1));
+    filter.setRegion("未登録の地域");
+    assertThat(sut.summarizeAges(filter).getCount()).isZero();
+  }
+
+  @Test
+  void 更新のイベントが反映されること() {
+    load();
+    Student deleted = createStudent(2, 22, "male", "大阪");
+    deleted.setDeleteFlag(true);
+    Student created = createStudent(4, 40, "female", "福岡");
+    StudentCourse course = createCourse(40, 4, "Javaコース");
+    sut.onRosterChanged(RosterChangedEvent.builder()
+        .student(deleted)
+        .student(created)
+        .createdCourse(course)
+        .status(createStatus(400, 40, "仮申し込み"))
+        .deletedStatusId(100)
+        .build());
+
+    assertThat(sut.countByGender(new RosterFilter())).isEqualTo(Map.of("male", 1, "female", 2));
+    assertThat(sut.countByStatus(null, new RosterFilter()))
+        .isEqualTo(Map.of("仮申し込み", 1, "本申込", 1));
+  }
+
+  @Test
+  void 部分更新のイベントで指定された項目だけが反映されること() {
+    load();
+    StudentPatch patch = new StudentPatch();
+    patch.setRegion("福岡");
+
+    sut.onRosterChanged(RosterChangedEvent.builder().studentPatch(2, patch).build());
+
+    assertThat(sut.countByRegion(new RosterFilter())).isEqualTo(Map.of("東京", 2, "福岡", 1));
+    assertThat(sut.summarizeAges(new RosterFilter()).getMaxAge()).isEqualTo(30);
+  }
+
+  @Test
+  void 申込状況の一括更新がDBと同じ条件で反映されること() {
+    load();
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setCourseName("Javaコース");
+    transition.setCurrentStatus("仮申し込み");
+    transition.setTargetStatus("受講中");
+
+    sut.onRosterChanged(RosterChangedEvent.builder().transition(transition).build());
+
+    assertThat(sut.countByStatus("Javaコース", new RosterFilter()))
+        .isEqualTo(Map.of("受講中", 2));
+    assertThat(sut.countByStatus("AWSコース", new RosterFilter()))
+        .isEqualTo(Map.of("本申込", 1));
+  }
+
+  private void load() {
+    when(repository.searchStudentList()).thenReturn(List.of(
+        createStudent(1, 30, "male", "東京"),
+        createStudent(2, 22, "male", "大阪"),
+        createStudent(3, 20, "female", "東京")));
+    when(repository.searchStudentCourseList()).thenReturn(List.of(
+        createCourse(10, 1, "Javaコース"),
+        createCourse(20, 2, "Javaコース"),
+        createCourse(30, 3, "AWSコース")));
+    when(repository.searchApplicationStatusList()).thenReturn(List.of(
+        createStatus(100, 10, "仮申し込み"),
+        createStatus(200, 20, "仮申し込み"),
+        createStatus(300, 30, "本申込")));
+    sut.refresh();
+  }
+
+  private static Student createStudent(int id, int age, String gender, String region) {
+    Student student = new Student();
+    student.setId(id);
+    student.setAge(age);
+    student.setGender(gender);
+    student.setRegion(region);
+    return student;
+  }
+
+  private static StudentCourse createCourse(int id, int studentId, String courseName) {
+    StudentCourse course = new StudentCourse();
+    course.setId(id);
+    course.setStudentId(studentId);
+    course.setCourseName(courseName);
+    return course;
+  }
+
+  private static ApplicationStatus createStatus(int id, int courseId, String status) {
+    ApplicationStatus applicationStatus = new ApplicationStatus();
+    applicationStatus.setId(id);
+    applicationStatus.setStudentCourseId(courseId);
+    applicationStatus.setStatus(status);
+    return applicationStatus;
+  }
+}
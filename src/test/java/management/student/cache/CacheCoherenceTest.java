@@ -0,0 +1,124 @@
+package management.student.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.UUID;
+import management.student.ManagementStudentApplication;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.StudentDetail;
+import management.student.service.StudentBatchService;
+import management.student.service.StudentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * 1つのDBを共有する2つのノード（アプリケーションコンテキスト）の間で、
+ * 一方の更新が削除対象の記録を通じてもう一方のキャッシュに反映されることを確認する
+ */
+class CacheCoherenceTest {
+
+  private ConfigurableApplicationContext nodeA;
+  private ConfigurableApplicationContext nodeB;
+
+  @BeforeEach
+  void before() {
+    //テストごとに別のDBを使う
+    String databaseUrl = "jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    nodeA = startNode(databaseUrl, "always");
+    //スキーマと初期データは1つ目のノードだけが作成する
+    nodeB = startNode(databaseUrl, "never");
+    //削除対象の記録を読む位置を初期化してキャッシュを使えるようにする
+    pollAll();
+  }
+
+  @AfterEach
+  void after() {
+    nodeB.close();
+    nodeA.close();
+  }
+
+  @Test
+  void 他のノードの受講生の更新が削除対象の記録を読んだ後に反映されること() {
+    StudentService serviceA = nodeA.getBean(StudentService.class);
+    StudentService serviceB = nodeB.getBean(StudentService.class);
+    String before = serviceB.getStudent(1, true).getStudent().getName();
+
+    Student updates = new Student();
+    updates.setId(1);
+    updates.setName("更新 太郎");
+    serviceA.update(new StudentDetail(updates, List.of()));
+
+    //削除対象の記録を読むまではノードBのキャッシュに更新前の値が残る
+    assertThat(serviceB.getStudent(1, true).getStudent().getName()).isEqualTo(before);
+    pollAll();
+    assertThat(serviceB.getStudent(1, true).getStudent().getName()).isEqualTo("更新 太郎");
+    //更新したノードではすぐに反映される
+    assertThat(serviceA.getStudent(1, true).getStudent().getName()).isEqualTo("更新 太郎");
+  }
+
+  @Test
+  void 他のノードの一括更新がJDBCバッチと同じトランザクションで記録され反映されること() {
+    StudentBatchService batchServiceA = nodeA.getBean(StudentBatchService.class);
+    StudentService serviceB = nodeB.getBean(StudentService.class);
+    serviceB.getStudent(1, true);
+    serviceB.getStudent(2, true);
+
+    Student first = new Student();
+    first.setId(1);
+    first.setName("一括 太郎");
+    Student second = new Student();
+    second.setId(2);
+    second.setName("一括 花子");
+    BatchUpdateResult result = batchServiceA.update(List.of(
+        new StudentDetail(first, List.of()), new StudentDetail(second, List.of())));
+    pollAll();
+
+    assertThat(result.getUpdatedCount()).isEqualTo(2);
+    assertThat(result.getErrors()).isEmpty();
+    assertThat(serviceB.getStudent(1, true).getStudent().getName()).isEqualTo("一括 太郎");
+    assertThat(serviceB.getStudent(2, true).getStudent().getName()).isEqualTo("一括 花子");
+  }
+
+  @Test
+  void 他のノードの申込状況の更新が受講生詳細のキャッシュに反映されること() {
+    StudentService serviceA = nodeA.getBean(StudentService.class);
+    StudentService serviceB = nodeB.getBean(StudentService.class);
+    ApplicationStatus cached = serviceB.getStudent(1, true).getStudentCourseList().getFirst()
+        .getApplicationStatus();
+
+    ApplicationStatus updates = new ApplicationStatus();
+    updates.setId(cached.getId());
+    updates.setStudentCourseId(cached.getStudentCourseId());
+    updates.setStatus("受講中");
+    serviceA.update(updates);
+    pollAll();
+
+    assertThat(serviceB.getStudent(1, true).getStudentCourseList().getFirst()
+        .getApplicationStatus().getStatus()).isEqualTo("受講中");
+  }
+
+  private void pollAll() {
+    nodeA.getBean(CacheInvalidationLog.class).poll();
+    nodeB.getBean(CacheInvalidationLog.class).poll();
+  }
+
+  private static ConfigurableApplicationContext startNode(String databaseUrl,
+      String sqlInitMode) {
+    //application.propertiesより優先されるようにコマンドライン引数で指定する
+    return new SpringApplicationBuilder(ManagementStudentApplication.class)
+        .web(WebApplicationType.NONE)
+        .run("--spring.datasource.url=" + databaseUrl,
+            "--spring.sql.init.mode=" + sqlInitMode,
+            "--student.cache.enabled=true",
+            //テストから読み込むため、定期実行は実質的に止めておく
+            "--student.cache.poll-interval=PT1H",
+            "--student.idempotency.enabled=false");
+  }
+}
@@ -0,0 +1,213 @@
+package management.student.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.List;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.ApplicationStatus;
+import management.student.data.CacheInvalidation;
+import management.student.data.CacheInvalidation.Target;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentDetail;
+import management.student.repository.CacheInvalidationRepository;
+import management.student.repository.StudentBatchSession;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationLogTest {
+
+  @Mock
+  private CacheInvalidationRepository repository;
+
+  @Mock
+  private CacheInvalidationRepository batchRepository;
+
+  @Mock
+  private StudentBatchSession batchSession;
+
+  private StudentDetailCache cache;
+  private MutableClock clock;
+  private CacheInvalidationLog sut;
+
+  @BeforeEach
+  void before() {
+    CacheProperties properties = new CacheProperties();
+    properties.setPollBatchSize(10);
+    properties.setCommitLag(Duration.ofSeconds(5));
+    cache = new StudentDetailCache(properties, new SimpleMeterRegistry());
+    clock = new MutableClock();
+    sut = new CacheInvalidationLog(repository, batchSession, cache, properties, clock);
+  }
+
+  @Test
+  void 削除対象の記録が通常のセッションで追加されること() {
+    Student student = new Student();
+    student.setId(1);
+
+    sut.append(RosterChangedEvent.builder().student(student).build());
+
+    verify(repository).createCacheInvalidations(anyList());
+    verify(batchSession, never()).flush();
+  }
+
+  @Test
+  void JDBCバッチのトランザクションでは同じバッチのセッションで追加されコミット前に送信されること() {
+    when(batchSession.isBoundToTransaction()).thenReturn(true);
+    when(batchSession.getMapper(CacheInvalidationRepository.class)).thenReturn(batchRepository);
+    Student student = new Student();
+    student.setId(1);
+
+    sut.append(RosterChangedEvent.builder().student(student).build());
+
+    InOrder inOrder = inOrder(batchRepository, batchSession);
+    inOrder.verify(batchRepository).createCacheInvalidations(anyList());
+    inOrder.verify(batchSession).flush();
+    verify(repository, never()).createCacheInvalidations(anyList());
+  }
+
+  @Test
+  void 変更のイベントから受講生詳細の削除対象が作成されること() {
+    Student student = new Student();
+    student.setId(1);
+    StudentCourse created = new StudentCourse();
+    created.setStudentId(2);
+    StudentCourse renamed = new StudentCourse();
+    renamed.setId(10);
+    ApplicationStatus status = new ApplicationStatus();
+    status.setId(100);
+    status.setStudentCourseId(10);
+    RosterChangedEvent event = RosterChangedEvent.builder()
+        .student(student)
+        .createdCourse(created)
+        .renamedCourse(renamed)
+        .status(status)
+        .deletedStatusId(101)
+        .build();
+    //実行
+    List<CacheInvalidation> actual = CacheInvalidationLog.toInvalidations(event);
+    //検証
+    assertThat(actual).extracting(CacheInvalidation::getTarget, CacheInvalidation::getTargetId)
+        .containsExactly(
+            tuple(Target.STUDENT, 1),
+            tuple(Target.STUDENT, 2),
+            tuple(Target.COURSE, 10),
+            tuple(Target.APPLICATION_STATUS, 100),
+            tuple(Target.APPLICATION_STATUS, 101));
+  }
+
+  @Test
+  void 申込状況の一括更新では全件が削除対象になること() {
+    RosterChangedEvent event = RosterChangedEvent.builder()
+        .transition(new ApplicationStatusTransition())
+        .build();
+
+    assertThat(CacheInvalidationLog.toInvalidations(event))
+        .extracting(CacheInvalidation::getTarget).containsExactly(Target.ALL);
+  }
+
+  @Test
+  void 起動後の最初の読み込みでは最新のIDから読み始めること() {
+    when(repository.searchLatestCacheInvalidationId()).thenReturn(42L);
+    sut.poll();
+    when(repository.searchCacheInvalidationsAfter(42L, 10)).thenReturn(List.of());
+    sut.poll();
+
+    verify(repository, never()).searchCacheInvalidationsAfter(0L, 10);
+  }
+
+  @Test
+  void IDが抜けている場合はコミットを待ってから先に進むこと() {
+    when(repository.searchLatestCacheInvalidationId()).thenReturn(0L);
+    sut.poll();
+    //IDが2の記録はまだコミットされていない
+    when(repository.searchCacheInvalidationsAfter(0L, 10))
+        .thenReturn(List.of(invalidation(1, 1), invalidation(3, 3)));
+    sut.poll();
+    //IDが1の記録までしか読み終わっていないため、次は1より後から読み直す
+    when(repository.searchCacheInvalidationsAfter(1L, 10))
+        .thenReturn(List.of(invalidation(2, 2), invalidation(3, 3)));
+    sut.poll();
+    when(repository.searchCacheInvalidationsAfter(3L, 10)).thenReturn(List.of());
+    sut.poll();
+
+    verify(repository).searchCacheInvalidationsAfter(3L, 10);
+  }
+
+  @Test
+  void 一定時間が過ぎても埋まらないIDの抜けは読み飛ばすこと() {
+    when(repository.searchLatestCacheInvalidationId()).thenReturn(0L);
+    sut.poll();
+    when(repository.searchCacheInvalidationsAfter(0L, 10))
+        .thenReturn(List.of(invalidation(2, 2)));
+    sut.poll();
+    clock.advance(Duration.ofSeconds(5));
+    sut.poll();
+    when(repository.searchCacheInvalidationsAfter(2L, 10)).thenReturn(List.of());
+    sut.poll();
+
+    verify(repository).searchCacheInvalidationsAfter(2L, 10);
+  }
+
+  @Test
+  void 読み込んだ削除対象の受講生詳細がキャッシュから削除されること() {
+    when(repository.searchLatestCacheInvalidationId()).thenReturn(0L);
+    sut.poll();
+    cache.get(1, () -> cache.load(() -> new StudentDetail(new Student(), List.of())));
+    when(repository.searchCacheInvalidationsAfter(0L, 10))
+        .thenReturn(List.of(invalidation(1, 1)));
+    sut.poll();
+
+    assertThat(cache.size()).isZero();
+  }
+
+  private static CacheInvalidation invalidation(long id, int studentId) {
+    CacheInvalidation invalidation = new CacheInvalidation(Target.STUDENT, studentId);
+    invalidation.setId(id);
+    return invalidation;
+  }
+
+  /**
+   * テストから時刻を進められるClock
+   */
+  private static class MutableClock extends Clock {
+
+    private Instant now = Instant.parse("2024-09-01T00:00:00Z");
+
+    void advance(Duration duration) {
+      now = now.plus(duration);
+    }
+
+    @Override
+    public ZoneId getZone() {
+      return ZoneId.of("UTC");
+    }
+
+    @Override
+    public Clock withZone(ZoneId zone) {
+      return this;
+    }
+
+    @Override
+    public Instant instant() {
+      return now;
+    }
+  }
+}
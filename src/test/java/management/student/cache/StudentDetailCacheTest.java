@@ -0,0 +1,113 @@
+package management.student.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import management.student.data.ApplicationStatus;
+import management.student.data.CacheInvalidation;
+import management.student.data.CacheInvalidation.Target;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StudentDetailCacheTest {
+
+  private SimpleMeterRegistry registry;
+  private StudentDetailCache sut;
+  private final AtomicInteger loadCount = new AtomicInteger();
+
+  @BeforeEach
+  void before() {
+    registry = new SimpleMeterRegistry();
+    sut = new StudentDetailCache(new CacheProperties(), registry);
+    sut.confirmFresh(Duration.ofMinutes(1));
+  }
+
+  @Test
+  void 二回目以降はキャッシュから取得されること() {
+    StudentDetail first = sut.get(1, () -> sut.load(() -> load(1)));
+    StudentDetail second = sut.get(1, () -> sut.load(() -> load(1)));
+
+    assertThat(second).isSameAs(first);
+    assertThat(loadCount).hasValue(1);
+    assertThat(registry.get("student.cache.requests").tag("result", "hit").counter().count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void 受講生コースIDと申込状況IDの削除対象で受講生詳細が削除されること() {
+    sut.get(1, () -> sut.load(() -> load(1)));
+    sut.get(2, () -> sut.load(() -> load(2)));
+
+    sut.evict(new CacheInvalidation(Target.COURSE, 10));
+    assertThat(sut.size()).isEqualTo(1);
+    sut.evict(new CacheInvalidation(Target.APPLICATION_STATUS, 200));
+    assertThat(sut.size()).isZero();
+  }
+
+  @Test
+  void 検索中に削除された場合は検索結果が保持されないこと() {
+    StudentDetail loaded = sut.get(1, () -> sut.load(() -> {
+      StudentDetail studentDetail = load(1);
+      sut.evict(new CacheInvalidation(Target.STUDENT, 1));
+      return studentDetail;
+    }));
+    sut.get(1, () -> sut.load(() -> load(1)));
+
+    assertThat(loaded).isNotNull();
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void 削除より前に始まった検索の結果を共有した場合は削除より後に取得しても保持されないこと() {
+    //削除より前に始まった検索（同時に実行された検索の結果を共有する場合の先行する検索）
+    StudentDetailCache.Loaded inFlight = sut.load(() -> load(1));
+    sut.evict(new CacheInvalidation(Target.STUDENT, 1));
+
+    StudentDetail shared = sut.get(1, () -> inFlight);
+    sut.get(1, () -> sut.load(() -> load(1)));
+
+    assertThat(shared).isSameAs(inFlight.studentDetail());
+    assertThat(loadCount).hasValue(2);
+  }
+
+  @Test
+  void 削除対象の記録を読めていない間はキャッシュが使われないこと() {
+    StudentDetailCache stale = new StudentDetailCache(new CacheProperties(), registry);
+
+    stale.get(1, () -> stale.load(() -> load(1)));
+    stale.get(1, () -> stale.load(() -> load(1)));
+
+    assertThat(loadCount).hasValue(2);
+    assertThat(stale.size()).isZero();
+  }
+
+  @Test
+  void 全件の削除対象ですべて削除されること() {
+    sut.get(1, () -> sut.load(() -> load(1)));
+    sut.get(2, () -> sut.load(() -> load(2)));
+
+    sut.evict(new CacheInvalidation(Target.ALL, null));
+
+    assertThat(sut.size()).isZero();
+  }
+
+  private StudentDetail load(int id) {
+    loadCount.incrementAndGet();
+    Student student = new Student();
+    student.setId(id);
+    ApplicationStatus status = new ApplicationStatus();
+    status.setId(id * 100);
+    status.setStudentCourseId(id * 10);
+    StudentCourse course = new StudentCourse();
+    course.setId(id * 10);
+    course.setStudentId(id);
+    course.setApplicationStatus(status);
+    return new StudentDetail(student, List.of(course));
+  }
+}
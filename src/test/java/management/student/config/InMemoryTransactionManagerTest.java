@@ -0,0 +1,128 @@
+package management.student.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class InMemoryTransactionManagerTest {
+
+  private InMemoryStudentRepository repository;
+
+  private TransactionTemplate required;
+
+  private TransactionTemplate nested;
+
+  private TransactionTemplate requiresNew;
+
+  @BeforeEach
+  void before() {
+    repository = new InMemoryStudentRepository();
+    InMemoryTransactionManager sut = new InMemoryTransactionManager(repository);
+    required = new TransactionTemplate(sut);
+    nested = new TransactionTemplate(sut);
+    nested.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    requiresNew = new TransactionTemplate(sut);
+    requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    createStudent("佐藤 太郎", "taro@example.com");
+  }
+
+  private Student createStudent(String name, String email) {
+    Student student = new Student();
+    student.setName(name);
+    student.setFurigana("ふりがな");
+    student.setGender("male");
+    student.setEmail(email);
+    repository.createStudent(student);
+    return student;
+  }
+
+  @Test
+  void ロールバックするとトランザクションの間の登録と更新と削除が戻ること() {
+    StudentCourse course = new StudentCourse();
+    course.setStudentId(1);
+    course.setCourseName("Javaコース");
+    course.setStartDate(LocalDateTime.of(2024, 4, 1, 0, 0));
+    repository.createStudentCourse(course);
+    ApplicationStatus status = new ApplicationStatus();
+    status.setStudentCourseId(course.getId());
+    status.setStatus("仮申込");
+    repository.createApplicationStatus(status);
+
+    required.executeWithoutResult(transaction -> {
+      Student student = repository.searchStudentByID(1).orElseThrow();
+      student.setName("佐藤 次郎");
+      student.setEmail("jiro@example.com");
+      repository.updateStudent(student);
+      createStudent("鈴木 花子", "hanako@example.com");
+      repository.updateApplicationStatusByIds(List.of(status.getId()), null, "本申込");
+      repository.deleteApplicationStatus(status.getId());
+      transaction.setRollbackOnly();
+    });
+
+    assertThat(repository.searchStudentList()).extracting(Student::getName)
+        .containsExactly("佐藤 太郎");
+    assertThat(repository.searchStudentCourseWithStatus(1).getFirst().getApplicationStatus()
+        .getStatus()).isEqualTo("仮申込");
+    //メールアドレスの索引も戻るため、変更前のメールアドレスは重複になり、変更後のものは使える
+    assertThatThrownBy(() -> createStudent("田中 一郎", "taro@example.com"))
+        .isInstanceOf(DuplicateKeyException.class);
+    createStudent("田中 一郎", "jiro@example.com");
+  }
+
+  @Test
+  void コミットした変更は戻らないこと() {
+    required.executeWithoutResult(transaction -> createStudent("鈴木 花子", "hanako@example.com"));
+
+    assertThat(repository.searchStudentList()).hasSize(2);
+  }
+
+  @Test
+  void NESTEDのロールバックはセーブポイントまでの変更だけを戻すこと() {
+    required.executeWithoutResult(transaction -> {
+      createStudent("鈴木 花子", "hanako@example.com");
+      nested.executeWithoutResult(savepoint -> {
+        createStudent("田中 一郎", "ichiro@example.com");
+        savepoint.setRollbackOnly();
+      });
+    });
+
+    assertThat(repository.searchStudentList()).extracting(Student::getName)
+        .containsExactly("佐藤 太郎", "鈴木 花子");
+  }
+
+  @Test
+  void REQUIRES_NEWでコミットした変更は外側をロールバックしても残ること() {
+    required.executeWithoutResult(transaction -> {
+      createStudent("鈴木 花子", "hanako@example.com");
+      requiresNew.executeWithoutResult(
+          inner -> createStudent("田中 一郎", "ichiro@example.com"));
+      transaction.setRollbackOnly();
+    });
+
+    assertThat(repository.searchStudentList()).extracting(Student::getName)
+        .containsExactly("佐藤 太郎", "田中 一郎");
+  }
+
+  @Test
+  void 参加したトランザクションでロールバックが必要になった場合は外側もロールバックされること() {
+    assertThatThrownBy(() -> required.executeWithoutResult(transaction -> {
+      createStudent("鈴木 花子", "hanako@example.com");
+      required.executeWithoutResult(inner -> inner.setRollbackOnly());
+    })).isInstanceOf(UnexpectedRollbackException.class);
+
+    assertThat(repository.searchStudentList()).extracting(Student::getName)
+        .containsExactly("佐藤 太郎");
+  }
+}
@@ -0,0 +1,63 @@
+package management.student.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.Map;
+import management.student.analytics.AgeSummary;
+import management.student.analytics.RosterSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * 集計APIは設定で有効にした場合のみ読み込まれるため、Controller単体で検証する
+ */
+@ExtendWith(MockitoExtension.class)
+class AnalyticsControllerTest {
+
+  @Mock
+  private RosterSnapshot snapshot;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void before() {
+    mockMvc = MockMvcBuilders.standaloneSetup(new AnalyticsController(snapshot)).build();
+  }
+
+  @Test
+  void 絞り込み条件を指定して受講生の年齢が集計できること() throws Exception {
+    when(snapshot.summarizeAges(any())).thenReturn(new AgeSummary(2, 20, 30, 25.0));
+
+    mockMvc.perform(get("/analytics/students/summary")
+            .param("minAge", "20")
+            .param("region", "東京"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.count").value(2))
+        .andExpect(jsonPath("$.averageAge").value(25.0));
+
+    verify(snapshot).summarizeAges(argThat(filter -> filter.getMinAge() == 20
+        && "東京".equals(filter.getRegion()) && filter.getGender() == null));
+  }
+
+  @Test
+  void コース名を指定して申込状況がステータスごとに集計できること() throws Exception {
+    when(snapshot.countByStatus(eq("Javaコース"), any())).thenReturn(Map.of("本申込", 3));
+
+    mockMvc.perform(get("/analytics/applicationStatuses/by-status")
+            .param("courseName", "Javaコース"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$['本申込']").value(3));
+  }
+}
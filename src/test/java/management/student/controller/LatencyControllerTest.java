@@ -0,0 +1,49 @@
+package management.student.controller;
+
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import management.student.latency.LatencyRecorder;
+import management.student.latency.LatencySummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * 処理時間の記録先は設定クラスで登録されるため、Controller単体で検証する
+ */
+@ExtendWith(MockitoExtension.class)
+class LatencyControllerTest {
+
+  @Mock
+  private LatencyRecorder recorder;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void before() {
+    mockMvc = MockMvcBuilders.standaloneSetup(new LatencyController(recorder)).build();
+  }
+
+  @Test
+  void 指定した区間の数で処理時間の分布が取得できること() throws Exception {
+    when(recorder.summarize(3)).thenReturn(List.of(
+        new LatencySummary("StudentController.getStudentList(List)", 10, 1.5, 3.0, 8.0, 9.5,
+            12.0)));
+
+    mockMvc.perform(get("/internal/latency").param("intervals", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$[0].name").value("StudentController.getStudentList(List)"))
+        .andExpect(jsonPath("$[0].p99").value(8.0));
+
+    verify(recorder).summarize(3);
+  }
+}
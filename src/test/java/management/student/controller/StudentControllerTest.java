@@ -3,14 +3,18 @@ package management.student.controller;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,14 +28,24 @@ import management.student.converter.StudentConverter;
 import management.student.data.ApplicationStatus;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.StudentCoursePage;
 import management.student.domain.StudentDetail;
+import management.student.domain.StudentPatch;
 import management.student.exception.StudentBizException;
+import management.student.repository.CacheInvalidationRepository;
+import management.student.repository.ExportRepository;
+import management.student.repository.IdempotencyRepository;
+import management.student.repository.StudentArchiveRepository;
 import management.student.repository.StudentRepository;
+import management.student.service.StudentBatchService;
 import management.student.service.StudentService;
 import management.student.validation.OnCreate;
 import management.student.validation.OnUpdate;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
@@ -49,9 +63,24 @@ class StudentControllerTest {
   @MockBean
   StudentService service;
 
+  @MockBean
+  StudentBatchService batchService;
+
   @MockBean
   StudentRepository repository;
 
+  @MockBean
+  StudentArchiveRepository archiveRepository;
+
+  @MockBean
+  IdempotencyRepository idempotencyRepository;
+
+  @MockBean
+  CacheInvalidationRepository cacheInvalidationRepository;
+
+  @MockBean
+  ExportRepository exportRepository;
+
   @MockBean
   StudentConverter converter;  // StudentConverterをモック化
 
@@ -93,12 +122,21 @@ class StudentControllerTest {
 
   @Test
   void 受講生詳細の一覧情報が正常に取得できること() throws Exception {
-    when(service.getStudentList()).thenReturn(List.of(new StudentDetail()));
+    when(service.getStudentList(false)).thenReturn(List.of(new StudentDetail()));
     mockMvc.perform(get("/students"))
         .andExpect(status().isOk());
 //        .andExpect(content().json("[]"));
 
-    verify(service, times(1)).getStudentList();
+    verify(service, times(1)).getStudentList(false);
+  }
+
+  @Test
+  void 受講生詳細の一覧情報がincludeの指定で受講生コースを含めて取得できること() throws Exception {
+    when(service.getStudentList(true)).thenReturn(List.of(new StudentDetail()));
+    mockMvc.perform(get("/students").param("include", "courses"))
+        .andExpect(status().isOk());
+
+    verify(service, times(1)).getStudentList(true);
   }
 
   @Test
@@ -137,12 +175,107 @@ class StudentControllerTest {
     StudentDetail studentDetail = new StudentDetail(new Student(),
         List.of(new StudentCourse()));
     studentDetail.getStudent().setId(1);
-    when(service.getStudent(1)).thenReturn(studentDetail);
+    when(service.getStudent(1, true)).thenReturn(studentDetail);
 
-    mockMvc.perform(get("/students/1"))
+    mockMvc.perform(get("/students/1").param("include", "courses"))
         .andExpect(status().isOk());
 
-    verify(service, times(1)).getStudent(1);
+    verify(service, times(1)).getStudent(1, true);
+  }
+
+  @Test
+  void 正常なIDで受講生コースを含めずに受講生情報が取得できること() throws Exception {
+    Student student = new Student();
+    student.setId(1);
+    when(service.getStudent(1, false)).thenReturn(new StudentDetail(student, null));
+
+    mockMvc.perform(get("/students/1"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.student.id").value(1))
+        .andExpect(jsonPath("$.studentCourseList").doesNotExist());
+
+    verify(service, times(1)).getStudent(1, false);
+  }
+
+  @Test
+  void 受講生コースがページ単位で取得できること() throws Exception {
+    when(service.getStudentCourses(1, 1, 2)).thenReturn(
+        new StudentCoursePage(List.of(new StudentCourse()), 1, 2, false));
+
+    mockMvc.perform(get("/students/1/courses").param("page", "1").param("size", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.page").value(1))
+        .andExpect(jsonPath("$.hasNext").value(false));
+
+    verify(service, times(1)).getStudentCourses(1, 1, 2);
+  }
+
+  @Test
+  void 受講生コースのページ取得時に件数が不正な場合にバリデーションエラーが発生すること()
+      throws Exception {
+    mockMvc.perform(get("/students/1/courses").param("size", "0"))
+        .andExpect(status().isBadRequest());
+
+    verify(service, never()).getStudentCourses(anyInt(), anyInt(), anyInt());
+  }
+
+  @Test
+  void 受講完了日が近い受講生コースが日数を指定して取得できること() throws Exception {
+    when(service.getExpiringCourses(3, 100)).thenReturn(List.of(new StudentCourse()));
+
+    mockMvc.perform(get("/courses/expiring").param("within", "3"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(1));
+
+    verify(service, times(1)).getExpiringCourses(3, 100);
+  }
+
+  @Test
+  void 受講完了日が近い受講生コースの取得時に日数が不正な場合にバリデーションエラーが発生すること()
+      throws Exception {
+    mockMvc.perform(get("/courses/expiring").param("within", "366"))
+        .andExpect(status().isBadRequest());
+
+    verify(service, never()).getExpiringCourses(anyInt(), anyInt());
+  }
+
+  @Test
+  void 受講生がJSON_Merge_Patchで部分更新できること() throws Exception {
+    mockMvc.perform(patch("/students/1")
+            .contentType("application/merge-patch+json")
+            .content("{\"name\": \"佐藤 一郎\", \"nickname\": null}"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("更新処理が成功しました"));
+
+    ArgumentCaptor<StudentPatch> captor = ArgumentCaptor.forClass(StudentPatch.class);
+    verify(service, times(1)).patch(eq(1), captor.capture());
+    assertThat(captor.getValue().getSpecifiedProperties()).containsExactly("name", "nickname");
+    assertThat(captor.getValue().getNickname()).isNull();
+  }
+
+  @Test
+  void 部分更新でnullにできない項目や更新できない項目を指定した場合にバリデーションエラーが発生すること()
+      throws Exception {
+    mockMvc.perform(patch("/students/1")
+            .contentType("application/merge-patch+json")
+            .content("{\"email\": null}"))
+        .andExpect(status().isBadRequest());
+    mockMvc.perform(patch("/students/1")
+            .contentType("application/merge-patch+json")
+            .content("{\"id\": 2}"))
+        .andExpect(status().isBadRequest());
+
+    verify(service, never()).patch(anyInt(), any());
+  }
+
+  @Test
+  void 部分更新でContent_Typeがmerge_patch_jsonでない場合に415が返ること() throws Exception {
+    mockMvc.perform(patch("/students/1")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("{\"name\": \"佐藤 一郎\"}"))
+        .andExpect(status().isUnsupportedMediaType());
+
+    verify(service, never()).patch(anyInt(), any());
   }
 
   @Test
@@ -212,6 +345,38 @@ class StudentControllerTest {
     verify(service, times(1)).update(any(StudentDetail.class));
   }
 
+  @Test
+  void 受講生詳細の一括更新時にPUTリクエストが成功し更新結果が返ること() throws Exception {
+    when(batchService.update(any())).thenReturn(new BatchUpdateResult(1, List.of(
+        new BatchUpdateResult.ItemError(1, 999, List.of("Student with ID 999 not found")))));
+    String batchJson = """
+        [
+          {"student": {"id": 1, "region": "東京"}},
+          {"student": {"id": 999, "remarks": "備考"}}
+        ]
+        """;
+
+    mockMvc.perform(put("/students/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(batchJson))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updatedCount").value(1))
+        .andExpect(jsonPath("$.errors[0].studentId").value(999));
+
+    verify(batchService, times(1)).update(any());
+  }
+
+  @Test
+  void 受講生詳細の一括更新時に空のリストの場合にバリデーションエラーが発生すること()
+      throws Exception {
+    mockMvc.perform(put("/students/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content("[]"))
+        .andExpect(status().isBadRequest());
+
+    verify(batchService, never()).update(any());
+  }
+
   @Test
   void 申込状況の登録時に正常な値でPOSTリクエストで成功すること() throws Exception {
     ApplicationStatus newStatus = new ApplicationStatus();
@@ -330,6 +495,43 @@ class StudentControllerTest {
     verify(service, times(1)).update(any(ApplicationStatus.class));
   }
 
+  @Test
+  void 申込状況の一括更新時に正常な値でPUTリクエストが成功し更新件数が返ること() throws Exception {
+    when(service.updateApplicationStatuses(any(ApplicationStatusTransition.class))).thenReturn(3);
+    String transitionJson = """
+        {
+          "courseName": "バックエンド開発",
+          "currentStatus": "仮申し込み",
+          "targetStatus": "本申込"
+        }
+        """;
+
+    mockMvc.perform(put("/applicationStatuses/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(transitionJson))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.updatedCount").value(3));
+
+    verify(service, times(1)).updateApplicationStatuses(any(ApplicationStatusTransition.class));
+  }
+
+  @Test
+  void 申込状況の一括更新時に対象の条件が指定されていない場合にバリデーションエラーが発生すること()
+      throws Exception {
+    String transitionJson = """
+        {
+          "targetStatus": "本申込"
+        }
+        """;
+
+    mockMvc.perform(put("/applicationStatuses/bulk")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(transitionJson))
+        .andExpect(status().isBadRequest());
+
+    verify(service, never()).updateApplicationStatuses(any(ApplicationStatusTransition.class));
+  }
+
   @Test
   void 申込状況がDELETEリクエストで正常に削除されること() throws Exception {
     // 実行
@@ -0,0 +1,84 @@
+package management.student.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import management.student.converter.StudentConverter;
+import management.student.data.ApplicationStatus;
+import management.student.service.StudentBatchService;
+import management.student.service.StudentService;
+import management.student.writebehind.ApplicationStatusWriteBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * 申込状況の更新を溜めるバッファーは設定クラスで登録されるため、Controller単体で検証する
+ */
+@ExtendWith(MockitoExtension.class)
+class StudentControllerWriteBehindTest {
+
+  private static final String STATUS_JSON = """
+      {"id": 1, "studentCourseId": 1, "status": "受講中"}
+      """;
+
+  @Mock
+  private StudentService service;
+
+  @Mock
+  private StudentConverter converter;
+
+  @Mock
+  private StudentBatchService batchService;
+
+  @Mock
+  private ObjectProvider<ApplicationStatusWriteBuffer> bufferProvider;
+
+  @Mock
+  private ApplicationStatusWriteBuffer buffer;
+
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void before() {
+    when(bufferProvider.getIfAvailable()).thenReturn(buffer);
+    mockMvc = MockMvcBuilders.standaloneSetup(
+        new StudentController(service, converter, batchService, bufferProvider)).build();
+  }
+
+  @Test
+  void 申込状況の更新が溜められて202が返ること() throws Exception {
+    mockMvc.perform(put("/applicationStatuses/update")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(STATUS_JSON))
+        .andExpect(status().isAccepted())
+        .andExpect(jsonPath("$.message").value("更新を受け付けました"));
+
+    verify(buffer).offer(any(ApplicationStatus.class));
+    verify(service, never()).update(any(ApplicationStatus.class));
+  }
+
+  @Test
+  void 同期的な更新を指定した場合は書き込みが完了してから200が返ること() throws Exception {
+    mockMvc.perform(put("/applicationStatuses/update")
+            .param("sync", "true")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(STATUS_JSON))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.message").value("更新処理が成功しました"));
+
+    verify(buffer).writeThrough(any(ApplicationStatus.class));
+    verify(buffer, never()).offer(any(ApplicationStatus.class));
+  }
+}
@@ -0,0 +1,51 @@
+package management.student.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import management.student.tracing.SlowTraceStore;
+import management.student.tracing.SpanKind;
+import management.student.tracing.TraceRecord;
+import management.student.tracing.TraceSpan;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+/**
+ * トレースの保持先は設定クラスで登録されるため、Controller単体で検証する
+ */
+class TraceControllerTest {
+
+  private SlowTraceStore store;
+  private MockMvc mockMvc;
+
+  @BeforeEach
+  void before() {
+    store = new SlowTraceStore(10);
+    mockMvc = MockMvcBuilders.standaloneSetup(new TraceController(store)).build();
+  }
+
+  @Test
+  void 遅かったリクエストのトレースが新しい順に取得できること() throws Exception {
+    store.add(trace("a", "/students"));
+    store.add(trace("b", "/students/1"));
+    store.add(trace("c", "/courses/expiring"));
+
+    mockMvc.perform(get("/internal/traces").param("limit", "2"))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.length()").value(2))
+        .andExpect(jsonPath("$[0].traceId").value("c"))
+        .andExpect(jsonPath("$[1].traceId").value("b"))
+        .andExpect(jsonPath("$[1].spans[0].name").value("StudentController.getStudent(int)"));
+  }
+
+  private static TraceRecord trace(String traceId, String path) {
+    return new TraceRecord(traceId, "GET", path, 200, LocalDateTime.of(2024, 1, 1, 0, 0), 600.0,
+        List.of(new TraceSpan(SpanKind.CONTROLLER, "StudentController.getStudent(int)", 0, 0.1,
+            599.0)), 0);
+  }
+}
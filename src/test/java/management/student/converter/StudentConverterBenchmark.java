@@ -0,0 +1,72 @@
+package management.student.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 受講生詳細の作成を1つのスレッドで行った場合とfork/joinで並列に行った場合の処理時間を比較し、
+ * 並列にしたほうが速くなる件数（student.converter.parallel-threshold の目安）を確認する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class StudentConverterBenchmark {
+
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURE_ROUNDS = 10;
+  private static final int COURSES_PER_STUDENT = 3;
+
+  @Test
+  void 件数ごとの変換時間を比較する() {
+    StudentConverter sequential = new StudentConverter(Integer.MAX_VALUE);
+    StudentConverter parallel = new StudentConverter(0);
+    for (int size : new int[]{1_000, 5_000, 10_000, 20_000, 50_000, 100_000, 500_000}) {
+      List<Student> students = createStudents(size);
+      List<StudentCourse> courses = createCourses(size);
+      long sequentialNanos = measure(sequential, students, courses);
+      long parallelNanos = measure(parallel, students, courses);
+      System.out.printf("StudentConverter students=%d cores=%d sequential=%.2fms "
+              + "parallel=%.2fms speedup=%.2fx%n", size,
+          Runtime.getRuntime().availableProcessors(), sequentialNanos / 1e6,
+          parallelNanos / 1e6, (double) sequentialNanos / parallelNanos);
+    }
+  }
+
+  private long measure(StudentConverter sut, List<Student> students,
+      List<StudentCourse> courses) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sut.convertStudentDetails(students, courses);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+      long start = System.nanoTime();
+      sut.convertStudentDetails(students, courses);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+
+  private static List<Student> createStudents(int size) {
+    List<Student> students = new ArrayList<>(size);
+    for (int id = 1; id <= size; id++) {
+      Student student = new Student();
+      student.setId(id);
+      students.add(student);
+    }
+    return students;
+  }
+
+  private static List<StudentCourse> createCourses(int size) {
+    List<StudentCourse> courses = new ArrayList<>(size * COURSES_PER_STUDENT);
+    for (int id = 1; id <= size * COURSES_PER_STUDENT; id++) {
+      StudentCourse course = new StudentCourse();
+      course.setId(id);
+      course.setStudentId((id - 1) % size + 1);
+      courses.add(course);
+    }
+    return courses;
+  }
+}
@@ -82,6 +82,49 @@ class StudentConverterTest {
 
   }
 
+  @Test
+  void 閾値以上の件数では並列に変換され受講生の順番が保たれること() {
+    StudentConverter parallel = new StudentConverter(1);
+    List<Student> studentList = new ArrayList<>();
+    List<StudentCourse> studentCourseList = new ArrayList<>();
+    for (int id = 10_000; id > 0; id--) {
+      Student student = new Student();
+      student.setId(id);
+      studentList.add(student);
+      StudentCourse studentCourse = new StudentCourse();
+      studentCourse.setId(id);
+      studentCourse.setStudentId(id);
+      studentCourseList.add(studentCourse);
+    }
+    // 実行
+    List<StudentDetail> actualList = parallel.convertStudentDetails(studentList,
+        studentCourseList);
+    // 検証
+    assertThat(actualList).extracting(StudentDetail::getStudent).containsExactlyElementsOf(
+        studentList);
+    assertThat(actualList).allSatisfy(studentDetail -> assertThat(
+        studentDetail.getStudentCourseList()).extracting(StudentCourse::getStudentId)
+        .containsExactly(studentDetail.getStudent().getId()));
+  }
+
+  @Test
+  void 変換結果と受講生ごとの受講生コースのリストが変更できる別のリストであること() {
+    Student student = createStudent();
+    StudentCourse studentCourse = new StudentCourse();
+    studentCourse.setId(1);
+    studentCourse.setStudentId(student.getId());
+    // 同じIDの受講生が2件ある場合
+    List<StudentDetail> actualList = sut.convertStudentDetails(List.of(student, student),
+        List.of(studentCourse));
+
+    actualList.add(new StudentDetail(createStudent(), new ArrayList<>()));
+    actualList.get(0).getStudentCourseList().add(new StudentCourse());
+
+    assertThat(actualList).hasSize(3);
+    assertThat(actualList.get(0).getStudentCourseList()).hasSize(2);
+    assertThat(actualList.get(1).getStudentCourseList()).containsExactly(studentCourse);
+  }
+
   /**
    * テスト用の受講生オブジェyクトの生成と値の設定を行う
    *
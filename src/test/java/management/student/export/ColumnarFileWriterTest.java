@@ -0,0 +1,84 @@
+package management.student.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ColumnarFileWriterTest {
+
+  private static final List<String> NAMES = List.of("id", "name", "deleted", "end_date");
+  private static final List<ColumnType> TYPES = List.of(ColumnType.INT, ColumnType.STRING,
+      ColumnType.BOOLEAN, ColumnType.TIMESTAMP);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void 書き込んだ行が行グループをまたいでも同じ値で読み込めること() throws IOException {
+    Path file = directory.resolve("test.smc");
+    LocalDateTime endDate = LocalDateTime.of(2024, 8, 1, 10, 30);
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(file, NAMES, TYPES, 2)) {
+      writer.write(3, "佐藤 太郎", false, endDate);
+      writer.write(-7, null, true, null);
+      writer.write(Integer.MAX_VALUE, "", false, endDate.minusYears(60));
+      writer.write(Integer.MIN_VALUE, "Python🐍", true, endDate);
+      writer.write(0, "last", false, null);
+    }
+
+    try (ColumnarFileReader reader = new ColumnarFileReader(file)) {
+      assertThat(reader.getNames()).isEqualTo(NAMES);
+      assertThat(reader.getTypes()).isEqualTo(TYPES);
+      assertThat(reader.getRowCount()).isEqualTo(5);
+      assertThat(reader.getRowGroupCount()).isEqualTo(3);
+      assertThat(reader.readAll()).containsExactly(
+          new Object[] {3, "佐藤 太郎", false, endDate},
+          new Object[] {-7, null, true, null},
+          new Object[] {Integer.MAX_VALUE, "", false, endDate.minusYears(60)},
+          new Object[] {Integer.MIN_VALUE, "Python🐍", true, endDate},
+          new Object[] {0, "last", false, null});
+    }
+  }
+
+  @Test
+  void 同じ値が続く列は圧縮されて行の合計より小さく書き込まれること() throws IOException {
+    Path file = directory.resolve("compressed.smc");
+    int rows = 10_000;
+    try (ColumnarFileWriter writer = new ColumnarFileWriter(file, NAMES, TYPES, 4096)) {
+      for (int id = 1; id <= rows; id++) {
+        writer.write(id, "バックエンド開発", false, LocalDateTime.of(2024, 8, 1, 10, 30));
+      }
+    }
+
+    //コース名だけで1行あたり24バイト
+    assertThat(Files.size(file)).isLessThan(rows * 2L);
+    try (ColumnarFileReader reader = new ColumnarFileReader(file)) {
+      assertThat(reader.readRowGroup(2).getFirst()[0]).isEqualTo(8193);
+    }
+  }
+
+  @Test
+  void 行がない場合もフッターだけのファイルとして読み込めること() throws IOException {
+    Path file = directory.resolve("empty.smc");
+    new ColumnarFileWriter(file, NAMES, TYPES, 10).close();
+
+    try (ColumnarFileReader reader = new ColumnarFileReader(file)) {
+      assertThat(reader.getRowCount()).isZero();
+      assertThat(reader.readAll()).isEmpty();
+    }
+  }
+
+  @Test
+  void 列ファイルではないファイルは読み込めないこと() throws IOException {
+    Path file = directory.resolve("broken.smc");
+    Files.writeString(file, "id,name\n1,佐藤\n");
+
+    assertThatThrownBy(() -> new ColumnarFileReader(file)).isInstanceOf(IOException.class);
+  }
+}
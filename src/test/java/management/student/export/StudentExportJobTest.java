@@ -0,0 +1,167 @@
+package management.student.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import javax.sql.DataSource;
+import management.student.data.Student;
+import management.student.repository.ExportRepository;
+import management.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@MybatisTest
+class StudentExportJobTest {
+
+  @Autowired
+  private ExportRepository exportRepository;
+
+  @Autowired
+  private StudentRepository studentRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @TempDir
+  Path directory;
+
+  private final Clock clock = Clock.fixed(Instant.parse("2026-01-01T00:00:00Z"), ZoneOffset.UTC);
+
+  private ExportProperties properties;
+
+  private StudentExportJob sut;
+
+  @BeforeEach
+  void before() {
+    properties = new ExportProperties();
+    properties.setDirectory(directory.toString());
+    properties.setRowGroupSize(2);
+    properties.setCommitLag(Duration.ofMinutes(10));
+    sut = new StudentExportJob(exportRepository, properties, transactionManager,
+        new SimpleMeterRegistry(), clock);
+  }
+
+  /**
+   * IDを指定して受講生を登録する（採番とコミットの順序が前後した状態を作るため）
+   */
+  private void insertStudent(int id) {
+    new JdbcTemplate(dataSource).update(
+        "INSERT INTO student (id, name, furigana, gender, email) VALUES (?, ?, ?, ?, ?)",
+        id, "受講生" + id, "じゅこうせい" + id, "male", "student" + id + "@example.com");
+  }
+
+  private static List<Object> ids(ExportedFile file) throws IOException {
+    try (ColumnarFileReader reader = new ColumnarFileReader(file.getPath())) {
+      return reader.readAll().stream().map(row -> row[0]).toList();
+    }
+  }
+
+  @Test
+  void 初回は全件がテーブルごとのファイルに書き出されること() throws IOException {
+    List<ExportedFile> actual = sut.export();
+
+    assertThat(actual).extracting(ExportedFile::getTable)
+        .containsExactly("student", "student_courses", "application_status");
+    ExportedFile students = actual.getFirst();
+    assertThat(students.getPath().getFileName().toString()).isEqualTo("student-1-5.smc");
+    try (ColumnarFileReader reader = new ColumnarFileReader(students.getPath())) {
+      assertThat(reader.getNames()).startsWith("id", "name");
+      List<Object[]> rows = reader.readAll();
+      assertThat(rows).extracting(row -> row[0]).containsExactly(1, 2, 3, 4, 5);
+      assertThat(rows.getFirst()[1]).isEqualTo("佐藤 太郎");
+    }
+    try (ColumnarFileReader reader = new ColumnarFileReader(actual.get(1).getPath())) {
+      assertThat(reader.getRowCount()).isEqualTo(10);
+      assertThat(reader.readAll().getFirst()[3]).isNotNull();
+    }
+    try (var files = Files.list(directory)) {
+      assertThat(files.map(path -> path.getFileName().toString()))
+          .noneMatch(name -> name.endsWith(".tmp"));
+    }
+  }
+
+  @Test
+  void 前回書き出した後に追加された行だけが書き出されること() throws IOException {
+    sut.export();
+    assertThat(sut.export()).isEmpty();
+
+    Student student = new Student();
+    student.setName("伊藤 五郎");
+    student.setFurigana("いとう ごろう");
+    student.setAge(24);
+    student.setGender("male");
+    student.setNickname("ごろちゃん");
+    student.setEmail("goro.ito@example.com");
+    student.setRegion("名古屋");
+    student.setPhoneNumber("09012345678");
+    student.setRemarks("");
+    studentRepository.createStudent(student);
+
+    List<ExportedFile> actual = sut.export();
+
+    assertThat(actual).extracting(ExportedFile::getTable).containsExactly("student");
+    assertThat(actual.getFirst().getAfterId()).isEqualTo(5);
+    try (ColumnarFileReader reader = new ColumnarFileReader(actual.getFirst().getPath())) {
+      assertThat(reader.readAll()).extracting(row -> row[9]).containsExactly("名古屋");
+    }
+  }
+
+  @Test
+  void 範囲を指定して書き出しても前回の記録は変わらないこと() throws IOException {
+    ExportedFile actual = sut.exportRange("student", 1, 3);
+
+    try (ColumnarFileReader reader = new ColumnarFileReader(actual.getPath())) {
+      assertThat(reader.readAll()).extracting(row -> row[0]).containsExactly(2, 3);
+    }
+    assertThat(sut.export()).hasSize(3);
+  }
+
+  @Test
+  void 書き出した範囲で抜けていたIDの行が後からコミットされた場合は次回に書き出されること()
+      throws IOException {
+    sut.export();
+    insertStudent(7);
+    assertThat(ids(sut.export().getFirst())).containsExactly(7);
+
+    insertStudent(6);
+    insertStudent(8);
+    List<ExportedFile> actual = sut.export();
+
+    assertThat(actual.getFirst().getAfterId()).isEqualTo(7);
+    assertThat(ids(actual.getFirst())).containsExactly(6, 8);
+    insertStudent(9);
+    assertThat(ids(sut.export().getFirst())).containsExactly(9);
+  }
+
+  @Test
+  void commitLagを過ぎても埋まらない抜けは読み直さないこと() throws IOException {
+    sut.export();
+    insertStudent(7);
+    sut.export();
+    StudentExportJob later = new StudentExportJob(exportRepository, properties,
+        transactionManager, new SimpleMeterRegistry(), Clock.offset(clock, Duration.ofMinutes(10)));
+    insertStudent(8);
+    assertThat(ids(later.export().getFirst())).containsExactly(8);
+
+    insertStudent(6);
+    insertStudent(9);
+
+    assertThat(ids(later.export().getFirst())).containsExactly(9);
+  }
+}
@@ -0,0 +1,71 @@
+package management.student.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+class CachedBodyHttpServletRequestTest {
+
+  private static final byte[] BODY = "{\"id\":1}".getBytes(StandardCharsets.UTF_8);
+
+  @Test
+  void 非同期で読み込む場合に読み込み済みのボディが読み込めて完了が通知されること()
+      throws Exception {
+    ServletInputStream input = new CachedBodyHttpServletRequest(new MockHttpServletRequest(),
+        BODY).getInputStream();
+    List<String> events = new ArrayList<>();
+
+    input.setReadListener(new ReadListener() {
+      @Override
+      public void onDataAvailable() throws IOException {
+        events.add(new String(input.readAllBytes(), StandardCharsets.UTF_8));
+      }
+
+      @Override
+      public void onAllDataRead() {
+        events.add("allDataRead");
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        events.add("error");
+      }
+    });
+
+    assertThat(events).containsExactly("{\"id\":1}", "allDataRead");
+    assertThat(input.isFinished()).isTrue();
+  }
+
+  @Test
+  void 読み込み中に例外が発生した場合はエラーが通知されること() throws Exception {
+    ServletInputStream input = new CachedBodyHttpServletRequest(new MockHttpServletRequest(),
+        BODY).getInputStream();
+    List<String> events = new ArrayList<>();
+
+    input.setReadListener(new ReadListener() {
+      @Override
+      public void onDataAvailable() throws IOException {
+        throw new IOException("read failed");
+      }
+
+      @Override
+      public void onAllDataRead() {
+        events.add("allDataRead");
+      }
+
+      @Override
+      public void onError(Throwable t) {
+        events.add(t.getMessage());
+      }
+    });
+
+    assertThat(events).containsExactly("read failed");
+  }
+}
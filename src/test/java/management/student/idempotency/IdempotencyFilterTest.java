@@ -0,0 +1,175 @@
+package management.student.idempotency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import management.student.data.IdempotencyRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyFilterTest {
+
+  private static final String BODY = "{\"status\":\"本申込\",\"studentCourseId\":1}";
+
+  @Mock
+  private IdempotencyStore store;
+
+  private IdempotencyFilter sut;
+  private AtomicInteger executionCount;
+  private int responseStatus;
+
+  @BeforeEach
+  void before() {
+    sut = new IdempotencyFilter(store, new IdempotencyProperties());
+    executionCount = new AtomicInteger();
+    responseStatus = 200;
+  }
+
+  @Test
+  void 冪等キーが指定されていない場合はそのまま実行されること() throws Exception {
+    MockHttpServletRequest request = createRequest(null);
+
+    MockHttpServletResponse response = perform(request);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(executionCount.get()).isEqualTo(1);
+    verify(store, never()).find(anyString());
+  }
+
+  @Test
+  void 初回のリクエストが実行されレスポンスが記録されること() throws Exception {
+    when(store.find("key-1")).thenReturn(Optional.empty());
+    when(store.reserve(anyString(), anyString())).thenReturn(Optional.of("owner-1"));
+
+    MockHttpServletResponse response = perform(createRequest("key-1"));
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo(BODY);
+    assertThat(executionCount.get()).isEqualTo(1);
+    verify(store, times(1)).complete("key-1", "owner-1", 200, BODY);
+    verify(store, never()).release(anyString(), anyString());
+  }
+
+  @Test
+  void 再送されたリクエストは実行されず記録済みのレスポンスが返ること() throws Exception {
+    MockHttpServletRequest request = createRequest("key-1");
+    when(store.find("key-1")).thenReturn(Optional.of(
+        createRecord(IdempotencyFilter.hash(request, BODY.getBytes(StandardCharsets.UTF_8)),
+            200)));
+
+    MockHttpServletResponse response = perform(request);
+
+    assertThat(response.getStatus()).isEqualTo(200);
+    assertThat(response.getHeader(IdempotencyFilter.REPLAYED_HEADER)).isEqualTo("true");
+    assertThat(response.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("{\"id\":1}");
+    assertThat(executionCount.get()).isZero();
+  }
+
+  @Test
+  void 異なるリクエストで同じ冪等キーが使われた場合に422エラーとなること() throws Exception {
+    when(store.find("key-1")).thenReturn(Optional.of(createRecord("other-hash", 200)));
+
+    MockHttpServletResponse response = perform(createRequest("key-1"));
+
+    assertThat(response.getStatus()).isEqualTo(422);
+    assertThat(executionCount.get()).isZero();
+  }
+
+  @Test
+  void 同じ冪等キーのリクエストが処理中の場合に409エラーとなること() throws Exception {
+    MockHttpServletRequest request = createRequest("key-1");
+    String hash = IdempotencyFilter.hash(request, BODY.getBytes(StandardCharsets.UTF_8));
+    when(store.find("key-1")).thenReturn(Optional.empty(),
+        Optional.of(createRecord(hash, null)));
+    when(store.reserve("key-1", hash)).thenReturn(Optional.empty());
+
+    MockHttpServletResponse response = perform(request);
+
+    assertThat(response.getStatus()).isEqualTo(409);
+    assertThat(executionCount.get()).isZero();
+  }
+
+  @Test
+  void 処理が失敗した場合は記録が取り消されること() throws Exception {
+    responseStatus = 500;
+    when(store.find("key-1")).thenReturn(Optional.empty());
+    when(store.reserve(anyString(), anyString())).thenReturn(Optional.of("owner-1"));
+
+    MockHttpServletResponse response = perform(createRequest("key-1"));
+
+    assertThat(response.getStatus()).isEqualTo(500);
+    verify(store, times(1)).release("key-1", "owner-1");
+    verify(store, never()).complete(anyString(), anyString(), anyInt(), anyString());
+  }
+
+  @Test
+  void 予約できず記録も見つからない場合は実行されず409エラーとなること() throws Exception {
+    when(store.find("key-1")).thenReturn(Optional.empty());
+    when(store.reserve(anyString(), anyString())).thenReturn(Optional.empty());
+
+    MockHttpServletResponse response = perform(createRequest("key-1"));
+
+    assertThat(response.getStatus()).isEqualTo(409);
+    assertThat(executionCount.get()).isZero();
+    verify(store, never()).complete(anyString(), anyString(), anyInt(), anyString());
+    verify(store, never()).release(anyString(), anyString());
+  }
+
+  private MockHttpServletRequest createRequest(String key) {
+    MockHttpServletRequest request = new MockHttpServletRequest("POST", "/applicationStatuses");
+    request.setContentType("application/json");
+    request.setContent(BODY.getBytes(StandardCharsets.UTF_8));
+    if (key != null) {
+      request.addHeader("Idempotency-Key", key);
+    }
+    return request;
+  }
+
+  private IdempotencyRecord createRecord(String requestHash, Integer statusCode) {
+    IdempotencyRecord record = new IdempotencyRecord();
+    record.setIdempotencyKey("key-1");
+    record.setRequestHash(requestHash);
+    record.setStatusCode(statusCode);
+    record.setResponseBody("{\"id\":1}");
+    return record;
+  }
+
+  /**
+   * フィルターを実行する
+   * 後続の処理ではリクエストボディをそのままレスポンスに書き込む
+   */
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse resp)
+          throws IOException {
+        executionCount.incrementAndGet();
+        resp.setStatus(responseStatus);
+        resp.getOutputStream().write(StreamUtils.copyToByteArray(req.getInputStream()));
+      }
+    };
+    sut.doFilter(request, response, new MockFilterChain(servlet));
+    return response;
+  }
+}
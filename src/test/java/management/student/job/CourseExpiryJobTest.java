@@ -0,0 +1,104 @@
+package management.student.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.StudentCourse;
+import management.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+@ExtendWith(MockitoExtension.class)
+class CourseExpiryJobTest {
+
+  private static final LocalDateTime NOW = LocalDateTime.of(2024, 9, 1, 2, 30);
+
+  @Mock
+  private StudentRepository repository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private SimpleMeterRegistry registry;
+  private CourseExpiryJob sut;
+
+  @BeforeEach
+  void before() {
+    CourseExpiryProperties properties = new CourseExpiryProperties();
+    properties.setChunkSize(2);
+    properties.setPause(Duration.ZERO);
+    properties.setTransitions(Map.of("受講中", "受講終了"));
+    registry = new SimpleMeterRegistry();
+    Clock clock = Clock.fixed(NOW.toInstant(ZoneOffset.UTC), ZoneId.of("UTC"));
+    sut = new CourseExpiryJob(repository, properties, registry, eventPublisher, clock);
+  }
+
+  @Test
+  void 受講完了日を過ぎた受講生コースがチャンク単位で続きから更新されること() {
+    StudentCourse first = course(1, NOW.minusDays(3));
+    StudentCourse second = course(5, NOW.minusDays(2));
+    StudentCourse third = course(2, NOW.minusDays(1));
+    LocalDateTime endFrom = NOW.minusDays(7);
+    when(repository.searchStudentCoursesByEndDate(endFrom, NOW, null, 0, 2))
+        .thenReturn(List.of(first, second));
+    when(repository.searchStudentCoursesByEndDate(endFrom, NOW, second.getEndDate(), 5, 2))
+        .thenReturn(List.of(third));
+    when(repository.updateApplicationStatusByCourseIds(List.of(1, 5), "受講中", "受講終了"))
+        .thenReturn(2);
+    when(repository.updateApplicationStatusByCourseIds(List.of(2), "受講中", "受講終了"))
+        .thenReturn(1);
+    //実行
+    int actual = sut.expire();
+    //検証
+    assertThat(actual).isEqualTo(3);
+    assertThat(registry.get("student.course.expiry.updated").tag("status", "受講終了")
+        .counter().count()).isEqualTo(3);
+    ArgumentCaptor<RosterChangedEvent> events = ArgumentCaptor.forClass(RosterChangedEvent.class);
+    verify(eventPublisher, times(2)).publishEvent(events.capture());
+    assertThat(events.getAllValues()).extracting(RosterChangedEvent::getStatusChangedCourseIds)
+        .containsExactly(List.of(1, 5), List.of(2));
+  }
+
+  @Test
+  void 対象の受講生コースがない場合は何も更新されないこと() {
+    when(repository.searchStudentCoursesByEndDate(any(), any(), isNull(), eq(0), anyInt()))
+        .thenReturn(List.of());
+    //実行
+    int actual = sut.expire();
+    //検証
+    assertThat(actual).isZero();
+    verify(repository, never()).updateApplicationStatusByCourseIds(anyList(), anyString(),
+        anyString());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  private static StudentCourse course(int id, LocalDateTime endDate) {
+    StudentCourse course = new StudentCourse();
+    course.setId(id);
+    course.setEndDate(endDate);
+    return course;
+  }
+}
@@ -0,0 +1,86 @@
+package management.student.job;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import management.student.repository.StudentArchiveRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class StudentArchiveJobTest {
+
+  @Mock
+  private StudentArchiveRepository repository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private SimpleMeterRegistry registry;
+  private StudentArchiveJob sut;
+
+  @BeforeEach
+  void before() {
+    StudentArchiveProperties properties = new StudentArchiveProperties();
+    properties.setChunkSize(2);
+    properties.setPause(Duration.ZERO);
+    registry = new SimpleMeterRegistry();
+    sut = new StudentArchiveJob(repository, transactionManager, properties, registry);
+  }
+
+  @Test
+  void アーカイブ対象がなくなるまでチャンク単位で移動されること() {
+    when(repository.searchArchivableStudentIds(eq(0), any(), eq(2))).thenReturn(List.of(1, 2));
+    when(repository.searchArchivableStudentIds(eq(2), any(), eq(2))).thenReturn(List.of(5));
+    when(repository.lockArchivableStudents(List.of(1, 2))).thenReturn(List.of(1, 2));
+    when(repository.lockArchivableStudents(List.of(5))).thenReturn(List.of(5));
+    when(repository.archiveStudents(List.of(1, 2))).thenReturn(2);
+    when(repository.archiveStudents(List.of(5))).thenReturn(1);
+    //実行
+    int actual = sut.archive();
+    //検証
+    assertThat(actual).isEqualTo(3);
+    verify(repository, times(1)).deleteStudents(List.of(1, 2));
+    verify(repository, times(1)).deleteStudents(List.of(5));
+    verify(transactionManager, times(2)).commit(any());
+    assertThat(registry.get("student.archive.chunks").counter().count()).isEqualTo(2);
+    assertThat(registry.get("student.archive.rows").tag("table", "student").counter().count())
+        .isEqualTo(3);
+    assertThat(registry.get("student.archive.last.id").gauge().value()).isEqualTo(5);
+  }
+
+  @Test
+  void 削除が取り消された受講生は移動されないこと() {
+    when(repository.searchArchivableStudentIds(eq(0), any(), eq(2))).thenReturn(List.of(1));
+    when(repository.lockArchivableStudents(List.of(1))).thenReturn(List.of());
+    //実行
+    int actual = sut.archive();
+    //検証
+    assertThat(actual).isZero();
+    verify(repository, never()).archiveStudents(any());
+    verify(repository, never()).deleteStudents(any());
+  }
+
+  @Test
+  void アーカイブ対象がない場合は何も移動されないこと() {
+    when(repository.searchArchivableStudentIds(anyInt(), any(), anyInt())).thenReturn(List.of());
+    //実行
+    int actual = sut.archive();
+    //検証
+    assertThat(actual).isZero();
+    verify(repository, never()).lockArchivableStudents(any());
+  }
+}
@@ -0,0 +1,78 @@
+package management.student.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 処理時間の記録1回あたりのオーバーヘッド（System.nanoTimeの2回の呼び出しを含む）を計測し、
+ * 1マイクロ秒未満に収まることを確認する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class LatencyRecorderBenchmark {
+
+  private static final int WARMUP_ROUNDS = 5;
+  private static final int MEASURE_ROUNDS = 10;
+  private static final int RECORDS_PER_ROUND = 1_000_000;
+
+  @Test
+  void 記録1回あたりのオーバーヘッドを計測する() throws Exception {
+    LatencyRecorder recorder = new LatencyRecorder(new LatencyProperties());
+    LatencyRecorder.Series series = recorder.series("benchmark");
+    for (int threads : new int[]{1, 4, Runtime.getRuntime().availableProcessors()}) {
+      double nanosPerRecord = measure(series, threads);
+      System.out.printf("LatencyRecorder threads=%d %.1fns/record%n", threads, nanosPerRecord);
+      assertThat(nanosPerRecord).isLessThan(1_000.0);
+      recorder.rotate();
+    }
+  }
+
+  private double measure(LatencyRecorder.Series series, int threads) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      for (int i = 0; i < WARMUP_ROUNDS; i++) {
+        run(executor, series, threads);
+      }
+      long best = Long.MAX_VALUE;
+      for (int i = 0; i < MEASURE_ROUNDS; i++) {
+        best = Math.min(best, run(executor, series, threads));
+      }
+      return (double) best / RECORDS_PER_ROUND;
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+  }
+
+  /**
+   * 各スレッドで記録を繰り返し、最も遅かったスレッドの経過時間を返す
+   */
+  private long run(ExecutorService executor, LatencyRecorder.Series series, int threads)
+      throws Exception {
+    Future<?>[] futures = new Future<?>[threads];
+    long[] elapsed = new long[threads];
+    for (int thread = 0; thread < threads; thread++) {
+      int index = thread;
+      futures[thread] = executor.submit(() -> {
+        long start = System.nanoTime();
+        for (int i = 0; i < RECORDS_PER_ROUND; i++) {
+          long begin = System.nanoTime();
+          series.record(System.nanoTime() - begin);
+        }
+        elapsed[index] = System.nanoTime() - start;
+      });
+    }
+    long slowest = 0;
+    for (int thread = 0; thread < threads; thread++) {
+      futures[thread].get();
+      slowest = Math.max(slowest, elapsed[thread]);
+    }
+    return slowest;
+  }
+}
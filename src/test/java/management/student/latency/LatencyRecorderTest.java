@@ -0,0 +1,88 @@
+package management.student.latency;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+
+import java.time.Duration;
+import java.util.List;
+import management.student.converter.StudentConverter;
+import management.student.repository.StudentRepository;
+import management.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+
+class LatencyRecorderTest {
+
+  private LatencyRecorder sut;
+
+  @BeforeEach
+  void before() {
+    LatencyProperties properties = new LatencyProperties();
+    properties.setRetainedIntervals(2);
+    properties.setHighestTrackable(Duration.ofSeconds(1));
+    sut = new LatencyRecorder(properties);
+  }
+
+  @Test
+  void 区切った区間の処理時間のパーセンタイルが集計されること() {
+    LatencyRecorder.Series series = sut.series("test");
+    for (int millis = 1; millis <= 1000; millis++) {
+      series.record(Duration.ofMillis(millis).toNanos() / 10);
+    }
+    sut.rotate();
+    //区切っていない区間は集計に含まれない
+    series.record(Duration.ofMillis(500).toNanos());
+
+    LatencySummary actual = sut.summarize(1).getFirst();
+
+    assertThat(actual.getCount()).isEqualTo(1000);
+    assertThat(actual.getP50()).isCloseTo(50.0, within(1.0));
+    assertThat(actual.getP99()).isCloseTo(99.0, within(1.0));
+    assertThat(actual.getMax()).isCloseTo(100.0, within(1.0));
+  }
+
+  @Test
+  void 保持数を超えた古い区間は集計されないこと() {
+    LatencyRecorder.Series series = sut.series("test");
+    for (int interval = 0; interval < 3; interval++) {
+      series.record(1_000);
+      series.record(1_000);
+      sut.rotate();
+    }
+
+    assertThat(sut.summarize(10).getFirst().getCount()).isEqualTo(4);
+    assertThat(sut.summarize(1).getFirst().getCount()).isEqualTo(2);
+  }
+
+  @Test
+  void 記録できる最大値を超えた処理時間は最大値として記録されること() {
+    sut.series("test").record(Duration.ofSeconds(10).toNanos());
+    sut.rotate();
+
+    assertThat(sut.summarize(1).getFirst().getMax()).isCloseTo(1000.0, within(10.0));
+  }
+
+  @Test
+  void アスペクトでサービスのメソッドごとに処理時間が記録されること() {
+    StudentRepository repository = Mockito.mock(StudentRepository.class);
+    Mockito.when(repository.searchApplicationStatusList()).thenReturn(List.of());
+    AspectJProxyFactory factory = new AspectJProxyFactory(new StudentService(repository,
+        new StudentConverter(), Mockito.mock(ApplicationEventPublisher.class)));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new LatencyAspect(sut));
+    StudentService service = factory.getProxy();
+
+    service.getApplicationStatusList();
+    service.getApplicationStatusList();
+    sut.rotate();
+
+    assertThat(sut.summarize(1))
+        .extracting(LatencySummary::getName, LatencySummary::getCount)
+        .containsExactly(tuple(
+            "StudentService.getApplicationStatusList()", 2L));
+  }
+}
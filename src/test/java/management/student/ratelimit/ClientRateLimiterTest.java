@@ -0,0 +1,100 @@
+package management.student.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClientRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private SimpleMeterRegistry registry;
+  private RateLimitProperties properties;
+
+  @BeforeEach
+  void setUp() {
+    registry = new SimpleMeterRegistry();
+    properties = new RateLimitProperties();
+    properties.setCapacity(10);
+    properties.setRefillPerSecond(10);
+    properties.setMaxClients(2);
+  }
+
+  @Test
+  void 容量分のリクエストは許可され超過した場合に待ち時間が返ること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+
+    for (int i = 0; i < 10; i++) {
+      assertThat(sut.tryAcquire("client-a", 1)).isZero();
+    }
+    long waitNanos = sut.tryAcquire("client-a", 1);
+
+    // 1秒あたり10トークン補充されるので、次のトークンまでは100ミリ秒
+    assertThat(waitNanos).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    assertThat(registry.get("student.ratelimit.requests").tag("outcome", "allowed").counter()
+        .count()).isEqualTo(10);
+    assertThat(registry.get("student.ratelimit.requests").tag("outcome", "rejected").counter()
+        .count()).isEqualTo(1);
+  }
+
+  @Test
+  void 時間の経過でトークンが補充されること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+    assertThat(sut.tryAcquire("client-a", 10)).isZero();
+    assertThat(sut.tryAcquire("client-a", 1)).isPositive();
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(300));
+
+    assertThat(sut.tryAcquire("client-a", 3)).isZero();
+    assertThat(sut.tryAcquire("client-a", 1)).isPositive();
+  }
+
+  @Test
+  void クライアントごとに独立して制限されること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+    assertThat(sut.tryAcquire("client-a", 10)).isZero();
+
+    assertThat(sut.tryAcquire("client-a", 1)).isPositive();
+    assertThat(sut.tryAcquire("client-b", 1)).isZero();
+  }
+
+  @Test
+  void 容量を超えるコストは容量として扱われること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+
+    assertThat(sut.tryAcquire("client-a", 100)).isZero();
+    assertThat(sut.tryAcquire("client-a", 1)).isPositive();
+  }
+
+  @Test
+  void クライアント数の上限に達した場合はアイドルなバケットが破棄されること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+    sut.tryAcquire("client-a", 1);
+    sut.tryAcquire("client-b", 1);
+    assertThat(sut.size()).isEqualTo(2);
+
+    // 満杯に戻るまで時間を進める
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    assertThat(sut.tryAcquire("client-c", 1)).isZero();
+
+    assertThat(sut.size()).isEqualTo(1);
+    assertThat(registry.get("student.ratelimit.evicted").counter().count()).isEqualTo(2);
+  }
+
+  @Test
+  void クライアント数の上限に達し破棄できない場合は共有バケットが使われること() {
+    ClientRateLimiter sut = new ClientRateLimiter(properties, registry, clock::get);
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+    sut.tryAcquire("client-a", 5);
+    sut.tryAcquire("client-b", 5);
+
+    assertThat(sut.tryAcquire("client-c", 10)).isZero();
+    assertThat(sut.tryAcquire("client-d", 1)).isPositive();
+
+    assertThat(sut.size()).isEqualTo(2);
+    assertThat(registry.get("student.ratelimit.overflow").counter().count()).isEqualTo(2);
+  }
+}
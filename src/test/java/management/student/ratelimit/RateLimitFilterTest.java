@@ -0,0 +1,90 @@
+package management.student.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import management.student.ratelimit.RateLimitProperties.EndpointCost;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RateLimitFilterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+  private RateLimitFilter sut;
+
+  @BeforeEach
+  void setUp() {
+    RateLimitProperties properties = new RateLimitProperties();
+    properties.setCapacity(10);
+    properties.setRefillPerSecond(1);
+    EndpointCost listCost = new EndpointCost();
+    listCost.setMethod("GET");
+    listCost.setPattern("/students");
+    listCost.setCost(10);
+    properties.setEndpoints(List.of(listCost));
+    properties.setTrustedProxies(List.of("10.0.0.1"));
+    ClientRateLimiter limiter = new ClientRateLimiter(properties, new SimpleMeterRegistry(),
+        clock::get);
+    sut = new RateLimitFilter(limiter, properties);
+  }
+
+  @Test
+  void エンドポイントごとのコストが設定されること() {
+    assertThat(sut.resolveCost(new MockHttpServletRequest("GET", "/students"))).isEqualTo(10);
+    assertThat(sut.resolveCost(new MockHttpServletRequest("GET", "/students/1"))).isEqualTo(1);
+    assertThat(sut.resolveCost(new MockHttpServletRequest("POST", "/students"))).isEqualTo(1);
+  }
+
+  @Test
+  void ヘッダーが指定されていない場合は接続元アドレスでクライアントを識別すること() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/1");
+    request.setRemoteAddr("192.0.2.1");
+    assertThat(sut.resolveClientId(request)).isEqualTo("192.0.2.1");
+  }
+
+  @Test
+  void 信頼するプロキシ以外からのヘッダーは無視して接続元アドレスで識別すること() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/1");
+    request.setRemoteAddr("192.0.2.1");
+    request.addHeader("X-Client-Id", "integration-a");
+
+    assertThat(sut.resolveClientId(request)).isEqualTo("192.0.2.1");
+  }
+
+  @Test
+  void 信頼するプロキシからの接続はヘッダーでクライアントを識別すること() {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/1");
+    request.setRemoteAddr("10.0.0.1");
+    request.addHeader("X-Client-Id", "integration-a");
+
+    assertThat(sut.resolveClientId(request)).isEqualTo("integration-a");
+  }
+
+  @Test
+  void 制限を超えた場合に429とRetryAfterが返されること() throws Exception {
+    MockHttpServletResponse first = perform(new MockHttpServletRequest("GET", "/students"));
+    assertThat(first.getStatus()).isEqualTo(200);
+
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students/1");
+    MockFilterChain chain = new MockFilterChain();
+    MockHttpServletResponse second = new MockHttpServletResponse();
+    sut.doFilter(request, second, chain);
+
+    assertThat(second.getStatus()).isEqualTo(429);
+    assertThat(second.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+    // 後続の処理が呼び出されていないこと
+    assertThat(chain.getRequest()).isNull();
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    sut.doFilter(request, response, new MockFilterChain());
+    return response;
+  }
+}
@@ -0,0 +1,49 @@
+package management.student.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+class RateLimitPropertiesTest {
+
+  private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+      .withConfiguration(AutoConfigurations.of(ValidationAutoConfiguration.class))
+      .withUserConfiguration(PropertiesConfig.class);
+
+  @Test
+  void 容量と補充数が正の値であれば起動できること() {
+    contextRunner
+        .withPropertyValues("student.rate-limit.capacity=10",
+            "student.rate-limit.refill-per-second=0.5")
+        .run(context -> {
+          assertThat(context).hasNotFailed();
+          assertThat(context.getBean(RateLimitProperties.class).getRefillPerSecond())
+              .isEqualTo(0.5);
+        });
+  }
+
+  @Test
+  void 補充数が0の場合は起動に失敗すること() {
+    contextRunner
+        .withPropertyValues("student.rate-limit.refill-per-second=0")
+        .run(context -> assertThat(context).hasFailed());
+  }
+
+  @Test
+  void 容量が0以下の場合は起動に失敗すること() {
+    contextRunner
+        .withPropertyValues("student.rate-limit.capacity=-1")
+        .run(context -> assertThat(context).hasFailed());
+  }
+
+  @Configuration
+  @EnableConfigurationProperties(RateLimitProperties.class)
+  static class PropertiesConfig {
+
+  }
+}
@@ -0,0 +1,45 @@
+package management.student.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import management.student.data.CacheInvalidation;
+import management.student.data.CacheInvalidation.Target;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+
+@MybatisTest
+class CacheInvalidationRepositoryTest {
+
+  @Autowired
+  private CacheInvalidationRepository sut;
+
+  @Test
+  void 削除対象の記録がまとめて登録され指定したIDより後から検索できること() {
+    long latest = sut.searchLatestCacheInvalidationId();
+    sut.createCacheInvalidations(List.of(new CacheInvalidation(Target.STUDENT, 1),
+        new CacheInvalidation(Target.COURSE, 10), new CacheInvalidation(Target.ALL, null)));
+
+    List<CacheInvalidation> actual = sut.searchCacheInvalidationsAfter(latest, 10);
+
+    assertThat(actual).extracting(CacheInvalidation::getTarget)
+        .containsExactly(Target.STUDENT, Target.COURSE, Target.ALL);
+    assertThat(actual.get(2).getTargetId()).isNull();
+    assertThat(sut.searchLatestCacheInvalidationId()).isEqualTo(actual.getLast().getId());
+    assertThat(sut.searchCacheInvalidationsAfter(actual.getFirst().getId(), 1))
+        .extracting(CacheInvalidation::getTarget).containsExactly(Target.COURSE);
+  }
+
+  @Test
+  void 保持期間を過ぎた削除対象の記録が件数を区切って削除されること() {
+    long latest = sut.searchLatestCacheInvalidationId();
+    sut.createCacheInvalidations(List.of(new CacheInvalidation(Target.STUDENT, 1),
+        new CacheInvalidation(Target.STUDENT, 2)));
+
+    assertThat(sut.deleteCacheInvalidations(LocalDateTime.now().minusHours(1), 10)).isZero();
+    assertThat(sut.deleteCacheInvalidations(LocalDateTime.now().plusMinutes(1), 1)).isEqualTo(1);
+    assertThat(sut.searchCacheInvalidationsAfter(latest, 10)).hasSize(1);
+  }
+}
@@ -0,0 +1,152 @@
+package management.student.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+import management.student.data.IdempotencyRecord;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+
+@MybatisTest
+class IdempotencyRepositoryTest {
+
+  @Autowired
+  private IdempotencyRepository sut;
+
+  @Test
+  void 冪等キーの記録が処理中の状態で登録され検索できること() {
+    sut.createIdempotencyRecord(createRecord("key-1", LocalDateTime.now().plusHours(1)));
+
+    Optional<IdempotencyRecord> actual = sut.searchIdempotencyRecord("key-1");
+
+    assertThat(actual).isPresent();
+    assertThat(actual.get().getRequestHash()).isEqualTo("hash");
+    assertThat(actual.get().getStatusCode()).isNull();
+  }
+
+  @Test
+  void 同じ冪等キーを登録しようとすると例外が発生すること() {
+    sut.createIdempotencyRecord(createRecord("key-1", LocalDateTime.now().plusHours(1)));
+
+    assertThatThrownBy(
+        () -> sut.createIdempotencyRecord(createRecord("key-1", LocalDateTime.now())))
+        .isInstanceOf(DuplicateKeyException.class);
+  }
+
+  @Test
+  void 冪等キーの記録にレスポンスが設定できること() {
+    sut.createIdempotencyRecord(createRecord("key-1", LocalDateTime.now().plusHours(1)));
+    IdempotencyRecord completed = new IdempotencyRecord();
+    completed.setIdempotencyKey("key-1");
+    completed.setOwner("owner-1");
+    completed.setStatusCode(200);
+    completed.setResponseBody("{\"id\":1}");
+
+    assertThat(sut.completeIdempotencyRecord(completed)).isEqualTo(1);
+
+    IdempotencyRecord actual = sut.searchIdempotencyRecord("key-1").orElseThrow();
+    assertThat(actual.getStatusCode()).isEqualTo(200);
+    assertThat(actual.getResponseBody()).isEqualTo("{\"id\":1}");
+  }
+
+  @Test
+  void 処理中の予約の期限が切れた記録は新しいリクエストが引き継げること() {
+    IdempotencyRecord abandoned = createRecord("key-1", LocalDateTime.now().plusHours(1));
+    abandoned.setPendingUntil(LocalDateTime.now().minusSeconds(1));
+    sut.createIdempotencyRecord(abandoned);
+    IdempotencyRecord retry = createRecord("key-1", LocalDateTime.now().plusHours(1));
+    retry.setRequestHash("retry-hash");
+    retry.setPendingUntil(LocalDateTime.now().plusSeconds(30));
+    retry.setOwner("owner-2");
+
+    assertThat(sut.reclaimIdempotencyRecord(retry, LocalDateTime.now())).isEqualTo(1);
+    assertThat(sut.reclaimIdempotencyRecord(retry, LocalDateTime.now())).isZero();
+
+    IdempotencyRecord actual = sut.searchIdempotencyRecord("key-1").orElseThrow();
+    assertThat(actual.getRequestHash()).isEqualTo("retry-hash");
+    assertThat(actual.getStatusCode()).isNull();
+    assertThat(actual.getOwner()).isEqualTo("owner-2");
+  }
+
+  @Test
+  void 予約を引き継がれた後に元のリクエストが完了しても引き継いだ記録が上書きされないこと() {
+    IdempotencyRecord original = createRecord("key-1", LocalDateTime.now().plusHours(1));
+    original.setPendingUntil(LocalDateTime.now().minusSeconds(1));
+    sut.createIdempotencyRecord(original);
+    IdempotencyRecord retry = createRecord("key-1", LocalDateTime.now().plusHours(1));
+    retry.setPendingUntil(LocalDateTime.now().plusSeconds(30));
+    retry.setOwner("owner-2");
+    sut.reclaimIdempotencyRecord(retry, LocalDateTime.now());
+
+    original.setStatusCode(201);
+    original.setResponseBody("{\"id\":1}");
+    assertThat(sut.completeIdempotencyRecord(original)).isZero();
+    assertThat(sut.deleteIdempotencyRecord("key-1", "owner-1")).isZero();
+
+    IdempotencyRecord actual = sut.searchIdempotencyRecord("key-1").orElseThrow();
+    assertThat(actual.getOwner()).isEqualTo("owner-2");
+    assertThat(actual.getStatusCode()).isNull();
+    assertThat(actual.getPendingUntil()).isNotNull();
+
+    retry.setStatusCode(201);
+    retry.setResponseBody("{\"id\":2}");
+    assertThat(sut.completeIdempotencyRecord(retry)).isEqualTo(1);
+    assertThat(sut.searchIdempotencyRecord("key-1").orElseThrow().getResponseBody())
+        .isEqualTo("{\"id\":2}");
+  }
+
+  @Test
+  void 予約したリクエストの識別子が一致する記録のみが削除されること() {
+    sut.createIdempotencyRecord(createRecord("key-1", LocalDateTime.now().plusHours(1)));
+    IdempotencyRecord legacy = createRecord("key-2", LocalDateTime.now().plusHours(1));
+    legacy.setOwner(null);
+    sut.createIdempotencyRecord(legacy);
+
+    assertThat(sut.deleteIdempotencyRecord("key-1", "owner-2")).isZero();
+    assertThat(sut.deleteIdempotencyRecord("key-1", "owner-1")).isEqualTo(1);
+    assertThat(sut.deleteIdempotencyRecord("key-2", null)).isEqualTo(1);
+    assertThat(sut.searchIdempotencyRecord("key-1")).isEmpty();
+    assertThat(sut.searchIdempotencyRecord("key-2")).isEmpty();
+  }
+
+  @Test
+  void レスポンスが設定された記録は処理中の予約の期限に関係なく引き継げないこと() {
+    IdempotencyRecord record = createRecord("key-1", LocalDateTime.now().plusHours(1));
+    record.setPendingUntil(LocalDateTime.now().plusSeconds(30));
+    sut.createIdempotencyRecord(record);
+    record.setStatusCode(200);
+    record.setResponseBody("{\"id\":1}");
+    sut.completeIdempotencyRecord(record);
+
+    assertThat(sut.searchIdempotencyRecord("key-1").orElseThrow().getPendingUntil()).isNull();
+    assertThat(sut.reclaimIdempotencyRecord(
+        createRecord("key-1", LocalDateTime.now().plusHours(1)),
+        LocalDateTime.now().plusMinutes(1))).isZero();
+  }
+
+  @Test
+  void 有効期限切れの冪等キーの記録のみが削除されること() {
+    sut.createIdempotencyRecord(createRecord("expired-1", LocalDateTime.now().minusHours(1)));
+    sut.createIdempotencyRecord(createRecord("expired-2", LocalDateTime.now().minusHours(2)));
+    sut.createIdempotencyRecord(createRecord("active", LocalDateTime.now().plusHours(1)));
+
+    assertThat(sut.deleteExpiredIdempotencyRecords(LocalDateTime.now(), 1)).isEqualTo(1);
+    assertThat(sut.deleteExpiredIdempotencyRecords(LocalDateTime.now(), 1)).isEqualTo(1);
+    assertThat(sut.deleteExpiredIdempotencyRecords(LocalDateTime.now(), 1)).isZero();
+    assertThat(sut.searchIdempotencyRecord("active")).isPresent();
+  }
+
+  private IdempotencyRecord createRecord(String key, LocalDateTime expiresAt) {
+    IdempotencyRecord record = new IdempotencyRecord();
+    record.setIdempotencyKey(key);
+    record.setRequestHash("hash");
+    record.setCreatedAt(LocalDateTime.now());
+    record.setExpiresAt(expiresAt);
+    record.setOwner("owner-1");
+    return record;
+  }
+}
@@ -0,0 +1,212 @@
+package management.student.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentPatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * メモリ上のRepositoryに初期データと同じ内容を登録し、同じ操作をしたときにMyBatisのRepositoryと同じ結果になることを確認する
+ */
+@MybatisTest
+class InMemoryStudentRepositoryTest {
+
+  @Autowired
+  private StudentRepository database;
+
+  private InMemoryStudentRepository sut;
+
+  @BeforeEach
+  void before() {
+    sut = new InMemoryStudentRepository();
+    database.searchStudentList().forEach(sut::createStudent);
+    database.searchStudentCourseList().forEach(sut::createStudentCourse);
+    database.searchApplicationStatusList().forEach(sut::createApplicationStatus);
+  }
+
+  @Test
+  void 受講生コースと申込状況の検索結果がDBと同じであること() {
+    LocalDateTime from = LocalDateTime.of(2024, 8, 2, 0, 0);
+    LocalDateTime to = LocalDateTime.of(2024, 8, 6, 0, 0);
+
+    assertSame(repository -> repository.searchStudentCourseWithStatus(null));
+    assertSame(repository -> repository.searchStudentCourseWithStatus(2));
+    assertSame(repository -> repository.searchStudentCourseWithStatusPage(1, 1, 1));
+    assertSame(repository -> repository.searchStudentCourseByID(3));
+    assertSame(repository -> repository.searchStudentCoursesByEndDate(from, to, null, 0, 3));
+    assertSame(repository -> repository.searchStudentCoursesByEndDate(from, to,
+        LocalDateTime.of(2024, 8, 3, 10, 30), 5, 10));
+    assertSame(repository -> repository.searchStudentCourseWithStatusByEndDate(from, to, 4));
+  }
+
+  @Test
+  void 申込状況がない受講生コースは申込状況なしで検索されること() {
+    database.deleteApplicationStatus(1);
+    sut.deleteApplicationStatus(1);
+
+    assertSame(repository -> repository.searchStudentCourseWithStatus(1));
+    assertThat(sut.searchStudentCourseWithStatus(1).getFirst().getApplicationStatus()).isNull();
+  }
+
+  @Test
+  void 論理削除した受講生が検索結果に含まれないこと() {
+    assertSame(repository -> {
+      Student student = repository.searchStudentByID(2).orElseThrow();
+      student.setDeleteFlag(true);
+      repository.updateStudent(student);
+      return List.of(repository.searchStudentList(), repository.searchStudentByID(2),
+          repository.searchStudentsByIds(List.of(1, 2, 3, 999)));
+    });
+  }
+
+  @Test
+  void 部分更新で指定した項目だけが更新されること() {
+    StudentPatch patch = new StudentPatch();
+    patch.setNickname(null);
+    patch.setRemarks("備考を変更");
+
+    assertSame(repository -> List.of(repository.patchStudent(1, patch),
+        repository.patchStudent(999, patch), repository.searchStudentByID(1)));
+  }
+
+  @Test
+  void 申込状況の一括更新の件数と結果がDBと同じであること() {
+    assertSame(repository -> List.of(
+        repository.updateApplicationStatusByIds(List.of(1, 2, 3, 999), "仮申し込み", "本申込"),
+        repository.updateApplicationStatusByCourseIds(List.of(4, 7), null, "受講終了"),
+        repository.updateApplicationStatusByFilter("バックエンド開発", null, "受講中", null),
+        repository.searchApplicationStatusList()));
+  }
+
+  @Test
+  void 所有者を指定した受講生コースと申込状況の更新結果がDBと同じであること() {
+    assertSame(repository -> {
+      StudentCourse course = repository.searchStudentCourseByID(1).getFirst();
+      course.setCourseName("更新後のコース");
+      //受講生コース1は受講生1のもの、申込状況3は受講生コース3のもの
+      repository.updateStudentCourseOfStudent(course, 1);
+      repository.updateStudentCourseOfStudent(course, 2);
+      ApplicationStatus status = repository.searchApplicationStatusByID(3).orElseThrow();
+      status.setStatus("受講終了");
+      repository.updateApplicationStatusOfCourse(status, 1);
+      return List.of(repository.searchStudentCourseList(),
+          repository.searchApplicationStatusList());
+    });
+  }
+
+  @Test
+  void 件数を指定した条件指定の一括更新は件数分だけ更新されること() {
+    assertSame(repository -> List.of(
+        repository.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 2),
+        repository.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 2),
+        repository.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 2)));
+  }
+
+  @Test
+  void 登録した受講生コースと申込状況が結合して検索されること() {
+    Function<StudentRepository, List<StudentCourse>> create = repository -> {
+      Student student = newStudent("new@example.com");
+      repository.createStudent(student);
+      StudentCourse course = new StudentCourse();
+      course.setStudentId(student.getId());
+      course.setCourseName("AWS入門");
+      course.setStartDate(LocalDateTime.of(2024, 9, 1, 9, 0));
+      repository.createStudentCourse(course);
+      ApplicationStatus status = new ApplicationStatus();
+      status.setStudentCourseId(course.getId());
+      status.setStatus("仮申し込み");
+      repository.createApplicationStatus(status);
+      return repository.searchStudentCourseWithStatus(student.getId());
+    };
+
+    //DBの自動採番はロールバックしても戻らないため、IDは比較せずに初期データの続きであることを確認する
+    List<StudentCourse> expected = create.apply(database);
+    List<StudentCourse> actual = create.apply(sut);
+    assertThat(actual).usingRecursiveComparison()
+        .ignoringFields("id", "studentId", "applicationStatus.id",
+            "applicationStatus.studentCourseId")
+        .isEqualTo(expected);
+    assertThat(actual).extracting(StudentCourse::getStudentId).containsExactly(6);
+    assertThat(actual.getFirst().getId()).isEqualTo(11);
+    assertThat(actual.getFirst().getApplicationStatus().getId()).isEqualTo(11);
+    assertThat(actual.getFirst().getApplicationStatus().getStudentCourseId()).isEqualTo(11);
+  }
+
+  @Test
+  void 重複したメールアドレスや存在しない受講生への登録はDBと同じ例外になること() {
+    for (StudentRepository repository : List.of(database, sut)) {
+      assertThatThrownBy(() -> repository.createStudent(newStudent("taro.sato@example.com")))
+          .isInstanceOf(DataIntegrityViolationException.class);
+      StudentCourse course = new StudentCourse();
+      course.setStudentId(999);
+      course.setCourseName("AWS入門");
+      course.setStartDate(LocalDateTime.of(2024, 9, 1, 9, 0));
+      assertThatThrownBy(() -> repository.createStudentCourse(course))
+          .isInstanceOf(DataIntegrityViolationException.class);
+    }
+  }
+
+  @Test
+  void 検索結果を変更してもRepositoryの内容が変わらないこと() {
+    sut.searchStudentByID(1).orElseThrow().setName("変更 太郎");
+    sut.searchStudentCourseWithStatus(1).getFirst().getApplicationStatus().setStatus("受講中");
+
+    assertSame(repository -> repository.searchStudentCourseWithStatus(1));
+    assertThat(sut.searchStudentByID(1).orElseThrow().getName()).isEqualTo("佐藤 太郎");
+  }
+
+  @Test
+  void 複数のスレッドから同時に登録しても重複しないIDが採番されること() throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    try {
+      List<Future<Integer>> ids = IntStream.range(0, 200)
+          .mapToObj(i -> executor.submit(() -> {
+            Student student = newStudent("concurrent" + i + "@example.com");
+            sut.createStudent(student);
+            return student.getId();
+          }))
+          .toList();
+      List<Integer> actual = new ArrayList<>();
+      for (Future<Integer> id : ids) {
+        actual.add(id.get());
+      }
+
+      assertThat(actual).doesNotHaveDuplicates().allMatch(id -> id > 5 && id <= 205);
+      assertThat(sut.searchStudentList()).hasSize(205);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void assertSame(Function<StudentRepository, Object> operation) {
+    Object expected = operation.apply(database);
+    Object actual = operation.apply(sut);
+    assertThat(actual).usingRecursiveComparison().isEqualTo(expected);
+  }
+
+  private static Student newStudent(String email) {
+    Student student = new Student();
+    student.setName("新規 太郎");
+    student.setFurigana("しんき たろう");
+    student.setGender("male");
+    student.setEmail(email);
+    student.setRegion("東京");
+    return student;
+  }
+}
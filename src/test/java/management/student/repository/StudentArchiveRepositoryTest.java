@@ -0,0 +1,120 @@
+package management.student.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import javax.sql.DataSource;
+import management.student.data.Student;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@MybatisTest
+class StudentArchiveRepositoryTest {
+
+  @Autowired
+  private StudentArchiveRepository sut;
+
+  @Autowired
+  private StudentRepository studentRepository;
+
+  @Autowired
+  private DataSource dataSource;
+
+  private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void setUp() {
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @Test
+  void 論理削除された受講生のみがアーカイブ対象として検索されること() {
+    softDelete(2);
+    softDelete(4);
+
+    List<Integer> actual = sut.searchArchivableStudentIds(0, LocalDateTime.now().plusMinutes(1),
+        10);
+
+    assertThat(actual).containsExactly(2, 4);
+  }
+
+  @Test
+  void アーカイブ対象が前回の最後のIDより後ろから件数を指定して検索されること() {
+    softDelete(2);
+    softDelete(3);
+    softDelete(4);
+
+    List<Integer> actual = sut.searchArchivableStudentIds(2, LocalDateTime.now().plusMinutes(1),
+        1);
+
+    assertThat(actual).containsExactly(3);
+  }
+
+  @Test
+  void 指定した日時より後に論理削除された受講生はアーカイブ対象にならないこと() {
+    softDelete(2);
+
+    List<Integer> actual = sut.searchArchivableStudentIds(0, LocalDateTime.now().minusDays(1),
+        10);
+
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  void 論理削除された日時が記録されていない受講生はアーカイブ対象にならないこと() {
+    jdbcTemplate.update("UPDATE student SET delete_flag = 1, deleted_at = NULL WHERE id = 2");
+
+    List<Integer> actual = sut.searchArchivableStudentIds(0, LocalDateTime.now().plusMinutes(1),
+        10);
+
+    assertThat(actual).isEmpty();
+  }
+
+  @Test
+  void 論理削除されていない受講生はロックの対象にならないこと() {
+    softDelete(2);
+
+    List<Integer> actual = sut.lockArchivableStudents(List.of(1, 2));
+
+    assertThat(actual).containsExactly(2);
+  }
+
+  @Test
+  void 受講生と受講生コースと申込状況がアーカイブテーブルに移動されること() {
+    softDelete(2);
+    List<Integer> ids = List.of(2);
+
+    assertThat(sut.archiveApplicationStatuses(ids)).isEqualTo(2);
+    assertThat(sut.archiveStudentCourses(ids)).isEqualTo(2);
+    assertThat(sut.archiveStudents(ids)).isEqualTo(1);
+    assertThat(sut.deleteApplicationStatuses(ids)).isEqualTo(2);
+    assertThat(sut.deleteStudentCourses(ids)).isEqualTo(2);
+    assertThat(sut.deleteStudents(ids)).isEqualTo(1);
+
+    assertThat(count("student")).isEqualTo(4);
+    assertThat(count("student_courses")).isEqualTo(8);
+    assertThat(count("application_status")).isEqualTo(8);
+    assertThat(count("student_archive")).isEqualTo(1);
+    assertThat(count("student_courses_archive")).isEqualTo(2);
+    assertThat(count("application_status_archive")).isEqualTo(2);
+  }
+
+  /**
+   * 受講生を論理削除する
+   *
+   * @param id 受講生ID
+   */
+  private void softDelete(int id) {
+    Student student = studentRepository.searchStudentByID(id).orElseThrow();
+    student.setDeleteFlag(true);
+    studentRepository.updateStudent(student);
+  }
+
+  private int count(String table) {
+    return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+  }
+}
@@ -0,0 +1,320 @@
+package management.student.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import javax.sql.DataSource;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentPatch;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.scripting.defaults.DefaultParameterHandler;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * 受講生のRepositoryの各SQLの実行計画を検証する
+ * 件数の多いデータでEXPLAIN ANALYZEを実行し、想定したインデックスを使っていること（全件走査していないこと）と、
+ * 読み込んだ行数が上限以下であることを確認する
+ * SQLを追加した場合は、EXPECTATIONSに想定する実行計画を追加しないとテストが失敗する
+ */
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties =
+    "spring.datasource.url=jdbc:h2:mem:plan;MODE=MySQL;DB_CLOSE_DELAY=-1")
+class StudentRepositoryPlanTest {
+
+  private static final String NAMESPACE = StudentRepository.class.getName();
+  private static final int STUDENTS = 20_000;
+  private static final int COURSES_PER_STUDENT = 2;
+  //受講完了日の範囲検索の対象期間（約1年に分散させたうち1週間分、約800件）
+  private static final LocalDateTime END_FROM = LocalDateTime.of(2024, 6, 1, 0, 0);
+  private static final LocalDateTime END_TO = END_FROM.plusDays(7);
+
+  //H2の実行計画のコメント（/* PUBLIC.索引名: 条件 */ または /* PUBLIC.テーブル名.tableScan */）
+  private static final Pattern ACCESS = Pattern.compile(
+      "/\\* PUBLIC\\.(\\w+)(?:\\.(tableScan)|: ([^*]*))\\*/", Pattern.CASE_INSENSITIVE);
+  private static final Pattern SCAN_COUNT = Pattern.compile("scanCount: (\\d+)",
+      Pattern.CASE_INSENSITIVE);
+
+  private static final Map<String, Expectation> EXPECTATIONS = expectations();
+
+  private static boolean seeded;
+
+  @Autowired
+  private DataSource dataSource;
+
+  @Autowired
+  private SqlSessionFactory sqlSessionFactory;
+
+  @BeforeEach
+  void before() throws SQLException {
+    if (seeded) {
+      return;
+    }
+    //テストのトランザクションとは別の接続でコミットし、すべてのテストで同じデータを使う
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("INSERT INTO student (name, furigana, age, gender, nickname, email,"
+          + " region, phone_number, remarks, delete_flag)"
+          + " SELECT CONCAT('plan', X), 'ぷらん', 20 + MOD(X, 30), 'male', 'plan',"
+          + " CONCAT('plan', X, '@example.com'), CONCAT('region', MOD(X, 47)), '09000000000',"
+          + " '', CASE WHEN MOD(X, 10) = 0 THEN 1 ELSE 0 END"
+          + " FROM SYSTEM_RANGE(1, " + STUDENTS + ")");
+      statement.execute("INSERT INTO student_courses (student_id, course_name, start_date,"
+          + " end_date)"
+          + " SELECT s.id, CONCAT('course', MOD(s.id + c.X, 20)),"
+          + " DATEADD('DAY', -30, DATEADD('MINUTE', MOD(s.id * 7919 + c.X * 104729, 525600),"
+          + " TIMESTAMP '2024-01-01 00:00:00')),"
+          + " DATEADD('MINUTE', MOD(s.id * 7919 + c.X * 104729, 525600),"
+          + " TIMESTAMP '2024-01-01 00:00:00')"
+          + " FROM student s CROSS JOIN SYSTEM_RANGE(1, " + COURSES_PER_STUDENT + ") c"
+          + " WHERE s.email LIKE 'plan%'");
+      statement.execute("INSERT INTO application_status (student_course_id, status)"
+          + " SELECT sc.id, CASE MOD(sc.id, 4) WHEN 0 THEN '仮申し込み' WHEN 1 THEN '本申込'"
+          + " WHEN 2 THEN '受講中' ELSE '受講終了' END"
+          + " FROM student_courses sc"
+          + " WHERE NOT EXISTS (SELECT 1 FROM application_status a"
+          + " WHERE a.student_course_id = sc.id)");
+      //インデックスの選択に使う統計情報を更新する
+      statement.execute("ANALYZE");
+    }
+    seeded = true;
+  }
+
+  @Test
+  void すべてのSQLに想定する実行計画が定義されていること() {
+    List<String> statementIds = sqlSessionFactory.getConfiguration().getMappedStatementNames()
+        .stream()
+        .filter(name -> name.startsWith(NAMESPACE + ".") && !name.contains("!"))
+        .map(name -> name.substring(NAMESPACE.length() + 1))
+        .distinct()
+        .toList();
+
+    assertThat(EXPECTATIONS.keySet()).containsExactlyInAnyOrderElementsOf(statementIds);
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("statements")
+  void SQLが想定したインデックスを使い上限以下の行数だけを読み込むこと(String statementId,
+      Expectation expectation) throws SQLException {
+    String plan = explainAnalyze(statementId, expectation.parameter());
+    List<String> conditions = new ArrayList<>();
+    List<String> scannedTables = new ArrayList<>();
+    Matcher access = ACCESS.matcher(plan);
+    while (access.find()) {
+      if (access.group(2) != null) {
+        scannedTables.add(access.group(1));
+      } else {
+        conditions.add(access.group(3));
+      }
+    }
+    long scanned = 0;
+    Matcher scanCount = SCAN_COUNT.matcher(plan);
+    while (scanCount.find()) {
+      scanned += Long.parseLong(scanCount.group(1));
+    }
+
+    if (!expectation.fullRead()) {
+      assertThat(scannedTables).as("全件走査しているテーブル%n%s", plan).isEmpty();
+    }
+    for (String column : expectation.indexedColumns()) {
+      Pattern columnPattern = Pattern.compile("\\b" + column + "\\b",
+          Pattern.CASE_INSENSITIVE);
+      assertThat(conditions).as("%sで絞り込むインデックスの条件%n%s", column, plan)
+          .anyMatch(condition -> columnPattern.matcher(condition).find());
+    }
+    assertThat(scanned).as("読み込んだ行数%n%s", plan)
+        .isLessThanOrEqualTo(expectation.maxRowsScanned());
+  }
+
+  static Stream<Arguments> statements() {
+    return EXPECTATIONS.entrySet().stream()
+        .map(entry -> Arguments.of(entry.getKey(), entry.getValue()));
+  }
+
+  /**
+   * MyBatisが組み立てたSQLとパラメーターのままEXPLAIN ANALYZEを実行する
+   * 更新系のSQLも実際に実行されるが、テストのトランザクションでロールバックされる
+   *
+   * @param statementId 　ステートメントID
+   * @param parameter   　パラメーター
+   * @return 実行計画（引用符を除いたもの）
+   */
+  private String explainAnalyze(String statementId, Object parameter) throws SQLException {
+    MappedStatement mappedStatement = sqlSessionFactory.getConfiguration()
+        .getMappedStatement(NAMESPACE + "." + statementId);
+    BoundSql boundSql = mappedStatement.getBoundSql(parameter);
+    Connection connection = DataSourceUtils.getConnection(dataSource);
+    try (PreparedStatement statement = connection.prepareStatement(
+        "EXPLAIN ANALYZE " + boundSql.getSql())) {
+      new DefaultParameterHandler(mappedStatement, parameter, boundSql)
+          .setParameters(statement);
+      StringBuilder plan = new StringBuilder();
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          plan.append(resultSet.getString(1)).append('\n');
+        }
+      }
+      return plan.toString().replace("\"", "");
+    } finally {
+      DataSourceUtils.releaseConnection(connection, dataSource);
+    }
+  }
+
+  private static Map<String, Expectation> expectations() {
+    Map<String, Expectation> expectations = new LinkedHashMap<>();
+    //論理削除されていない受講生（全体の9/10）だけを論理削除フラグのインデックスで読む
+    expectations.put("searchStudentList",
+        new Expectation(null, List.of("DELETE_FLAG"), STUDENTS - STUDENTS / 10));
+    //一覧の取得は全件を読むため、実行できることだけを確認する
+    expectations.put("searchStudentCourseList", Expectation.fullRead(null));
+    expectations.put("searchApplicationStatusList", Expectation.fullRead(null));
+
+    expectations.put("searchStudentByID", new Expectation(123, List.of("ID"), 10));
+    expectations.put("searchStudentsByIds",
+        new Expectation(params("ids", ids(100)), List.of("ID"), 200));
+    expectations.put("searchStudentCourseByID", new Expectation(123, List.of("STUDENT_ID"), 10));
+    expectations.put("searchApplicationStatusByID", new Expectation(123, List.of("ID"), 10));
+    expectations.put("searchStudentCourseWithStatus",
+        new Expectation(params("studentId", 123), List.of("STUDENT_ID", "STUDENT_COURSE_ID"),
+            20));
+    expectations.put("searchStudentCourseWithStatusPage",
+        new Expectation(params("studentId", 123, "limit", 10, "offset", 0),
+            List.of("STUDENT_ID", "STUDENT_COURSE_ID"), 20));
+    expectations.put("searchStudentCoursesByEndDate",
+        new Expectation(params("endFrom", END_FROM, "endTo", END_TO,
+            "afterEndDate", END_FROM.plusDays(1), "afterId", 0, "limit", 500),
+            List.of("END_DATE"), 1_500));
+    expectations.put("searchStudentCourseWithStatusByEndDate",
+        new Expectation(params("endFrom", END_FROM, "endTo", END_TO, "limit", 100),
+            List.of("END_DATE", "STUDENT_COURSE_ID"), 3_000));
+
+    expectations.put("createStudent", new Expectation(student(), List.of(), 0));
+    expectations.put("createStudentCourse", new Expectation(course(), List.of(), 0));
+    expectations.put("createApplicationStatus", new Expectation(status(), List.of(), 0));
+
+    expectations.put("updateStudent", new Expectation(student(), List.of("ID"), 10));
+    expectations.put("patchStudent",
+        new Expectation(params("id", 123, "patch", patch()), List.of("ID"), 10));
+    expectations.put("updateStudentCourse", new Expectation(course(), List.of("ID"), 10));
+    expectations.put("updateApplicationStatus", new Expectation(status(), List.of("ID"), 10));
+    expectations.put("updateStudentCourseOfStudent",
+        new Expectation(params("course", course(), "studentId", 123), List.of("ID"), 10));
+    expectations.put("updateApplicationStatusOfCourse",
+        new Expectation(params("status", status(), "studentCourseId", 123), List.of("ID"), 10));
+    expectations.put("updateApplicationStatusByIds",
+        new Expectation(params("ids", ids(100), "currentStatus", null,
+            "targetStatus", "受講終了"), List.of("ID"), 200));
+    //現在のステータスで絞り込む場合（該当するのは全体の1/4だが、件数の上限に達した所で読むのをやめる）
+    expectations.put("updateApplicationStatusByFilter",
+        new Expectation(params("courseName", null, "currentStatus", "仮申し込み",
+            "targetStatus", "受講終了", "limit", 100), List.of("STATUS"), 200));
+    expectations.put("updateApplicationStatusByCourseIds",
+        new Expectation(params("courseIds", ids(100), "currentStatus", null,
+            "targetStatus", "受講終了"), List.of("STUDENT_COURSE_ID"), 200));
+    expectations.put("deleteApplicationStatus", new Expectation(123, List.of("ID"), 10));
+    return expectations;
+  }
+
+  private static Map<String, Object> params(Object... keyValues) {
+    Map<String, Object> params = new HashMap<>();
+    for (int i = 0; i < keyValues.length; i += 2) {
+      params.put((String) keyValues[i], keyValues[i + 1]);
+    }
+    return params;
+  }
+
+  private static List<Integer> ids(int count) {
+    return IntStream.rangeClosed(1, count).boxed().toList();
+  }
+
+  private static Student student() {
+    Student student = new Student();
+    student.setId(123);
+    student.setName("実行計画 太郎");
+    student.setFurigana("じっこうけいかく たろう");
+    student.setAge(30);
+    student.setGender("male");
+    student.setNickname("plan");
+    student.setEmail("explain@example.com");
+    student.setRegion("東京");
+    student.setPhoneNumber("09012345678");
+    student.setRemarks("");
+    return student;
+  }
+
+  private static StudentCourse course() {
+    StudentCourse course = new StudentCourse();
+    course.setId(123);
+    course.setStudentId(123);
+    course.setCourseName("course1");
+    course.setStartDate(END_FROM.minusDays(30));
+    course.setEndDate(END_FROM);
+    return course;
+  }
+
+  private static ApplicationStatus status() {
+    ApplicationStatus status = new ApplicationStatus();
+    status.setId(123);
+    status.setStudentCourseId(123);
+    status.setStatus("本申込");
+    return status;
+  }
+
+  private static StudentPatch patch() {
+    StudentPatch patch = new StudentPatch();
+    patch.setName("実行計画 次郎");
+    return patch;
+  }
+
+  /**
+   * 想定する実行計画
+   *
+   * @param parameter      　EXPLAINするときのパラメーター
+   * @param indexedColumns 　インデックスの条件に含まれるべき列（全件走査は許容しない）
+   * @param maxRowsScanned 　読み込む行数の上限
+   * @param fullRead       　全件を読むSQLの場合true（インデックスと行数は検証しない）
+   */
+  record Expectation(Object parameter, List<String> indexedColumns, long maxRowsScanned,
+                     boolean fullRead) {
+
+    Expectation(Object parameter, List<String> indexedColumns, long maxRowsScanned) {
+      this(parameter, indexedColumns, maxRowsScanned, false);
+    }
+
+    static Expectation fullRead(Object parameter) {
+      return new Expectation(parameter, List.of(), Long.MAX_VALUE, true);
+    }
+
+    @Override
+    public String toString() {
+      return fullRead ? "全件" : indexedColumns + " <= " + maxRowsScanned + "行";
+    }
+  }
+}
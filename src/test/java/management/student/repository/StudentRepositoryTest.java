@@ -9,6 +9,7 @@ import java.util.Optional;
 import management.student.data.ApplicationStatus;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
+import management.student.domain.StudentPatch;
 import org.h2.jdbc.JdbcSQLIntegrityConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
@@ -34,6 +35,48 @@ class StudentRepositoryTest {
     assertThat(actual.get().getId()).isEqualTo(1);
   }
 
+  @Test
+  void 受講生IDを複数指定して論理削除されていない受講生が検索できること() {
+    Student deleted = sut.searchStudentByID(2).orElseThrow();
+    deleted.setDeleteFlag(true);
+    sut.updateStudent(deleted);
+
+    List<Student> actual = sut.searchStudentsByIds(List.of(1, 2, 3, 999));
+
+    assertThat(actual).extracting(Student::getId).containsExactlyInAnyOrder(1, 3);
+  }
+
+  @Test
+  void 受講生コースと申込状況がページ単位で検索できること() {
+    List<StudentCourse> firstPage = sut.searchStudentCourseWithStatusPage(1, 1, 0);
+    List<StudentCourse> secondPage = sut.searchStudentCourseWithStatusPage(1, 2, 1);
+
+    assertThat(firstPage).extracting(StudentCourse::getId).containsExactly(1);
+    assertThat(firstPage.get(0).getApplicationStatus().getStatus()).isEqualTo("仮申し込み");
+    assertThat(secondPage).extracting(StudentCourse::getId).containsExactly(2);
+  }
+
+  @Test
+  void 同じ値のステータスとコース名が同じインスタンスで取得されること() {
+    //受講生1と2はどちらも「バックエンド開発」のコースがあり、受講生1と3はどちらも「本申込」がある
+    StudentCourse first = findCourse(sut.searchStudentCourseWithStatus(1), "バックエンド開発");
+    StudentCourse second = findCourse(sut.searchStudentCourseWithStatus(2), "バックエンド開発");
+    StudentCourse third = findCourse(sut.searchStudentCourseWithStatus(3), "Web開発基礎 ");
+
+    assertThat(second.getCourseName()).isSameAs(first.getCourseName());
+    assertThat(third.getApplicationStatus().getStatus())
+        .isSameAs(first.getApplicationStatus().getStatus());
+    assertThat(sut.searchStudentByID(2).orElseThrow().getGender())
+        .isSameAs(sut.searchStudentByID(1).orElseThrow().getGender());
+  }
+
+  private static StudentCourse findCourse(List<StudentCourse> courses, String courseName) {
+    return courses.stream()
+        .filter(course -> course.getCourseName().equals(courseName))
+        .findFirst()
+        .orElseThrow();
+  }
+
   @Test
   void 受講生が正常に登録されること() {
     //受講生情報設定
@@ -81,6 +124,43 @@ class StudentRepositoryTest {
 
   }
 
+  @Test
+  void 受講生の部分更新で指定された項目だけが更新されること() {
+    Student before = sut.searchStudentByID(1).orElseThrow();
+    StudentPatch patch = new StudentPatch();
+    patch.setName("佐藤 一郎");
+    patch.setNickname(null);
+
+    int actual = sut.patchStudent(1, patch);
+
+    assertThat(actual).isEqualTo(1);
+    Student after = sut.searchStudentByID(1).orElseThrow();
+    assertThat(after.getName()).isEqualTo("佐藤 一郎");
+    assertThat(after.getNickname()).isNull();
+    assertThat(after)
+        .usingRecursiveComparison()
+        .ignoringFields("name", "nickname")
+        .isEqualTo(before);
+  }
+
+  @Test
+  void 受講生の部分更新で論理削除できること() {
+    StudentPatch patch = new StudentPatch();
+    patch.setDeleteFlag(true);
+
+    sut.patchStudent(2, patch);
+
+    assertThat(sut.searchStudentByID(2)).isEmpty();
+  }
+
+  @Test
+  void 存在しない受講生の部分更新で更新件数が0件になること() {
+    StudentPatch patch = new StudentPatch();
+    patch.setAge(30);
+
+    assertThat(sut.patchStudent(999, patch)).isZero();
+  }
+
   @Test
   void 存在しない受講生IDで検索時に空の結果が返ること() {
     Optional<Student> actual = sut.searchStudentByID(999);
@@ -162,6 +242,35 @@ class StudentRepositoryTest {
     assertThat(actual.getFirst().getCourseName()).isEqualTo("Updated Course");
   }
 
+  @Test
+  void 受講生を指定した受講生コースの更新は指定した受講生のコースだけが更新されること() {
+    StudentCourse course = sut.searchStudentCourseByID(1).getFirst();
+    String originalName = course.getCourseName();
+    course.setCourseName("Updated Course");
+    // 他の受講生を指定して実行
+    sut.updateStudentCourseOfStudent(course, 2);
+    assertThat(sut.searchStudentCourseByID(1).getFirst().getCourseName())
+        .isEqualTo(originalName);
+    // 受講生を指定して実行
+    sut.updateStudentCourseOfStudent(course, 1);
+    assertThat(sut.searchStudentCourseByID(1).getFirst().getCourseName())
+        .isEqualTo("Updated Course");
+  }
+
+  @Test
+  void 受講生コースを指定した申込状況の更新は指定した受講生コースの申込状況だけが更新されること() {
+    ApplicationStatus status = sut.searchApplicationStatusByID(1).orElseThrow();
+    status.setStatus("受講終了");
+    // 他の受講生コースを指定して実行
+    sut.updateApplicationStatusOfCourse(status, 2);
+    assertThat(sut.searchApplicationStatusByID(1).orElseThrow().getStatus())
+        .isEqualTo("仮申し込み");
+    // 受講生コースを指定して実行
+    sut.updateApplicationStatusOfCourse(status, 1);
+    assertThat(sut.searchApplicationStatusByID(1).orElseThrow().getStatus())
+        .isEqualTo("受講終了");
+  }
+
   @Test
   void 存在しない受講生IDで受講生コースを検索時に空の結果が返ること() {
     List<StudentCourse> actual = sut.searchStudentCourseByID(999);
@@ -271,5 +380,73 @@ class StudentRepositoryTest {
     assertThat(afterList.size()).isEqualTo(applicationStatusList.size() - 1);
   }
 
+  @Test
+  void 受講完了日の範囲で受講生コースが受講完了日とIDの順に続きから検索できること() {
+    LocalDateTime endFrom = LocalDateTime.of(2024, 8, 1, 0, 0);
+    LocalDateTime endTo = LocalDateTime.of(2024, 8, 3, 0, 0);
+    // 実行
+    List<StudentCourse> first = sut.searchStudentCoursesByEndDate(endFrom, endTo, null, 0, 2);
+    StudentCourse last = first.getLast();
+    List<StudentCourse> second = sut.searchStudentCoursesByEndDate(endFrom, endTo,
+        last.getEndDate(), last.getId(), 2);
+    List<StudentCourse> third = sut.searchStudentCoursesByEndDate(endFrom, endTo,
+        second.getLast().getEndDate(), second.getLast().getId(), 2);
+    // 検証
+    assertThat(first).extracting(StudentCourse::getId).containsExactly(1, 3);
+    assertThat(second).extracting(StudentCourse::getId).containsExactly(2, 4);
+    assertThat(third).isEmpty();
+  }
+
+  @Test
+  void 受講完了日の範囲で受講生コースと申込状況が検索できること() {
+    // 実行
+    List<StudentCourse> actual = sut.searchStudentCourseWithStatusByEndDate(
+        LocalDateTime.of(2024, 8, 1, 0, 0), LocalDateTime.of(2024, 8, 2, 0, 0), 10);
+    // 検証
+    assertThat(actual).extracting(StudentCourse::getId).containsExactly(1, 3);
+    assertThat(actual.getFirst().getApplicationStatus().getStatus()).isEqualTo("仮申し込み");
+  }
+
+  @Test
+  void 申込状況が受講生コースIDと現在のステータスを指定して一括更新できること() {
+    // 実行
+    int actual = sut.updateApplicationStatusByCourseIds(List.of(1, 2, 3, 4), "仮申し込み",
+        "期限切れ");
+    // 検証
+    assertThat(actual).isEqualTo(2);
+    assertThat(sut.searchApplicationStatusList())
+        .filteredOn(status -> "期限切れ".equals(status.getStatus()))
+        .extracting(ApplicationStatus::getStudentCourseId)
+        .containsExactlyInAnyOrder(1, 3);
+  }
+
+  @Test
+  void 申込状況がID指定で一括更新できること() {
+    // 実行
+    int actual = sut.updateApplicationStatusByIds(List.of(1, 2, 3), "仮申し込み", "本申込");
+    // 仮申し込みのID1と3のみ更新されていることを検証
+    assertThat(actual).isEqualTo(2);
+    assertThat(sut.searchApplicationStatusByID(1).get().getStatus()).isEqualTo("本申込");
+    assertThat(sut.searchApplicationStatusByID(3).get().getStatus()).isEqualTo("本申込");
+  }
+
+  @Test
+  void 申込状況がコース名と現在のステータスを指定して一括更新できること() {
+    // 実行
+    int actual = sut.updateApplicationStatusByFilter("バックエンド開発", "仮申し込み", "本申込",
+        null);
+    // 検証
+    assertThat(actual).isEqualTo(1);
+    assertThat(sut.searchApplicationStatusByID(3).get().getStatus()).isEqualTo("本申込");
+    assertThat(sut.searchApplicationStatusByID(8).get().getStatus()).isEqualTo("受講終了");
+  }
+
+  @Test
+  void 申込状況の条件指定の一括更新が件数を区切って実行できること() {
+    // 仮申し込みは4件
+    assertThat(sut.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 3)).isEqualTo(3);
+    assertThat(sut.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 3)).isEqualTo(1);
+    assertThat(sut.updateApplicationStatusByFilter(null, "仮申し込み", "本申込", 3)).isZero();
+  }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,92 @@
+package management.student.repository.handler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+import management.student.converter.StudentConverter;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * /students の一覧取得で保持される受講生詳細のヒープ使用量を、文字列をまとめない場合とまとめた場合で比較する
+ * JDBCドライバが行ごとに新しい文字列を返す状態を new String で再現する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class InternedStringMemoryBenchmark {
+
+  private static final String[] GENDERS = {"male", "female", "other"};
+  private static final String[] REGIONS = {"東京", "大阪", "福岡", "北海道", "沖縄"};
+  private static final String[] COURSE_NAMES = {"Javaプログラミング基礎", "バックエンド開発",
+      "データサイエンス入門", "Web開発基礎", "Pythonプログラミング"};
+  private static final String[] STATUSES = {"仮申し込み", "本申込", "受講中", "受講終了"};
+
+  private final StudentConverter converter = new StudentConverter();
+
+  @Test
+  void 十万人の受講生詳細のヒープ使用量を比較する() {
+    compare(100_000, 4);
+  }
+
+  private void compare(int studentCount, int coursesPerStudent) {
+    long plainBytes = retainedBytes(studentCount, coursesPerStudent, String::new);
+    StringInterner interner = new StringInterner(4096, 64);
+    long internedBytes = retainedBytes(studentCount, coursesPerStudent,
+        value -> interner.intern(new String(value)));
+    System.out.printf("InternedString students=%d courses=%d plain=%.1fMB interned=%.1fMB "
+            + "reduction=%.1f%%%n", studentCount, studentCount * coursesPerStudent,
+        plainBytes / 1e6, internedBytes / 1e6, 100.0 * (plainBytes - internedBytes) / plainBytes);
+  }
+
+  private long retainedBytes(int studentCount, int coursesPerStudent,
+      UnaryOperator<String> column) {
+    long before = usedHeap();
+    List<StudentDetail> details = load(studentCount, coursesPerStudent, column);
+    long after = usedHeap();
+    if (details.size() != studentCount) {
+      throw new IllegalStateException();
+    }
+    return after - before;
+  }
+
+  private List<StudentDetail> load(int studentCount, int coursesPerStudent,
+      UnaryOperator<String> column) {
+    List<Student> students = new ArrayList<>(studentCount);
+    List<StudentCourse> courses = new ArrayList<>(studentCount * coursesPerStudent);
+    for (int i = 1; i <= studentCount; i++) {
+      Student student = new Student();
+      student.setId(i);
+      student.setName("受講生" + i);
+      student.setGender(column.apply(GENDERS[i % GENDERS.length]));
+      student.setRegion(column.apply(REGIONS[i % REGIONS.length]));
+      students.add(student);
+      for (int j = 0; j < coursesPerStudent; j++) {
+        StudentCourse course = new StudentCourse();
+        course.setId(i * coursesPerStudent + j);
+        course.setStudentId(i);
+        course.setCourseName(column.apply(COURSE_NAMES[(i + j) % COURSE_NAMES.length]));
+        ApplicationStatus status = new ApplicationStatus();
+        status.setId(course.getId());
+        status.setStudentCourseId(course.getId());
+        status.setStatus(column.apply(STATUSES[(i + j) % STATUSES.length]));
+        course.setApplicationStatus(status);
+        courses.add(course);
+      }
+    }
+    return converter.convertStudentDetails(students, courses);
+  }
+
+  private static long usedHeap() {
+    MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+    }
+    return memory.getHeapMemoryUsage().getUsed();
+  }
+}
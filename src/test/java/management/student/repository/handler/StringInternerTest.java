@@ -0,0 +1,32 @@
+package management.student.repository.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class StringInternerTest {
+
+  @Test
+  void 同じ値の文字列が同じインスタンスにまとめられること() {
+    StringInterner sut = new StringInterner(10, 64);
+
+    String first = sut.intern(new String("本申込"));
+    String second = sut.intern(new String("本申込"));
+
+    assertThat(second).isSameAs(first);
+    assertThat(sut.size()).isEqualTo(1);
+  }
+
+  @Test
+  void 上限を超えた値や長い値はまとめずにそのまま返されること() {
+    StringInterner sut = new StringInterner(1, 5);
+    sut.intern("東京");
+    String overCapacity = new String("大阪");
+    String tooLong = new String("とても長いコース名");
+
+    assertThat(sut.intern(overCapacity)).isSameAs(overCapacity);
+    assertThat(sut.intern(tooLong)).isSameAs(tooLong);
+    assertThat(sut.intern(null)).isNull();
+    assertThat(sut.size()).isEqualTo(1);
+  }
+}
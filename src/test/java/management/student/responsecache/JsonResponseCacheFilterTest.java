@@ -0,0 +1,134 @@
+package management.student.responsecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+import management.student.analytics.RosterChangedEvent;
+import management.student.service.StudentWriteCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class JsonResponseCacheFilterTest {
+
+  private StudentWriteCounter writeCounter;
+  private JsonResponseCacheFilter sut;
+  private AtomicInteger executionCount;
+  private int responseStatus;
+  private Runnable duringRequest;
+
+  @BeforeEach
+  void before() {
+    writeCounter = new StudentWriteCounter();
+    sut = new JsonResponseCacheFilter(new JsonResponseCache(writeCounter,
+        new ResponseCacheProperties(), new SimpleMeterRegistry(), System::nanoTime));
+    executionCount = new AtomicInteger();
+    responseStatus = 200;
+    duringRequest = () -> {
+    };
+  }
+
+  @Test
+  void 同じクエリの2回目はコントローラーを呼び出さずに同じレスポンスを返すこと() throws Exception {
+    MockHttpServletResponse first = perform(createRequest("include", "courses"));
+    MockHttpServletResponse second = perform(createRequest("include", "courses"));
+
+    assertThat(executionCount.get()).isEqualTo(1);
+    assertThat(first.getHeader(JsonResponseCacheFilter.CACHE_HEADER)).isEqualTo("miss");
+    assertThat(second.getHeader(JsonResponseCacheFilter.CACHE_HEADER)).isEqualTo("hit");
+    assertThat(second.getStatus()).isEqualTo(200);
+    assertThat(second.getContentType()).isEqualTo("application/json");
+    assertThat(second.getContentAsByteArray()).isEqualTo(first.getContentAsByteArray());
+  }
+
+  @Test
+  void クエリパラメータが異なる場合は別々に保持すること() throws Exception {
+    perform(createRequest("include", "courses"));
+    perform(createRequest(null, null));
+    perform(createRequest("include", "courses"));
+    perform(createRequest(null, null));
+
+    assertThat(executionCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  void 更新がコミットされた後はコントローラーを呼び出し直すこと() throws Exception {
+    perform(createRequest(null, null));
+    writeCounter.onRosterChanged(RosterChangedEvent.builder().build());
+
+    MockHttpServletResponse actual = perform(createRequest(null, null));
+
+    assertThat(executionCount.get()).isEqualTo(2);
+    assertThat(actual.getHeader(JsonResponseCacheFilter.CACHE_HEADER)).isEqualTo("miss");
+  }
+
+  @Test
+  void 共有された検索結果がレスポンスの作成前の値より古い場合は保持しないこと() throws Exception {
+    writeCounter.onRosterChanged(RosterChangedEvent.builder().build());
+    //更新のコミット前に始まった検索の結果を共有した状態にする
+    duringRequest = () -> writeCounter.recordRead(0);
+    perform(createRequest(null, null));
+    duringRequest = () -> {
+    };
+
+    MockHttpServletResponse actual = perform(createRequest(null, null));
+
+    assertThat(executionCount.get()).isEqualTo(2);
+    assertThat(actual.getHeader(JsonResponseCacheFilter.CACHE_HEADER)).isEqualTo("miss");
+  }
+
+  @Test
+  void 成功以外のレスポンスは保持しないこと() throws Exception {
+    responseStatus = 500;
+    perform(createRequest(null, null));
+    responseStatus = 200;
+    perform(createRequest(null, null));
+
+    assertThat(executionCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  void パラメータの順番が異なるだけのリクエストは同じキーになること() {
+    MockHttpServletRequest request = createRequest("include", "courses,profile");
+    MockHttpServletRequest reordered = createRequest("include", "profile");
+    reordered.addParameter("include", "courses");
+
+    assertThat(JsonResponseCacheFilter.key(reordered))
+        .isEqualTo(JsonResponseCacheFilter.key(request))
+        .isEqualTo("/students?include=courses,profile");
+  }
+
+  private MockHttpServletRequest createRequest(String name, String value) {
+    MockHttpServletRequest request = new MockHttpServletRequest("GET", "/students");
+    if (name != null) {
+      request.addParameter(name, value);
+    }
+    return request;
+  }
+
+  private MockHttpServletResponse perform(MockHttpServletRequest request) throws Exception {
+    MockHttpServletResponse response = new MockHttpServletResponse();
+    HttpServlet servlet = new HttpServlet() {
+      @Override
+      protected void service(HttpServletRequest req, HttpServletResponse resp)
+          throws IOException {
+        int count = executionCount.incrementAndGet();
+        duringRequest.run();
+        resp.setStatus(responseStatus);
+        resp.setContentType("application/json");
+        resp.getOutputStream().write(("[{\"count\":" + count + "}]")
+            .getBytes(StandardCharsets.UTF_8));
+      }
+    };
+    sut.doFilter(request, response, new MockFilterChain(servlet));
+    return response;
+  }
+}
@@ -0,0 +1,126 @@
+package management.student.responsecache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import management.student.analytics.RosterChangedEvent;
+import management.student.service.StudentWriteCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class JsonResponseCacheTest {
+
+  private static final byte[] BODY = "[{\"student\":{\"name\":\"佐藤 太郎\"}}]"
+      .getBytes(StandardCharsets.UTF_8);
+
+  private StudentWriteCounter writeCounter;
+  private ResponseCacheProperties properties;
+  private AtomicLong now;
+
+  @BeforeEach
+  void before() {
+    writeCounter = new StudentWriteCounter();
+    properties = new ResponseCacheProperties();
+    now = new AtomicLong();
+  }
+
+  @Test
+  void 保持したレスポンスが同じバイト列で取得できること() throws IOException {
+    JsonResponseCache sut = createCache();
+
+    sut.put("/students?", sut.version(), "application/json", BODY);
+
+    JsonResponseCache.Entry actual = sut.get("/students?");
+    assertThat(actual.getContentType()).isEqualTo("application/json");
+    assertThat(actual.getLength()).isEqualTo(BODY.length);
+    assertThat(written(actual)).isEqualTo(BODY);
+  }
+
+  @Test
+  void ヒープ外に保持した場合も同じバイト列を何度でも書き込めること() throws IOException {
+    properties.setOffHeap(true);
+    JsonResponseCache sut = createCache();
+
+    sut.put("/students?", sut.version(), "application/json", BODY);
+
+    JsonResponseCache.Entry actual = sut.get("/students?");
+    assertThat(written(actual)).isEqualTo(BODY);
+    assertThat(written(actual)).isEqualTo(BODY);
+    assertThat(sut.totalBytes()).isEqualTo(BODY.length);
+  }
+
+  @Test
+  void 保持した後に更新がコミットされた場合は取得できず削除されること() {
+    JsonResponseCache sut = createCache();
+    sut.put("/students?", sut.version(), "application/json", BODY);
+
+    writeCounter.onRosterChanged(RosterChangedEvent.builder().build());
+
+    assertThat(sut.get("/students?")).isNull();
+    assertThat(sut.size()).isZero();
+    assertThat(sut.totalBytes()).isZero();
+  }
+
+  @Test
+  void レスポンスの作成中に更新された場合は保持しないこと() {
+    JsonResponseCache sut = createCache();
+    long version = sut.version();
+
+    writeCounter.onRosterChanged(RosterChangedEvent.builder().build());
+    sut.put("/students?", version, "application/json", BODY);
+
+    assertThat(sut.size()).isZero();
+  }
+
+  @Test
+  void 件数とサイズの上限を超える場合は保持しないこと() {
+    properties.setMaxEntries(2);
+    properties.setMaxSize(DataSize.ofBytes(BODY.length * 3L));
+    JsonResponseCache sut = createCache();
+
+    sut.put("/students?", sut.version(), "application/json", BODY);
+    sut.put("/students?include=courses", sut.version(), "application/json", BODY);
+    sut.put("/students?include=other", sut.version(), "application/json", BODY);
+    sut.put("/students?", sut.version(), "application/json", new byte[BODY.length * 2]);
+
+    assertThat(sut.size()).isEqualTo(2);
+    assertThat(sut.get("/students?include=other")).isNull();
+    assertThat(sut.totalBytes()).isEqualTo(BODY.length * 2L);
+  }
+
+  @Test
+  void 保持する最大時間を過ぎた場合は取得できないこと() {
+    properties.setMaxAge(Duration.ofSeconds(5));
+    JsonResponseCache sut = createCache();
+    sut.put("/students?", sut.version(), "application/json", BODY);
+
+    now.addAndGet(Duration.ofSeconds(4).toNanos());
+    assertThat(sut.get("/students?")).isNotNull();
+    now.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(sut.get("/students?")).isNull();
+  }
+
+  @Test
+  void 保持する最大時間が0の場合は作成できないこと() {
+    properties.setMaxAge(Duration.ZERO);
+
+    assertThatThrownBy(this::createCache).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private JsonResponseCache createCache() {
+    return new JsonResponseCache(writeCounter, properties, new SimpleMeterRegistry(), now::get);
+  }
+
+  private static byte[] written(JsonResponseCache.Entry entry) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    entry.writeTo(out);
+    return out.toByteArray();
+  }
+}
@@ -0,0 +1,111 @@
+package management.student.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import management.student.exception.StudentBizException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+class SingleFlightTest {
+
+  private final SingleFlight<Integer, String> sut = new SingleFlight<>();
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void 同じキーで同時に呼び出された場合に読み込みが1回だけ行われ結果が共有されること()
+      throws Exception {
+    AtomicInteger loadCount = new AtomicInteger();
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    // 1つ目の呼び出しで読み込みを止めておく
+    Future<String> first = executor.submit(() -> sut.execute(1, () -> {
+      loadCount.incrementAndGet();
+      loading.countDown();
+      await(release);
+      return "student-1";
+    }));
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+    List<Future<String>> followers = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      followers.add(executor.submit(() -> sut.execute(1, () -> {
+        loadCount.incrementAndGet();
+        return "duplicated";
+      })));
+    }
+    // 後続の呼び出しが実行中の読み込みを待っている状態にする
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("student-1");
+    for (Future<String> follower : followers) {
+      assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("student-1");
+    }
+    assertThat(loadCount.get()).isEqualTo(1);
+    assertThat(sut.inFlightCount()).isZero();
+  }
+
+  @Test
+  void 異なるキーの場合はそれぞれ読み込まれること() {
+    AtomicInteger loadCount = new AtomicInteger();
+
+    assertThat(sut.execute(1, () -> "a" + loadCount.incrementAndGet())).isEqualTo("a1");
+    assertThat(sut.execute(2, () -> "b" + loadCount.incrementAndGet())).isEqualTo("b2");
+  }
+
+  @Test
+  void 読み込みが完了した後の呼び出しでは再度読み込まれること() {
+    AtomicInteger loadCount = new AtomicInteger();
+
+    sut.execute(1, () -> "a" + loadCount.incrementAndGet());
+    String actual = sut.execute(1, () -> "a" + loadCount.incrementAndGet());
+
+    assertThat(actual).isEqualTo("a2");
+  }
+
+  @Test
+  void 読み込みで発生した例外が待機中の呼び出しにもスローされること() throws Exception {
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    StudentBizException notFound = new StudentBizException("Student with ID 1 not found",
+        HttpStatus.NOT_FOUND);
+
+    Future<String> first = executor.submit(() -> sut.execute(1, () -> {
+      loading.countDown();
+      await(release);
+      throw notFound;
+    }));
+    assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+    Future<String> follower = executor.submit(() -> sut.execute(1, () -> "duplicated"));
+    Thread.sleep(100);
+    release.countDown();
+
+    assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCause(notFound);
+    assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS)).hasCause(notFound);
+    assertThat(sut.inFlightCount()).isZero();
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package management.student.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.StudentDetail;
+import management.student.repository.StudentBatchSession;
+import management.student.repository.StudentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * 一括更新をH2のDBに対して実行し、MyBatisのBATCHのセッション、セーブポイントまでの取り消し、
+ * 要素ごとのエラーが組み合わさった動作を確認する
+ * 同じトランザクションでは通常のMapperを混在させられないため、確認の検索もバッチのセッションで行う
+ */
+@SpringBootTest
+@Transactional
+class StudentBatchServiceDatabaseTest {
+
+  @Autowired
+  private StudentBatchService sut;
+
+  @Autowired
+  private StudentBatchSession batchSession;
+
+  private StudentRepository repository;
+
+  @BeforeEach
+  void before() {
+    repository = batchSession.getRepository();
+  }
+
+  @Test
+  void 受講生と受講生コースと申込状況がまとめて更新されること() {
+    StudentDetail first = createUpdate(1, "更新 太郎");
+    first.setStudentCourseList(List.of(createCourse(1, "Java応用", 1, "受講中")));
+    StudentDetail second = createUpdate(2, "更新 次郎");
+    second.setStudentCourseList(List.of(createCourse(3, "Spring入門", 3, "本申込")));
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(first, second));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(2);
+    assertThat(actual.getErrors()).isEmpty();
+    assertThat(repository.searchStudentsByIds(List.of(1, 2))).extracting(Student::getName)
+        .containsExactly("更新 太郎", "更新 次郎");
+    //入力していない値は元の値のまま
+    assertThat(repository.searchStudentByID(1).orElseThrow().getRegion()).isEqualTo("東京");
+    assertThat(repository.searchStudentCourseWithStatus(1).getFirst().getCourseName())
+        .isEqualTo("Java応用");
+    assertThat(repository.searchApplicationStatusByID(3).orElseThrow().getStatus())
+        .isEqualTo("本申込");
+  }
+
+  @Test
+  void 他の受講生の受講生コースを指定した要素はセーブポイントまで取り消され他の要素が更新されること() {
+    //受講生コース3は受講生2のもの
+    StudentDetail notOwned = createUpdate(1, "更新 太郎");
+    notOwned.setStudentCourseList(List.of(createCourse(3, "Spring入門", 3, "本申込")));
+    StudentDetail owned = createUpdate(2, "更新 次郎");
+    owned.setStudentCourseList(List.of(createCourse(4, "データ分析", 4, "受講終了")));
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(notOwned, owned));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(0);
+    assertThat(actual.getErrors().getFirst().getMessages())
+        .containsExactly("studentCourseList[0].id: 受講生コースID 3 は受講生 1 のものではありません");
+    assertThat(repository.searchStudentByID(1).orElseThrow().getName()).isEqualTo("佐藤 太郎");
+    assertThat(repository.searchStudentByID(2).orElseThrow().getName()).isEqualTo("更新 次郎");
+    assertThat(repository.searchApplicationStatusByID(3).orElseThrow().getStatus())
+        .isEqualTo("仮申し込み");
+    assertThat(repository.searchApplicationStatusByID(4).orElseThrow().getStatus())
+        .isEqualTo("受講終了");
+  }
+
+  @Test
+  void SQLが失敗した要素と受講生コースがnullの要素はエラーとなり他の要素が更新されること() {
+    //受講生1のメールアドレスと重複するため、受講生2の更新は一意制約の違反で失敗する
+    StudentDetail duplicated = createUpdate(2, "更新 次郎");
+    duplicated.getStudent().setEmail("taro.sato@example.com");
+    StudentDetail nullCourse = createUpdate(3, "更新 花子");
+    nullCourse.setStudentCourseList(Arrays.asList((StudentCourse) null));
+    //実行
+    BatchUpdateResult actual = sut.update(
+        List.of(createUpdate(1, "更新 太郎"), duplicated, nullCourse, createUpdate(4, "更新 三郎")));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(2);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(1, 2);
+    assertThat(actual.getErrors().get(0).getMessages())
+        .containsExactly("Student with ID 2 could not be updated");
+    assertThat(actual.getErrors().get(1).getMessages())
+        .containsExactly("studentCourseList[0]: 受講生コースを指定してください");
+    assertThat(repository.searchStudentsByIds(List.of(1, 2, 3, 4))).extracting(Student::getName)
+        .containsExactly("更新 太郎", "鈴木 次郎", "田中 花子", "更新 三郎");
+  }
+
+  private StudentDetail createUpdate(int id, String name) {
+    Student student = new Student();
+    student.setId(id);
+    student.setName(name);
+    return new StudentDetail(student, null);
+  }
+
+  private StudentCourse createCourse(int courseId, String courseName, int statusId,
+      String status) {
+    StudentCourse course = new StudentCourse();
+    course.setId(courseId);
+    course.setCourseName(courseName);
+    ApplicationStatus applicationStatus = new ApplicationStatus();
+    applicationStatus.setId(statusId);
+    applicationStatus.setStudentCourseId(courseId);
+    applicationStatus.setStatus(status);
+    course.setApplicationStatus(applicationStatus);
+    return course;
+  }
+}
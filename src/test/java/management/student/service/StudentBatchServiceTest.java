@@ -0,0 +1,245 @@
+package management.student.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.Validation;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.BatchUpdateResult;
+import management.student.domain.StudentDetail;
+import management.student.repository.StudentBatchSession;
+import management.student.repository.StudentRepository;
+import management.student.validation.BatchValidator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+@ExtendWith(MockitoExtension.class)
+class StudentBatchServiceTest {
+
+  @Mock
+  private StudentBatchSession batchSession;
+
+  @Mock
+  private StudentRepository repository;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  private StudentBatchService sut;
+  private SimpleTransactionStatus firstSavepoint;
+  private SimpleTransactionStatus secondSavepoint;
+
+  @BeforeEach
+  void before() {
+    BatchValidator validator = new BatchValidator(
+        Validation.buildDefaultValidatorFactory().getValidator());
+    sut = new StudentBatchService(batchSession, validator, eventPublisher, transactionManager);
+    when(batchSession.getRepository()).thenReturn(repository);
+    firstSavepoint = new SimpleTransactionStatus();
+    secondSavepoint = new SimpleTransactionStatus();
+    when(transactionManager.getTransaction(any())).thenReturn(firstSavepoint, secondSavepoint);
+  }
+
+  @Test
+  void 既存の受講生がまとめて取得され入力された値だけが更新されること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(
+        List.of(createStudent(1, "佐藤"), createStudent(2, "鈴木")));
+    StudentDetail first = createUpdate(1);
+    first.getStudent().setRegion("東京");
+    StudentDetail second = createUpdate(2);
+    second.getStudent().setRemarks("備考");
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1, 1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(first, second));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(2);
+    assertThat(actual.getErrors()).isEmpty();
+    verify(repository, times(1)).searchStudentsByIds(anyList());
+    ArgumentCaptor<Student> captor = ArgumentCaptor.forClass(Student.class);
+    verify(repository, times(2)).updateStudent(captor.capture());
+    assertThat(captor.getAllValues()).extracting(Student::getName).containsExactly("佐藤", "鈴木");
+    assertThat(captor.getAllValues()).extracting(Student::getRegion)
+        .containsExactly("東京", "大阪");
+    InOrder inOrder = inOrder(repository, batchSession);
+    inOrder.verify(repository, times(2)).updateStudent(any(Student.class));
+    inOrder.verify(batchSession).flushAndGetUpdateCounts();
+    assertThat(firstSavepoint.isRollbackOnly()).isFalse();
+  }
+
+  @Test
+  void 入力エラーや存在しない受講生は要素ごとのエラーとなり他の受講生は更新されること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(List.of(createStudent(1, "佐藤")));
+    StudentDetail invalidEmail = createUpdate(2);
+    invalidEmail.getStudent().setEmail("invalid-email");
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1});
+    //実行
+    BatchUpdateResult actual = sut.update(
+        List.of(createUpdate(1), invalidEmail, createUpdate(3), createUpdate(1)));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(1, 2, 3);
+    assertThat(actual.getErrors().get(0).getMessages())
+        .containsExactly("student.email: メールアドレスが有効ではありません。");
+    assertThat(actual.getErrors().get(1).getMessages())
+        .containsExactly("Student with ID 3 not found");
+    assertThat(actual.getErrors().get(2).getMessages())
+        .containsExactly("student.id: 同じ受講生が複数指定されています");
+    verify(repository, times(1)).updateStudent(any(Student.class));
+  }
+
+  @Test
+  void 受講生コースと申込状況が存在確認なしで受講生と受講生コースを指定して更新されること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(List.of(createStudent(1, "佐藤")));
+    StudentDetail update = createUpdateWithCourse(1, 1, 1);
+    StudentCourse course = update.getStudentCourseList().getFirst();
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1, 1, 1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(update));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    verify(repository, times(1)).updateStudentCourseOfStudent(course, 1);
+    verify(repository, times(1)).updateApplicationStatusOfCourse(course.getApplicationStatus(),
+        1);
+    verify(repository, never()).searchApplicationStatusByID(any(Integer.class));
+  }
+
+  @Test
+  void 他の受講生の受講生コースを指定した要素はエラーとなり取り消されて他の要素が更新されること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(
+        List.of(createStudent(1, "佐藤"), createStudent(2, "鈴木")));
+    //受講生コース3は受講生2のもののため、受講生1の要素の受講生コースの更新が0件になる
+    StudentDetail notOwned = createUpdateWithCourse(1, 3, 3);
+    StudentDetail owned = createUpdateWithCourse(2, 4, 4);
+    //更新件数は受講生、受講生コース、申込状況の順に返る
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1, 1, 0, 1, 1, 1},
+        new int[]{1, 1, 1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(notOwned, owned));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(0);
+    assertThat(actual.getErrors().getFirst().getMessages())
+        .containsExactly("studentCourseList[0].id: 受講生コースID 3 は受講生 1 のものではありません");
+    assertThat(firstSavepoint.isRollbackOnly()).isTrue();
+    assertThat(secondSavepoint.isRollbackOnly()).isFalse();
+    verify(repository, times(1)).updateStudentCourseOfStudent(
+        notOwned.getStudentCourseList().getFirst(), 1);
+    verify(repository, times(2)).updateStudentCourseOfStudent(
+        owned.getStudentCourseList().getFirst(), 2);
+  }
+
+  @Test
+  void 同じSQLが続くように受講生と受講生コースと申込状況の順にまとめて溜められること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(
+        List.of(createStudent(1, "佐藤"), createStudent(2, "鈴木")));
+    StudentDetail first = createUpdateWithCourse(1, 1, 1);
+    StudentDetail second = createUpdateWithCourse(2, 3, 3);
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1, 1, 1, 1, 1, 1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(first, second));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(2);
+    InOrder inOrder = inOrder(repository, batchSession);
+    inOrder.verify(repository, times(2)).updateStudent(any(Student.class));
+    inOrder.verify(repository, times(2)).updateStudentCourseOfStudent(any(), any(Integer.class));
+    inOrder.verify(repository, times(2)).updateApplicationStatusOfCourse(any(),
+        any(Integer.class));
+    inOrder.verify(batchSession).flushAndGetUpdateCounts();
+  }
+
+  @Test
+  void 受講生コースにnullの要素がある場合は要素ごとのエラーとなること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(List.of(createStudent(1, "佐藤")));
+    StudentDetail withNullCourse = createUpdate(2);
+    withNullCourse.setStudentCourseList(Arrays.asList(new StudentCourse(), null));
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[]{1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(createUpdate(1), withNullCourse));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(1);
+    assertThat(actual.getErrors().getFirst().getMessages())
+        .containsExactly("studentCourseList[1]: 受講生コースを指定してください");
+  }
+
+  @Test
+  void SQLが失敗した要素はエラーとなり取り消されて他の要素が更新されること() {
+    when(repository.searchStudentsByIds(anyList())).thenReturn(
+        List.of(createStudent(1, "佐藤"), createStudent(2, "鈴木")));
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(
+        new int[]{1, Statement.EXECUTE_FAILED}, new int[]{1});
+    //実行
+    BatchUpdateResult actual = sut.update(List.of(createUpdate(1), createUpdate(2)));
+    //検証
+    assertThat(actual.getUpdatedCount()).isEqualTo(1);
+    assertThat(actual.getErrors()).extracting(BatchUpdateResult.ItemError::getIndex)
+        .containsExactly(1);
+    assertThat(actual.getErrors().getFirst().getMessages())
+        .containsExactly("Student with ID 2 could not be updated");
+    assertThat(firstSavepoint.isRollbackOnly()).isTrue();
+    assertThat(secondSavepoint.isRollbackOnly()).isFalse();
+    ArgumentCaptor<Student> captor = ArgumentCaptor.forClass(Student.class);
+    verify(repository, times(3)).updateStudent(captor.capture());
+    assertThat(captor.getAllValues()).extracting(Student::getId).containsExactly(1, 2, 1);
+  }
+
+  private Student createStudent(int id, String name) {
+    Student student = new Student();
+    student.setId(id);
+    student.setName(name);
+    student.setFurigana("かな");
+    student.setAge(20);
+    student.setGender("male");
+    student.setNickname("ニック");
+    student.setEmail("student" + id + "@example.com");
+    student.setRegion("大阪");
+    student.setPhoneNumber("09011112222");
+    student.setRemarks("");
+    return student;
+  }
+
+  private StudentDetail createUpdateWithCourse(int id, int courseId, int statusId) {
+    StudentCourse course = new StudentCourse();
+    course.setId(courseId);
+    course.setCourseName("Javaコース");
+    ApplicationStatus status = new ApplicationStatus();
+    status.setId(statusId);
+    status.setStudentCourseId(courseId);
+    status.setStatus("本申込");
+    course.setApplicationStatus(status);
+    StudentDetail update = createUpdate(id);
+    update.setStudentCourseList(List.of(course));
+    return update;
+  }
+
+  private StudentDetail createUpdate(int id) {
+    Student student = new Student();
+    student.setId(id);
+    return new StudentDetail(student, List.of());
+  }
+}
@@ -0,0 +1,93 @@
+package management.student.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+import management.student.converter.StudentConverter;
+import management.student.data.ApplicationStatus;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+import management.student.repository.InMemoryStudentRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * メモリ上のRepositoryを使い、DBの処理時間を含めずにサービス自体の処理時間を確認する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class StudentServiceBenchmark {
+
+  private static final int STUDENTS = 10_000;
+  private static final int COURSES_PER_STUDENT = 2;
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURE_ROUNDS = 5;
+
+  @Test
+  void サービスの処理ごとのスループットを確認する() {
+    StudentService sut = new StudentService(new InMemoryStudentRepository(),
+        new StudentConverter(), event -> {
+        });
+    long start = System.nanoTime();
+    for (int i = 1; i <= STUDENTS; i++) {
+      sut.register(newStudentDetail(i));
+    }
+    report("register", STUDENTS, System.nanoTime() - start);
+
+    measure("getStudentList", 10, i -> sut.getStudentList());
+    measure("getStudent", 100_000,
+        i -> sut.getStudent(ThreadLocalRandom.current().nextInt(STUDENTS) + 1));
+    measure("getStudentCourses(page)", 100_000,
+        i -> sut.getStudentCourses(ThreadLocalRandom.current().nextInt(STUDENTS) + 1, 0, 10));
+    measure("updateApplicationStatus", 100_000, i -> {
+      ApplicationStatus status = new ApplicationStatus();
+      status.setId(ThreadLocalRandom.current().nextInt(STUDENTS * COURSES_PER_STUDENT) + 1);
+      status.setStatus(i % 2 == 0 ? "本申込" : "受講中");
+      sut.update(status);
+    });
+  }
+
+  private static void measure(String name, int operations, IntConsumer operation) {
+    for (int round = 0; round < WARMUP_ROUNDS; round++) {
+      for (int i = 0; i < operations; i++) {
+        operation.accept(i);
+      }
+    }
+    long best = Long.MAX_VALUE;
+    for (int round = 0; round < MEASURE_ROUNDS; round++) {
+      long start = System.nanoTime();
+      for (int i = 0; i < operations; i++) {
+        operation.accept(i);
+      }
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    report(name, operations, best);
+  }
+
+  private static void report(String name, int operations, long nanos) {
+    System.out.printf("StudentService(inmemory) %s operations=%d total=%.2fms ops/s=%.0f%n",
+        name, operations, nanos / 1e6, operations / (nanos / 1e9));
+  }
+
+  private static StudentDetail newStudentDetail(int index) {
+    Student student = new Student();
+    student.setName("受講生 " + index);
+    student.setFurigana("じゅこうせい " + index);
+    student.setAge(20);
+    student.setGender("male");
+    student.setEmail("student" + index + "@example.com");
+    student.setRegion("東京");
+    List<StudentCourse> courses = new ArrayList<>();
+    for (int i = 0; i < COURSES_PER_STUDENT; i++) {
+      StudentCourse course = new StudentCourse();
+      course.setCourseName("コース " + i);
+      ApplicationStatus status = new ApplicationStatus();
+      status.setStatus("仮申し込み");
+      course.setApplicationStatus(status);
+      courses.add(course);
+    }
+    return new StudentDetail(student, courses);
+  }
+}
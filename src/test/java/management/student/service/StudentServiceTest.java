@@ -7,6 +7,9 @@ import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -18,18 +21,33 @@ import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import management.student.analytics.RosterChangedEvent;
+import management.student.cache.StudentDetailCache;
 import management.student.converter.StudentConverter;
 import management.student.data.ApplicationStatus;
 import management.student.data.Student;
 import management.student.data.StudentCourse;
+import management.student.domain.ApplicationStatusTransition;
+import management.student.domain.StudentCoursePage;
 import management.student.domain.StudentDetail;
+import management.student.domain.StudentPatch;
 import management.student.exception.StudentBizException;
 import management.student.repository.StudentRepository;
+import management.student.tracing.Tracer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.http.HttpStatus;
 
@@ -42,6 +60,9 @@ class StudentServiceTest {
   @Mock
   private StudentConverter converter;
 
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
   private StudentService sut;
   private Student mockStudent;
   private StudentCourse mockCourse;
@@ -49,7 +70,7 @@ class StudentServiceTest {
 
   @BeforeEach
   void before() {
-    sut = new StudentService(repository, converter);
+    sut = new StudentService(repository, converter, eventPublisher);
     mockStudent = new Student();
     mockStudent.setId(1);
     mockCourse = new StudentCourse();
@@ -98,6 +119,98 @@ class StudentServiceTest {
     verify(repository, times(1)).searchStudentCourseWithStatus(testId);
   }
 
+  @Test
+  void 受講生コースを含めない場合は受講生テーブルだけが検索されること() {
+    when(repository.searchStudentList()).thenReturn(List.of(mockStudent));
+    when(repository.searchStudentByID(1)).thenReturn(Optional.of(mockStudent));
+    //実行
+    List<StudentDetail> actualList = sut.getStudentList(false);
+    StudentDetail actual = sut.getStudent(1, false);
+    //検証
+    assertThat(actualList).extracting(StudentDetail::getStudent).containsExactly(mockStudent);
+    assertThat(actualList.get(0).getStudentCourseList()).isNull();
+    assertEquals(mockStudent, actual.getStudent());
+    assertThat(actual.getStudentCourseList()).isNull();
+    verify(repository, never()).searchStudentCourseWithStatus(any());
+    verify(converter, never()).convertStudentDetails(anyList(), anyList());
+  }
+
+  @Test
+  void 受講生コースが1件多く検索され次のページの有無が判定されること() {
+    List<StudentCourse> courses = List.of(new StudentCourse(), new StudentCourse(),
+        new StudentCourse());
+    when(repository.searchStudentByID(1)).thenReturn(Optional.of(mockStudent));
+    when(repository.searchStudentCourseWithStatusPage(1, 3, 4)).thenReturn(courses);
+    //実行
+    StudentCoursePage actual = sut.getStudentCourses(1, 2, 2);
+    //検証
+    assertThat(actual.getContent()).hasSize(2);
+    assertThat(actual.getPage()).isEqualTo(2);
+    assertThat(actual.getSize()).isEqualTo(2);
+    assertTrue(actual.isHasNext());
+  }
+
+  @Test
+  void 受講完了日が近い受講生コースが指定日数の範囲で検索されること() {
+    List<StudentCourse> courses = List.of(new StudentCourse());
+    ArgumentCaptor<LocalDateTime> endFrom = ArgumentCaptor.forClass(LocalDateTime.class);
+    ArgumentCaptor<LocalDateTime> endTo = ArgumentCaptor.forClass(LocalDateTime.class);
+    when(repository.searchStudentCourseWithStatusByEndDate(endFrom.capture(), endTo.capture(),
+        eq(50))).thenReturn(courses);
+    //実行
+    List<StudentCourse> actual = sut.getExpiringCourses(7, 50);
+    //検証
+    assertThat(actual).isSameAs(courses);
+    assertThat(endTo.getValue()).isEqualTo(endFrom.getValue().plusDays(7));
+  }
+
+  @Test
+  void 受講生の部分更新が更新前の検索をせずに行われイベントが発行されること() {
+    StudentPatch patch = new StudentPatch();
+    patch.setName("佐藤 一郎");
+    when(repository.patchStudent(1, patch)).thenReturn(1);
+    //実行
+    sut.patch(1, patch);
+    //検証
+    verify(repository, never()).searchStudentByID(anyInt());
+    ArgumentCaptor<RosterChangedEvent> event = ArgumentCaptor.forClass(RosterChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(event.capture());
+    assertThat(event.getValue().getStudentPatches()).containsEntry(1, patch);
+  }
+
+  @Test
+  void 存在しない受講生の部分更新でStudentBizExceptionが発生すること() {
+    StudentPatch patch = new StudentPatch();
+    patch.setAge(30);
+    when(repository.patchStudent(999, patch)).thenReturn(0);
+
+    StudentBizException exception = assertThrows(StudentBizException.class,
+        () -> sut.patch(999, patch));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void 更新する項目がない部分更新では受講生の存在だけが確認されること() {
+    when(repository.searchStudentByID(1)).thenReturn(Optional.of(mockStudent));
+
+    sut.patch(1, new StudentPatch());
+
+    verify(repository, never()).patchStudent(anyInt(), any());
+  }
+
+  @Test
+  void 存在しない受講生の受講生コースを取得時にStudentBizExceptionが発生すること() {
+    when(repository.searchStudentByID(999)).thenReturn(Optional.empty());
+
+    StudentBizException exception = assertThrows(StudentBizException.class,
+        () -> sut.getStudentCourses(999, 0, 20));
+
+    assertEquals(HttpStatus.NOT_FOUND, exception.getStatus());
+    verify(repository, never()).searchStudentCourseWithStatusPage(anyInt(), anyInt(), anyInt());
+  }
+
   @Test
   void 受講生の登録が正常に行われリポジトリが呼び出されること() {
     List<StudentCourse> mockCourses = new ArrayList<>();
@@ -335,6 +448,9 @@ class StudentServiceTest {
     sut.deleteApplicationStatus(1);
     //検証
     verify(repository, times(1)).deleteApplicationStatus(1);
+    ArgumentCaptor<RosterChangedEvent> captor = ArgumentCaptor.forClass(RosterChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(captor.capture());
+    assertThat(captor.getValue().getDeletedStatusIds()).containsExactly(1);
   }
 
   @Test
@@ -349,4 +465,119 @@ class StudentServiceTest {
     verify(repository, never()).deleteApplicationStatus(anyInt());
   }
 
-}
\ No newline at end of file
+  @Test
+  void 申込状況のID指定の一括更新がチャンクに分けて実行されること() {
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setIds(IntStream.rangeClosed(1, 1500).boxed().toList());
+    transition.setTargetStatus("本申込");
+    when(repository.updateApplicationStatusByIds(anyList(), isNull(), eq("本申込")))
+        .thenReturn(1000, 500);
+    //実行
+    int actual = sut.updateApplicationStatuses(transition);
+    //検証
+    assertThat(actual).isEqualTo(1500);
+    verify(repository, times(2)).updateApplicationStatusByIds(anyList(), isNull(), eq("本申込"));
+    verify(repository, never()).updateApplicationStatusByFilter(any(), any(), any(), any());
+  }
+
+  @Test
+  void 申込状況の条件指定の一括更新が対象がなくなるまで繰り返し実行されること() {
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setCourseName("バックエンド開発");
+    transition.setCurrentStatus("仮申し込み");
+    transition.setTargetStatus("本申込");
+    when(repository.updateApplicationStatusByFilter("バックエンド開発", "仮申し込み", "本申込",
+        StudentService.BULK_CHUNK_SIZE)).thenReturn(StudentService.BULK_CHUNK_SIZE, 5);
+    //実行
+    int actual = sut.updateApplicationStatuses(transition);
+    //検証
+    assertThat(actual).isEqualTo(StudentService.BULK_CHUNK_SIZE + 5);
+    verify(repository, times(2)).updateApplicationStatusByFilter("バックエンド開発", "仮申し込み",
+        "本申込", StudentService.BULK_CHUNK_SIZE);
+    ArgumentCaptor<RosterChangedEvent> captor = ArgumentCaptor.forClass(RosterChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(captor.capture());
+    assertThat(captor.getValue().getTransition()).isSameAs(transition);
+  }
+
+  @Test
+  void 申込状況の一括更新時にデータベースアクセスエラーでStudentBizExceptionが発生すること() {
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setCurrentStatus("仮申し込み");
+    transition.setTargetStatus("本申込");
+    doThrow(new DataAccessException("Test Exception") {
+    }).when(repository).updateApplicationStatusByFilter(any(), any(), any(), any());
+
+    StudentBizException thrown = assertThrows(StudentBizException.class, () -> {
+      sut.updateApplicationStatuses(transition);
+    });
+
+    assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, thrown.getStatus());
+  }
+
+  @Test
+  void 申込状況の一括更新が途中のチャンクで失敗した場合もコミット済みのチャンクの更新内容が伝えられること() {
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setCurrentStatus("仮申し込み");
+    transition.setTargetStatus("本申込");
+    when(repository.updateApplicationStatusByFilter(any(), any(), any(), any()))
+        .thenReturn(StudentService.BULK_CHUNK_SIZE)
+        .thenThrow(new DataAccessException("Test Exception") {
+        });
+
+    assertThrows(StudentBizException.class, () -> sut.updateApplicationStatuses(transition));
+
+    ArgumentCaptor<RosterChangedEvent> captor = ArgumentCaptor.forClass(RosterChangedEvent.class);
+    verify(eventPublisher, times(1)).publishEvent(captor.capture());
+    assertThat(captor.getValue().getTransition()).isSameAs(transition);
+  }
+
+  @Test
+  void 申込状況の一括更新が最初のチャンクで失敗した場合は更新内容が伝えられないこと() {
+    ApplicationStatusTransition transition = new ApplicationStatusTransition();
+    transition.setTargetStatus("本申込");
+    doThrow(new DataAccessException("Test Exception") {
+    }).when(repository).updateApplicationStatusByFilter(any(), any(), any(), any());
+
+    assertThrows(StudentBizException.class, () -> sut.updateApplicationStatuses(transition));
+
+    verify(eventPublisher, never()).publishEvent(any());
+  }
+
+  @Test
+  void 実行中の一覧の検索に合流した場合は検索を始める前の更新カウンターの値が記録されること()
+      throws Exception {
+    StudentWriteCounter writeCounter = new StudentWriteCounter();
+    StaticListableBeanFactory beans = new StaticListableBeanFactory();
+    sut = new StudentService(repository, converter, eventPublisher,
+        beans.getBeanProvider(StudentDetailCache.class), beans.getBeanProvider(Tracer.class),
+        writeCounter);
+    CountDownLatch loading = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(repository.searchStudentList()).thenAnswer(invocation -> {
+      loading.countDown();
+      release.await(5, TimeUnit.SECONDS);
+      return List.of(mockStudent);
+    });
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // 1つ目の呼び出しで検索を止めておき、その間に更新がコミットされた状態にする
+      executor.submit(() -> sut.getStudentList(false));
+      assertTrue(loading.await(5, TimeUnit.SECONDS));
+      writeCounter.onRosterChanged(RosterChangedEvent.builder().build());
+      Future<Long> follower = executor.submit(() -> {
+        long version = writeCounter.current();
+        writeCounter.startRead();
+        sut.getStudentList(false);
+        return writeCounter.finishRead(version);
+      });
+      // 後続の呼び出しが実行中の検索を待っている状態にする
+      Thread.sleep(100);
+      release.countDown();
+
+      assertThat(follower.get(5, TimeUnit.SECONDS)).isZero();
+      verify(repository, times(1)).searchStudentList();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,57 @@
+package management.student.snapshot;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 約100万行（受講生20万人、受講生コース40万件、申込状況40万件）のスナップショットの書き出しと復元の時間を確認する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class StudentSnapshotBenchmark {
+
+  private static final int STUDENTS = 200_000;
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void 約100万行の書き出しと復元の時間を確認する() throws IOException, SQLException {
+    JdbcDataSource source = StudentSnapshotTest.dataSource(false);
+    try (Connection connection = source.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO student (id, name, furigana, age, gender, nickname,"
+          + " email, region, phone_number, remarks, delete_flag)"
+          + " SELECT X, CONCAT('受講生 ', X), CONCAT('じゅこうせい ', X), MOD(X, 40) + 18,"
+          + " 'male', NULL, CONCAT('student', X, '@example.com'), '東京', '09000000000',"
+          + " NULL, 0 FROM SYSTEM_RANGE(1, " + STUDENTS + ")");
+      statement.executeUpdate("INSERT INTO student_courses (id, student_id, course_name,"
+          + " start_date, end_date) SELECT X, (X + 1) / 2, CONCAT('コース ', MOD(X, 10)),"
+          + " TIMESTAMP '2024-08-01 09:00:00', TIMESTAMP '2024-08-01 10:30:00'"
+          + " FROM SYSTEM_RANGE(1, " + STUDENTS * 2 + ")");
+      statement.executeUpdate("INSERT INTO application_status (id, student_course_id, status)"
+          + " SELECT X, X, '仮申込' FROM SYSTEM_RANGE(1, " + STUDENTS * 2 + ")");
+    }
+    Path file = directory.resolve("students.snap");
+
+    long start = System.nanoTime();
+    Map<String, Long> dumped = new StudentSnapshot(source).dump(file);
+    long dumpNanos = System.nanoTime() - start;
+    JdbcDataSource target = StudentSnapshotTest.dataSource(false);
+    start = System.nanoTime();
+    new StudentSnapshot(target).restore(file, false);
+    long restoreNanos = System.nanoTime() - start;
+
+    System.out.printf("StudentSnapshot rows=%s size=%.1fMB dump=%.2fs restore=%.2fs%n", dumped,
+        Files.size(file) / 1e6, dumpNanos / 1e9, restoreNanos / 1e9);
+  }
+}
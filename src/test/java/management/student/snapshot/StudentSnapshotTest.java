@@ -0,0 +1,159 @@
+package management.student.snapshot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class StudentSnapshotTest {
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void 書き出したスナップショットを空のDBに復元すると同じ行が登録されること()
+      throws IOException, SQLException {
+    JdbcDataSource source = dataSource(true);
+    try (Connection connection = source.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("UPDATE student SET delete_flag = 1, nickname = NULL,"
+          + " deleted_at = '2024-09-01 12:34:56' WHERE id = 2");
+    }
+    Path file = directory.resolve("students.snap");
+
+    Map<String, Long> dumped = new StudentSnapshot(source).dump(file);
+    JdbcDataSource target = dataSource(false);
+    Map<String, Long> restored = new StudentSnapshot(target).restore(file, false);
+
+    assertThat(restored).isEqualTo(dumped);
+    assertThat(dumped.get("student")).isEqualTo(5);
+    for (SnapshotTable table : SnapshotTable.values()) {
+      assertThat(rows(target, table)).isEqualTo(rows(source, table));
+    }
+    try (Connection connection = target.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(
+            "SELECT nickname, deleted_at FROM student WHERE id = 2")) {
+      resultSet.next();
+      assertThat(resultSet.getString(1)).isNull();
+      assertThat(resultSet.getObject(2, LocalDateTime.class))
+          .isEqualTo(LocalDateTime.of(2024, 9, 1, 12, 34, 56));
+    }
+  }
+
+  @Test
+  void 復元後に登録した受講生のIDがスナップショットの最大IDの次から採番されること()
+      throws IOException, SQLException {
+    Path file = directory.resolve("students.snap");
+    new StudentSnapshot(dataSource(true)).dump(file);
+    JdbcDataSource target = dataSource(false);
+    new StudentSnapshot(target).restore(file, false);
+
+    try (Connection connection = target.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("INSERT INTO student (name, furigana, gender, email)"
+          + " VALUES ('新規 太郎', 'しんき たろう', 'male', 'new@example.com')",
+          Statement.RETURN_GENERATED_KEYS);
+      try (ResultSet keys = statement.getGeneratedKeys()) {
+        keys.next();
+        assertThat(keys.getInt(1)).isEqualTo(6);
+      }
+    }
+  }
+
+  @Test
+  void 置き換えを指定した場合は既存の行を削除してから復元すること()
+      throws IOException, SQLException {
+    JdbcDataSource source = dataSource(true);
+    Path file = directory.resolve("students.snap");
+    new StudentSnapshot(source).dump(file);
+    try (Connection connection = source.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.executeUpdate("DELETE FROM student WHERE id = 5");
+      statement.executeUpdate("UPDATE student SET name = '変更 太郎' WHERE id = 1");
+    }
+
+    new StudentSnapshot(source).restore(file, true);
+
+    List<List<Object>> students = rows(source, SnapshotTable.STUDENT);
+    assertThat(students).hasSize(5);
+    assertThat(students.getFirst().get(1)).isEqualTo("佐藤 太郎");
+  }
+
+  @Test
+  void スナップショットではないファイルを復元しようとした場合は例外が発生し何も登録されないこと()
+      throws IOException, SQLException {
+    Path file = Files.writeString(directory.resolve("broken.snap"), "not a snapshot");
+    JdbcDataSource target = dataSource(false);
+
+    assertThatThrownBy(() -> new StudentSnapshot(target).restore(file, false))
+        .isInstanceOf(IOException.class);
+    assertThat(rows(target, SnapshotTable.STUDENT)).isEmpty();
+  }
+
+  @Test
+  void 途中で切れたスナップショットを復元しようとした場合はロールバックされること()
+      throws IOException, SQLException {
+    Path file = directory.resolve("students.snap");
+    new StudentSnapshot(dataSource(true)).dump(file);
+    byte[] bytes = Files.readAllBytes(file);
+    Path truncated = Files.write(directory.resolve("truncated.snap"),
+        Arrays.copyOf(bytes, bytes.length - 10));
+    JdbcDataSource target = dataSource(false);
+
+    assertThatThrownBy(() -> new StudentSnapshot(target).restore(truncated, false))
+        .isInstanceOf(IOException.class);
+    assertThat(rows(target, SnapshotTable.STUDENT)).isEmpty();
+  }
+
+  /**
+   * テスト用のスキーマで空のDBを作成する
+   * INITはコネクションごとに実行されるため、スクリプトは作成時に1度だけ実行する
+   */
+  static JdbcDataSource dataSource(boolean withData) throws SQLException {
+    JdbcDataSource dataSource = new JdbcDataSource();
+    dataSource.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute("RUNSCRIPT FROM 'classpath:schema.sql'");
+      if (withData) {
+        statement.execute("RUNSCRIPT FROM 'classpath:data.sql'");
+      }
+    }
+    return dataSource;
+  }
+
+  private static List<List<Object>> rows(JdbcDataSource dataSource, SnapshotTable table)
+      throws SQLException {
+    List<List<Object>> rows = new ArrayList<>();
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery(
+            "SELECT * FROM " + table.tableName() + " ORDER BY id")) {
+      int columnCount = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        List<Object> row = new ArrayList<>();
+        for (int i = 1; i <= columnCount; i++) {
+          row.add(resultSet.getObject(i));
+        }
+        rows.add(row);
+      }
+    }
+    return rows;
+  }
+}
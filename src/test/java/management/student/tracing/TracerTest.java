@@ -0,0 +1,171 @@
+package management.student.tracing;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import management.student.cache.StudentDetailCache;
+import management.student.converter.StudentConverter;
+import management.student.data.Student;
+import management.student.domain.StudentDetail;
+import management.student.repository.StudentRepository;
+import management.student.service.StudentService;
+import management.student.service.StudentWriteCounter;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class TracerTest {
+
+  private final Tracer sut = new Tracer(3);
+
+  @Test
+  void 区間が開始順に入れ子の深さとともに記録されること() {
+    sut.begin("GET", "/students/1");
+    int controller = sut.open(SpanKind.CONTROLLER, "controller");
+    int service = sut.open(SpanKind.SERVICE, "service");
+    sut.close(sut.open(SpanKind.SQL, "sql"));
+    sut.close(service);
+    sut.close(controller);
+
+    TraceRecord actual = sut.end(200);
+
+    assertThat(actual.getSpans())
+        .extracting(TraceSpan::getKind, TraceSpan::getName, TraceSpan::getDepth)
+        .containsExactly(tuple(SpanKind.CONTROLLER, "controller", 0),
+            tuple(SpanKind.SERVICE, "service", 1),
+            tuple(SpanKind.SQL, "sql", 2));
+    assertThat(actual.getSpans()).allSatisfy(span ->
+        assertThat(span.getDurationMillis()).isGreaterThanOrEqualTo(0));
+    assertThat(actual.getStatus()).isEqualTo(200);
+    assertThat(sut.isTracing()).isFalse();
+  }
+
+  @Test
+  void 上限を超えた区間は記録されず件数だけが記録されること() {
+    sut.begin("GET", "/students");
+    int controller = sut.open(SpanKind.CONTROLLER, "controller");
+    for (int i = 0; i < 4; i++) {
+      sut.close(sut.open(SpanKind.SQL, "sql" + i));
+    }
+    //記録しなかった区間の後も入れ子の深さがずれないこと
+    sut.close(sut.open(SpanKind.SERVICE, "service"));
+    sut.close(controller);
+
+    TraceRecord actual = sut.end(200);
+
+    assertThat(actual.getSpans()).extracting(TraceSpan::getName, TraceSpan::getDepth)
+        .containsExactly(tuple("controller", 0), tuple("sql0", 1), tuple("sql1", 1));
+    assertThat(actual.getDroppedSpans()).isEqualTo(3);
+  }
+
+  @Test
+  void トレース中でない場合は区間が記録されないこと() {
+    int span = sut.open(SpanKind.SQL, "sql");
+    sut.close(span);
+
+    assertThat(span).isEqualTo(Tracer.NOT_TRACED);
+    assertThat(sut.end(200)).isNull();
+  }
+
+  @Test
+  void アスペクトでサービスのメソッドが区間として記録されること() {
+    StudentRepository repository = Mockito.mock(StudentRepository.class);
+    Mockito.when(repository.searchApplicationStatusList()).thenReturn(List.of());
+    AspectJProxyFactory factory = new AspectJProxyFactory(new StudentService(repository,
+        new StudentConverter(), Mockito.mock(ApplicationEventPublisher.class)));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new TracingAspect(sut));
+    StudentService service = factory.getProxy();
+
+    service.getApplicationStatusList();
+    sut.begin("GET", "/applicationStatuses");
+    service.getApplicationStatusList();
+    TraceRecord actual = sut.end(200);
+
+    assertThat(actual.getSpans()).extracting(TraceSpan::getKind, TraceSpan::getName)
+        .containsExactly(tuple(SpanKind.SERVICE, "StudentService.getApplicationStatusList()"));
+  }
+
+  @Test
+  void 受講生詳細の更新で更新前の検索と値の統合が区間として記録されること() {
+    StudentRepository repository = Mockito.mock(StudentRepository.class);
+    Student existing = new Student();
+    existing.setId(1);
+    existing.setName("更新前 太郎");
+    Mockito.when(repository.searchStudentByID(1)).thenReturn(Optional.of(existing));
+    Mockito.when(repository.searchStudentCourseWithStatus(1)).thenReturn(List.of());
+    StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("tracer", sut));
+    AspectJProxyFactory factory = new AspectJProxyFactory(new StudentService(repository,
+        new StudentConverter(), Mockito.mock(ApplicationEventPublisher.class),
+        beans.getBeanProvider(StudentDetailCache.class), beans.getBeanProvider(Tracer.class),
+        new StudentWriteCounter()));
+    factory.setProxyTargetClass(true);
+    factory.addAspect(new TracingAspect(sut));
+    StudentService service = factory.getProxy();
+    Student updates = new Student();
+    updates.setId(1);
+
+    sut.begin("PUT", "/students");
+    service.update(new StudentDetail(updates, List.of()));
+    TraceRecord actual = sut.end(200);
+
+    assertThat(actual.getSpans()).extracting(TraceSpan::getName, TraceSpan::getDepth)
+        .containsExactly(
+            tuple("StudentService.update(StudentDetail)", 0),
+            tuple("StudentService.loadStudent(int)", 1),
+            tuple("StudentService.mergedStudent(StudentDetail,StudentDetail)", 1));
+  }
+
+  @Test
+  void 閾値以上かかったリクエストだけがトレースIDとともに保持されること() throws Exception {
+    TracingProperties properties = new TracingProperties();
+    properties.setSlowThreshold(Duration.ofMillis(20));
+    SlowTraceStore store = new SlowTraceStore(10);
+    TracingFilter filter = new TracingFilter(sut, store,
+        new ObjectMapper().registerModule(new JavaTimeModule()), properties);
+
+    filter.doFilter(new MockHttpServletRequest("GET", "/students"),
+        new MockHttpServletResponse(), new MockFilterChain());
+    MockHttpServletResponse slowResponse = new MockHttpServletResponse();
+    filter.doFilter(new MockHttpServletRequest("GET", "/students/1"), slowResponse,
+        (request, response) -> {
+          sut.close(sut.open(SpanKind.SQL, "StudentRepository.searchStudent"));
+          sleep(30);
+        });
+
+    List<TraceRecord> actual = store.recent(10);
+    assertThat(actual).extracting(TraceRecord::getPath).containsExactly("/students/1");
+    assertThat(actual.getFirst().getTraceId())
+        .isEqualTo(slowResponse.getHeader(TracingFilter.TRACE_ID_HEADER));
+    assertThat(actual.getFirst().getSpans()).extracting(TraceSpan::getName)
+        .containsExactly("StudentRepository.searchStudent");
+    assertThat(sut.isTracing()).isFalse();
+  }
+
+  @Test
+  void SQLの区間の名前からパッケージ名が除かれること() {
+    assertThat(TracingInterceptor.nameOf(
+        "management.student.repository.StudentRepository.updateStudent"))
+        .isEqualTo("StudentRepository.updateStudent");
+    assertThat(TracingInterceptor.nameOf("updateStudent")).isEqualTo("updateStudent");
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
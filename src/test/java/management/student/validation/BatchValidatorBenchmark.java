@@ -0,0 +1,64 @@
+package management.student.validation;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import management.student.domain.StudentDetail;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+/**
+ * 一括入力の検証を順番に実行した場合と並列に実行した場合の処理時間を比較する
+ * ./gradlew benchmark で実行する
+ */
+@Tag("benchmark")
+class BatchValidatorBenchmark {
+
+  private static final int WARMUP_ROUNDS = 3;
+  private static final int MEASURE_ROUNDS = 5;
+
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Test
+  void 一万件の検証時間を比較する() {
+    compare(10_000);
+  }
+
+  @Test
+  void 十万件の検証時間を比較する() {
+    compare(100_000);
+  }
+
+  private void compare(int size) {
+    List<StudentDetail> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      StudentDetail studentDetail = BatchValidatorTest.createValidStudentDetail(i);
+      if (i % 10 == 0) {
+        studentDetail.getStudent().setEmail("invalid-email-" + i);
+      }
+      items.add(studentDetail);
+    }
+    BatchValidator sequential = new BatchValidator(validator, Integer.MAX_VALUE);
+    BatchValidator parallel = new BatchValidator(validator);
+
+    long sequentialNanos = measure(sequential, items);
+    long parallelNanos = measure(parallel, items);
+    System.out.printf("BatchValidator rows=%d cores=%d sequential=%.1fms parallel=%.1fms "
+            + "speedup=%.2fx%n", size, Runtime.getRuntime().availableProcessors(),
+        sequentialNanos / 1e6, parallelNanos / 1e6, (double) sequentialNanos / parallelNanos);
+  }
+
+  private long measure(BatchValidator sut, List<StudentDetail> items) {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      sut.validate(items, OnCreate.class);
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURE_ROUNDS; i++) {
+      long start = System.nanoTime();
+      sut.validate(items, OnCreate.class);
+      best = Math.min(best, System.nanoTime() - start);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,100 @@
+package management.student.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import management.student.data.Student;
+import management.student.domain.StudentDetail;
+import org.junit.jupiter.api.Test;
+
+class BatchValidatorTest {
+
+  private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+  @Test
+  void エラーのある要素の番号ごとにエラーメッセージがまとめられること() {
+    BatchValidator sut = new BatchValidator(validator);
+    StudentDetail invalidEmail = createValidStudentDetail(1);
+    invalidEmail.getStudent().setEmail("invalid-email");
+    StudentDetail invalidPhone = createValidStudentDetail(2);
+    invalidPhone.getStudent().setPhoneNumber("1234");
+    List<StudentDetail> items = List.of(createValidStudentDetail(0), invalidEmail,
+        invalidPhone);
+    //実行
+    Map<Integer, List<String>> actual = sut.validate(items, OnUpdate.class);
+    //検証
+    assertThat(actual).containsOnlyKeys(1, 2);
+    assertThat(actual.get(1)).containsExactly("student.email: メールアドレスが有効ではありません。");
+    assertThat(actual.get(2)).containsExactly(
+        "student.phoneNumber: 電話番号は数字11桁またはハイフン含む13桁で入力してください");
+  }
+
+  @Test
+  void バリデーショングループごとの制約で検証されること() {
+    BatchValidator sut = new BatchValidator(validator);
+    StudentDetail noName = createValidStudentDetail(0);
+    noName.getStudent().setName("");
+
+    assertThat(sut.validate(List.of(noName), OnCreate.class).get(0))
+        .containsExactly("student.name: 名前は必須です");
+    assertThat(sut.validate(List.of(noName), OnUpdate.class)).isEmpty();
+  }
+
+  @Test
+  void 並列に検証した場合も順番に検証した場合と同じ結果になること() {
+    List<StudentDetail> items = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      StudentDetail studentDetail = createValidStudentDetail(i);
+      if (i % 7 == 0) {
+        studentDetail.getStudent().setEmail("invalid-email-" + i);
+      }
+      if (i % 11 == 0) {
+        studentDetail.getStudent().setPhoneNumber("0" + i);
+      }
+      items.add(studentDetail);
+    }
+
+    Map<Integer, List<String>> sequential = new BatchValidator(validator, Integer.MAX_VALUE)
+        .validate(items, OnCreate.class);
+    Map<Integer, List<String>> parallel = new BatchValidator(validator, 1)
+        .validate(items, OnCreate.class);
+
+    assertThat(parallel).isEqualTo(sequential);
+    assertThat(parallel.keySet()).isSorted();
+    // 7と11の倍数の件数（1000件中）
+    assertThat(parallel).hasSize(143 + 91 - 13);
+  }
+
+  @Test
+  void nullの要素がエラーとして扱われること() {
+    BatchValidator sut = new BatchValidator(validator);
+    List<StudentDetail> items = new ArrayList<>();
+    items.add(null);
+
+    assertThat(sut.validate(items, OnUpdate.class)).containsOnlyKeys(0);
+  }
+
+  /**
+   * 検証用の受講生詳細を作成する
+   *
+   * @param index 番号
+   * @return 受講生詳細
+   */
+  static StudentDetail createValidStudentDetail(int index) {
+    Student student = new Student();
+    student.setId(index + 1);
+    student.setName("佐藤" + index);
+    student.setFurigana("さとう");
+    student.setRegion("大阪");
+    student.setEmail("sample" + index + "@gmail.com");
+    student.setGender("male");
+    student.setNickname("さっちゃん");
+    student.setPhoneNumber("090-1111-1111");
+    student.setRemarks("");
+    return new StudentDetail(student, List.of());
+  }
+}
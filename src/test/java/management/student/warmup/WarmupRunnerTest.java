@@ -0,0 +1,113 @@
+package management.student.warmup;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.List;
+import management.student.converter.StudentConverter;
+import management.student.data.Student;
+import management.student.data.StudentCourse;
+import management.student.domain.StudentDetail;
+import management.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class WarmupRunnerTest {
+
+  @Mock
+  private StudentService service;
+
+  private StudentConverter converter;
+  private WarmupProperties properties;
+  private WarmupRunner sut;
+
+  @BeforeEach
+  void before() {
+    properties = new WarmupProperties();
+    properties.setHotStudentCount(2);
+    properties.setParallelism(2);
+    properties.setRounds(3);
+    properties.setPageSize(10);
+    converter = spy(new StudentConverter());
+    sut = new WarmupRunner(service, converter, new ObjectMapper(), properties);
+    //受講完了日の近い順に、受講生5、受講生5、受講生4の受講生コース
+    when(service.getExpiringCourses(30, 2)).thenReturn(
+        List.of(createCourse(5), createCourse(5), createCourse(4)));
+  }
+
+  @Test
+  void 受講完了日の近い受講生が読み込まれ件数を絞った一覧取得が指定回数繰り返されること() {
+    when(service.getStudent(anyInt(), anyBoolean()))
+        .thenAnswer(invocation -> createStudentDetail(invocation.getArgument(0)));
+    when(service.getExpiringCourses(30, 10)).thenReturn(List.of(createCourse(1)));
+
+    boolean actual = sut.warmUp();
+
+    assertThat(actual).isTrue();
+    verify(service, times(1)).getStudent(5, true);
+    verify(service, times(1)).getStudent(4, false);
+    verify(service, times(3)).getExpiringCourses(30, 10);
+    verify(service, never()).getStudentList(anyBoolean());
+  }
+
+  @Test
+  void 読み込んだ受講生だけで受講生一覧の変換とJSON変換が指定回数繰り返されること() {
+    when(service.getStudent(anyInt(), anyBoolean())).thenAnswer(invocation -> {
+      int id = invocation.getArgument(0);
+      return invocation.getArgument(1)
+          ? new StudentDetail(createStudent(id), List.of(createCourse(id)))
+          : new StudentDetail(createStudent(id), null);
+    });
+
+    boolean actual = sut.warmUp();
+
+    assertThat(actual).isTrue();
+    verify(converter, times(3)).convertStudentDetails(
+        argThat(students -> students.size() == 2), argThat(courses -> courses.size() == 2));
+  }
+
+  @Test
+  void 時間の上限に達した場合はウォームアップを中断すること() {
+    properties.setBudget(Duration.ofMillis(200));
+    when(service.getStudent(anyInt(), anyBoolean())).thenAnswer(invocation -> {
+      Thread.sleep(10_000);
+      return createStudentDetail(invocation.getArgument(0));
+    });
+
+    long started = System.nanoTime();
+    boolean actual = sut.warmUp();
+
+    assertThat(actual).isFalse();
+    assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(5));
+    verify(service, never()).getExpiringCourses(30, 10);
+  }
+
+  private static StudentCourse createCourse(int studentId) {
+    StudentCourse course = new StudentCourse();
+    course.setStudentId(studentId);
+    return course;
+  }
+
+  private static StudentDetail createStudentDetail(int id) {
+    return new StudentDetail(createStudent(id), null);
+  }
+
+  private static Student createStudent(int id) {
+    Student student = new Student();
+    student.setId(id);
+    return student;
+  }
+}
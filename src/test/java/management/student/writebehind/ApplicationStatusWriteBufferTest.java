@@ -0,0 +1,227 @@
+package management.student.writebehind;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Statement;
+import java.util.List;
+import management.student.analytics.RosterChangedEvent;
+import management.student.data.ApplicationStatus;
+import management.student.exception.StudentBizException;
+import management.student.repository.StudentBatchSession;
+import management.student.repository.StudentRepository;
+import management.student.service.StudentService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ApplicationStatusWriteBufferTest {
+
+  @Mock
+  private StudentService service;
+
+  @Mock
+  private StudentBatchSession batchSession;
+
+  @Mock
+  private StudentRepository repository;
+
+  @Mock
+  private PlatformTransactionManager transactionManager;
+
+  @Mock
+  private ApplicationEventPublisher eventPublisher;
+
+  private SimpleMeterRegistry registry;
+  private ApplicationStatusWriteBuffer sut;
+
+  @BeforeEach
+  void before() {
+    when(batchSession.getRepository()).thenReturn(repository);
+    //更新件数に失敗がない場合はすべて書き込めたものとする
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(new int[0]);
+    when(transactionManager.getTransaction(any())).thenAnswer(
+        invocation -> new SimpleTransactionStatus());
+    WriteBehindProperties properties = new WriteBehindProperties();
+    properties.setCapacity(3);
+    //件数による書き込みは別スレッドで行われるため、テストでは発生させない
+    properties.setBatchSize(100);
+    properties.setMaxAttempts(2);
+    registry = new SimpleMeterRegistry();
+    sut = new ApplicationStatusWriteBuffer(service, batchSession,
+        new TransactionTemplate(transactionManager), eventPublisher, properties, registry);
+  }
+
+  @Test
+  void 同じ申込状況への更新は最後のものだけが書き込まれること() {
+    sut.offer(status(1, "仮申し込み"));
+    sut.offer(status(2, "本申込"));
+    sut.offer(status(1, "受講中"));
+
+    assertThat(sut.pendingCount()).isEqualTo(2);
+    assertThat(sut.flush()).isEqualTo(2);
+
+    List<String> written = writtenStatuses(2);
+    assertThat(written).containsExactly("1:受講中", "2:本申込");
+    verify(batchSession).flushAndGetUpdateCounts();
+    verify(transactionManager).commit(any());
+    verify(eventPublisher).publishEvent(any(RosterChangedEvent.class));
+    assertThat(sut.pendingCount()).isZero();
+  }
+
+  @Test
+  void 受け付けた後に呼び出し元の申込状況を変更しても書き込む内容は変わらないこと() {
+    ApplicationStatus status = status(1, "仮申し込み");
+    sut.offer(status);
+    status.setStatus("本申込");
+
+    sut.flush();
+
+    assertThat(writtenStatuses(1)).containsExactly("1:仮申し込み");
+  }
+
+  @Test
+  void 存在しない申込状況の更新は受け付けられないこと() {
+    when(service.getApplicationStatusById(999)).thenThrow(
+        new StudentBizException("ApplicationStatus with ID 999 Not Found",
+            HttpStatus.NOT_FOUND));
+
+    assertThatThrownBy(() -> sut.offer(status(999, "本申込")))
+        .isInstanceOf(StudentBizException.class);
+    assertThat(sut.pendingCount()).isZero();
+  }
+
+  @Test
+  void 上限まで溜まっている場合は書き込んでから受け付けること() {
+    sut.offer(status(1, "本申込"));
+    sut.offer(status(2, "本申込"));
+    sut.offer(status(3, "本申込"));
+    //同じ申込状況への更新は件数が増えないため書き込まない
+    sut.offer(status(3, "受講中"));
+    verify(repository, never()).updateApplicationStatus(any());
+
+    sut.offer(status(4, "本申込"));
+
+    assertThat(writtenStatuses(3)).containsExactly("1:本申込", "2:本申込", "3:受講中");
+    assertThat(sut.pendingCount()).isEqualTo(1);
+  }
+
+  @Test
+  void 上限まで溜まっていて書き込みにも失敗する場合は書き込みを繰り返さずに503で断ること() {
+    sut.offer(status(1, "本申込"));
+    sut.offer(status(2, "本申込"));
+    sut.offer(status(3, "本申込"));
+    when(batchSession.flushAndGetUpdateCounts()).thenThrow(
+        new DataAccessResourceFailureException("connection lost"));
+
+    assertThatThrownBy(() -> sut.offer(status(4, "本申込")))
+        .isInstanceOfSatisfying(StudentBizException.class,
+            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+    //呼び出し元のスレッドでの書き込みは1回だけ
+    verify(batchSession, times(1)).flushAndGetUpdateCounts();
+    assertThat(sut.pendingCount()).isEqualTo(3);
+  }
+
+  @Test
+  void 書き込みに失敗した場合は書き込み中に受け付けた更新を上書きせずに溜めなおすこと() {
+    sut.offer(status(1, "本申込"));
+    sut.offer(status(2, "本申込"));
+    doAnswer(invocation -> {
+      sut.offer(status(1, "受講中"));
+      throw new DataAccessResourceFailureException("connection lost");
+    }).doReturn(new int[0]).when(batchSession).flushAndGetUpdateCounts();
+
+    assertThat(sut.flush()).isZero();
+    verify(transactionManager).rollback(any());
+    assertThat(sut.pendingCount()).isEqualTo(2);
+
+    assertThat(sut.flush()).isEqualTo(2);
+    assertThat(writtenStatuses(4))
+        .containsExactly("1:本申込", "2:本申込", "1:受講中", "2:本申込");
+  }
+
+  @Test
+  void 同期的な更新は溜まっている同じ申込状況の更新を破棄してから書き込むこと() {
+    sut.offer(status(1, "仮申し込み"));
+    sut.offer(status(2, "本申込"));
+
+    sut.writeThrough(status(1, "受講中"));
+    sut.flush();
+
+    verify(service).update(any(ApplicationStatus.class));
+    assertThat(writtenStatuses(1)).containsExactly("2:本申込");
+  }
+
+  @Test
+  void 終了時に溜まっている更新が書き込まれること() throws Exception {
+    sut.offer(status(1, "本申込"));
+
+    sut.close();
+
+    InOrder inOrder = inOrder(repository, batchSession);
+    inOrder.verify(repository).updateApplicationStatus(any());
+    inOrder.verify(batchSession).flushAndGetUpdateCounts();
+    assertThat(sut.pendingCount()).isZero();
+  }
+
+  @Test
+  void 失敗した行を除いた残りが書き込まれ失敗し続けた行は上限の回数で破棄されること() {
+    sut.offer(status(1, "本申込"));
+    sut.offer(status(2, "受講中"));
+    sut.offer(status(3, "本申込"));
+    when(batchSession.flushAndGetUpdateCounts()).thenReturn(
+        new int[]{1, Statement.EXECUTE_FAILED}, new int[]{1, 1},
+        new int[]{Statement.EXECUTE_FAILED});
+
+    //申込状況2だけが失敗し、残りの申込状況1と3は続けて書き込まれる
+    assertThat(sut.flush()).isEqualTo(2);
+    assertThat(sut.pendingCount()).isEqualTo(1);
+    //2回目の失敗で破棄される
+    assertThat(sut.flush()).isZero();
+    assertThat(sut.pendingCount()).isZero();
+
+    assertThat(writtenStatuses(6)).containsExactly(
+        "1:本申込", "2:受講中", "3:本申込", "1:本申込", "3:本申込", "2:受講中");
+    verify(eventPublisher, times(1)).publishEvent(any(RosterChangedEvent.class));
+    assertThat(registry.get("student.write-behind.updates").tag("outcome", "dropped")
+        .counter().count()).isEqualTo(1);
+  }
+
+  private List<String> writtenStatuses(int count) {
+    ArgumentCaptor<ApplicationStatus> captor = ArgumentCaptor.forClass(ApplicationStatus.class);
+    verify(repository, times(count)).updateApplicationStatus(captor.capture());
+    return captor.getAllValues().stream()
+        .map(status -> status.getId() + ":" + status.getStatus())
+        .toList();
+  }
+
+  private static ApplicationStatus status(int id, String value) {
+    ApplicationStatus status = new ApplicationStatus();
+    status.setId(id);
+    status.setStudentCourseId(id);
+    status.setStatus(value);
+    return status;
+  }
+}
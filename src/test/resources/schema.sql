@@ -1,3 +1,6 @@
+-- テスト用のスキーマ（本番のスキーマは src/main/resources/db/migration のマイグレーションで作成する）
+-- インデックスを変更した場合は、こちらにも同じものを追加する
+
 -- studentsテーブルが存在しない場合に作成
 CREATE TABLE IF NOT EXISTS student (
     id INT NOT NULL AUTO_INCREMENT,
@@ -11,9 +14,12 @@ CREATE TABLE IF NOT EXISTS student (
     phone_number VARCHAR(15) DEFAULT NULL,
     remarks VARCHAR(255) DEFAULT NULL,
     delete_flag INT DEFAULT 0,
+    deleted_at TIMESTAMP NULL DEFAULT NULL,
     PRIMARY KEY (id),
     UNIQUE (email)
 );
+-- 論理削除されていない受講生の検索用
+CREATE INDEX IF NOT EXISTS idx_student_delete_flag ON student (delete_flag, id);
 
 -- student_coursesテーブルが存在しない場合に作成
 -- MySQLとh2では使用できる構文に少し違いがるので注意
@@ -26,6 +32,10 @@ CREATE TABLE IF NOT EXISTS student_courses (
     PRIMARY KEY (id),
     FOREIGN KEY (student_id) REFERENCES student(id) ON DELETE CASCADE
 );
+-- 受講完了日の範囲検索（コースの期限切れ処理）用
+CREATE INDEX IF NOT EXISTS idx_student_courses_end_date ON student_courses (end_date, id);
+-- コース名での絞り込み用
+CREATE INDEX IF NOT EXISTS idx_student_courses_course_name ON student_courses (course_name, id);
 
 -- application_statusesテーブル
 CREATE TABLE IF NOT EXISTS application_status (
@@ -34,4 +44,64 @@ CREATE TABLE IF NOT EXISTS application_status (
     status VARCHAR(20) NOT NULL,
     PRIMARY KEY (id),
     FOREIGN KEY (student_course_id) REFERENCES student_courses(id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+-- 受講生コースとの結合とステータスでの絞り込み用
+CREATE INDEX IF NOT EXISTS idx_application_status_course_status ON application_status (student_course_id, status);
+CREATE INDEX IF NOT EXISTS idx_application_status_status ON application_status (status);
+
+-- 論理削除された受講生のアーカイブ用テーブル
+CREATE TABLE IF NOT EXISTS student_archive (
+    id INT NOT NULL,
+    name VARCHAR(50) NOT NULL,
+    furigana VARCHAR(50) NOT NULL,
+    age INT DEFAULT NULL,
+    gender VARCHAR(20) NOT NULL,
+    nickname VARCHAR(50) DEFAULT NULL,
+    email VARCHAR(100) NOT NULL,
+    region VARCHAR(100) DEFAULT NULL,
+    phone_number VARCHAR(15) DEFAULT NULL,
+    remarks VARCHAR(255) DEFAULT NULL,
+    deleted_at TIMESTAMP NULL DEFAULT NULL,
+    archived_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS student_courses_archive (
+    id INT NOT NULL,
+    student_id INT NOT NULL,
+    course_name VARCHAR(50) NOT NULL,
+    start_date TIMESTAMP NOT NULL,
+    end_date TIMESTAMP NULL DEFAULT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE IF NOT EXISTS application_status_archive (
+    id INT NOT NULL,
+    student_course_id INT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- 冪等キーの記録
+CREATE TABLE IF NOT EXISTS idempotency_record (
+    idempotency_key VARCHAR(64) NOT NULL,
+    request_hash CHAR(64) NOT NULL,
+    status_code INT DEFAULT NULL,
+    response_body TEXT DEFAULT NULL,
+    created_at TIMESTAMP NOT NULL,
+    expires_at TIMESTAMP NOT NULL,
+    pending_until TIMESTAMP NULL DEFAULT NULL,
+    owner CHAR(36) DEFAULT NULL,
+    PRIMARY KEY (idempotency_key)
+);
+CREATE INDEX IF NOT EXISTS idx_idempotency_record_expires_at ON idempotency_record (expires_at);
+
+-- ノード間のキャッシュの削除対象の記録
+CREATE TABLE IF NOT EXISTS cache_invalidation_log (
+    id BIGINT NOT NULL AUTO_INCREMENT,
+    target VARCHAR(20) NOT NULL,
+    target_id INT DEFAULT NULL,
+    created_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX IF NOT EXISTS idx_cache_invalidation_log_created_at ON cache_invalidation_log (created_at);